@@ -0,0 +1,84 @@
+package com.example.project1.config.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 여러 요청 스레드가 이벤트를 넣고, 저널 writer 스레드 하나만 꺼내가는 락 없는 링 버퍼
+// 슬롯마다 sequence 를 두고 생산자는 tail 을 CAS 로 선점한 뒤 값을 쓰고 sequence 를 올려서 공개한다.
+// 이벤트 객체를 만들지 않도록 슬롯 값은 배열에 나눠서 보관한다.
+// 버퍼가 가득 차면 요청 스레드를 막지 않고 이벤트를 버린다.
+class AuditRingBuffer {
+
+    // writer 스레드가 꺼낸 이벤트를 받는 콜백
+    interface Sink {
+        void accept(byte type, long epochMillis, String subject);
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final byte[] types;
+    private final long[] times;
+    private final String[] subjects;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // writer 스레드만 접근
+    private long head;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.types = new byte[size];
+        this.times = new long[size];
+        this.subjects = new String[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(byte type, long epochMillis, String subject) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    types[index] = type;
+                    times[index] = epochMillis;
+                    subjects[index] = subject;
+                    // 값을 모두 쓴 뒤에 sequence 를 올려야 writer 가 완성된 슬롯만 읽는다.
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // 최대 limit 개의 이벤트를 꺼내서 sink 에 넘기고 꺼낸 개수를 반환
+    int drain(Sink sink, int limit) {
+        int count = 0;
+        while (count < limit) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            sink.accept(types[index], times[index], subjects[index]);
+            subjects[index] = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            count++;
+        }
+        return count;
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+}
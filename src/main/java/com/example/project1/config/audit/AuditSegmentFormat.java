@@ -0,0 +1,43 @@
+package com.example.project1.config.audit;
+
+import java.nio.file.Path;
+
+// 감사 저널 세그먼트 파일 형식
+//
+// [세그먼트 헤더] magic(int) + version(int)
+// [레코드]       length(int) + type(byte) + epochMillis(long) + subjectLength(short) + subject(UTF-8)
+//
+// 세그먼트 파일은 미리 정해진 크기로 만들어지고 0 으로 채워져 있어서 length 가 0 이면 아직 쓰이지 않은 영역이다.
+// writer 는 나머지 값을 먼저 쓰고 length 를 마지막에 써서, 읽는 쪽이 반쯤 쓰인 레코드를 보지 않게 한다.
+final class AuditSegmentFormat {
+
+    static final int MAGIC = 0x41554431; // "AUD1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    // length + type + epochMillis + subjectLength
+    static final int RECORD_FIXED_BYTES = 4 + 1 + 8 + 2;
+    static final int MAX_SUBJECT_BYTES = 512;
+
+    private static final String PREFIX = "auth-audit-";
+    private static final String SUFFIX = ".seg";
+
+    private AuditSegmentFormat() {
+    }
+
+    static Path segmentPath(Path dir, long index) {
+        return dir.resolve(String.format("%s%012d%s", PREFIX, index, SUFFIX));
+    }
+
+    // 세그먼트 파일 이름에서 번호를 꺼낸다. 세그먼트 파일이 아니면 -1
+    static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.project1.config.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+// 회원가입, 로그인 성공/실패, 토큰 재발급, 로그아웃, 소셜 자동 회원가입을 기록하는 append-only 감사 저널
+// 요청 스레드는 링 버퍼에 이벤트를 넣기만 하고(수십 ns),
+// 파일에 쓰는 일은 writer 스레드 하나가 메모리 매핑된 세그먼트 파일에 몰아서 처리한다.
+// 세그먼트가 가득 차면 다음 번호의 세그먼트로 넘어간다.
+// 저장된 내용은 AuthAuditReader 로 읽을 수 있다.
+@Slf4j
+@Component
+public class AuthAuditJournal {
+
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int DRAIN_BATCH = 1024;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    private final AuditRingBuffer ring;
+    private final AuditRingBuffer.Sink sink = this::write;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // writer 스레드만 접근
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+    private boolean dirty;
+    private long lastForce;
+
+    public AuthAuditJournal(@Value("${audit.journal.enabled:true}") boolean enabled,
+                            @Value("${audit.journal.dir:./audit}") String dir,
+                            @Value("${audit.journal.segment-bytes:67108864}") int segmentBytes,
+                            @Value("${audit.journal.ring-size:65536}") int ringSize) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.segmentBytes = segmentBytes;
+        this.ring = new AuditRingBuffer(ringSize);
+    }
+
+    // 요청 스레드에서 호출
+    // 버퍼가 가득 찼거나 저널이 꺼져 있으면 기록하지 않고 바로 돌아간다.
+    public void record(AuthAuditType type, String subject) {
+        if (running) {
+            ring.offer(type.getCode(), System.currentTimeMillis(), subject);
+        }
+    }
+
+    public long getDropped() {
+        return ring.getDropped();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(dir);
+        openLatestSegment();
+
+        running = true;
+        writer = new Thread(this::runWriter, "auth-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void runWriter() {
+        lastForce = System.nanoTime();
+        while (running) {
+            try {
+                int drained = ring.drain(sink, DRAIN_BATCH);
+                if (drained == 0) {
+                    forceIfDue();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            } catch (RuntimeException e) {
+                // writer 스레드가 죽으면 이후 이벤트가 모두 버려지므로 로그만 남기고 계속 진행
+                log.error("감사 저널 기록 중 오류가 발생했습니다. : {}", e.getMessage());
+            }
+        }
+        // 종료 직전에 남아 있는 이벤트까지 모두 기록
+        while (ring.drain(sink, DRAIN_BATCH) > 0) {
+            // 계속 비운다.
+        }
+        segment.force();
+    }
+
+    private void write(byte type, long epochMillis, String subject) {
+        byte[] subjectBytes = subject == null ? new byte[0] : subject.getBytes(StandardCharsets.UTF_8);
+        int subjectLength = Math.min(subjectBytes.length, AuditSegmentFormat.MAX_SUBJECT_BYTES);
+        int length = AuditSegmentFormat.RECORD_FIXED_BYTES + subjectLength;
+
+        try {
+            // 다음 레코드의 length 자리(0)까지 남겨둬야 읽는 쪽이 끝을 알 수 있다.
+            if (segment.remaining() < length + 4) {
+                roll();
+            }
+        } catch (IOException e) {
+            log.error("감사 저널 세그먼트를 만들지 못했습니다. : {}", e.getMessage());
+            return;
+        }
+
+        int start = segment.position();
+        segment.position(start + 4);
+        segment.put(type);
+        segment.putLong(epochMillis);
+        segment.putShort((short) subjectLength);
+        segment.put(subjectBytes, 0, subjectLength);
+        segment.putInt(start, length);
+        dirty = true;
+    }
+
+    private void forceIfDue() {
+        long now = System.nanoTime();
+        if (dirty && now - lastForce >= FORCE_INTERVAL_NANOS) {
+            segment.force();
+            dirty = false;
+            lastForce = now;
+        }
+    }
+
+    private void roll() throws IOException {
+        segment.force();
+        segmentIndex++;
+        segment = map(AuditSegmentFormat.segmentPath(dir, segmentIndex), true);
+    }
+
+    // 재시작하면 마지막 세그먼트의 끝(length 가 0 인 위치)부터 이어서 쓴다.
+    private void openLatestSegment() throws IOException {
+        long latest = -1;
+        try (Stream<Path> files = Files.list(dir)) {
+            latest = files.mapToLong(AuditSegmentFormat::segmentIndex).max().orElse(-1);
+        }
+
+        if (latest < 0) {
+            segmentIndex = 0;
+            segment = map(AuditSegmentFormat.segmentPath(dir, segmentIndex), true);
+            return;
+        }
+
+        segmentIndex = latest;
+        segment = map(AuditSegmentFormat.segmentPath(dir, segmentIndex), false);
+        int position = AuditSegmentFormat.HEADER_BYTES;
+        while (position + 4 <= segment.limit()) {
+            int length = segment.getInt(position);
+            if (length <= 0) {
+                break;
+            }
+            position += length;
+        }
+        segment.position(position);
+    }
+
+    private MappedByteBuffer map(Path path, boolean create) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            if (create) {
+                buffer.putInt(AuditSegmentFormat.MAGIC);
+                buffer.putInt(AuditSegmentFormat.VERSION);
+            } else {
+                buffer.position(AuditSegmentFormat.HEADER_BYTES);
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.project1.config.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 감사 저널 세그먼트를 읽어서 사람이 볼 수 있는 형태로 출력하는 도구
+// 애플리케이션과 별개로 실행한다.
+//
+//   ./gradlew auditTail --args="./audit"            저장된 이벤트 전체 출력
+//   ./gradlew auditTail --args="./audit --follow"   이후 새로 쌓이는 이벤트까지 계속 출력
+public class AuthAuditReader {
+
+    private static final long FOLLOW_INTERVAL_MILLIS = 200;
+
+    // 읽어온 이벤트 한 건
+    public static class Record {
+        private final AuthAuditType type;
+        private final long epochMillis;
+        private final String subject;
+
+        Record(AuthAuditType type, long epochMillis, String subject) {
+            this.type = type;
+            this.epochMillis = epochMillis;
+            this.subject = subject;
+        }
+
+        public AuthAuditType getType() {
+            return type;
+        }
+
+        public long getEpochMillis() {
+            return epochMillis;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        @Override
+        public String toString() {
+            return Instant.ofEpochMilli(epochMillis) + " " + type + " " + subject;
+        }
+    }
+
+    private final Path dir;
+    // 다음에 읽을 위치
+    private long segmentIndex = -1;
+    private long position = AuditSegmentFormat.HEADER_BYTES;
+
+    public AuthAuditReader(Path dir) {
+        this.dir = dir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: AuthAuditReader <journal-dir> [--follow]");
+            System.exit(1);
+        }
+        AuthAuditReader reader = new AuthAuditReader(Paths.get(args[0]));
+        boolean follow = args.length > 1 && "--follow".equals(args[1]);
+
+        do {
+            if (reader.poll(System.out::println) == 0 && follow) {
+                Thread.sleep(FOLLOW_INTERVAL_MILLIS);
+            }
+        } while (follow);
+    }
+
+    // 마지막으로 읽은 위치 이후에 쌓인 레코드를 모두 읽고 읽은 개수를 반환
+    public int poll(Consumer<Record> consumer) throws IOException {
+        List<Long> segments = listSegments();
+        int count = 0;
+
+        for (long index : segments) {
+            if (index < segmentIndex) {
+                continue;
+            }
+            if (index > segmentIndex) {
+                segmentIndex = index;
+                position = AuditSegmentFormat.HEADER_BYTES;
+            }
+            count += readSegment(AuditSegmentFormat.segmentPath(dir, index), consumer);
+        }
+        return count;
+    }
+
+    private int readSegment(Path path, Consumer<Record> consumer) throws IOException {
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(AuditSegmentFormat.HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < AuditSegmentFormat.HEADER_BYTES
+                    || header.getInt() != AuditSegmentFormat.MAGIC) {
+                throw new IOException("감사 저널 세그먼트가 아닙니다. : " + path);
+            }
+
+            ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+            while (true) {
+                lengthBuffer.clear();
+                if (channel.read(lengthBuffer, position) < 4) {
+                    break;
+                }
+                int length = lengthBuffer.getInt(0);
+                if (length <= 0) {
+                    break;
+                }
+
+                ByteBuffer body = ByteBuffer.allocate(length - 4);
+                channel.read(body, position + 4);
+                body.flip();
+
+                AuthAuditType type = AuthAuditType.fromCode(body.get());
+                long epochMillis = body.getLong();
+                int subjectLength = body.getShort();
+                byte[] subject = new byte[subjectLength];
+                body.get(subject);
+
+                consumer.accept(new Record(type, epochMillis, new String(subject, StandardCharsets.UTF_8)));
+                position += length;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(AuditSegmentFormat::segmentIndex)
+                    .filter(index -> index >= 0)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.project1.config.audit;
+
+// 감사 저널에 남기는 인증 이벤트 종류
+// 저널에는 ordinal 대신 code 를 1바이트로 저장하므로 순서를 바꾸거나 code 를 재사용하면 안 된다.
+public enum AuthAuditType {
+    SIGNUP(1),
+    LOGIN_SUCCESS(2),
+    LOGIN_FAILURE(3),
+    REFRESH(4),
+    LOGOUT(5),
+    OAUTH_SIGNUP(6),
+    SESSION_REVOKED(7),
+    // 관리자가 회원의 권한(userType)을 바꿈, subject 는 대상 회원
+    ROLE_CHANGED(8);
+
+    private static final AuthAuditType[] BY_CODE = new AuthAuditType[128];
+
+    static {
+        for (AuthAuditType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    AuthAuditType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    // 알 수 없는 code 면 null
+    public static AuthAuditType fromCode(byte code) {
+        return code < 0 ? null : BY_CODE[code];
+    }
+}
@@ -5,7 +5,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,8 +21,8 @@ import java.util.Map;
 
 @Setter
 @Getter
-@ToString
-@Slf4j
+// member 에는 비밀번호 해시가, attributes 에는 소셜 프로필이 들어 있어서 toString 에서 뺀다.
+@ToString(exclude = {"member", "attributes"})
 @NoArgsConstructor
 @Component
 public class PrincipalDetails implements UserDetails, OAuth2User {
@@ -70,7 +69,6 @@ public class PrincipalDetails implements UserDetails, OAuth2User {
     public Collection<? extends GrantedAuthority> getAuthorities() {
         Collection<GrantedAuthority> collection = new ArrayList<>();
         collection.add(new SimpleGrantedAuthority("ROLE_" + member.getUserType().toString()));
-        log.info("collection : " + collection);
         return collection;
     }
 
@@ -78,14 +76,12 @@ public class PrincipalDetails implements UserDetails, OAuth2User {
     // 사용자 패스워드를 반환
     @Override
     public String getPassword() {
-        log.info("password : "+ member.getUserPw());
         return member.getUserPw();
     }
 
     // 사용자 이름 반환
     @Override
     public String getUsername() {
-        log.info("id : " + member.getUserEmail());
         return member.getUserEmail();
     }
 
@@ -123,7 +119,6 @@ public class PrincipalDetails implements UserDetails, OAuth2User {
 
     @Override
     public Map<String, Object> getAttributes() {
-        log.info("attributes : " + attributes);
         return attributes;
     }
 
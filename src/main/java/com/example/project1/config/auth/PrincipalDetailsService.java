@@ -2,8 +2,9 @@ package com.example.project1.config.auth;
 
 import com.example.project1.entity.member.MemberEntity;
 import com.example.project1.repository.member.MemberRepository;
+import com.example.project1.config.log.LogSite;
+import com.example.project1.config.log.SecureLog;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,9 +21,11 @@ import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class PrincipalDetailsService implements UserDetailsService {
 
+    private static final SecureLog log = SecureLog.of(PrincipalDetailsService.class);
+    private static final LogSite USER_LOADED = LogSite.of("user in PrincipalDetailsService : {}", 10);
+
     private final MemberRepository memberRepository;
 
     // 시큐리티 session = Authentication = UserDetails
@@ -30,7 +33,7 @@ public class PrincipalDetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String userEmail) throws UsernameNotFoundException {
         MemberEntity member = memberRepository.findByUserEmail(userEmail);
-        log.info("user in PrincipalDetailsService : " + member);
+        log.debug(USER_LOADED, userEmail);
         return new PrincipalDetails(member);
     }
 }
@@ -0,0 +1,104 @@
+package com.example.project1.config.capture;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+// JSON body 에서 값은 버리고 필드 이름과 타입만 남긴 모양
+//   {"userEmail":"a@b.com","userPw":"1234","addressDTO":{"userAddr":"서울"}}
+//   → {userEmail:s,userPw:s,addressDTO:{userAddr:s}}
+// s : 문자열, n : 숫자, b : true/false, z : null, [..] : 배열(첫 원소의 모양)
+// 캡처한 요청의 주인을 구분하기 위해서 최상위 userEmail 값만 따로 꺼내 두고, 파일에는 익명 id 로만 남긴다.
+class BodyShape {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String ACCOUNT_FIELD = "userEmail";
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_LENGTH = 512;
+
+    final String shape;
+    final String account;
+
+    private BodyShape(String shape, String account) {
+        this.shape = shape;
+        this.account = account;
+    }
+
+    // JSON 이 아니거나 비어 있으면 null
+    static BodyShape of(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            StringBuilder shape = new StringBuilder();
+            String[] account = new String[1];
+            append(parser, token, shape, 0, account);
+            if (shape.length() > MAX_LENGTH) {
+                shape.setLength(MAX_LENGTH);
+            }
+            return new BodyShape(shape.toString(), account[0]);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void append(JsonParser parser, JsonToken token, StringBuilder shape,
+                               int depth, String[] account) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                if (depth >= MAX_DEPTH) {
+                    shape.append("{..}");
+                    parser.skipChildren();
+                    return;
+                }
+                shape.append('{');
+                boolean first = true;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (depth == 0 && ACCOUNT_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                        account[0] = parser.getText().trim().toLowerCase();
+                    }
+                    if (!first) {
+                        shape.append(',');
+                    }
+                    first = false;
+                    shape.append(field).append(':');
+                    append(parser, value, shape, depth + 1, account);
+                }
+                shape.append('}');
+                return;
+            case START_ARRAY:
+                shape.append('[');
+                JsonToken element = parser.nextToken();
+                if (element != JsonToken.END_ARRAY) {
+                    append(parser, element, shape, depth + 1, account);
+                    // 나머지 원소는 모양을 남기지 않는다.
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+                shape.append(']');
+                return;
+            case VALUE_STRING:
+                shape.append('s');
+                return;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                shape.append('n');
+                return;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                shape.append('b');
+                return;
+            default:
+                shape.append('z');
+        }
+    }
+}
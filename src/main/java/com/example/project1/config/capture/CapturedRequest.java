@@ -0,0 +1,38 @@
+package com.example.project1.config.capture;
+
+import lombok.Getter;
+import lombok.ToString;
+
+// 캡처 파일에서 읽은 요청 하나
+// 토큰, 비밀번호, 이메일 같은 값은 남기지 않고 경로 템플릿, body 모양, 익명화된 subject 만 가진다.
+@Getter
+@ToString
+public class CapturedRequest {
+
+    // 캡처 시작부터 요청이 도착할 때까지 걸린 시간 (µs)
+    private final long offsetMicros;
+    private final String method;
+    private final String route;
+    private final int status;
+    private final long durationMicros;
+    // 같은 캡처 파일 안에서만 같은 사용자를 같은 값으로 가리키는 익명 id (0 이면 알 수 없음)
+    private final int subject;
+    private final String shape;
+    private final int flags;
+
+    public CapturedRequest(long offsetMicros, String method, String route, int status,
+                           long durationMicros, int subject, String shape, int flags) {
+        this.offsetMicros = offsetMicros;
+        this.method = method;
+        this.route = route;
+        this.status = status;
+        this.durationMicros = durationMicros;
+        this.subject = subject;
+        this.shape = shape;
+        this.flags = flags;
+    }
+
+    public boolean hasFlag(int flag) {
+        return (flags & flag) != 0;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.project1.config.capture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// .tcap 캡처 파일을 읽어서 도착 순서로 정렬한 요청 목록
+// 재현 도구(perf 소스셋의 TrafficReplay)에서 사용하고, 단독으로 실행하면 경로별 요약을 출력한다.
+//
+//   ./gradlew trafficSummary --args="./capture/traffic-20240101-120000.tcap"
+public class TrafficCapture {
+
+    private final long startEpochMillis;
+    private final List<CapturedRequest> requests;
+
+    private TrafficCapture(long startEpochMillis, List<CapturedRequest> requests) {
+        this.startEpochMillis = startEpochMillis;
+        this.requests = requests;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public List<CapturedRequest> getRequests() {
+        return requests;
+    }
+
+    public static TrafficCapture read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != TrafficCaptureFormat.MAGIC) {
+                throw new IOException("트래픽 캡처 파일이 아닙니다. : " + file);
+            }
+            short version = in.readShort();
+            if (version != TrafficCaptureFormat.VERSION) {
+                throw new IOException("지원하지 않는 캡처 파일 버전입니다. : " + version);
+            }
+            long startEpochMillis = in.readLong();
+
+            Map<Integer, String> routes = new HashMap<>();
+            Map<Integer, String> shapes = new HashMap<>();
+            List<CapturedRequest> requests = new ArrayList<>();
+            while (true) {
+                int tag;
+                try {
+                    tag = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    if (tag == TrafficCaptureFormat.TAG_ROUTE) {
+                        routes.put((int) TrafficCaptureFormat.readVarLong(in), in.readUTF());
+                    } else if (tag == TrafficCaptureFormat.TAG_SHAPE) {
+                        shapes.put((int) TrafficCaptureFormat.readVarLong(in), in.readUTF());
+                    } else if (tag == TrafficCaptureFormat.TAG_REQUEST) {
+                        String route = routes.get((int) TrafficCaptureFormat.readVarLong(in));
+                        String method = TrafficCaptureFormat.methodName(in.readByte());
+                        long offsetMicros = TrafficCaptureFormat.readVarLong(in);
+                        long durationMicros = TrafficCaptureFormat.readVarLong(in);
+                        int status = (int) TrafficCaptureFormat.readVarLong(in);
+                        int subject = in.readInt();
+                        String shape = shapes.get((int) TrafficCaptureFormat.readVarLong(in));
+                        int flags = in.readUnsignedByte();
+                        requests.add(new CapturedRequest(offsetMicros, method, route, status,
+                                durationMicros, subject, shape, flags));
+                    } else {
+                        throw new IOException("알 수 없는 레코드입니다. tag : " + tag);
+                    }
+                } catch (EOFException e) {
+                    // 캡처 중에 프로세스가 종료되어 마지막 레코드가 잘린 경우
+                    break;
+                }
+            }
+            // 파일에는 요청이 끝난 순서대로 쓰여 있으므로 도착 순서로 정렬
+            requests.sort(Comparator.comparingLong(CapturedRequest::getOffsetMicros));
+            return new TrafficCapture(startEpochMillis, Collections.unmodifiableList(requests));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("사용법 : TrafficCapture <캡처 파일>");
+            System.exit(1);
+        }
+        TrafficCapture capture = read(Paths.get(args[0]));
+        List<CapturedRequest> requests = capture.getRequests();
+        long spanMicros = requests.isEmpty() ? 0 : requests.get(requests.size() - 1).getOffsetMicros();
+        System.out.printf("요청 %d건, %.1f초, 사용자 %d명%n",
+                requests.size(),
+                spanMicros / 1_000_000.0,
+                requests.stream().mapToInt(CapturedRequest::getSubject)
+                        .filter(s -> s != TrafficCaptureFormat.ANONYMOUS).distinct().count());
+
+        Map<String, List<CapturedRequest>> byRoute = new TreeMap<>();
+        for (CapturedRequest request : requests) {
+            byRoute.computeIfAbsent(request.getMethod() + " " + request.getRoute(), k -> new ArrayList<>()).add(request);
+        }
+        for (Map.Entry<String, List<CapturedRequest>> entry : byRoute.entrySet()) {
+            List<CapturedRequest> list = entry.getValue();
+            long[] durations = list.stream().mapToLong(CapturedRequest::getDurationMicros).sorted().toArray();
+            System.out.printf("%-40s %8d건  p50 %8.2fms  p99 %8.2fms  %s%n",
+                    entry.getKey(),
+                    list.size(),
+                    durations[durations.length / 2] / 1000.0,
+                    durations[(int) Math.min(durations.length - 1, durations.length * 0.99)] / 1000.0,
+                    list.get(0).getShape() == null ? "" : list.get(0).getShape());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.project1.config.capture;
+
+import com.example.project1.config.ratelimit.RateLimitConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TrafficCaptureProperties.class)
+@ConditionalOnProperty(prefix = "traffic-capture", name = "enabled", havingValue = "true")
+public class TrafficCaptureConfig {
+
+    // 요청 수 제한, 동시 처리 한도 필터보다 바깥에서 실행해서 거절된 요청도 기록한다.
+    public static final int FILTER_ORDER = RateLimitConfig.FILTER_ORDER - 10;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    TrafficCaptureWriter trafficCaptureWriter(TrafficCaptureProperties properties) {
+        return new TrafficCaptureWriter(properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TrafficCaptureFilter> trafficCaptureFilter(TrafficCaptureWriter writer,
+                                                                             TrafficCaptureProperties properties) {
+        FilterRegistrationBean<TrafficCaptureFilter> registration =
+                new FilterRegistrationBean<>(new TrafficCaptureFilter(writer, properties.getMaxBodyBytes()));
+        registration.setOrder(FILTER_ORDER);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.project1.config.capture;
+
+import com.example.project1.config.ratelimit.CachedBodyRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Base64;
+
+// 실제 트래픽을 재현할 수 있도록 요청의 도착 시각, 경로, body 모양을 기록하는 필터
+// 요청 수 제한보다 앞에서 실행해서 거절된 요청까지 포함한 실제 도착 간격을 남긴다.
+// 토큰, 비밀번호, 이메일 값은 기록하지 않는다.
+// - body 는 필드 이름과 타입만 남긴다. (BodyShape)
+// - 요청의 주인은 로그인 body 의 userEmail 이나 토큰의 sub 로 구분하고, 파일에는 익명 id 로만 남긴다.
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TrafficCaptureWriter writer;
+    private final int maxBodyBytes;
+
+    TrafficCaptureFilter(TrafficCaptureWriter writer, int maxBodyBytes) {
+        this.writer = writer;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long arrival = System.nanoTime();
+
+        HttpServletRequest forward = request;
+        BodyShape body = null;
+        if (isJson(request)) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request, maxBodyBytes);
+            if (cached != null) {
+                forward = cached;
+                body = BodyShape.of(cached.getBody());
+            }
+        }
+
+        int flags = 0;
+        String subject = body == null ? null : body.account;
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(authorization)) {
+            boolean bearer = authorization.startsWith(BEARER_PREFIX);
+            flags |= bearer ? TrafficCaptureFormat.FLAG_BEARER : TrafficCaptureFormat.FLAG_RAW_AUTHORIZATION;
+            if (subject == null) {
+                subject = tokenSubject(bearer ? authorization.substring(BEARER_PREFIX.length()) : authorization);
+            }
+        }
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            flags |= TrafficCaptureFormat.FLAG_IF_NONE_MATCH;
+        }
+
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(forward, response);
+            status = response.getStatus();
+        } finally {
+            writer.record(new TrafficCaptureWriter.Entry(
+                    arrival,
+                    TrafficCaptureFormat.methodCode(request.getMethod()),
+                    route(request),
+                    status,
+                    System.nanoTime() - arrival,
+                    subject,
+                    body == null ? null : body.shape,
+                    flags));
+        }
+    }
+
+    private static boolean isJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    // 컨트롤러까지 간 요청은 매핑된 경로 템플릿을 쓰고,
+    // 시큐리티 필터에서 끝난 요청(OAuth2 콜백 등)이나 404 는 숫자로 된 경로 조각만 {n} 으로 바꾼다.
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        String uri = request.getRequestURI();
+        StringBuilder route = new StringBuilder(uri.length());
+        int start = 0;
+        while (start < uri.length()) {
+            int end = uri.indexOf('/', start + 1);
+            if (end < 0) {
+                end = uri.length();
+            }
+            String segment = uri.substring(start, end);
+            route.append(isNumericSegment(segment) ? "/{n}" : segment);
+            start = end;
+        }
+        return route.length() > 200 ? route.substring(0, 200) : route.toString();
+    }
+
+    private static boolean isNumericSegment(String segment) {
+        if (segment.length() < 2 || segment.charAt(0) != '/') {
+            return false;
+        }
+        for (int i = 1; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 요청의 주인만 구분하면 되므로 서명은 검증하지 않고 payload 의 sub 만 읽는다.
+    // (인증에는 사용하지 않는다.)
+    static String tokenSubject(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0) {
+            return null;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+            try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("sub".equals(field) && value == JsonToken.VALUE_STRING) {
+                        return parser.getText().trim().toLowerCase();
+                    }
+                    parser.skipChildren();
+                }
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            // 토큰 형식이 아니면 익명으로 기록
+        }
+        return null;
+    }
+}
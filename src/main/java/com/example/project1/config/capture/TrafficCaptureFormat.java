@@ -0,0 +1,74 @@
+package com.example.project1.config.capture;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// 트래픽 캡처 파일(.tcap) 형식
+//
+// [헤더] magic(4) | version(2) | 캡처 시작 시각 epochMillis(8)
+// [레코드] tag(1) 로 시작하는 레코드가 이어진다.
+//   ROUTE   : id(varint) | 경로 템플릿(UTF)        예) /api/v1/users/{userId}
+//   SHAPE   : id(varint) | body 모양(UTF)          예) {userEmail:s,userPw:s}
+//   REQUEST : route id(varint) | method(1) | 도착 시각(캡처 시작부터 µs, varint)
+//             | 서버 처리 시간 µs(varint) | status(varint) | subject(4) | shape id(varint, 0 이면 없음) | flags(1)
+// 경로와 body 모양은 처음 나올 때 한 번만 기록하고 이후에는 id 로 가리킨다.
+// 요청은 끝난 순서대로 기록되므로 읽는 쪽에서 도착 시각으로 다시 정렬해야 한다.
+public final class TrafficCaptureFormat {
+
+    public static final int MAGIC = 0x54434150; // "TCAP"
+    public static final short VERSION = 1;
+    public static final String EXTENSION = ".tcap";
+
+    public static final byte TAG_ROUTE = 1;
+    public static final byte TAG_SHAPE = 2;
+    public static final byte TAG_REQUEST = 3;
+
+    // Authorization: Bearer <accessToken>
+    public static final int FLAG_BEARER = 1;
+    // Authorization: <refreshToken> (/refresh)
+    public static final int FLAG_RAW_AUTHORIZATION = 1 << 1;
+    public static final int FLAG_IF_NONE_MATCH = 1 << 2;
+
+    // 토큰이나 이메일이 없는 요청의 subject
+    public static final int ANONYMOUS = 0;
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"};
+
+    private TrafficCaptureFormat() {
+    }
+
+    public static byte methodCode(String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return (byte) i;
+            }
+        }
+        return (byte) METHODS.length;
+    }
+
+    public static String methodName(byte code) {
+        return code >= 0 && code < METHODS.length ? METHODS[code] : "OTHER";
+    }
+
+    // 7bit 씩 나눠서 쓰는 가변 길이 정수 (작은 값은 1~2바이트)
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("잘못된 varint 입니다.");
+    }
+}
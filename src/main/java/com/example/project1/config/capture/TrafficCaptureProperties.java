@@ -0,0 +1,21 @@
+package com.example.project1.config.capture;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// application.yml 의 traffic-capture 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "traffic-capture")
+public class TrafficCaptureProperties {
+
+    // 필요할 때만 켠다. (--traffic-capture.enabled=true)
+    private boolean enabled = false;
+    private String dir = "./capture";
+    private int queueSize = 65536;
+    // 파일이 끝없이 커지지 않도록 이 개수를 넘으면 더 이상 기록하지 않는다.
+    private long maxRecords = 5_000_000;
+    // body 모양을 뽑을 최대 크기, 이보다 큰 body 는 모양 없이 기록
+    private int maxBodyBytes = 8 * 1024;
+}
@@ -0,0 +1,201 @@
+package com.example.project1.config.capture;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 캡처한 요청을 .tcap 파일에 쓰는 클래스
+// 요청 스레드는 큐에 넣기만 하고, 파일 쓰기와 subject 익명화(HMAC)는 writer 스레드 하나가 처리한다.
+// 큐가 가득 차거나 max-records 를 넘으면 요청을 막지 않고 버린다.
+@Slf4j
+class TrafficCaptureWriter {
+
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int DRAIN_BATCH = 1024;
+
+    // 요청 스레드에서 만드는 캡처 항목 (파일에 쓰기 전이라 subject 는 아직 원래 값)
+    static final class Entry {
+        final long arrivalNanos;
+        final byte method;
+        final String route;
+        final int status;
+        final long durationNanos;
+        final String subject;
+        final String shape;
+        final int flags;
+
+        Entry(long arrivalNanos, byte method, String route, int status,
+              long durationNanos, String subject, String shape, int flags) {
+            this.arrivalNanos = arrivalNanos;
+            this.method = method;
+            this.route = route;
+            this.status = status;
+            this.durationNanos = durationNanos;
+            this.subject = subject;
+            this.shape = shape;
+            this.flags = flags;
+        }
+    }
+
+    private final Path dir;
+    private final long maxRecords;
+    private final BlockingQueue<Entry> queue;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+    private long startNanos;
+
+    // writer 스레드만 접근
+    private DataOutputStream out;
+    private Mac pseudonymizer;
+    private final Map<String, Integer> routes = new HashMap<>();
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private long lastFlush;
+
+    TrafficCaptureWriter(TrafficCaptureProperties properties) {
+        this.dir = Paths.get(properties.getDir());
+        this.maxRecords = properties.getMaxRecords();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueSize());
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    // 요청 스레드에서 호출
+    void record(Entry entry) {
+        if (!running) {
+            return;
+        }
+        if (accepted.incrementAndGet() > maxRecords || !queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    void start() throws IOException, GeneralSecurityException {
+        Files.createDirectories(dir);
+        long startMillis = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        String name = "traffic-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(startMillis))
+                + TrafficCaptureFormat.EXTENSION;
+        Path file = dir.resolve(name);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        out.writeInt(TrafficCaptureFormat.MAGIC);
+        out.writeShort(TrafficCaptureFormat.VERSION);
+        out.writeLong(startMillis);
+
+        // 키는 파일에 남기지 않으므로 같은 파일 안에서만 같은 사용자를 같은 id 로 묶을 수 있고
+        // 다른 캡처와 맞춰 보거나 원래 이메일을 되찾을 수 없다.
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        pseudonymizer = Mac.getInstance("HmacSHA256");
+        pseudonymizer.init(new SecretKeySpec(key, "HmacSHA256"));
+
+        running = true;
+        writer = new Thread(this::runWriter, "traffic-capture-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("트래픽 캡처를 시작합니다. : {}", file);
+    }
+
+    void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        log.info("트래픽 캡처를 마칩니다. 기록 {}건, 버림 {}건", accepted.get() - dropped.get(), dropped.get());
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(DRAIN_BATCH);
+        lastFlush = System.nanoTime();
+        try {
+            while (running || !queue.isEmpty()) {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    write(first);
+                    queue.drainTo(batch, DRAIN_BATCH);
+                    for (Entry entry : batch) {
+                        write(entry);
+                    }
+                    batch.clear();
+                }
+                flushIfDue();
+            }
+            out.close();
+        } catch (IOException e) {
+            running = false;
+            log.error("트래픽 캡처 파일에 쓰지 못했습니다. : {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        int routeId = intern(routes, TrafficCaptureFormat.TAG_ROUTE, entry.route);
+        int shapeId = entry.shape == null ? 0 : intern(shapes, TrafficCaptureFormat.TAG_SHAPE, entry.shape);
+
+        out.writeByte(TrafficCaptureFormat.TAG_REQUEST);
+        TrafficCaptureFormat.writeVarLong(out, routeId);
+        out.writeByte(entry.method);
+        TrafficCaptureFormat.writeVarLong(out, Math.max(0, TimeUnit.NANOSECONDS.toMicros(entry.arrivalNanos - startNanos)));
+        TrafficCaptureFormat.writeVarLong(out, TimeUnit.NANOSECONDS.toMicros(entry.durationNanos));
+        TrafficCaptureFormat.writeVarLong(out, entry.status);
+        out.writeInt(pseudonymize(entry.subject));
+        TrafficCaptureFormat.writeVarLong(out, shapeId);
+        out.writeByte(entry.flags);
+    }
+
+    // 처음 나온 문자열이면 정의 레코드를 먼저 쓰고 id 를 붙인다. (id 는 1부터)
+    private int intern(Map<String, Integer> table, byte tag, String value) throws IOException {
+        Integer id = table.get(value);
+        if (id == null) {
+            id = table.size() + 1;
+            table.put(value, id);
+            out.writeByte(tag);
+            TrafficCaptureFormat.writeVarLong(out, id);
+            out.writeUTF(value);
+        }
+        return id;
+    }
+
+    private int pseudonymize(String subject) {
+        if (subject == null || subject.isEmpty()) {
+            return TrafficCaptureFormat.ANONYMOUS;
+        }
+        byte[] digest = pseudonymizer.doFinal(subject.getBytes(StandardCharsets.UTF_8));
+        int id = ((digest[0] & 0xFF) << 24) | ((digest[1] & 0xFF) << 16) | ((digest[2] & 0xFF) << 8) | (digest[3] & 0xFF);
+        return id == TrafficCaptureFormat.ANONYMOUS ? 1 : id;
+    }
+
+    private void flushIfDue() throws IOException {
+        long now = System.nanoTime();
+        if (now - lastFlush >= FLUSH_INTERVAL_NANOS) {
+            out.flush();
+            lastFlush = now;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.project1.config.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 분류(RouteClass)마다 하나씩 두는 동시 처리 제한기
+// 한도를 넘은 요청은 기다리지 않고 바로 거절해서 톰캣 작업 큐가 쌓이지 않게 한다.
+public class AdaptiveLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    public AdaptiveLimiter(GradientLimit limit) {
+        this.limit = limit;
+    }
+
+    // 처리를 시작할 수 있으면 시작 시점의 동시 처리 수를, 한도를 넘으면 -1 을 반환
+    public int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.getLimit()) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    public void release(long rttNanos, int inflightAtStart, boolean sample) {
+        inflight.decrementAndGet();
+        // 처리 중 예외로 끝난 요청은 지연 시간이 의미가 없으므로 한도 계산에서 제외
+        if (sample) {
+            limit.onSample(rttNanos, inflightAtStart);
+        }
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+}
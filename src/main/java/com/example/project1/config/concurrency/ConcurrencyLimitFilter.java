@@ -0,0 +1,70 @@
+package com.example.project1.config.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+// 요청 분류별로 동시에 처리 중인 요청 수를 제한하는 필터
+// 순간적으로 요청이 몰려 MySQL, bcrypt 에서 스레드가 묶이면 모든 요청의 지연 시간이 끝없이 늘어난다.
+// 관측한 지연 시간으로 한도를 조절하고, 한도를 넘은 요청은 바로 503 으로 돌려보내서
+// 이미 받은 요청의 p99 를 지킨다.
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Map<RouteClass, AdaptiveLimiter> limiters = new EnumMap<>(RouteClass.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        for (RouteClass routeClass : RouteClass.values()) {
+            ConcurrencyLimitProperties.Limit limit =
+                    properties.getRoutes().getOrDefault(routeClass, new ConcurrencyLimitProperties.Limit());
+            limiters.put(routeClass, new AdaptiveLimiter(new GradientLimit(
+                    limit.getInitialLimit(),
+                    limit.getMinLimit(),
+                    limit.getMaxLimit(),
+                    limit.getSmoothing(),
+                    limit.getRttTolerance(),
+                    limit.getLongWindow())));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass routeClass = RouteClass.classify(request);
+        if (routeClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveLimiter limiter = limiters.get(routeClass);
+        int inflight = limiter.tryAcquire();
+        if (inflight < 0) {
+            log.debug("동시 처리 한도를 넘어 요청을 거절합니다. class : {}, limit : {}", routeClass, limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            limiter.release(System.nanoTime() - start, inflight, completed);
+        }
+    }
+
+    public AdaptiveLimiter getLimiter(RouteClass routeClass) {
+        return limiters.get(routeClass);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.project1.config.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// application.yml 의 concurrency-limit 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private Map<RouteClass, Limit> routes = new EnumMap<>(RouteClass.class);
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        // 새 한도를 얼마나 빠르게 반영할지 (0 ~ 1)
+        private double smoothing = 0.2;
+        // 최근 응답 시간이 기준선의 몇 배까지 늘어나도 한도를 줄이지 않을지
+        private double rttTolerance = 1.5;
+        // 기준선(longRtt)을 계산할 때 사용하는 샘플 수
+        private int longWindow = 600;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.project1.config.concurrency;
+
+// 지연 시간의 변화로 동시 처리 한도를 조절하는 gradient 방식 알고리즘
+// - longRtt : 오랜 기간의 평균 응답 시간(정상 상태의 기준선)
+// - shortRtt : 최근 응답 시간
+// 최근 응답 시간이 기준선보다 길어지면(큐가 쌓이기 시작하면) gradient 가 1보다 작아져 한도를 줄이고,
+// 기준선 근처라면 sqrt(limit) 만큼의 여유(queueSize)를 더해서 한도를 조금씩 늘린다.
+public class GradientLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+    private final double shortWeight;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt;
+    private double shortRtt;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit,
+                         double smoothing, double rttTolerance, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindow = longWindow;
+        this.shortWeight = 0.2;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // 요청 하나가 끝날 때마다 호출
+    // inflight 는 요청이 시작될 때의 동시 처리 수
+    public synchronized void onSample(long rttNanos, int inflight) {
+        double rtt = rttNanos;
+
+        if (longRtt == 0) {
+            longRtt = rtt;
+            shortRtt = rtt;
+            return;
+        }
+        shortRtt = shortRtt * (1 - shortWeight) + rtt * shortWeight;
+        longRtt = longRtt + (rtt - longRtt) / longWindow;
+
+        // 부하가 빠진 뒤에도 기준선이 높게 남아 있으면 한도가 너무 늦게 줄어들기 때문에
+        // 기준선이 최근 값보다 크게 높으면 빠르게 내려준다.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // 한도의 절반도 쓰지 않고 있다면 지연 시간으로 한도를 판단할 수 없으므로 그대로 둔다.
+        if (inflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        estimatedLimit = newLimit;
+        limit = (int) newLimit;
+    }
+}
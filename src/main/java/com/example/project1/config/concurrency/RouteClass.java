@@ -0,0 +1,35 @@
+package com.example.project1.config.concurrency;
+
+import javax.servlet.http.HttpServletRequest;
+
+// 동시 처리 한도를 따로 관리할 요청 분류
+// 같은 톰캣 스레드 풀을 쓰더라도 bcrypt, DB 쓰기가 몰리는 요청이 조회 요청까지 막지 않도록 나눈다.
+public enum RouteClass {
+    // 회원가입, 로그인, 토큰 재발급, 회원 수정/탈퇴
+    AUTH_WRITE,
+    // 회원 조회(여러 회원 조회 포함), 소셜 로그인 후 토큰 조회
+    AUTH_READ,
+    // /api/v1/admin/** (회원 내보내기 제외)
+    ADMIN;
+
+    // 분류 대상이 아닌 요청(swagger, 정적 리소스 등)은 null 을 반환해서 제한하지 않는다.
+    public static RouteClass classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+
+        // 회원 내보내기는 몇 분씩 걸려서 관리자 API 의 지연 시간 기준을 흔들므로 따로 제한한다. (MemberExportService)
+        if (uri.equals("/api/v1/admin/members/export")) {
+            return null;
+        }
+        if (uri.startsWith("/api/v1/admin/")) {
+            return ADMIN;
+        }
+        // 여러 회원 조회는 id 목록을 body 로 받느라 POST 이지만 조회다.
+        if (uri.equals("/api/v1/users/batch")) {
+            return AUTH_READ;
+        }
+        if (uri.startsWith("/api/v1/users/") || uri.equals("/refresh") || uri.equals("/success-oauth")) {
+            return "GET".equals(request.getMethod()) ? AUTH_READ : AUTH_WRITE;
+        }
+        return null;
+    }
+}
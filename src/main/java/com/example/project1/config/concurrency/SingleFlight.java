@@ -0,0 +1,116 @@
+package com.example.project1.config.concurrency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// 같은 키로 동시에 들어온 작업을 한 번만 실행하고 결과를 나눠 준다. (single flight)
+// - 처음 온 요청이 자기 스레드에서 실행하고, 그 사이에 온 요청은 그 결과를 기다린다.
+// - 성공한 결과는 끝난 뒤 graceMillis 동안 남겨서 늦게 도착한 요청에도 같은 결과를 돌려준다.
+// - 실패(예외)와 keep 이 거른 결과는 남기지 않는다. 기다리던 요청은 같은 결과(예외)를 받고, 다음 요청은 다시 실행한다.
+// 키마다 ConcurrentHashMap 항목 하나이고, 남겨 둔 결과는 graceMillis 가 지나면 다음 조회나 주기적인 정리 때 지운다.
+// 항목이 maxEntries 개를 넘으면 기간이 지난 결과를 정리하고, 그래도 넘으면 새 결과를 남기지 않는다. (진행 중인 작업은 항상 합친다)
+public class SingleFlight<K, V> {
+
+    // 실행을 이만큼 할 때마다 기간이 지난 결과를 정리한다.
+    private static final int SWEEP_EVERY = 256;
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final long graceMillis;
+    private final int maxEntries;
+
+    public SingleFlight(long graceMillis) {
+        this(graceMillis, Integer.MAX_VALUE);
+    }
+
+    public SingleFlight(long graceMillis, int maxEntries) {
+        this.graceMillis = Math.max(0, graceMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        return execute(key, call, value -> true);
+    }
+
+    // keep : 남겨 둘 결과인지 (예: 성공 응답만 남긴다)
+    public V execute(K key, Supplier<V> call, Predicate<? super V> keep) {
+        while (true) {
+            Flight<V> mine = new Flight<>();
+            Flight<V> flight = flights.putIfAbsent(key, mine);
+            if (flight == null) {
+                return lead(key, mine, call, keep);
+            }
+            if (flight.isExpired(System.currentTimeMillis(), graceMillis)) {
+                flights.remove(key, flight);
+                continue;
+            }
+            return flight.await();
+        }
+    }
+
+    // 진행 중이거나 남겨 둔 결과 수 (모니터링, 테스트용)
+    public int size() {
+        return flights.size();
+    }
+
+    private V lead(K key, Flight<V> flight, Supplier<V> call, Predicate<? super V> keep) {
+        V value;
+        try {
+            value = call.get();
+        } catch (RuntimeException | Error e) {
+            // 먼저 지워야 예외를 받은 뒤에 다시 시도한 요청이 새로 실행한다.
+            flights.remove(key, flight);
+            flight.future.completeExceptionally(e);
+            throw e;
+        }
+        boolean full = flights.size() > maxEntries;
+        if (full || executions.incrementAndGet() % SWEEP_EVERY == 0) {
+            sweep();
+            full = flights.size() > maxEntries;
+        }
+        // 남기지 않을 결과는 끝났다고 알리기 전에 지워서, 그 뒤에 온 요청은 새로 실행하게 한다.
+        if (graceMillis == 0 || full || !keep.test(value)) {
+            flights.remove(key, flight);
+        }
+        flight.completedAt = System.currentTimeMillis();
+        flight.future.complete(value);
+        return value;
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        flights.values().removeIf(each -> each.isExpired(now, graceMillis));
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        // 끝나기 전에는 Long.MAX_VALUE
+        private volatile long completedAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now, long graceMillis) {
+            return completedAt != Long.MAX_VALUE && now - completedAt > graceMillis;
+        }
+
+        private V await() {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("같은 작업의 결과를 기다리다가 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
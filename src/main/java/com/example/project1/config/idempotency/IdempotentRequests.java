@@ -0,0 +1,129 @@
+package com.example.project1.config.idempotency;
+
+import com.example.project1.config.concurrency.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Idempotency-Key 헤더로 클라이언트의 재시도를 한 번의 처리로 합친다. (회원가입, 로그인)
+// - 같은 키로 처리 중인 요청이 있으면 새로 처리하지 않고 그 응답을 기다린다.
+// - 성공(2xx)한 응답은 ttl-seconds 동안 남겨서, 타임아웃으로 다시 보낸 요청에 DB 조회, 비밀번호 해시 없이 같은 응답을 돌려준다.
+//   다시 돌려준 응답에는 Idempotent-Replayed: true 헤더를 붙인다.
+// - 로그인 응답은 재시도할 동안만(login-ttl-seconds) 남긴다.
+//   남겨 둔 토큰은 그 뒤에 세션을 해지(DELETE /api/v1/users/sessions/{id}, 로그아웃)해도 그대로 돌려주므로 길게 두지 않는다.
+// - 실패한 응답은 남기지 않는다. 같은 키로 다시 보내면 다시 처리한다.
+// - 같은 키로 다른 요청(본문이 다른 요청)을 보내면 422 로 거절한다.
+//   요청마다 본문의 지문(기동할 때 만든 비밀값으로 계산한 HMAC)을 같이 남겨서 비교한다. 비밀번호 원문이나 평문 해시는 남기지 않는다.
+// - 남겨 두는 응답은 scope 마다 max-entries 개까지이고, 넘으면 새 응답은 남기지 않는다. (처리 중인 요청은 항상 합친다)
+// 헤더가 없는 요청은 지금처럼 매번 처리한다. 응답은 인스턴스 메모리에 남기므로 다른 인스턴스로 간 재시도는 새로 처리된다.
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String SIGNUP = "signup";
+    public static final String LOGIN = "login";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    // scope 별 남겨 둔 응답
+    private final Map<String, SingleFlight<String, Completed>> flights = new HashMap<>();
+    private final ThreadLocal<Mac> macs;
+
+    public IdempotentRequests(ObjectMapper objectMapper,
+                              @Value("${idempotency.enabled:true}") boolean enabled,
+                              @Value("${idempotency.ttl-seconds:600}") long ttlSeconds,
+                              @Value("${idempotency.login-ttl-seconds:30}") long loginTtlSeconds,
+                              @Value("${idempotency.max-entries:10000}") int maxEntries) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec fingerprintKey = new SecretKeySpec(secret, "HmacSHA256");
+        this.flights.put(SIGNUP, new SingleFlight<>(ttlSeconds * 1000, maxEntries));
+        this.flights.put(LOGIN, new SingleFlight<>(Math.min(ttlSeconds, loginTtlSeconds) * 1000, maxEntries));
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(fingerprintKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // scope : 엔드포인트 (SIGNUP, LOGIN, 같은 키라도 엔드포인트가 다르면 다른 요청)
+    // request : 지문을 만들 요청 본문, 응답을 바꾸는 값(비밀번호, 클라이언트 등)을 모두 담아야 한다.
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> call) {
+        if (!enabled || key == null) {
+            return call.get();
+        }
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " 는 1자 이상 " + MAX_KEY_LENGTH + "자 이하여야 합니다.");
+        }
+        SingleFlight<String, Completed> scoped = flights.get(scope);
+        if (scoped == null) {
+            throw new IllegalArgumentException("알 수 없는 scope 입니다. scope : " + scope);
+        }
+        byte[] fingerprint = fingerprint(request);
+        boolean[] executed = new boolean[1];
+        Completed completed = scoped.execute(key, () -> {
+            executed[0] = true;
+            return new Completed(fingerprint, call.get());
+        }, each -> each.response.getStatusCode().is2xxSuccessful());
+
+        if (!MessageDigest.isEqual(completed.fingerprint, fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body("같은 " + HEADER + " 로 다른 요청을 보냈습니다.");
+        }
+        if (executed[0]) {
+            return completed.response;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(completed.response.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(completed.response.getBody(), headers, completed.response.getStatusCode());
+    }
+
+    // 남겨 둔 응답과 처리 중인 요청 수 (모니터링, 테스트용)
+    public int size() {
+        int size = 0;
+        for (SingleFlight<String, Completed> scoped : flights.values()) {
+            size += scoped.size();
+        }
+        return size;
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return macs.get().doFinal(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("요청의 지문을 만들지 못했습니다.", e);
+        }
+    }
+
+    private static final class Completed {
+        private final byte[] fingerprint;
+        private final ResponseEntity<?> response;
+
+        private Completed(byte[] fingerprint, ResponseEntity<?> response) {
+            this.fingerprint = fingerprint;
+            this.response = response;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.project1.config.jwt;
 
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.config.log.LogSite;
+import com.example.project1.config.log.SecureLog;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
@@ -30,11 +32,16 @@ import java.io.IOException;
 // 5. 해당 Filter 과정이 끝나면 이제 시큐리티에 다음 Filter로 이동하게 됩니다.
 
 @RequiredArgsConstructor
-@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final SecureLog log = SecureLog.of(JwtAuthenticationFilter.class);
+    // 모든 요청마다 지나가는 곳이라 샘플링해서 남긴다.
+    private static final LogSite AUTHENTICATED = LogSite.of("Security Context에 인증 정보를 저장했습니다. 정보 : {}, uri : {}", 100);
+    private static final LogSite NO_TOKEN = LogSite.of("유효한 JWT 토큰이 없습니다. uri : {}", 100);
+
     public static final String HEADER_AUTHORIZATION = "Authorization";
     private final JwtProvider jwtProvider;
+    private final ReferenceTokenService referenceTokenService;
 
     // doFilter는 토큰의 인증정보를 SecurityContext에 저장하는 역할 수행
     @Override
@@ -48,21 +55,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ6eHp6NDVAbmF2ZXIuY29tIiwiaWF
         // 0IjoxNjg5OTQ0OTk0LCJhdXRoIjoiIiwiZXhwIjoxNjg5OTQ1MzU0fQ.qyR2bJMDmNb1iv
         // q6a4W55dGBmyFEzaENN1-F7qPlJKw
-        log.info("jwt in JwtAuthenticationFilter : " + jwt);
         String requestURI = httpServletRequest.getRequestURI();
-        // requestURI/api/v1/users/1
-        log.info("requestURI in JwtAuthenticationFilter : " + requestURI);
 
-        if (StringUtils.hasText(jwt) && jwtProvider.validateToken(jwt)) {
-            // 토큰이 유효할 경우 토큰에서 Authentication 객체를 가지고 와서 SecurityContext에 저장
-            Authentication authentication = jwtProvider.getAuthentication(jwt);
+        // 토큰이 유효할 경우 토큰에서 Authentication 객체를 가지고 와서 SecurityContext에 저장
+        // 참조 토큰(내부 클라이언트)은 서명 검증 없이 메모리 인덱스에서 바로 찾는다.
+        Authentication authentication = null;
+        if (ReferenceTokenService.isReferenceToken(jwt)) {
+            authentication = referenceTokenService.resolve(jwt);
+        } else if (StringUtils.hasText(jwt)) {
+            // 검증과 인증 정보 조회를 한 번의 검증으로 한다.
+            authentication = jwtProvider.authenticate(jwt);
+        }
+
+        if (authentication != null) {
             // UsernamePasswordAuthenticationToken
             // [Principal=org.springframework.security.core.userdetails.User
             // [Username=zxzz45@naver.com, Password=[PROTECTED], Enabled=true, AccountNonExpired=true,
             // credentialsNonExpired=true, AccountNonLocked=true, Granted Authorities=[ROLE_USER]],
             // Credentials=[PROTECTED], Authenticated=true, Details=null,
             // Granted Authorities=[ROLE_USER]]
-            log.info("authentication in JwtAuthenticationFilter : " + authentication);
             // Spring Security의 SecurityContextHolder를 사용하여 현재 인증 정보를 설정합니다.
             // 이를 통해 현재 사용자가 인증된 상태로 처리됩니다.
             // 위에서 jwtProvider.getAuthentication(jwt)가 반환이 UsernamePasswordAuthenticationToken로
@@ -82,9 +93,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
              * */
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            log.info("Security Context에 인증 정보를 저장했습니다. 정보 : {}", authentication.getName());
+            log.debug(AUTHENTICATED, authentication.getName(), requestURI);
         } else {
-            log.debug("유효한 JWT 토큰이 없습니다. uri : {}", requestURI);
+            log.debug(NO_TOKEN, requestURI);
         }
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,370 @@
+package com.example.project1.config.jwt;
+
+import com.example.project1.verifier.KeySource;
+import com.example.project1.verifier.VerificationKey;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.SecretKey;
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// JWT 서명 키 묶음 (kid 별 키)
+// 토큰 헤더에 kid 를 넣어서 발급하고, 검증할 때는 kid 로 맵에서 키를 바로 찾는다. (키를 하나씩 대 보지 않는다)
+//
+// 키 교체는 키링 파일(jwt.keyring.path)에 새 키를 activateAt 과 함께 추가하는 것으로 한다.
+// 1. 추가 : 파일을 바꾸면 재시작 없이 reload-interval-seconds 안에 모든 인스턴스가 읽는다.
+//           activateAt 전이라도 검증에는 바로 쓰이므로, 먼저 활성화된 인스턴스가 발급한 토큰도 다른 인스턴스에서 통과한다.
+// 2. 활성 : activateAt 이 지나면 가장 최근에 활성화된 키로 서명한다.
+// 3. 검증 전용 : 다음 키가 활성화되면 검증에만 쓰이고,
+// 4. 폐기 : 다음 키가 활성화된 뒤 리프레시 토큰 수명(jwt.refresh.expiration)이 지나면 (그 키로 서명한 토큰이 모두 만료되면) 키링에서 빠진다.
+//
+// jwt.secret_key 는 kid 없는 키로 남아서, 키링을 쓰기 전에 발급된(kid 가 없는) 토큰을 검증하고 위와 같은 순서로 폐기된다.
+// 키링 파일이 없으면 지금처럼 jwt.secret_key 하나로 kid 없이 발급한다.
+//
+// 키링 파일 형식
+// {"keys": [{"kid": "2024-07", "secret": "<base64, 256bit 이상>", "activateAt": "2024-07-01T00:00:00Z"}]}
+//
+// 비대칭 서명(ES256) 키는 algorithm 과 P-256 키 쌍을 적는다. (JwtKeyGenerator 로 만든다)
+// {"kid": "2024-08-es", "algorithm": "ES256", "privateKey": "<PKCS#8 base64>", "publicKey": "<X.509 base64>", "activateAt": ...}
+// ES256 키로 서명하면 다른 서비스는 /.well-known/jwks.json 의 공개 키로 토큰을 직접 검증할 수 있다.
+// HS256 키와 같은 순서로 교체되므로, 키링에 ES256 키를 추가하는 것으로 비대칭 서명으로 넘어간다.
+//
+// 검증은 token-verifier 모듈의 TokenVerifier 가 한다. 키링은 kid 로 검증 키를 찾아 주는 KeySource 이다.
+@Slf4j
+@Component
+public class JwtKeyRing implements KeySource {
+
+    // kid 없는 토큰(jwt.secret_key 로 서명)의 맵 키
+    private static final String LEGACY_KID = "";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<KeyEntry> legacy;
+    private final Path path;
+    private final long reloadIntervalSeconds;
+    private final long maxTokenLifetimeMillis;
+
+    // 파일에서 읽은 키 (jwt.secret_key 포함), 활성화 순서
+    private volatile List<KeyEntry> entries;
+    // 지금 쓰는 상태, 폐기를 반영하기 위해 주기적으로 다시 만든다.
+    private volatile State state;
+    private FileTime loadedModifiedTime;
+    private ScheduledExecutorService reloader;
+
+    public JwtKeyRing(@Value("${jwt.secret_key:}") String secretKey,
+                      @Value("${jwt.keyring.path:}") String path,
+                      @Value("${jwt.keyring.reload-interval-seconds:10}") long reloadIntervalSeconds,
+                      @Value("${jwt.refresh.expiration}") long maxTokenLifetimeMillis) {
+        this.legacy = StringUtils.hasText(secretKey)
+                ? Collections.singletonList(KeyEntry.hmac(LEGACY_KID, hmacKey(secretKey), Instant.EPOCH))
+                : Collections.emptyList();
+        this.path = StringUtils.hasText(path) ? Paths.get(path) : null;
+        this.reloadIntervalSeconds = Math.max(1, reloadIntervalSeconds);
+        this.maxTokenLifetimeMillis = maxTokenLifetimeMillis;
+
+        // 기동할 때 키링 파일이 잘못되었으면 기동하지 않는다.
+        List<KeyEntry> loaded = new ArrayList<>(legacy);
+        if (this.path != null) {
+            try {
+                loadedModifiedTime = Files.getLastModifiedTime(this.path);
+                loaded = read(this.path);
+            } catch (IOException e) {
+                throw new IllegalStateException("JWT 키링 파일을 읽지 못했습니다. path : " + this.path, e);
+            }
+        }
+        this.entries = loaded;
+        this.state = State.of(loaded, System.currentTimeMillis(), maxTokenLifetimeMillis);
+    }
+
+    // jwt.secret_key 하나만 쓰는 키링
+    public static JwtKeyRing of(String secretKey, long maxTokenLifetimeMillis) {
+        return new JwtKeyRing(secretKey, "", 10, maxTokenLifetimeMillis);
+    }
+
+    // 지금 서명에 쓸 키
+    public KeyEntry signingKey() {
+        return state.signingKey(System.currentTimeMillis());
+    }
+
+    // 검증할 키를 kid 로 찾는다. kid 가 없으면 jwt.secret_key, 모르는 kid 면 null
+    public KeyEntry verificationKey(String kid) {
+        return state.verificationKey(kid == null ? LEGACY_KID : kid);
+    }
+
+    // TokenVerifier 가 토큰 헤더의 kid 로 검증 키를 찾는다. 모르는 kid 면 null
+    // 헤더의 alg 가 키의 알고리즘과 다른 토큰(공개 키를 HMAC 비밀값으로 쓰게 하는 등)은 TokenVerifier 가 거절한다.
+    @Override
+    public VerificationKey find(String kid) {
+        KeyEntry entry = verificationKey(kid);
+        return entry == null ? null : entry.verification;
+    }
+
+    // 공개 키 목록(JWKS)에 내보낼 키, 아직 활성화 전인 키도 포함한다.
+    // 상태를 다시 만들 때(reload)만 새 배열이므로 호출한 쪽에서 이 배열을 기준으로 캐시할 수 있다.
+    public KeyEntry[] publicKeys() {
+        return state.publicKeys;
+    }
+
+    // 검증에 쓰는 kid 목록 (kid 없는 키는 "")
+    public List<String> kids() {
+        return new ArrayList<>(state.verifyKeys.keySet());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (path == null) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jwt-keyring-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloader.scheduleWithFixedDelay(this::reload, reloadIntervalSeconds, reloadIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    // 파일이 바뀌었으면 다시 읽고, 바뀌지 않았어도 폐기할 키를 반영한다.
+    // 잘못된 파일이면 기존 키를 그대로 쓴다.
+    public synchronized void reload() {
+        if (path != null) {
+            try {
+                FileTime modified = Files.getLastModifiedTime(path);
+                if (!modified.equals(loadedModifiedTime)) {
+                    List<KeyEntry> loaded = read(path);
+                    State.of(loaded, System.currentTimeMillis(), maxTokenLifetimeMillis);
+                    entries = loaded;
+                    loadedModifiedTime = modified;
+                    log.info("JWT 키링을 다시 읽었습니다. kid : {}", kidsOf(loaded));
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("JWT 키링을 다시 읽지 못해서 기존 키를 사용합니다. {}", e.getMessage());
+            }
+        }
+        try {
+            state = State.of(entries, System.currentTimeMillis(), maxTokenLifetimeMillis);
+        } catch (RuntimeException e) {
+            log.error("JWT 키링 상태를 만들지 못해서 기존 키를 사용합니다. {}", e.getMessage());
+        }
+    }
+
+    private List<KeyEntry> read(Path path) throws IOException {
+        JsonNode root = OBJECT_MAPPER.readTree(Files.readAllBytes(path));
+        JsonNode keys = root.path("keys");
+        if (!keys.isArray()) {
+            throw new IOException("keys 배열이 없습니다.");
+        }
+        List<KeyEntry> loaded = new ArrayList<>(legacy);
+        for (JsonNode node : keys) {
+            String kid = node.path("kid").asText("");
+            if (kid.isEmpty()) {
+                throw new IOException("kid 는 비워 둘 수 없습니다.");
+            }
+            for (KeyEntry entry : loaded) {
+                if (entry.kid.equals(kid)) {
+                    throw new IOException("kid 가 중복되었습니다. kid : " + kid);
+                }
+            }
+            // 활성화 시각은 꼭 적어야 한다. (적지 않은 키가 바로 활성화되면 이전 키들이 한꺼번에 폐기될 수 있다)
+            if (!node.hasNonNull("activateAt")) {
+                throw new IOException("activateAt 이 없습니다. kid : " + kid);
+            }
+            Instant activateAt = Instant.parse(node.get("activateAt").asText());
+            String algorithm = node.path("algorithm").asText(SignatureAlgorithm.HS256.getValue());
+            if (SignatureAlgorithm.HS256.getValue().equals(algorithm)) {
+                String secret = node.path("secret").asText("");
+                if (secret.isEmpty()) {
+                    throw new IOException("secret 은 비워 둘 수 없습니다. kid : " + kid);
+                }
+                loaded.add(KeyEntry.hmac(kid, hmacKey(secret), activateAt));
+            } else if (SignatureAlgorithm.ES256.getValue().equals(algorithm)) {
+                loaded.add(KeyEntry.ecdsa(kid, node.path("privateKey").asText(""),
+                        node.path("publicKey").asText(""), activateAt));
+            } else {
+                throw new IOException("지원하지 않는 서명 알고리즘입니다. kid : " + kid + ", algorithm : " + algorithm);
+            }
+        }
+        loaded.sort(Comparator.comparing(KeyEntry::getActivateAt));
+        return Collections.unmodifiableList(loaded);
+    }
+
+    private static Key hmacKey(String base64Secret) {
+        // 256bit 보다 짧으면 WeakKeyException
+        return Keys.hmacShaKeyFor(DatatypeConverter.parseBase64Binary(base64Secret));
+    }
+
+    private static List<String> kidsOf(List<KeyEntry> entries) {
+        List<String> kids = new ArrayList<>();
+        for (KeyEntry entry : entries) {
+            kids.add(entry.kid.isEmpty() ? "(jwt.secret_key)" : entry.kid);
+        }
+        return kids;
+    }
+
+    @Getter
+    public static class KeyEntry {
+        private final String kid;
+        private final SignatureAlgorithm algorithm;
+        // HS256 은 같은 비밀값, ES256 은 개인 키 / 공개 키
+        private final Key signKey;
+        private final Key verifyKey;
+        private final Instant activateAt;
+        // TokenVerifier 가 쓰는 검증 키
+        private final VerificationKey verification;
+
+        private KeyEntry(String kid, SignatureAlgorithm algorithm, Key signKey, Key verifyKey, Instant activateAt,
+                         VerificationKey verification) {
+            this.kid = kid;
+            this.algorithm = algorithm;
+            this.signKey = signKey;
+            this.verifyKey = verifyKey;
+            this.activateAt = activateAt;
+            this.verification = verification;
+        }
+
+        static KeyEntry hmac(String kid, Key key, Instant activateAt) {
+            return new KeyEntry(kid, SignatureAlgorithm.HS256, key, key, activateAt,
+                    VerificationKey.hs256(kid, (SecretKey) key));
+        }
+
+        // P-256 키 쌍이 아니거나 두 키가 짝이 아니면 IOException
+        static KeyEntry ecdsa(String kid, String privateKey, String publicKey, Instant activateAt) throws IOException {
+            if (privateKey.isEmpty() || publicKey.isEmpty()) {
+                throw new IOException("ES256 키는 privateKey, publicKey 를 모두 적어야 합니다. kid : " + kid);
+            }
+            try {
+                KeyFactory factory = KeyFactory.getInstance("EC");
+                PrivateKey signKey = factory.generatePrivate(new PKCS8EncodedKeySpec(pem(privateKey)));
+                PublicKey verifyKey = factory.generatePublic(new X509EncodedKeySpec(pem(publicKey)));
+                // P-256 공개 키가 아니면 IllegalArgumentException
+                VerificationKey verification = VerificationKey.es256(kid, verifyKey);
+                // 짝이 맞는지 한 번 서명해 본다.
+                byte[] probe = kid.getBytes(StandardCharsets.UTF_8);
+                Signature signature = Signature.getInstance("SHA256withECDSA");
+                signature.initSign(signKey);
+                signature.update(probe);
+                byte[] signed = signature.sign();
+                signature.initVerify(verifyKey);
+                signature.update(probe);
+                if (!signature.verify(signed)) {
+                    throw new IOException("ES256 개인 키와 공개 키가 짝이 아닙니다. kid : " + kid);
+                }
+                return new KeyEntry(kid, SignatureAlgorithm.ES256, signKey, verifyKey, activateAt, verification);
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                throw new IOException("ES256 키를 읽지 못했습니다. kid : " + kid, e);
+            }
+        }
+
+        // 토큰 헤더에 넣을 kid, jwt.secret_key 면 null (헤더에 넣지 않는다)
+        public String headerKid() {
+            return kid.isEmpty() ? null : kid;
+        }
+
+        // 클레임을 채운 빌더를 이 키로 서명해서 토큰 문자열을 만든다.
+        public String compact(JwtBuilder builder) {
+            return builder
+                    .setHeaderParam(JwsHeader.KEY_ID, headerKid())
+                    .signWith(signKey, algorithm)
+                    .compact();
+        }
+
+        // PEM 머리글, 줄바꿈이 있어도 읽는다.
+        private static byte[] pem(String text) {
+            return Base64.getMimeDecoder().decode(text.replaceAll("-----[A-Z ]+-----", ""));
+        }
+    }
+
+    // 한 시점의 키링 (불변)
+    static class State {
+        // 활성화 순서
+        private final KeyEntry[] active;
+        private final Map<String, KeyEntry> verifyKeys;
+        private final KeyEntry[] publicKeys;
+
+        private State(KeyEntry[] active, Map<String, KeyEntry> verifyKeys, KeyEntry[] publicKeys) {
+            this.active = active;
+            this.verifyKeys = verifyKeys;
+            this.publicKeys = publicKeys;
+        }
+
+        static State of(List<KeyEntry> entries, long nowMillis, long maxTokenLifetimeMillis) {
+            List<KeyEntry> kept = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                KeyEntry entry = entries.get(i);
+                // 다음 키가 활성화된 뒤 토큰 수명이 지났으면 이 키로 서명한 토큰은 모두 만료되었다.
+                KeyEntry next = i + 1 < entries.size() ? entries.get(i + 1) : null;
+                if (next != null && next.activateAt.toEpochMilli() + maxTokenLifetimeMillis <= nowMillis) {
+                    continue;
+                }
+                kept.add(entry);
+            }
+            if (kept.isEmpty() || kept.get(0).activateAt.toEpochMilli() > nowMillis) {
+                throw new IllegalStateException("활성화된 JWT 서명 키가 없습니다.");
+            }
+            Map<String, KeyEntry> verifyKeys = new HashMap<>();
+            List<KeyEntry> publicKeys = new ArrayList<>();
+            for (KeyEntry entry : kept) {
+                verifyKeys.put(entry.kid, entry);
+                if (entry.algorithm == SignatureAlgorithm.ES256) {
+                    publicKeys.add(entry);
+                }
+            }
+            return new State(kept.toArray(new KeyEntry[0]), verifyKeys, publicKeys.toArray(new KeyEntry[0]));
+        }
+
+        KeyEntry verificationKey(String kid) {
+            return verifyKeys.get(kid);
+        }
+
+        // activateAt 이 지난 키 중 가장 최근 키
+        KeyEntry signingKey(long nowMillis) {
+            for (int i = active.length - 1; i > 0; i--) {
+                if (active[i].activateAt.toEpochMilli() <= nowMillis) {
+                    return active[i];
+                }
+            }
+            return active[0];
+        }
+    }
+}
@@ -1,29 +1,49 @@
 package com.example.project1.config.jwt;
 
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.config.log.LogSite;
+import com.example.project1.config.log.SecureLog;
+import com.example.project1.domain.jwt.IntrospectionDTO;
 import com.example.project1.domain.jwt.TokenDTO;
-import io.jsonwebtoken.*;
-import lombok.extern.slf4j.Slf4j;
+import com.example.project1.verifier.TokenVerifier;
+import com.example.project1.verifier.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.util.StringUtils;
 
-import javax.xml.bind.DatatypeConverter;
-import java.security.Key;
 import java.util.*;
 import java.util.stream.Collectors;
 
 // 일반 로그인을 하면 PrincipalDetails 정보를 가지고 JWT를 만들어준다.
-@Slf4j
 @Component
 public class JwtProvider {
 
+    private static final SecureLog log = SecureLog.of(JwtProvider.class);
+    // 토큰 발급은 로그인마다, 인증 정보 조회는 요청마다 일어나므로 샘플링해서 남긴다.
+    private static final LogSite TOKEN_ISSUED = LogSite.of("토큰 발급 sub : {}, auth : {}", 10);
+    private static final LogSite ACCESS_TOKEN_ISSUED = LogSite.of("accessToken 재발급 sub : {}, auth : {}", 10);
+    private static final LogSite AUTHENTICATION_LOADED = LogSite.of("JWT 인증 정보 sub : {}, auth : {}", 100);
+    private static final LogSite EXPIRED_CLAIMS = LogSite.of("만료된 토큰의 클레임을 사용합니다. sub : {}", 10);
+    private static final LogSite INVALID_SIGNATURE = LogSite.of("잘못된 JWT 서명입니다.", 10);
+    private static final LogSite EXPIRED_TOKEN = LogSite.of("만료된 JWT 토큰입니다.", 10);
+    private static final LogSite UNSUPPORTED_TOKEN = LogSite.of("지원되지 않는 JWT 토큰입니다.", 10);
+    private static final LogSite ILLEGAL_TOKEN = LogSite.of("JWT 토큰이 잘못되었습니다.", 10);
+    private static final LogSite REFRESH_TOKEN_AS_BEARER = LogSite.of("리프레시 토큰은 인증에 쓸 수 없습니다. sub : {}", 10);
+    private static final LogSite STALE_AUTHORITIES = LogSite.of("권한이 바뀌기 전에 발급한 토큰입니다. sub : {}, av : {}", 10);
+
     private static final String AUTHORITIES_KEY = "auth";
+    // 간단한 클레임 형식의 역할 비트마스크 (RoleAuthorities)
+    private static final String ROLES_KEY = "r";
+    // 발급할 때 회원의 권한 버전 (AuthorityVersions), 권한이 바뀐 적 없는 회원(0)은 넣지 않는다.
+    private static final String AUTHORITY_VERSION_KEY = "av";
 
     @Value("${jwt.access.expiration}")
     private long accessTokenTime;
@@ -31,25 +51,51 @@ public class JwtProvider {
     @Value("${jwt.refresh.expiration}")
     private long refreshTokenTime;
 
-    private Key key;
+    // true 면 권한을 "auth": ["ROLE_USER"] 대신 "r": 1 (역할 비트마스크)로 발급해서 토큰을 줄인다.
+    // 읽을 때는 설정과 관계없이 두 형식을 모두 받으므로 배포 중에 발급된 토큰도 그대로 쓸 수 있다.
+    @Value("${jwt.compact-claims:false}")
+    private boolean compactClaims;
+
+    // 권한이 바뀌기 전에 발급한 토큰(av 가 현재 권한 버전보다 작은 토큰)을
+    // false 면 현재 역할로 권한을 다시 만들어서 받고, true 면 거절해서 다시 로그인(재발급)하게 한다.
+    @Value("${jwt.authority-version.reject-stale:false}")
+    private boolean rejectStaleAuthorities;
+
+    // kid 별 서명 키, 발급할 때 활성 키를 고르고 검증할 때 kid 로 키를 찾는다.
+    private final JwtKeyRing keyRing;
+    // 검증은 token-verifier 모듈로 한다. (발급은 jjwt)
+    // 불변이고 스레드에 안전하므로 한 번만 만든다. 클레임 맵, 예외를 만들지 않고 필요한 클레임만 꺼낸다.
+    // 키는 고정하지 않고 토큰 헤더의 kid 로 키링에서 찾으므로, 키링이 바뀌어도 다시 만들 필요가 없다.
+    private final TokenVerifier verifier;
+    // 권한이 바뀐 회원의 현재 권한 버전, 요청마다 DB 를 읽지 않고 해시 조회 한 번으로 확인한다.
+    private final AuthorityVersions authorityVersions;
+
+    public JwtProvider(JwtKeyRing keyRing) {
+        this(keyRing, new AuthorityVersions());
+    }
 
-    public JwtProvider( @Value("${jwt.secret_key}") String secret_key) {
-        byte[] secretByteKey = DatatypeConverter.parseBase64Binary(secret_key);
-        this.key = Keys.hmacShaKeyFor(secretByteKey);
+    @Autowired
+    public JwtProvider(JwtKeyRing keyRing, AuthorityVersions authorityVersions) {
+        this.keyRing = keyRing;
+        this.authorityVersions = authorityVersions;
+        this.verifier = TokenVerifier.builder(keyRing)
+                .roles(RoleAuthorities.names())
+                .build();
     }
 
     //     유저 정보를 가지고 AccessToken, RefreshToken 을 생성하는 메소드
     public TokenDTO createToken(Authentication authentication, List<GrantedAuthority> authorities) {
+        return createToken(authentication, authorities, 0);
+    }
+
+    // authorityVersion : 권한을 읽은 회원 행의 권한 버전 (MemberEntity.authorityVersionOrZero)
+    public TokenDTO createToken(Authentication authentication, List<GrantedAuthority> authorities, long authorityVersion) {
         //  UsernamePasswordAuthenticationToken
         //  [Principal=zxzz45@naver.com, Credentials=[PROTECTED], Authenticated=false, Details=null, Granted Authorities=[]]
         // 여기서 Authenticated=false는 아직 정상임
         // 이 시점에서는 아직 실제로 인증이 이루어지지 않았기 때문에 Authenticated 속성은 false로 설정
         // 인증 과정은 AuthenticationManager와 AuthenticationProvider에서 이루어지며,
         // 인증이 성공하면 Authentication 객체의 isAuthenticated() 속성이 true로 변경됩니다.
-        log.info("authentication in JwtProvider : " + authentication);
-
-        // userType in JwtProvider : ROLE_USER
-        log.info("userType in JwtProvider : " + authorities);
 
         // 권한 가져오기
         //  authentication 객체에서 권한 정보(GrantedAuthority)를 가져와 문자열 형태로 변환한 후,
@@ -60,18 +106,12 @@ public class JwtProvider {
 //                .collect(Collectors.joining(","));
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put(AUTHORITIES_KEY, authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList()));
+        putAuthorities(claims, authorities, authorityVersion);
 
         claims.put("sub", authentication.getName());
 
-
-        // claims in JwtProvider : {auth=[ROLE_USER]}
-        log.info("claims in JwtProvider : " + claims);
-        // authentication.getName() in JwtProvider : zxzz45@naver.com
-        log.info("authentication.getName() in JwtProvider : " + authentication.getName());
-
+        // 액세스 토큰과 리프레시 토큰은 같은 키로 서명한다.
+        JwtKeyRing.KeyEntry signingKey = keyRing.signingKey();
         long now = (new Date()).getTime();
         Date now2 = new Date();
 
@@ -79,7 +119,7 @@ public class JwtProvider {
 
         // AccessToken 생성
         Date accessTokenExpire = new Date(now + this.accessTokenTime);
-        String accessToken = Jwts.builder()
+        String accessToken = signingKey.compact(Jwts.builder()
                 // 내용 sub : 유저의 이메일
                 // 토큰 제목
                 // JWT의 "sub" 클레임을 설정하는 메서드입니다.
@@ -91,51 +131,16 @@ public class JwtProvider {
                 .setClaims(claims)
                 // 내용 exp : 토큰 만료 시간, 시간은 NumericDate 형식(예: 1480849143370)으로 하며
                 // 항상 현재 시간 이후로 설정합니다.
-                .setExpiration(accessTokenExpire)
-                // 서명 : 비밀값과 함께 해시값을 ES256 방식으로 암호화
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
-
-        Claims claims1 =
-                Jwts.parserBuilder()
-                        .setSigningKey(key)
-                        .build()
-                        .parseClaimsJws(accessToken)
-                        .getBody();
-        String subject1 = claims1.getSubject();
-        // claims subject 확인 in JwtProvider : zxzz45@naver.com
-        log.info("★claims access subject 확인 in JwtProvider : " + subject1);
-
-
-        // accessToken in JwtProvider : eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ6eHp6NDVAbmF2ZXIuY2
-        // 9tIiwiaWF0IjoxNjg5OTk1MzM3LCJhdXRoIjoiUk9MRV9VU0VSIiwiZXhwIjoxNjkzNTk1MzM3fQ.2_2PR-A
-        // X9N0jKDyA7LpK7xRRBZBYZ17_f8Jq2TY4ny8
-        log.info("accessToken in JwtProvider : " + accessToken);
-
-        // claim에서 auth 확인 in JwtProvider : ROLE_USER
-        log.info("claim에서 accessToken에 담김 auth 확인 in JwtProvider : " + claims);
+                .setExpiration(accessTokenExpire));
 
         // RefreshToken 생성
         Date refreshTokenExpire = new Date(now + this.refreshTokenTime);
-        String refreshToken = Jwts.builder()
+        String refreshToken = signingKey.compact(Jwts.builder()
                 .setClaims(claims)
+                // 같은 회원이 같은 시각에 여러 기기에서 로그인해도 기기 세션마다 리프레시 토큰이 달라지도록 jti 를 넣는다.
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now2)
-                .setExpiration(refreshTokenExpire)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
-
-        Claims claims2 =
-                Jwts.parserBuilder()
-                        .setSigningKey(key)
-                        .build()
-                        .parseClaimsJws(refreshToken)
-                        .getBody();
-        String subject2 = claims2.getSubject();
-        // claims subject 확인 in JwtProvider : zxzz45@naver.com
-        log.info("★claims refreshToken subject 확인 in JwtProvider : " + subject2);
-
-        log.info("refreshToken in JwtProvider : " + refreshToken);
-        log.info("claim에서 refreshToken에 담긴 auth 확인 in JwtProvider : " + claims);
+                .setExpiration(refreshTokenExpire));
 
         TokenDTO tokenDTO= TokenDTO.builder()
                 .grantType("Bearer ")
@@ -148,18 +153,19 @@ public class JwtProvider {
                 .userEmail(authentication.getName())
                 .build();
 
-        log.info("tokenDTO in JwtProvider : " + tokenDTO);
-
+        log.info(TOKEN_ISSUED, tokenDTO.getUserEmail(), authorities);
         return tokenDTO;
     }
 
     // 소셜 로그인 성공시 JWT 발급
     public TokenDTO createTokenForOAuth2(String userEmail,
                                          List<GrantedAuthority> authorities) {
+        return createTokenForOAuth2(userEmail, authorities, 0);
+    }
 
-        // userType in JwtProvider : ROLE_USER
-        log.info("userEmail in JwtProvider : " +userEmail);
-        log.info("authorities in JwtProvider : " + authorities);
+    public TokenDTO createTokenForOAuth2(String userEmail,
+                                         List<GrantedAuthority> authorities,
+                                         long authorityVersion) {
 
         // 권한 가져오기
         //  authentication 객체에서 권한 정보(GrantedAuthority)를 가져와 문자열 형태로 변환한 후,
@@ -170,24 +176,18 @@ public class JwtProvider {
 //                .collect(Collectors.joining(","));
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put(AUTHORITIES_KEY, authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList()));
+        putAuthorities(claims, authorities, authorityVersion);
 
         claims.put("sub", userEmail);
 
-
-        // claims in JwtProvider : {auth=[ROLE_USER]}
-        log.info("claims in JwtProvider : " + claims);
-        // authentication.getName() in JwtProvider : zxzz45@naver.com
-        log.info("claims.get(\"sub\") in JwtProvider : " + claims.get("sub"));
-
+        // 액세스 토큰과 리프레시 토큰은 같은 키로 서명한다.
+        JwtKeyRing.KeyEntry signingKey = keyRing.signingKey();
         long now = (new Date()).getTime();
         Date now2 = new Date();
 
         // AccessToken 생성
         Date accessTokenExpire = new Date(now + this.accessTokenTime);
-        String accessToken = Jwts.builder()
+        String accessToken = signingKey.compact(Jwts.builder()
                 // 내용 sub : 유저의 이메일
                 // 토큰 제목
                 // JWT의 "sub" 클레임을 설정하는 메서드입니다.
@@ -199,49 +199,16 @@ public class JwtProvider {
                 .setClaims(claims)
                 // 내용 exp : 토큰 만료 시간, 시간은 NumericDate 형식(예: 1480849143370)으로 하며
                 // 항상 현재 시간 이후로 설정합니다.
-                .setExpiration(accessTokenExpire)
-                // 서명 : 비밀값과 함께 해시값을 ES256 방식으로 암호화
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
-
-        Claims claims1 = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(accessToken)
-                .getBody();
-        String subject1 = claims1.getSubject();
-        // claims subject 확인 in JwtProvider : zxzz45@naver.com
-        log.info("★claims access subject 확인 in JwtProvider : " + subject1);
-
-
-        // accessToken in JwtProvider : eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ6eHp6NDVAbmF2ZXIuY2
-        // 9tIiwiaWF0IjoxNjg5OTk1MzM3LCJhdXRoIjoiUk9MRV9VU0VSIiwiZXhwIjoxNjkzNTk1MzM3fQ.2_2PR-A
-        // X9N0jKDyA7LpK7xRRBZBYZ17_f8Jq2TY4ny8
-        log.info("accessToken in JwtProvider : " + accessToken);
-
-        // claim에서 auth 확인 in JwtProvider : ROLE_USER
-        log.info("claim에서 accessToken에 담김 auth 확인 in JwtProvider : " + claims);
+                .setExpiration(accessTokenExpire));
 
         // RefreshToken 생성
         Date refreshTokenExpire = new Date(now + this.refreshTokenTime);
-        String refreshToken = Jwts.builder()
+        String refreshToken = signingKey.compact(Jwts.builder()
                 .setClaims(claims)
+                // 같은 회원이 같은 시각에 여러 기기에서 로그인해도 기기 세션마다 리프레시 토큰이 달라지도록 jti 를 넣는다.
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now2)
-                .setExpiration(refreshTokenExpire)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
-
-        Claims claims2 = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(refreshToken)
-                .getBody();
-        String subject2 = claims2.getSubject();
-        // claims subject 확인 in JwtProvider : zxzz45@naver.com
-        log.info("★claims refreshToken subject 확인 in JwtProvider : " + subject2);
-
-        log.info("refreshToken in JwtProvider : " + refreshToken);
-        log.info("claim에서 refreshToken에 담긴 auth 확인 in JwtProvider : " + claims);
+                .setExpiration(refreshTokenExpire));
 
         TokenDTO tokenDTO= TokenDTO.builder()
                 .grantType("Bearer ")
@@ -254,50 +221,32 @@ public class JwtProvider {
                 .userEmail(userEmail)
                 .build();
 
-        log.info("tokenDTO in JwtProvider : " + tokenDTO);
-
+        log.info(TOKEN_ISSUED, tokenDTO.getUserEmail(), authorities);
         return tokenDTO;
     }
 
     // accessToken 생성
     // 리프레시 토큰을 사용하여 새로운 액세스 토큰을 생성하는 로직을 구현
     public TokenDTO createAccessToken(String userEmail, List<GrantedAuthority> authorities) {
+        return createAccessToken(userEmail, authorities, 0);
+    }
+
+    public TokenDTO createAccessToken(String userEmail, List<GrantedAuthority> authorities, long authorityVersion) {
+        JwtKeyRing.KeyEntry signingKey = keyRing.signingKey();
         Long now = (new Date()).getTime();
         Date now2 = new Date();
         Date accessTokenExpire = new Date(now + this.accessTokenTime);
 
-        log.info("authorities : " + authorities);
-
         Map<String, Object> claims = new HashMap<>();
-        claims.put(AUTHORITIES_KEY, authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList()));
+        putAuthorities(claims, authorities, authorityVersion);
         // setSubject이다.
         // 클레임에 subject를 넣는것
         claims.put("sub", userEmail);
 
-        log.info("claims : " + claims);
-
-        String accessToken = Jwts.builder()
+        String accessToken = signingKey.compact(Jwts.builder()
                 .setIssuedAt(now2)
                 .setClaims(claims)
-                .setExpiration(accessTokenExpire)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
-
-        log.info("accessToken in JwtProvider : " + accessToken);
-
-        Claims claims2 = Jwts.parserBuilder()
-                        .setSigningKey(key)
-                                .build()
-                                        .parseClaimsJws(accessToken)
-                                                .getBody();
-
-        String subject = claims2.getSubject();
-        // claims subject 확인 in JwtProvider : zxzz45@naver.com
-        log.info("★claims subject 확인 in JwtProvider : " + subject);
-
-//        log.info("claim에서 accessToken에 담김 auth 확인 in JwtProvider : " + auth);
+                .setExpiration(accessTokenExpire));
 
         TokenDTO tokenDTO = TokenDTO.builder()
                 .grantType("Bearer ")
@@ -306,7 +255,7 @@ public class JwtProvider {
                 .accessTokenTime(accessTokenExpire)
                 .build();
 
-        log.info("tokenDTO in JwtProvider : " + tokenDTO);
+        log.info(ACCESS_TOKEN_ISSUED, userEmail, authorities);
         return tokenDTO;
     }
 
@@ -318,29 +267,50 @@ public class JwtProvider {
     // 소셜 로그인은 여기서 작동하지 않는다.
     public Authentication getAuthentication(String token) {
         // 토큰 복호화 메소드
-        Claims claims = parseClaims(token);
-        log.info("claims in JwtProvider  : " + claims);
+        VerifiedToken verified = verifier.verify(token);
+        if (verified.getStatus() == VerifiedToken.Status.EXPIRED) {
+            log.info(EXPIRED_CLAIMS, verified.getSubject());
+        } else if (!verified.isValid()) {
+            throw new JwtException("검증하지 못한 토큰입니다. status : " + verified.getStatus());
+        }
+        if (isRefreshToken(verified)) {
+            throw new JwtException("리프레시 토큰은 인증에 쓸 수 없습니다.");
+        }
+        Authentication authentication = authentication(verified, token);
+        if (authentication == null) {
+            throw new JwtException("권한이 바뀌기 전에 발급한 토큰입니다.");
+        }
+        return authentication;
+    }
 
-        if(claims.get("auth") == null) {
-            throw new RuntimeException("권한 정보가 없는 토큰입니다.");
+    // 필터용 : 한 번 검증해서 통과하면 인증 정보, 아니면 null
+    // validateToken, getAuthentication 을 차례로 부르면 토큰을 두 번 검증하므로 요청마다 부르는 곳은 이것을 쓴다.
+    public Authentication authenticate(String token) {
+        VerifiedToken verified = verifier.verify(token);
+        if (!verified.isValid()) {
+            logInvalid(token, verified);
+            return null;
+        }
+        if (isRefreshToken(verified)) {
+            log.info(REFRESH_TOKEN_AS_BEARER, verified.getSubject());
+            return null;
         }
+        return authentication(verified, token);
+    }
 
-        Object auth = claims.get("auth");
-        // [ROLE_USER]
-        log.info("auth in JwtProvider : " + auth);
+    // 리프레시 토큰(jti 가 있는 토큰)은 재발급에만 쓴다.
+    // 권한 버전 항목은 액세스 토큰 수명이 지나면 지우므로, 리프레시 토큰을 받으면 예전 권한이 그대로 살아난다.
+    private static boolean isRefreshToken(VerifiedToken verified) {
+        return verified.getTokenId() != null;
+    }
 
+    // 권한이 바뀌기 전에 발급한 토큰을 거절하면(reject-stale) null
+    private Authentication authentication(VerifiedToken verified, String token) {
         // 클레임 권한 정보 가져오기
-        List<String> authorityStrings = (List<String>) claims.get(AUTHORITIES_KEY);
-        // [ROLE_USER]
-        log.info("authorityStrings in JwtProvider : " + authorityStrings);
-
-        Collection<? extends GrantedAuthority> authorities =
-                authorityStrings.stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
-
-        // [ROLE_USER]
-        log.info("authorities in JwtProvider : " + authorities);
+        Collection<? extends GrantedAuthority> authorities = authorities(verified);
+        if (authorities == null) {
+            return null;
+        }
 
         /*
             UserDetails를 사용하는 이유는 다음과 같습니다:
@@ -368,10 +338,8 @@ public class JwtProvider {
         // 이 때, Spring Security가 기대하는 UserDetails 타입의 객체로 변환하여야 합니다.
         // 요약하면, 토큰 검증을 통해 가져온 권한 정보를 UserDetails 타입으로 변환하여
         // UsernamePasswordAuthenticationToken에 담아서 저장하는 것은 Spring Security의 일관성과 내부 동작을 따르는 방식입니다.
-        UserDetails userDetails = new User(claims.getSubject(), "", authorities);
-        log.info("claims.getSubject() in JwtProvider : " + claims.getSubject());
-        log.info("userDetails.getUsername()  in JwtProvider : " + userDetails.getUsername());
-        log.info("userDetails.getAuthorities() in JwtProvider : " + userDetails.getAuthorities());
+        UserDetails userDetails = new User(verified.getSubject(), "", authorities);
+        log.debug(AUTHENTICATION_LOADED, verified.getSubject(), authorities);
 
         // 일반 로그인 시 주로 이거로 인증처리해서 SecurityContext에 저장한다.
         // Spring Security에서 인증을 나타내는 객체로 사용됩니다.
@@ -383,41 +351,104 @@ public class JwtProvider {
         return new UsernamePasswordAuthenticationToken(userDetails, token, authorities);
     }
 
-    private Claims parseClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (ExpiredJwtException e) {
-            log.info("ExpiredJwtException : " + e.getMessage());
-            log.info("ExpiredJwtException : " + e.getClaims());
-
-            return e.getClaims();
+    // 토큰 검사(introspection) : 서명과 만료를 확인하고 회원, 권한, 만료 시각을 돌려준다.
+    // 게이트웨이가 한 번에 수천 개를 보내므로 토큰마다 로그를 남기지 않는다.
+    // jti 가 있으면 리프레시 토큰이다. (세션 해지 여부는 호출한 쪽에서 확인한다)
+    public IntrospectionDTO introspect(String token) {
+        VerifiedToken verified = verifier.verify(token);
+        if (!verified.isValid() || !verified.hasAuthorities()) {
+            return IntrospectionDTO.INACTIVE;
+        }
+        // 권한 이름 목록은 검증기가 역할 조합마다 공유하는 읽기 전용 목록이므로 그대로 내려준다.
+        List<String> auth = verified.getAuthorities();
+        AuthorityVersions.Current current = staleAuthorities(verified);
+        if (current != null) {
+            if (rejectStaleAuthorities) {
+                return IntrospectionDTO.INACTIVE;
+            }
+            auth = RoleAuthorities.forMask(current.getRoleMask()).stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList());
         }
+        return IntrospectionDTO.builder()
+                .active(true)
+                .sub(verified.getSubject())
+                .auth(auth)
+                .exp(verified.getExpiresAt() < 0 ? null : verified.getExpiresAt())
+                .tokenType(verified.getTokenId() == null ? IntrospectionDTO.ACCESS_TOKEN : IntrospectionDTO.REFRESH_TOKEN)
+                .build();
     }
 
+    // 클레임 권한 정보
+    // 역할 비트마스크(r)든 권한 이름 목록(auth)이든 미리 만들어 둔 권한 목록을 재사용한다.
+    // 권한이 바뀌기 전에 발급한 토큰이면 현재 역할의 권한 목록, 거절하면(reject-stale) null
+    private Collection<? extends GrantedAuthority> authorities(VerifiedToken verified) {
+        AuthorityVersions.Current current = staleAuthorities(verified);
+        if (current != null) {
+            log.info(STALE_AUTHORITIES, verified.getSubject(), verified.getAuthorityVersion());
+            return rejectStaleAuthorities ? null : RoleAuthorities.forMask(current.getRoleMask());
+        }
+        if (verified.getRoleMask() >= 0) {
+            return RoleAuthorities.forMask(verified.getRoleMask());
+        } else if (verified.hasAuthorities()) {
+            return RoleAuthorities.fromNames(verified.getAuthorities());
+        }
+        throw new RuntimeException("권한 정보가 없는 토큰입니다.");
+    }
+
+    // 토큰을 발급한 뒤에 회원의 권한이 바뀌었으면 현재 권한 버전, 아니면 null
+    private AuthorityVersions.Current staleAuthorities(VerifiedToken verified) {
+        AuthorityVersions.Current current = authorityVersions.find(verified.getSubject());
+        return current != null && verified.getAuthorityVersion() < current.getVersion() ? current : null;
+    }
+
+    // 권한 클레임 추가
+    // compact-claims 이면 역할 비트마스크로 넣고, 역할이 아닌 권한이 섞여 있으면 기존 형식으로 넣는다.
+    private void putAuthorities(Map<String, Object> claims, List<GrantedAuthority> authorities, long authorityVersion) {
+        if (authorityVersion > 0) {
+            claims.put(AUTHORITY_VERSION_KEY, authorityVersion);
+        }
+        if (compactClaims) {
+            int mask = RoleAuthorities.maskOf(authorities);
+            if (mask >= 0) {
+                claims.put(ROLES_KEY, mask);
+                return;
+            }
+        }
+        claims.put(AUTHORITIES_KEY, authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+    }
 
     // 토큰의 유효성 검증을 수행
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+        VerifiedToken verified = verifier.verify(token);
+        if (verified.isValid()) {
             return true;
-        } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
-            log.info("잘못된 JWT 서명입니다.");
-        } catch (ExpiredJwtException e) {
-            log.info("만료된 JWT 토큰입니다.");
-        } catch (UnsupportedJwtException e) {
-            log.info("지원되지 않는 JWT 토큰입니다.");
-        }catch (IllegalArgumentException e) {
-            log.info("JWT 토큰이 잘못되었습니다.");
         }
+        logInvalid(token, verified);
         return false;
     }
 
+    // 통과하지 못한 이유, 로그 문구는 jjwt 로 검증할 때와 같다.
+    private void logInvalid(String token, VerifiedToken verified) {
+        if (!StringUtils.hasText(token)) {
+            log.info(ILLEGAL_TOKEN);
+            return;
+        }
+        switch (verified.getStatus()) {
+            case EXPIRED:
+                log.info(EXPIRED_TOKEN);
+                break;
+            case UNSUPPORTED:
+            case PREMATURE:
+                log.info(UNSUPPORTED_TOKEN);
+                break;
+            default:
+                // 서명이 틀렸거나, 모르는 kid 이거나, 형식이 잘못되었다.
+                log.info(INVALID_SIGNATURE);
+        }
+    }
+
 
 }
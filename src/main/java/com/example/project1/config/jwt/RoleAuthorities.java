@@ -0,0 +1,100 @@
+package com.example.project1.config.jwt;
+
+import com.example.project1.domain.member.UserType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// UserType 역할(ROLE_USER, ROLE_ADMIN)과 역할 비트마스크(1 << ordinal) 사이의 변환
+// 가능한 비트마스크마다 권한 목록을 기동할 때 한 번 만들어 두고 공유하므로,
+// 토큰에서 권한을 꺼낼 때 요청마다 SimpleGrantedAuthority 를 새로 만들지 않는다.
+public final class RoleAuthorities {
+
+    private static final Map<String, Integer> BITS = new HashMap<>();
+    private static final List<List<GrantedAuthority>> BY_MASK = new ArrayList<>();
+    // 비트 순서의 역할 이름
+    private static final List<String> NAMES = new ArrayList<>();
+    // 모든 역할 비트
+    public static final int ALL;
+
+    static {
+        UserType[] userTypes = UserType.values();
+        if (userTypes.length > 30) {
+            throw new IllegalStateException("역할 비트마스크는 역할 30개까지만 지원합니다.");
+        }
+        ALL = (1 << userTypes.length) - 1;
+
+        GrantedAuthority[] authorities = new GrantedAuthority[userTypes.length];
+        for (UserType userType : userTypes) {
+            String name = "ROLE_" + userType.name();
+            authorities[userType.ordinal()] = new SimpleGrantedAuthority(name);
+            BITS.put(name, 1 << userType.ordinal());
+            NAMES.add(name);
+        }
+        for (int mask = 0; mask <= ALL; mask++) {
+            List<GrantedAuthority> list = new ArrayList<>();
+            for (int i = 0; i < authorities.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    list.add(authorities[i]);
+                }
+            }
+            BY_MASK.add(Collections.unmodifiableList(list));
+        }
+    }
+
+    private RoleAuthorities() {
+    }
+
+    // 비트 순서(1 << index)의 역할 이름, TokenVerifier 가 역할 비트마스크를 읽을 때 쓴다.
+    public static List<String> names() {
+        return Collections.unmodifiableList(NAMES);
+    }
+
+    // 역할 권한이면 비트, 아니면 0
+    public static int bitOf(String authority) {
+        Integer bit = BITS.get(authority);
+        return bit == null ? 0 : bit;
+    }
+
+    // 권한 목록의 역할 비트마스크, 역할이 아닌 권한이 섞여 있으면 -1
+    public static int maskOf(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            int bit = bitOf(authority.getAuthority());
+            if (bit == 0) {
+                return -1;
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    // 비트마스크의 권한 목록 (공유하는 읽기 전용 목록), 알 수 없는 비트는 무시한다.
+    public static List<GrantedAuthority> forMask(int mask) {
+        return BY_MASK.get(mask & ALL);
+    }
+
+    // 기존 형식(auth 클레임의 권한 이름 목록)의 권한 목록
+    // 모두 역할이면 미리 만든 목록을 그대로 쓰고, 역할이 아닌 권한이 있을 때만 새로 만든다.
+    public static List<GrantedAuthority> fromNames(List<String> names) {
+        int mask = 0;
+        for (String name : names) {
+            int bit = bitOf(name);
+            if (bit == 0) {
+                List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+                for (String each : names) {
+                    authorities.add(new SimpleGrantedAuthority(each));
+                }
+                return authorities;
+            }
+            mask |= bit;
+        }
+        return forMask(mask);
+    }
+}
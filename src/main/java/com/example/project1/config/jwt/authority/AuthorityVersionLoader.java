@@ -0,0 +1,91 @@
+package com.example.project1.config.jwt.authority;
+
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.repository.member.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 다른 인스턴스에서 바뀐 권한을 AuthorityVersions 에 채운다.
+// poll-interval-seconds 마다 그 사이에 수정된(updateTime) 회원 중 권한 버전이 있는 회원만 읽는다. (회원 테이블 전체를 읽지 않는다)
+// - 기동할 때는 액세스 토큰 수명 안에 수정된 회원을 읽는다. 그보다 전에 바뀌었으면 그 전에 발급한 토큰은 이미 만료되었다.
+// - 조회 범위를 주기만큼 겹쳐서, 조회하는 동안 커밋된 수정을 놓치지 않는다.
+// - 기록한 지 액세스 토큰 수명이 지난 항목은 지운다.
+// 그래서 다른 인스턴스의 권한 변경은 최대 poll-interval-seconds 늦게 반영된다. 0 이면 이 인스턴스의 변경만 반영한다.
+@Slf4j
+@Component
+public class AuthorityVersionLoader {
+
+    // 인스턴스 사이의 시계 차이와 조회가 늦어지는 것을 감안한 여유
+    private static final long MARGIN_MILLIS = 60_000;
+
+    private final MemberRepository memberRepository;
+    private final AuthorityVersions authorityVersions;
+    private final long pollIntervalSeconds;
+    private final long accessTokenTime;
+
+    private LocalDateTime lastPolled;
+    private ScheduledExecutorService poller;
+
+    public AuthorityVersionLoader(MemberRepository memberRepository,
+                                  AuthorityVersions authorityVersions,
+                                  @Value("${jwt.authority-version.poll-interval-seconds:5}") long pollIntervalSeconds,
+                                  @Value("${jwt.access.expiration}") long accessTokenTime) {
+        this.memberRepository = memberRepository;
+        this.authorityVersions = authorityVersions;
+        this.pollIntervalSeconds = pollIntervalSeconds;
+        this.accessTokenTime = accessTokenTime;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (pollIntervalSeconds <= 0) {
+            return;
+        }
+        lastPolled = LocalDateTime.now().minus(accessTokenTime + MARGIN_MILLIS, ChronoUnit.MILLIS);
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "authority-version-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 첫 조회는 기동을 늦추지 않도록 바로 백그라운드에서 한다.
+        poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    // DB 를 읽지 못하면 이번 주기는 건너뛰고 다음 주기에 같은 범위부터 다시 읽는다.
+    public synchronized void poll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            List<MemberRepository.AuthorityVersionView> changed =
+                    memberRepository.findAuthorityVersionsModifiedSince(lastPolled);
+            long now = System.currentTimeMillis();
+            for (MemberRepository.AuthorityVersionView view : changed) {
+                authorityVersions.record(view.getUserEmail(), view.getAuthorityVersion(),
+                        RoleAuthorities.bitOf("ROLE_" + view.getUserType()), now);
+            }
+            int expired = authorityVersions.expire(now - accessTokenTime - MARGIN_MILLIS);
+            if (!changed.isEmpty() || expired > 0) {
+                log.info("권한 버전을 반영했습니다. 조회 : {}, 정리 : {}, 현재 : {}", changed.size(), expired, authorityVersions.size());
+            }
+            lastPolled = startedAt.minusSeconds(pollIntervalSeconds);
+        } catch (RuntimeException e) {
+            log.warn("권한 버전을 읽지 못했습니다. 다음 주기에 다시 읽습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.project1.config.jwt.authority;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// 회원(이메일) -> 현재 권한 버전과 역할 비트마스크
+// 권한이 바뀐 회원만 들고 있고, 바뀐 뒤 액세스 토큰 수명이 지나면(그 전에 발급한 토큰이 모두 만료되면) 지운다.
+// 그래서 권한이 바뀐 적 없는 대부분의 회원은 항목이 없고, 조회는 해시 조회 한 번이다.
+//
+// JwtProvider 는 토큰의 av 클레임이 여기의 버전보다 작으면 권한이 바뀌기 전에 발급한 토큰으로 보고
+// 여기의 역할로 권한을 다시 만들거나(기본) 거절한다. 요청마다 DB 를 읽지 않는다.
+// 값은 이 인스턴스의 권한 변경(MemberService.changeRole)과 AuthorityVersionLoader 의 주기적 조회로 채운다.
+@Component
+public class AuthorityVersions {
+
+    private final ConcurrentHashMap<String, Current> versions = new ConcurrentHashMap<>();
+
+    // 권한이 바뀐 적이 없거나 오래전에 바뀌었으면 null
+    public Current find(String userEmail) {
+        return userEmail == null ? null : versions.get(userEmail);
+    }
+
+    // 더 큰 버전만 반영한다. (수정과 주기적 조회가 겹쳐도 예전 버전으로 돌아가지 않는다)
+    public void record(String userEmail, long version, int roleMask, long recordedAtMillis) {
+        if (version <= 0) {
+            return;
+        }
+        versions.merge(userEmail, new Current(version, roleMask, recordedAtMillis),
+                (old, fresh) -> fresh.version > old.version ? fresh : old);
+    }
+
+    // before 전에 기록한 항목을 지운다.
+    public int expire(long beforeMillis) {
+        int before = versions.size();
+        versions.values().removeIf(current -> current.recordedAtMillis < beforeMillis);
+        return before - versions.size();
+    }
+
+    public int size() {
+        return versions.size();
+    }
+
+    public static final class Current {
+        private final long version;
+        private final int roleMask;
+        private final long recordedAtMillis;
+
+        private Current(long version, int roleMask, long recordedAtMillis) {
+            this.version = version;
+            this.roleMask = roleMask;
+            this.recordedAtMillis = recordedAtMillis;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        // RoleAuthorities 의 역할 비트마스크
+        public int getRoleMask() {
+            return roleMask;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.project1.config.jwt.introspect;
+
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.service.jwt.TokenSessionService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TokenIntrospectionProperties.class)
+public class TokenIntrospectionConfig {
+
+    // 종료할 때 검사 스레드를 정리한다.
+    @Bean(destroyMethod = "shutdown")
+    public TokenIntrospectionService tokenIntrospectionService(TokenIntrospectionProperties properties,
+                                                               JwtProvider jwtProvider,
+                                                               ReferenceTokenService referenceTokenService,
+                                                               TokenSessionService tokenSessionService) {
+        return new TokenIntrospectionService(properties, jwtProvider, referenceTokenService, tokenSessionService);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.project1.config.jwt.introspect;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// application.yml 의 token-introspection 설정을 받아오는 클래스
+// clients 에 등록한 게이트웨이만 HTTP Basic(client id / secret)으로 토큰 검사를 요청할 수 있다.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "token-introspection")
+public class TokenIntrospectionProperties {
+
+    private boolean enabled = false;
+    // client id → secret
+    private Map<String, String> clients = new HashMap<>();
+    // 한 번에 검사할 수 있는 토큰 수
+    private int maxBatchSize = 5000;
+    // 검사 스레드 수, 0 이면 CPU 코어 수
+    private int threads = 0;
+    // 스레드 하나가 한 번에 맡는 토큰 수, 이보다 적게 오면 요청 스레드에서 바로 검사한다.
+    private int chunkSize = 64;
+    // 응답 Cache-Control max-age 상한
+    // 참조 토큰 로그아웃, 세션 해지는 만료 전이라도 반영되어야 하므로 토큰 만료 시각까지 캐시하게 두지 않는다.
+    private long maxCacheSeconds = 30;
+}
@@ -0,0 +1,194 @@
+package com.example.project1.config.jwt.introspect;
+
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.domain.jwt.IntrospectionDTO;
+import com.example.project1.service.jwt.TokenSessionService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 게이트웨이용 토큰 일괄 검사 (RFC 7662 introspection 을 여러 토큰으로 늘린 것)
+// 게이트웨이가 요청마다 우리에게 넘기는 대신, 모은 토큰을 한 번에 보내서 회원, 권한, 만료 시각을 받아 간다.
+// - 검사는 JwtAuthenticationFilter 와 같다. 참조 토큰은 인덱스 조회, JWT 는 서명과 만료 확인
+// - 토큰을 chunk-size 개씩 나눠서 검사 스레드들이 나눠 맡는다. (ES256 서명이면 토큰 하나에 ms 단위라 코어 수만큼 빨라진다)
+//   검사 스레드가 모두 바쁘면 요청 스레드가 직접 검사한다. (큐에서 기다리지 않는다)
+// - 해지 정보가 있는 토큰은 해지 여부도 본다.
+//   참조 토큰은 로그아웃하면 인덱스에서 빠지고, 리프레시 토큰은 세션(token 테이블)이 남아 있는지 한 번의 IN 조회로 확인한다.
+//   JWT 액세스 토큰은 해지 정보가 없으므로 서명과 만료만 본다.
+@Slf4j
+public class TokenIntrospectionService {
+
+    private static final String BASIC = "Basic ";
+
+    private final boolean enabled;
+    private final Map<String, byte[]> clients = new HashMap<>();
+    @Getter
+    private final int maxBatchSize;
+    private final int chunkSize;
+    private final long maxCacheSeconds;
+    private final JwtProvider jwtProvider;
+    private final ReferenceTokenService referenceTokenService;
+    private final TokenSessionService tokenSessionService;
+    private final ThreadPoolExecutor executor;
+
+    public TokenIntrospectionService(TokenIntrospectionProperties properties,
+                                     JwtProvider jwtProvider,
+                                     ReferenceTokenService referenceTokenService,
+                                     TokenSessionService tokenSessionService) {
+        this.enabled = properties.isEnabled() && !properties.getClients().isEmpty();
+        properties.getClients().forEach((id, secret) -> clients.put(id, secret.getBytes(StandardCharsets.UTF_8)));
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.chunkSize = Math.max(1, properties.getChunkSize());
+        this.maxCacheSeconds = Math.max(0, properties.getMaxCacheSeconds());
+        this.jwtProvider = jwtProvider;
+        this.referenceTokenService = referenceTokenService;
+        this.tokenSessionService = tokenSessionService;
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                r -> {
+                    Thread thread = new Thread(r, "token-introspection-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        if (properties.isEnabled() && !enabled) {
+            log.warn("token-introspection.clients 가 비어 있어서 토큰 검사를 사용하지 않습니다.");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Authorization: Basic base64(client id:secret)
+    public boolean authenticate(String authorization) {
+        if (!enabled || authorization == null || !authorization.startsWith(BASIC)) {
+            return false;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(BASIC.length()).trim()),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        int colon = credentials.indexOf(':');
+        if (colon < 0) {
+            return false;
+        }
+        byte[] secret = clients.get(credentials.substring(0, colon));
+        // 비밀값 비교에 걸린 시간으로 secret 을 추측하지 못하게 한다.
+        return secret != null
+                && MessageDigest.isEqual(secret, credentials.substring(colon + 1).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 요청한 순서대로 결과를 돌려준다.
+    public Result introspect(List<String> tokens) {
+        int size = tokens.size();
+        IntrospectionDTO[] results = new IntrospectionDTO[size];
+        if (size <= chunkSize) {
+            inspect(tokens, results, 0, size);
+        } else {
+            // 첫 덩어리는 요청 스레드가 맡는다.
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = chunkSize; from < size; from += chunkSize) {
+                int start = from;
+                int end = Math.min(from + chunkSize, size);
+                futures.add(executor.submit(() -> inspect(tokens, results, start, end)));
+            }
+            inspect(tokens, results, 0, chunkSize);
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("토큰 검사가 중단되었습니다.", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("토큰 검사에 실패했습니다.", e.getCause());
+                }
+            }
+        }
+        excludeRevokedRefreshTokens(tokens, results);
+        return new Result(Arrays.asList(results), cacheSeconds(results));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void inspect(List<String> tokens, IntrospectionDTO[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            String token = tokens.get(i);
+            if (!StringUtils.hasText(token)) {
+                results[i] = IntrospectionDTO.INACTIVE;
+            } else if (ReferenceTokenService.isReferenceToken(token)) {
+                results[i] = referenceTokenService.introspect(token);
+            } else {
+                results[i] = jwtProvider.introspect(token);
+            }
+        }
+    }
+
+    // 서명은 맞지만 세션이 해지된(로그아웃, 다른 기기에서 해지, 오래되어 정리된) 리프레시 토큰
+    private void excludeRevokedRefreshTokens(List<String> tokens, IntrospectionDTO[] results) {
+        List<String> refreshTokens = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].isActive() && IntrospectionDTO.REFRESH_TOKEN.equals(results[i].getTokenType())) {
+                refreshTokens.add(tokens.get(i));
+            }
+        }
+        if (refreshTokens.isEmpty()) {
+            return;
+        }
+        Set<String> active = tokenSessionService.activeRefreshTokens(refreshTokens);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].isActive() && IntrospectionDTO.REFRESH_TOKEN.equals(results[i].getTokenType())
+                    && !active.contains(tokens.get(i))) {
+                results[i] = IntrospectionDTO.INACTIVE;
+            }
+        }
+    }
+
+    // 응답을 캐시해도 되는 시간 : 가장 먼저 만료되는 토큰까지, 최대 max-cache-seconds
+    private long cacheSeconds(IntrospectionDTO[] results) {
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        long seconds = maxCacheSeconds;
+        for (IntrospectionDTO result : results) {
+            if (result.isActive() && result.getExp() != null) {
+                seconds = Math.min(seconds, result.getExp() - nowSeconds);
+            }
+        }
+        return Math.max(0, seconds);
+    }
+
+    @Getter
+    public static class Result {
+        private final List<IntrospectionDTO> results;
+        private final long cacheSeconds;
+
+        private Result(List<IntrospectionDTO> results, long cacheSeconds) {
+            this.results = results;
+            this.cacheSeconds = cacheSeconds;
+        }
+    }
+}
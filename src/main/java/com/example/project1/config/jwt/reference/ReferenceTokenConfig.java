@@ -0,0 +1,23 @@
+package com.example.project1.config.jwt.reference;
+
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 참조 토큰은 꺼져 있어도(reference-token.enabled=false) 빈은 만든다.
+// 그래야 JwtAuthenticationFilter, MemberService 가 설정과 관계없이 같은 코드로 동작하고, 꺼져 있으면 발급만 하지 않는다.
+@Configuration
+@EnableConfigurationProperties(ReferenceTokenProperties.class)
+public class ReferenceTokenConfig {
+
+    // 기동할 때 스냅샷을 복원하고, 종료할 때 스냅샷을 남긴다.
+    // 권한이 바뀐 회원의 토큰은 JwtProvider 와 같은 설정(reject-stale)으로 다룬다.
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReferenceTokenService referenceTokenService(ReferenceTokenProperties properties,
+                                                       AuthorityVersions authorityVersions,
+                                                       @Value("${jwt.authority-version.reject-stale:false}") boolean rejectStale) {
+        return new ReferenceTokenService(properties, authorityVersions, rejectStale);
+    }
+}
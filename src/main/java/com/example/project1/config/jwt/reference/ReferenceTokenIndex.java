@@ -0,0 +1,94 @@
+package com.example.project1.config.jwt.reference;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// 참조 토큰 → (회원, 권한, 만료 시각) 인덱스
+// StripedBucketMap 처럼 여러 개의 shard 로 나눠서
+// 만료 정리와 스냅샷이 shard 단위로 조금씩 진행되도록 했다.
+// 각 shard 는 ConcurrentHashMap 이라 조회는 락을 잡지 않고, 쓰기는 bin 단위 락만 잡는다.
+public class ReferenceTokenIndex {
+
+    private final ConcurrentHashMap<String, Entry>[] shards;
+    private final int mask;
+
+    // StripedBucketMap 과 같이 shard 배열은 raw 타입으로 만든다.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ReferenceTokenIndex(int shardCount) {
+        // shard 개수는 2의 거듭제곱으로 맞춰서 나머지 연산 대신 비트 연산을 사용
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+        this.shards = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+    }
+
+    public void put(String token, Entry entry) {
+        shardFor(token).put(token, entry);
+    }
+
+    // 만료되었거나 없는 토큰이면 null
+    public Entry get(String token, long nowMillis) {
+        Entry entry = shardFor(token).get(token);
+        if (entry == null || entry.expiresAtMillis <= nowMillis) {
+            return null;
+        }
+        return entry;
+    }
+
+    public boolean remove(String token) {
+        return shardFor(token).remove(token) != null;
+    }
+
+    // 만료된 토큰 제거
+    public int evictExpired(long nowMillis) {
+        int evicted = 0;
+        for (ConcurrentHashMap<String, Entry> shard : shards) {
+            for (Map.Entry<String, Entry> entry : shard.entrySet()) {
+                if (entry.getValue().expiresAtMillis <= nowMillis
+                        && shard.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    // 스냅샷용, shard 를 하나씩 훑는다. (훑는 동안 추가, 삭제된 토큰은 포함될 수도 있고 아닐 수도 있다)
+    public void forEach(Consumer<Map.Entry<String, Entry>> action) {
+        for (ConcurrentHashMap<String, Entry> shard : shards) {
+            shard.entrySet().forEach(action);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, Entry> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, Entry> shardFor(String token) {
+        int h = token.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    public static class Entry {
+        final String userEmail;
+        // RoleAuthorities 가 미리 만들어 둔 공유 목록
+        final List<GrantedAuthority> authorities;
+        final long expiresAtMillis;
+
+        public Entry(String userEmail, List<GrantedAuthority> authorities, long expiresAtMillis) {
+            this.userEmail = userEmail;
+            this.authorities = authorities;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.project1.config.jwt.reference;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// application.yml 의 reference-token 설정을 받아오는 클래스
+// clients 에 등록한 클라이언트(X-Client-Id 헤더)에게만 JWT 대신 참조 토큰을 액세스 토큰으로 발급한다.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "reference-token")
+public class ReferenceTokenProperties {
+
+    private boolean enabled = false;
+    // 참조 토큰을 받을 클라이언트 id 목록
+    private List<String> clients = new ArrayList<>();
+    private int shards = 16;
+    // 이보다 많이 쌓이면 새로 로그인한 클라이언트에게는 JWT 를 발급한다.
+    private int maxEntries = 1_000_000;
+    // 만료된 토큰 정리 주기
+    private long sweepIntervalSeconds = 60;
+    // 스냅샷 파일, 비우면 스냅샷을 남기지 않는다. (재시작하면 참조 토큰이 모두 사라진다)
+    private String snapshotPath = "./reference-token/reference-tokens.snap";
+    // 종료할 때 외에도 이 주기마다 스냅샷을 남겨서, 비정상 종료 때 잃는 토큰을 줄인다.
+    private long snapshotIntervalSeconds = 60;
+}
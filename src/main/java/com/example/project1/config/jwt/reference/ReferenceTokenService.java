@@ -0,0 +1,228 @@
+package com.example.project1.config.jwt.reference;
+
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.domain.jwt.IntrospectionDTO;
+import com.example.project1.domain.jwt.TokenDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 내부 클라이언트용 참조(opaque) 토큰
+// JWT(수백 byte) 대신 무작위 128비트 값(base64url 22자)을 액세스 토큰으로 발급하고,
+// 토큰 → (회원, 권한, 만료 시각)은 이 인스턴스의 메모리 인덱스(ReferenceTokenIndex)에 둔다.
+// 검증은 인덱스 조회 한 번이라 서명 검증, base64 디코딩, JSON 파싱이 없다.
+//
+// - reference-token.clients 에 등록한 클라이언트(X-Client-Id 헤더)가 로그인, 재발급할 때만 발급한다.
+//   리프레시 토큰은 그대로 JWT 이고 기기 세션(TokenSessionService)으로 관리한다.
+// - 인덱스는 주기적으로, 그리고 종료할 때 스냅샷 파일로 남기고 기동할 때 복원해서 재시작해도 로그아웃되지 않는다.
+// - 인덱스는 인스턴스마다 따로 있으므로 여러 인스턴스로 띄울 때는 같은 클라이언트가 같은 인스턴스로 가도록(sticky) 해야 한다.
+// - 발급한 뒤에 회원의 권한이 바뀌었으면(AuthorityVersions) JWT 와 같이 현재 역할로 권한을 다시 만들거나 거절한다.
+@Slf4j
+public class ReferenceTokenService {
+
+    public static final String HEADER_CLIENT_ID = "X-Client-Id";
+    // 128비트를 패딩 없는 base64url 로 쓴 길이
+    static final int TOKEN_LENGTH = 22;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final boolean enabled;
+    private final Set<String> clients;
+    private final int maxEntries;
+    private final long sweepIntervalSeconds;
+    private final Path snapshotPath;
+    private final long snapshotIntervalSeconds;
+    private final ReferenceTokenIndex index;
+    private final AuthorityVersions authorityVersions;
+    private final boolean rejectStaleAuthorities;
+    private final SecureRandom random = new SecureRandom();
+    private ScheduledExecutorService scheduler;
+
+    public ReferenceTokenService(ReferenceTokenProperties properties) {
+        this(properties, new AuthorityVersions(), false);
+    }
+
+    public ReferenceTokenService(ReferenceTokenProperties properties,
+                                 AuthorityVersions authorityVersions,
+                                 boolean rejectStaleAuthorities) {
+        this.enabled = properties.isEnabled();
+        this.clients = new HashSet<>(properties.getClients());
+        this.maxEntries = properties.getMaxEntries();
+        this.sweepIntervalSeconds = Math.max(1, properties.getSweepIntervalSeconds());
+        this.snapshotPath = StringUtils.hasText(properties.getSnapshotPath())
+                ? Paths.get(properties.getSnapshotPath()) : null;
+        this.snapshotIntervalSeconds = properties.getSnapshotIntervalSeconds();
+        this.index = new ReferenceTokenIndex(properties.getShards());
+        this.authorityVersions = authorityVersions;
+        this.rejectStaleAuthorities = rejectStaleAuthorities;
+    }
+
+    // 이 클라이언트에게 참조 토큰을 발급하는지
+    public boolean appliesTo(String clientId) {
+        return enabled && clientId != null && clients.contains(clientId);
+    }
+
+    // JWT 로 발급한 토큰의 액세스 토큰을 같은 만료 시각의 참조 토큰으로 바꾼다.
+    // 인덱스가 가득 찼으면 JWT 를 그대로 돌려준다.
+    public TokenDTO issue(TokenDTO token, List<GrantedAuthority> authorities) {
+        int size = index.size();
+        if (size >= maxEntries) {
+            log.warn("참조 토큰 인덱스가 가득 차서 JWT 를 발급합니다. size : {}", size);
+            return token;
+        }
+        String referenceToken = newToken();
+        index.put(referenceToken, new ReferenceTokenIndex.Entry(
+                token.getUserEmail(), RoleAuthorities.fromNames(names(authorities)), token.getAccessTokenTime().getTime()));
+
+        return TokenDTO.builder()
+                .grantType(token.getGrantType())
+                .accessToken(referenceToken)
+                .accessTokenTime(token.getAccessTokenTime())
+                .refreshToken(token.getRefreshToken())
+                .refreshTokenTime(token.getRefreshTokenTime())
+                .userEmail(token.getUserEmail())
+                .nickName(token.getNickName())
+                .userId(token.getUserId())
+                .userType(token.getUserType())
+                .build();
+    }
+
+    // 참조 토큰의 인증 정보, 모르는 토큰이거나 만료되었으면 null
+    // JwtProvider.getAuthentication 과 같은 모양(User principal, 토큰 credentials)으로 만든다.
+    public Authentication resolve(String token) {
+        ReferenceTokenIndex.Entry entry = index.get(token, System.currentTimeMillis());
+        List<GrantedAuthority> authorities = entry == null ? null : authorities(entry);
+        if (authorities == null) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(
+                new User(entry.userEmail, "", authorities), token, authorities);
+    }
+
+    // 토큰 검사(introspection) 결과, 모르는 토큰이거나 만료, 로그아웃했으면 active=false
+    public IntrospectionDTO introspect(String token) {
+        ReferenceTokenIndex.Entry entry = index.get(token, System.currentTimeMillis());
+        List<GrantedAuthority> authorities = entry == null ? null : authorities(entry);
+        if (authorities == null) {
+            return IntrospectionDTO.INACTIVE;
+        }
+        return IntrospectionDTO.builder()
+                .active(true)
+                .sub(entry.userEmail)
+                .auth(names(authorities))
+                .exp(entry.expiresAtMillis / 1000)
+                .tokenType(IntrospectionDTO.ACCESS_TOKEN)
+                .build();
+    }
+
+    // 발급할 때의 권한, 그 뒤에 권한이 바뀌었으면 현재 역할의 권한이고 거절하면(reject-stale) null
+    // 항목에 권한 버전을 두지 않고 역할을 비교한다. 바뀐 뒤에 발급한 토큰은 현재 역할과 같고,
+    // 바뀌었다가 되돌아온 경우도 권한이 같으므로 결과가 같다.
+    private List<GrantedAuthority> authorities(ReferenceTokenIndex.Entry entry) {
+        AuthorityVersions.Current current = authorityVersions.find(entry.userEmail);
+        if (current == null || RoleAuthorities.maskOf(entry.authorities) == current.getRoleMask()) {
+            return entry.authorities;
+        }
+        return rejectStaleAuthorities ? null : RoleAuthorities.forMask(current.getRoleMask());
+    }
+
+    // 로그아웃한 토큰은 만료 전이라도 바로 지운다.
+    public boolean revoke(String token) {
+        return isReferenceToken(token) && index.remove(token);
+    }
+
+    // JWT 는 '.' 으로 나뉜 세 부분이라 길이와 '.' 유무로 구분한다.
+    public static boolean isReferenceToken(String token) {
+        return token != null && token.length() == TOKEN_LENGTH && token.indexOf('.') < 0;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    private static List<String> names(List<GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+
+    // 스냅샷을 복원하고 만료 정리, 주기적 스냅샷을 시작한다.
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (snapshotPath != null) {
+            try {
+                long begin = System.nanoTime();
+                int restored = ReferenceTokenSnapshot.read(snapshotPath, index, System.currentTimeMillis());
+                log.info("참조 토큰 스냅샷 복원 : {}개, {}ms", restored,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+            } catch (IOException e) {
+                // 스냅샷을 읽지 못해도 기동은 한다. 참조 토큰을 가진 클라이언트는 다시 로그인해야 한다.
+                log.error("참조 토큰 스냅샷을 복원하지 못했습니다. {}", e.getMessage());
+            }
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reference-token-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> index.evictExpired(System.currentTimeMillis()),
+                sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+        if (snapshotPath != null && snapshotIntervalSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::snapshot,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    // 정리 작업을 멈추고 마지막 스냅샷을 남긴다.
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshot();
+    }
+
+    public synchronized void snapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            ReferenceTokenSnapshot.write(snapshotPath, index, System.currentTimeMillis());
+        } catch (IOException | RuntimeException e) {
+            log.error("참조 토큰 스냅샷을 남기지 못했습니다. {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.project1.config.jwt.reference;
+
+import com.example.project1.config.jwt.RoleAuthorities;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+
+// 참조 토큰 인덱스 스냅샷 파일 형식
+//
+// [헤더]   magic(int) + version(int)
+// [레코드] 1(byte) + token(UTF) + userEmail(UTF) + expiresAtMillis(long) + 권한 수(byte) + 권한 이름(UTF)...
+// [끝]     0(byte)
+//
+// 임시 파일에 다 쓴 뒤 이름을 바꾸므로 읽는 쪽은 완성된 스냅샷만 본다.
+// 끝 표시가 없으면(잘린 파일) 읽은 데까지만 복원한다.
+// 파일에는 살아 있는 토큰이 그대로 들어 있으므로 (POSIX 파일 시스템이면) 소유자만 읽을 수 있게 만든다.
+final class ReferenceTokenSnapshot {
+
+    static final int MAGIC = 0x52545331; // "RTS1"
+    static final int VERSION = 1;
+
+    private ReferenceTokenSnapshot() {
+    }
+
+    // 만료되지 않은 토큰만 쓴다. 쓴 토큰 수를 돌려준다.
+    static int write(Path path, ReferenceTokenIndex index, long nowMillis) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = dir.resolve(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(temp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+
+        int[] written = new int[1];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            index.forEach(e -> {
+                ReferenceTokenIndex.Entry entry = e.getValue();
+                if (entry.expiresAtMillis <= nowMillis) {
+                    return;
+                }
+                try {
+                    out.writeByte(1);
+                    out.writeUTF(e.getKey());
+                    out.writeUTF(entry.userEmail);
+                    out.writeLong(entry.expiresAtMillis);
+                    out.writeByte(entry.authorities.size());
+                    for (GrantedAuthority authority : entry.authorities) {
+                        out.writeUTF(authority.getAuthority());
+                    }
+                    written[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            out.writeByte(0);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return written[0];
+    }
+
+    // 만료되지 않은 토큰만 인덱스에 넣는다. 넣은 토큰 수를 돌려준다. 파일이 없으면 0
+    static int read(Path path, ReferenceTokenIndex index, long nowMillis) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int restored = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("참조 토큰 스냅샷 파일이 아닙니다. path : " + path);
+            }
+            List<String> names = new ArrayList<>();
+            while (in.readByte() == 1) {
+                String token = in.readUTF();
+                String userEmail = in.readUTF();
+                long expiresAtMillis = in.readLong();
+                int count = in.readUnsignedByte();
+                names.clear();
+                for (int i = 0; i < count; i++) {
+                    names.add(in.readUTF());
+                }
+                if (expiresAtMillis > nowMillis) {
+                    index.put(token, new ReferenceTokenIndex.Entry(
+                            userEmail, RoleAuthorities.fromNames(names), expiresAtMillis));
+                    restored++;
+                }
+            }
+        } catch (EOFException e) {
+            // 잘린 파일, 읽은 데까지만 복원한다.
+        }
+        return restored;
+    }
+}
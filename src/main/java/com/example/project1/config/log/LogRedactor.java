@@ -0,0 +1,94 @@
+package com.example.project1.config.log;
+
+// 로그 인자에서 토큰, 비밀번호 해시를 가려주는 클래스
+// 정규식 대신 한 번 훑는 스캐너로 처리해서 입력 길이에 비례하는 시간만 쓴다.
+// - JWT : "eyJ" 로 시작하고 점(.)으로 구분된 base64url 조각이 3개 이상인 문자열
+// - bcrypt : "$2a$", "$2b$", "$2y$" 로 시작하는 해시
+public final class LogRedactor {
+
+    static final String JWT_MASK = "[JWT]";
+    static final String HASH_MASK = "[HASH]";
+
+    private LogRedactor() {
+    }
+
+    public static Object redact(Object arg) {
+        if (arg == null || arg instanceof Number || arg instanceof Boolean || arg instanceof Enum) {
+            return arg;
+        }
+        return redact(arg.toString());
+    }
+
+    public static String redact(String value) {
+        StringBuilder out = null;
+        int copied = 0;
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            int end = -1;
+            String mask = null;
+
+            if (c == 'e' && value.startsWith("eyJ", i)) {
+                end = jwtEnd(value, i);
+                mask = JWT_MASK;
+            } else if (c == '$' && isBcryptPrefix(value, i)) {
+                end = bcryptEnd(value, i);
+                mask = HASH_MASK;
+            }
+
+            if (end > 0) {
+                if (out == null) {
+                    out = new StringBuilder(length);
+                }
+                out.append(value, copied, i).append(mask);
+                copied = end;
+                i = end - 1;
+            }
+        }
+
+        if (out == null) {
+            return value;
+        }
+        return out.append(value, copied, length).toString();
+    }
+
+    // JWT 로 보이면 끝 위치를, 아니면 -1 을 반환
+    private static int jwtEnd(String value, int start) {
+        int dots = 0;
+        int i = start;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (!isBase64Url(c)) {
+                break;
+            }
+            i++;
+        }
+        return dots >= 2 ? i : -1;
+    }
+
+    private static boolean isBcryptPrefix(String value, int i) {
+        return i + 4 <= value.length()
+                && value.charAt(i + 1) == '2'
+                && (value.charAt(i + 2) == 'a' || value.charAt(i + 2) == 'b' || value.charAt(i + 2) == 'y')
+                && value.charAt(i + 3) == '$';
+    }
+
+    private static int bcryptEnd(String value, int start) {
+        int i = start + 4;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (!(isBase64Url(c) || c == '$' || c == '.' || c == '/')) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.project1.config.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 로그를 남기는 위치(call site) 하나
+// 클래스의 static final 필드로 선언해서 메시지 템플릿과 샘플링 비율을 함께 들고 다닌다.
+//
+//   private static final LogSite TOKEN_ISSUED = LogSite.of("토큰 발급 완료 sub : {}", 100);
+//
+// sampleEvery 가 100 이면 100번 중 1번만 실제로 기록한다.
+public final class LogSite {
+
+    private final String template;
+    private final long sampleEvery;
+    private final AtomicLong counter = new AtomicLong();
+
+    private LogSite(String template, long sampleEvery) {
+        this.template = template;
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    public static LogSite of(String template) {
+        return new LogSite(template, 1);
+    }
+
+    public static LogSite of(String template, long sampleEvery) {
+        return new LogSite(template, sampleEvery);
+    }
+
+    String getTemplate() {
+        return template;
+    }
+
+    // 이번 호출을 기록할 차례인지 확인
+    boolean sample() {
+        return sampleEvery == 1 || counter.getAndIncrement() % sampleEvery == 0;
+    }
+}
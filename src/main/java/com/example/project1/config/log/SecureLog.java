@@ -0,0 +1,70 @@
+package com.example.project1.config.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// 인증 경로(config.jwt, config.auth, config.oauth2)에서 사용하는 로거
+// - 메시지는 "{}" 템플릿으로 넘기고, 레벨이 꺼져 있거나 샘플링에서 빠지면 인자를 문자열로 바꾸지 않는다.
+// - 실제로 기록할 때만 인자에서 토큰과 비밀번호 해시를 가린다.
+// - 인자 개수별로 메소드를 나눠서 varargs 배열도 만들지 않는다.
+// 실제 출력은 logback-spring.xml 의 비동기 appender 가 담당한다.
+public final class SecureLog {
+
+    private final Logger logger;
+
+    private SecureLog(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static SecureLog of(Class<?> type) {
+        return new SecureLog(LoggerFactory.getLogger(type));
+    }
+
+    public void info(LogSite site) {
+        if (logger.isInfoEnabled() && site.sample()) {
+            logger.info(site.getTemplate());
+        }
+    }
+
+    public void info(LogSite site, Object arg) {
+        if (logger.isInfoEnabled() && site.sample()) {
+            logger.info(site.getTemplate(), LogRedactor.redact(arg));
+        }
+    }
+
+    public void info(LogSite site, Object arg1, Object arg2) {
+        if (logger.isInfoEnabled() && site.sample()) {
+            logger.info(site.getTemplate(), LogRedactor.redact(arg1), LogRedactor.redact(arg2));
+        }
+    }
+
+    public void debug(LogSite site) {
+        if (logger.isDebugEnabled() && site.sample()) {
+            logger.debug(site.getTemplate());
+        }
+    }
+
+    public void debug(LogSite site, Object arg) {
+        if (logger.isDebugEnabled() && site.sample()) {
+            logger.debug(site.getTemplate(), LogRedactor.redact(arg));
+        }
+    }
+
+    public void debug(LogSite site, Object arg1, Object arg2) {
+        if (logger.isDebugEnabled() && site.sample()) {
+            logger.debug(site.getTemplate(), LogRedactor.redact(arg1), LogRedactor.redact(arg2));
+        }
+    }
+
+    public void warn(LogSite site, Object arg) {
+        if (logger.isWarnEnabled() && site.sample()) {
+            logger.warn(site.getTemplate(), LogRedactor.redact(arg));
+        }
+    }
+
+    public void error(LogSite site, Object arg) {
+        if (logger.isErrorEnabled() && site.sample()) {
+            logger.error(site.getTemplate(), LogRedactor.redact(arg));
+        }
+    }
+}
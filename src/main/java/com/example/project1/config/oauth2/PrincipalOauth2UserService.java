@@ -1,76 +1,75 @@
 package com.example.project1.config.oauth2;
 
+import com.example.project1.config.audit.AuthAuditJournal;
+import com.example.project1.config.audit.AuthAuditType;
 import com.example.project1.config.auth.PrincipalDetails;
 import com.example.project1.config.auth.PrincipalDetailsService;
-import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.log.LogSite;
+import com.example.project1.config.log.SecureLog;
+import com.example.project1.config.oauth2.client.ProviderUserInfoClient;
 import com.example.project1.config.oauth2.provider.GoogleUserInfo;
 import com.example.project1.config.oauth2.provider.NaverUserInfo;
 import com.example.project1.config.oauth2.provider.OAuth2UserInfo;
-import com.example.project1.domain.jwt.TokenDTO;
 import com.example.project1.domain.member.UserType;
-import com.example.project1.entity.jwt.TokenEntity;
 import com.example.project1.entity.member.MemberEntity;
-import com.example.project1.repository.jwt.TokenRepository;
 import com.example.project1.repository.member.MemberRepository;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 // 소셜 로그인하면 사용자 정보를 가지고 온다.
 // 가져온 정보와 함께 PrincipalDetails 객체를 생성합니다.
 @Service
-@Slf4j
 @RequiredArgsConstructor
-public class PrincipalOauth2UserService extends DefaultOAuth2UserService {
+public class PrincipalOauth2UserService implements OAuth2UserService<OAuth2UserRequest, OAuth2User> {
+    private static final SecureLog log = SecureLog.of(PrincipalOauth2UserService.class);
+    private static final LogSite LOGIN_REQUEST = LogSite.of("소셜 로그인 요청 provider : {}");
+    private static final LogSite UNSUPPORTED_PROVIDER = LogSite.of("구글과 네이버만 지원합니다. provider : {}");
+    private static final LogSite AUTO_SIGNUP = LogSite.of("OAuth 자동 회원가입을 진행합니다. provider : {}, userEmail : {}");
+    private static final LogSite RETURNING_USER = LogSite.of("이미 자동 회원가입된 사용자입니다. provider : {}, userEmail : {}");
+
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
     private final MemberRepository memberRepository;
-    private final JwtProvider jwtProvider;
-    private final TokenRepository tokenRepository;
+    private final AuthAuditJournal authAuditJournal;
+    private final ProviderUserInfoClient providerUserInfoClient;
 
     // 구글로부터 받은 userReuest 데이터에 대한 후처리되는 함수
     @Override
     public PrincipalDetails loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
         // registrationId로 어떤 OAuth로 로그인 했는지 확인가능
-        log.info("clientRegistration in PrincipalOauth2UserService : " + userRequest.getClientRegistration());
-        log.info("accessToken in PrincipalOauth2UserService : " + userRequest.getAccessToken().getTokenValue());
+        String registrationId = userRequest.getClientRegistration().getRegistrationId();
+        log.info(LOGIN_REQUEST, registrationId);
 
-        OAuth2User oAuth2User = super.loadUser(userRequest);
+        // 제공자의 사용자 정보 조회 (커넥션 풀, 타임아웃, 제공자별 벌크헤드, 액세스 토큰별 캐시)
+        OAuth2User oAuth2User = providerUserInfoClient.load(userRequest);
 
         // 구글 로그인 버튼 클릭 →구글 로그인 창 → 로그인 완료 → code 를 리턴(OAuth-Client 라이브러리) → AccessToken 요청
         // userRequest 정보 → 회원 프로필 받아야함(loadUser 함수 호출) → 구글로부터 회원 프로필을 받아준다.
-        log.info("getAttributes in PrincipalOauth2UserService : " + oAuth2User.getAttributes());
 
 
         // 회원가입을 강제로 진행
         OAuth2UserInfo oAuth2UserInfo = null;
 
         if (userRequest.getClientRegistration().getRegistrationId().equals("google")) {
-            log.info("구글 로그인 요청");
             oAuth2UserInfo = new GoogleUserInfo(oAuth2User.getAttributes());
         } else if (userRequest.getClientRegistration().getRegistrationId().equals("naver")) {
-            log.info("네이버 로그인 요청");
             // 네이버는 response를 json으로 리턴을 해주는데 아래의 코드가 받아오는 코드다.
             // response={id=5SN-ML41CuX_iAUFH6-KWbuei8kRV9aTHdXOOXgL2K0, email=zxzz8014@naver.com, name=전혜영}
             // 위의 정보를 NaverUserInfo에 넘기면
             oAuth2UserInfo = new NaverUserInfo((Map) oAuth2User.getAttributes().get("response"));
         } else {
-            log.info("구글과 네이버만 지원합니다.");
+            log.warn(UNSUPPORTED_PROVIDER, registrationId);
         }
 
         // 사용자가 로그인한 소셜 서비스(provider)를 가져옵니다.
@@ -98,9 +97,7 @@ public class PrincipalOauth2UserService extends DefaultOAuth2UserService {
         MemberEntity member = memberRepository.findByUserEmail(email);
 
         if (member == null) {
-            log.info("OAuth 로그인이 최초입니다.");
-            log.info("↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓↓");
-            log.info("OAuth 자동 회원가입을 진행합니다.");
+            log.info(AUTO_SIGNUP, provider, email);
 
 
             member = MemberEntity.builder()
@@ -113,90 +110,17 @@ public class PrincipalOauth2UserService extends DefaultOAuth2UserService {
                     .providerId(providerId)
                     .build();
 
-            log.info("userEmail in PrincipalOauth2UserService : " + member.getUserEmail());
-            log.info("userName in PrincipalOauth2UserService : " + member.getUserName());
-            log.info("userPw in PrincipalOauth2UserService : " + member.getUserPw());
-            log.info("userType in PrincipalOauth2UserService : " + member.getUserType());
-            log.info("provider in PrincipalOauth2UserService : " + member.getProvider());
-            log.info("providerId in PrincipalOauth2UserService : " + member.getProviderId());
-            log.info("nickName in PrincipalOauth2UserService : " + member.getNickName());
-
-
-            MemberEntity save = memberRepository.save(member);
-            log.info("save : " + save);
-
-            // 사용자의 역할(role)에 해당하는 권한 정보를 가져오는 메서드를 호출하여 권한 리스트를 생성합니다.
-            List<GrantedAuthority> authoritiesForUser = getAuthoritiesForUser(save);
-            // jwtProvider 객체를 사용하여 사용자 정보와 권한을 기반으로 JWT 토큰을 생성
-            TokenDTO token = jwtProvider.createTokenForOAuth2(email, authoritiesForUser);
-
-            token = TokenDTO.builder()
-                    .grantType(token.getGrantType())
-                    .userId(save.getUserId())
-                    .accessToken(token.getAccessToken())
-                    .refreshToken(token.getRefreshToken())
-                    .accessTokenTime(token.getAccessTokenTime())
-                    .refreshTokenTime(token.getRefreshTokenTime())
-                    .userEmail(token.getUserEmail())
-                    .nickName(randomNickName)
-                    .userType(role)
-                    .build();
-
-            // 생성된 JWT 토큰을 엔티티로 변환하여 저장하기 위해 TokenEntity 객체로 변환합니다.
-            TokenEntity tokenEntity = TokenEntity.toTokenEntity(token);
-            tokenRepository.save(tokenEntity);
-
-
+            memberRepository.save(member);
+            authAuditJournal.record(AuthAuditType.OAUTH_SIGNUP, email);
         } else {
-            log.info("로그인을 이미 한적이 있습니다. 당신은 자동회원가입이 되어 있습니다.");
-            MemberEntity findUser = memberRepository.findByUserEmail(email);
-            log.info("findUser1 in PrincipalOauth2UserService : " + findUser);
-            List<GrantedAuthority> authorities = getAuthoritiesForUser(findUser);
-
-            TokenDTO tokenForOAuth2 =
-                    jwtProvider.createTokenForOAuth2(findUser.getUserEmail(), authorities);
-
-            TokenEntity findToken = tokenRepository.findByUserEmail(tokenForOAuth2.getUserEmail());
-            log.info("findToken in PrincipalOauth2UserService : " + findToken);
-
-            findToken = TokenEntity.builder()
-                    .id(findToken.getId())
-                    .grantType(tokenForOAuth2.getGrantType())
-                    .userId(findUser.getUserId())
-                    .accessToken(tokenForOAuth2.getAccessToken())
-                    .refreshToken(tokenForOAuth2.getRefreshToken())
-                    .accessTokenTime(tokenForOAuth2.getAccessTokenTime())
-                    .refreshTokenTime(tokenForOAuth2.getRefreshTokenTime())
-                    .userEmail(tokenForOAuth2.getUserEmail())
-                    .nickName(randomNickName)
-                    .userType(role)
-                    .build();
-            tokenRepository.save(findToken);
-
+            log.info(RETURNING_USER, provider, email);
+            authAuditJournal.record(AuthAuditType.LOGIN_SUCCESS, email);
         }
-
-        TokenEntity findToken = tokenRepository.findByUserEmail(email);
-        log.info("findToken : " + findToken);
-
+        // 토큰은 로그인한 기기의 세션으로 /success-oauth 에서 발급한다. (MemberService.createToken)
 
         // attributes가 있는 생성자를 사용하여 PrincipalDetails 객체 생성
         // 소셜 로그인인 경우에는 attributes도 함께 가지고 있는 PrincipalDetails 객체를 생성하게 됩니다.
         PrincipalDetails principalDetails = new PrincipalDetails(member, oAuth2User.getAttributes());
-        log.info("principalDetails in PrincipalOauth2UserService : " + principalDetails);
         return principalDetails;
     }
-
-    private List<GrantedAuthority> getAuthoritiesForUser(MemberEntity member) {
-        // 예시: 데이터베이스에서 사용자의 권한 정보를 조회하는 로직을 구현
-        // member 객체를 이용하여 데이터베이스에서 사용자의 권한 정보를 조회하는 예시로 대체합니다.
-        UserType role = member.getUserType();  // 사용자의 권한 정보를 가져오는 로직 (예시)
-
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
-        log.info("role in PrincipalOauth2UserService : " + role.name());
-        log.info("authorities in PrincipalOauth2UserService : " + authorities);
-        return authorities;
-    }
-
-
 }
@@ -0,0 +1,26 @@
+package com.example.project1.config.oauth2.client;
+
+import org.springframework.security.oauth2.client.endpoint.DefaultAuthorizationCodeTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.web.client.RestOperations;
+
+// 소셜 로그인 콜백에서 code 를 액세스 토큰으로 교환하는 요청
+// 사용자 정보 조회와 같은 제공자 벌크헤드, 같은 커넥션 풀을 사용한다.
+public class BulkheadTokenResponseClient implements OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> {
+
+    private final DefaultAuthorizationCodeTokenResponseClient delegate = new DefaultAuthorizationCodeTokenResponseClient();
+    private final ProviderBulkhead bulkhead;
+
+    public BulkheadTokenResponseClient(RestOperations restOperations, ProviderBulkhead bulkhead) {
+        this.delegate.setRestOperations(restOperations);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public OAuth2AccessTokenResponse getTokenResponse(OAuth2AuthorizationCodeGrantRequest grantRequest) {
+        return bulkhead.call(grantRequest.getClientRegistration().getRegistrationId(),
+                () -> delegate.getTokenResponse(grantRequest));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.project1.config.oauth2.client;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// 소셜 로그인 제공자(구글, 네이버)로 나가는 요청 설정
+// 기본 설정은 요청마다 새 연결을 여는 RestTemplate 을 타임아웃 없이 사용하므로,
+// 제공자가 느려지면 요청 스레드가 제공자 응답을 무한정 기다린다.
+// - 커넥션 풀 + keep-alive 로 TLS 연결을 재사용한다.
+// - 연결, 응답, 풀 대기에 각각 타임아웃을 둔다.
+// - 제공자별 벌크헤드로 동시 요청 수를 제한한다. (ProviderBulkhead)
+// - 사용자 정보는 제공자 액세스 토큰별로 잠깐 캐시한다. (UserInfoCache)
+@Configuration
+@EnableConfigurationProperties(OAuth2HttpProperties.class)
+public class OAuth2HttpConfig {
+
+    @Bean(destroyMethod = "close")
+    CloseableHttpClient oauth2HttpClient(OAuth2HttpProperties properties) {
+        return createHttpClient(properties);
+    }
+
+    @Bean
+    ProviderBulkhead providerBulkhead(OAuth2HttpProperties properties) {
+        return new ProviderBulkhead(properties.getBulkhead());
+    }
+
+    @Bean
+    public ProviderUserInfoClient providerUserInfoClient(CloseableHttpClient oauth2HttpClient,
+                                                         ProviderBulkhead providerBulkhead,
+                                                         OAuth2HttpProperties properties) {
+        UserInfoCache cache = properties.getUserInfoCache().isEnabled()
+                ? new UserInfoCache(properties.getUserInfoCache())
+                : null;
+        return new ProviderUserInfoClient(userInfoRestTemplate(oauth2HttpClient), providerBulkhead, cache);
+    }
+
+    @Bean
+    public BulkheadTokenResponseClient oauth2TokenResponseClient(CloseableHttpClient oauth2HttpClient,
+                                                                 ProviderBulkhead providerBulkhead) {
+        return new BulkheadTokenResponseClient(tokenRestTemplate(oauth2HttpClient), providerBulkhead);
+    }
+
+    public static CloseableHttpClient createHttpClient(OAuth2HttpProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        // 제공자가 먼저 끊은 연결을 재사용하다 실패하지 않도록, 2초 이상 쉬었던 연결은 빌려주기 전에 확인한다.
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(properties.getConnectTimeoutMillis())
+                .setSocketTimeout(properties.getReadTimeoutMillis())
+                .setConnectionRequestTimeout(properties.getPoolTimeoutMillis())
+                .build();
+
+        long keepAliveMillis = properties.getKeepAliveMillis();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // 제공자가 Keep-Alive: timeout=n 을 주면 그 시간만큼, 아니면 keepAliveMillis 동안 연결을 재사용
+                .setKeepAliveStrategy((response, context) -> {
+                    BasicHeaderElementIterator it =
+                            new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+                    while (it.hasNext()) {
+                        HeaderElement element = it.nextElement();
+                        if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                            try {
+                                return Math.min(Long.parseLong(element.getValue()) * 1000, keepAliveMillis);
+                            } catch (NumberFormatException ignored) {
+                                // 잘못된 값이면 기본값 사용
+                            }
+                        }
+                    }
+                    return keepAliveMillis;
+                })
+                // 만료되었거나 keepAliveMillis 동안 쓰이지 않은 연결은 백그라운드 스레드가 닫는다.
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+                // 실패한 요청을 다시 보내면 타임아웃만큼 또 기다리므로 재시도하지 않는다.
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    // DefaultOAuth2UserService 가 기본으로 만드는 RestTemplate 과 같은 설정에 커넥션 풀만 바꿨다.
+    public static RestTemplate userInfoRestTemplate(HttpClient httpClient) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        return restTemplate;
+    }
+
+    // DefaultAuthorizationCodeTokenResponseClient 가 기본으로 만드는 RestTemplate 과 같은 설정에 커넥션 풀만 바꿨다.
+    public static RestTemplate tokenRestTemplate(HttpClient httpClient) {
+        RestTemplate restTemplate = new RestTemplate(Arrays.asList(
+                new FormHttpMessageConverter(), new OAuth2AccessTokenResponseHttpMessageConverter()));
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        return restTemplate;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.project1.config.oauth2.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// application.yml 의 oauth2-http 설정
+// 소셜 로그인 중 구글/네이버에 보내는 요청(code → 액세스 토큰 교환, 사용자 정보 조회)에 사용한다.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "oauth2-http")
+public class OAuth2HttpProperties {
+
+    // 연결을 맺을 때까지 기다리는 시간
+    private int connectTimeoutMillis = 2000;
+    // 응답을 기다리는 시간 (소켓 read timeout)
+    private int readTimeoutMillis = 3000;
+    // 커넥션 풀에서 연결을 빌릴 때까지 기다리는 시간
+    private int poolTimeoutMillis = 1000;
+    private int maxConnections = 100;
+    // 제공자 호스트 하나에 열어 둘 수 있는 최대 연결 수
+    private int maxConnectionsPerRoute = 20;
+    // 제공자가 Keep-Alive 헤더를 주지 않을 때 연결을 재사용할 시간, 이 시간 동안 쓰이지 않은 연결은 닫는다.
+    private int keepAliveMillis = 30000;
+    private Bulkhead bulkhead = new Bulkhead();
+    private UserInfoCache userInfoCache = new UserInfoCache();
+
+    // 제공자(registrationId)별 동시 요청 수 제한
+    // 한 제공자가 느려져도 다른 제공자 로그인과 요청 스레드를 모두 붙잡지 않도록 한다.
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        private int maxConcurrent = 20;
+        // 자리가 날 때까지 기다리는 시간, 지나면 바로 실패시킨다.
+        private int maxWaitMillis = 100;
+        // 제공자별 maxConcurrent (예: naver: 10)
+        private Map<String, Integer> providers = new HashMap<>();
+    }
+
+    // 제공자 액세스 토큰별 사용자 정보 캐시
+    @Getter
+    @Setter
+    public static class UserInfoCache {
+        private boolean enabled = true;
+        private int ttlSeconds = 60;
+        private int maxEntries = 10000;
+    }
+}
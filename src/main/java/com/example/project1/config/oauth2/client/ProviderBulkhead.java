@@ -0,0 +1,55 @@
+package com.example.project1.config.oauth2.client;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 제공자(registrationId)별 벌크헤드
+// 제공자마다 세마포어를 따로 두어서, 느려진 제공자에 대한 요청은 maxConcurrent 개까지만 기다리고
+// 나머지는 maxWait 안에 provider_busy 로 실패시킨다. 다른 제공자의 로그인은 영향을 받지 않는다.
+public class ProviderBulkhead {
+
+    public static final String PROVIDER_BUSY = "provider_busy";
+
+    private final ConcurrentHashMap<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private final OAuth2HttpProperties.Bulkhead properties;
+
+    public ProviderBulkhead(OAuth2HttpProperties.Bulkhead properties) {
+        this.properties = properties;
+    }
+
+    public <T> T call(String registrationId, Supplier<T> call) {
+        Semaphore semaphore = semaphores.computeIfAbsent(registrationId,
+                id -> new Semaphore(properties.getProviders().getOrDefault(id, properties.getMaxConcurrent())));
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(properties.getMaxWaitMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new OAuth2AuthenticationException(new OAuth2Error(PROVIDER_BUSY,
+                    "소셜 로그인 제공자의 응답이 밀려 있습니다. provider : " + registrationId, null));
+        }
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    // 지금 진행 중인 요청 수 (모니터링, 테스트용)
+    public int inFlight(String registrationId) {
+        Semaphore semaphore = semaphores.get(registrationId);
+        if (semaphore == null) {
+            return 0;
+        }
+        return properties.getProviders().getOrDefault(registrationId, properties.getMaxConcurrent())
+                - semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.project1.config.oauth2.client;
+
+import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.client.RestOperations;
+
+// 제공자 사용자 정보(userinfo) 조회
+// 캐시에 없을 때만 제공자 벌크헤드 안에서 DefaultOAuth2UserService 로 조회한다.
+// DefaultOAuth2UserService 는 풀링, 타임아웃이 설정된 RestOperations 를 사용한다.
+public class ProviderUserInfoClient {
+
+    private final DefaultOAuth2UserService delegate = new DefaultOAuth2UserService();
+    private final ProviderBulkhead bulkhead;
+    // 캐시를 끄면 null
+    private final UserInfoCache cache;
+
+    public ProviderUserInfoClient(RestOperations restOperations, ProviderBulkhead bulkhead, UserInfoCache cache) {
+        this.delegate.setRestOperations(restOperations);
+        this.bulkhead = bulkhead;
+        this.cache = cache;
+    }
+
+    public OAuth2User load(OAuth2UserRequest userRequest) {
+        String registrationId = userRequest.getClientRegistration().getRegistrationId();
+        if (cache == null) {
+            return bulkhead.call(registrationId, () -> delegate.loadUser(userRequest));
+        }
+        return cache.get(registrationId, userRequest.getAccessToken(),
+                () -> bulkhead.call(registrationId, () -> delegate.loadUser(userRequest)));
+    }
+}
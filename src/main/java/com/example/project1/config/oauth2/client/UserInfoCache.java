@@ -0,0 +1,89 @@
+package com.example.project1.config.oauth2.client;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// 제공자 액세스 토큰별 사용자 정보(userinfo 응답) 캐시
+// 같은 액세스 토큰으로 사용자 정보를 다시 조회하면(로그인 재시도, 중복 콜백) 제공자에 요청하지 않는다.
+// - 키는 registrationId 와 액세스 토큰의 SHA-256 다이제스트, 토큰 원문은 메모리에 남기지 않는다.
+// - ttl 과 액세스 토큰 만료 시각 중 먼저 오는 시각까지만 보관한다.
+// - maxEntries 를 넘으면 만료된 항목을 정리하고, 그래도 가득 차 있으면 캐시하지 않는다.
+public class UserInfoCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public UserInfoCache(OAuth2HttpProperties.UserInfoCache properties) {
+        this.ttlMillis = properties.getTtlSeconds() * 1000L;
+        this.maxEntries = properties.getMaxEntries();
+    }
+
+    public OAuth2User get(String registrationId, OAuth2AccessToken accessToken, Supplier<OAuth2User> loader) {
+        String key = registrationId + ":" + digest(accessToken.getTokenValue());
+        long now = System.currentTimeMillis();
+
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.user;
+            }
+            entries.remove(key, cached);
+        }
+
+        OAuth2User user = loader.get();
+        long expiresAt = now + ttlMillis;
+        Instant tokenExpiresAt = accessToken.getExpiresAt();
+        if (tokenExpiresAt != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiresAt.toEpochMilli());
+        }
+        if (expiresAt > now && (entries.size() < maxEntries || evictExpired(now) > 0 && entries.size() < maxEntries)) {
+            entries.put(key, new Entry(user, expiresAt));
+        }
+        return user;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private int evictExpired(long now) {
+        int evicted = 0;
+        for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue().expiresAt <= now) {
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private static String digest(String tokenValue) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(tokenValue.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        private final OAuth2User user;
+        private final long expiresAt;
+
+        private Entry(OAuth2User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.project1.config.ratelimit;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// 필터에서 요청 body 를 먼저 읽어도 컨트롤러의 @RequestBody 가 다시 읽을 수 있도록
+// 읽어 둔 바이트를 그대로 돌려주는 래퍼
+// 요청 수 제한(RateLimitFilter)과 트래픽 캡처(TrafficCaptureFilter)에서 사용
+public class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request, byte[] body) {
+        super(request);
+        this.body = body;
+    }
+
+    // 길이를 알 수 없는(chunked) body 나 maxBytes 보다 큰 body 는 끝까지 읽어야 하므로 null 을 반환하고 읽지 않는다.
+    public static CachedBodyRequest of(HttpServletRequest request, int maxBytes) throws IOException {
+        if (request instanceof CachedBodyRequest) {
+            return (CachedBodyRequest) request;
+        }
+        int length = request.getContentLength();
+        if (length < 0 || length > maxBytes) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(length);
+        return new CachedBodyRequest(request, body);
+    }
+
+    // Content-Length 와 관계없이(chunked 포함) 최대 maxBytes + 1 바이트까지 읽는다.
+    // maxBytes 를 넘으면 null 을 반환한다. 이때는 body 를 일부 읽었으므로 요청을 거절해야 한다.
+    public static CachedBodyRequest readAtMost(HttpServletRequest request, int maxBytes) throws IOException {
+        if (request instanceof CachedBodyRequest) {
+            CachedBodyRequest cached = (CachedBodyRequest) request;
+            return cached.body.length > maxBytes ? null : cached;
+        }
+        if (request.getContentLengthLong() > maxBytes) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBytes + 1);
+        if (body.length > maxBytes) {
+            return null;
+        }
+        return new CachedBodyRequest(request, body);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // 비동기 읽기 : 이미 메모리에 있으므로 바로 읽을 수 있다고 알리고, 다 읽으면 끝났다고 알린다.
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    if (!isFinished()) {
+                        readListener.onDataAvailable();
+                    }
+                    if (isFinished()) {
+                        readListener.onAllDataRead();
+                    }
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+}
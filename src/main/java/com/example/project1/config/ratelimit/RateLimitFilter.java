@@ -0,0 +1,230 @@
+package com.example.project1.config.ratelimit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 로그인, 토큰 재발급 요청 횟수를 제한하는 필터
+// 로그인 한 번마다 bcrypt 검증이 일어나기 때문에 제한이 없으면 적은 요청으로도 CPU 를 묶어둘 수 있다.
+// 시큐리티 필터 체인보다 앞에서 동작해서 DB 조회나 bcrypt 검증 전에 429 로 거절한다.
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String ACCOUNT_FIELD = "userEmail";
+    // 로그인 body 는 작기 때문에 계정 제한이 있는 경로는 이보다 큰 body 를 413 으로 거절한다.
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    // 경로 → 제한 규칙, 키는 끝의 / 를 뗀 경로
+    private final Map<String, RouteLimiter> limiters = new HashMap<>();
+    // 컨텍스트 경로를 떼고, 디코딩하고, ;jsessionid 같은 세미콜론 내용과 // 를 정리한다. (스프링 MVC 가 핸들러를 찾을 때와 같은 경로)
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final boolean trustForwardedFor;
+    private final int trustedProxies;
+    private final long idleNanos;
+    private final ScheduledExecutorService sweeper;
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.trustForwardedFor = properties.isTrustForwardedFor();
+        if (properties.getTrustedProxies() < 1) {
+            throw new IllegalArgumentException("rate-limit.trusted-proxies 는 1 이상이어야 합니다.");
+        }
+        this.trustedProxies = properties.getTrustedProxies();
+        this.idleNanos = TimeUnit.SECONDS.toNanos(properties.getIdleEvictSeconds());
+
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            limiters.put(stripTrailingSlash(route.getPath()), new RouteLimiter(route, properties.getStripes()));
+        }
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, properties.getIdleEvictSeconds() / 2);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        RouteLimiter limiter = limiterFor(request);
+        return limiter == null || !limiter.method.equalsIgnoreCase(request.getMethod());
+    }
+
+    // /api/v1/users/login/, /context/api/v1/users/login, /api/v1/users/%6Cogin 처럼
+    // 스프링 MVC 가 같은 컨트롤러로 보내는 경로도 같은 규칙으로 찾는다.
+    private RouteLimiter limiterFor(HttpServletRequest request) {
+        return limiters.get(stripTrailingSlash(urlPathHelper.getPathWithinApplication(request)));
+    }
+
+    private static String stripTrailingSlash(String path) {
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end == path.length() ? path : path.substring(0, end);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteLimiter limiter = limiterFor(request);
+        long now = System.nanoTime();
+
+        // 1. 클라이언트(IP) 기준 제한
+        if (limiter.perClient != null) {
+            long wait = limiter.perClient.tryConsume(clientKey(request), now);
+            if (wait > 0) {
+                reject(response, wait);
+                return;
+            }
+        }
+
+        // 2. 계정(userEmail) 기준 제한
+        // 같은 계정을 여러 IP 에서 두드리는 경우를 막기 위해서 body 에서 userEmail 을 꺼낸다.
+        // 계정을 알 수 없는 요청을 그냥 보내면 body 를 키우거나(chunked 포함) 깨뜨려서 계정 제한을 피할 수 있으므로 거절한다.
+        HttpServletRequest forward = request;
+        if (limiter.perAccount != null) {
+            CachedBodyRequest cached = CachedBodyRequest.readAtMost(request, MAX_BODY_BYTES);
+            if (cached == null) {
+                reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "요청 body 가 너무 큽니다.");
+                return;
+            }
+            String account = extractAccount(cached.getBody());
+            if (account == null) {
+                reject(response, HttpStatus.BAD_REQUEST, "요청 body 에서 " + ACCOUNT_FIELD + " 를 읽을 수 없습니다.");
+                return;
+            }
+            long wait = limiter.perAccount.tryConsume(account, now);
+            if (wait > 0) {
+                reject(response, wait);
+                return;
+            }
+            forward = cached;
+        }
+
+        filterChain.doFilter(forward, response);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (RouteLimiter limiter : limiters.values()) {
+            if (limiter.perClient != null) {
+                evicted += limiter.perClient.evictIdle(now, idleNanos);
+            }
+            if (limiter.perAccount != null) {
+                evicted += limiter.perAccount.evictIdle(now, idleNanos);
+            }
+        }
+        if (evicted > 0) {
+            log.debug("유휴 토큰 버킷 {}개를 정리했습니다.", evicted);
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwarded)) {
+                // 신뢰하는 프록시가 덧붙인 항목만 믿는다. 항목이 그보다 적으면 모두 프록시가 쓴 것이다.
+                String[] hops = forwarded.split(",");
+                String client = hops[Math.max(0, hops.length - trustedProxies)].trim();
+                if (!client.isEmpty()) {
+                    return client;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // JSON 전체를 객체로 바꾸지 않고 최상위의 userEmail 값만 스트리밍으로 찾아낸다.
+    // 객체 끝까지 읽어서 JSON 이 온전한지도 확인한다. userEmail 이 없거나, 문자열이 아니거나, 두 번 나오면 null
+    // (컨트롤러의 Jackson 은 중복 키 중 마지막 값을 쓰므로, 첫 값으로 제한하면 다른 계정으로 제한을 피할 수 있다)
+    static String extractAccount(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String account = null;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (ACCOUNT_FIELD.equals(field)) {
+                    if (account != null || value != JsonToken.VALUE_STRING) {
+                        return null;
+                    }
+                    // 대소문자만 바꿔서 제한을 피하지 못하도록 소문자로 맞춘다.
+                    account = parser.getText().trim().toLowerCase(Locale.ROOT);
+                }
+                parser.skipChildren();
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+            return account;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("요청이 너무 많습니다. " + retryAfter + "초 후에 다시 시도해주세요.");
+    }
+
+    private static final class RouteLimiter {
+        private final String method;
+        private final StripedBucketMap perClient;
+        private final StripedBucketMap perAccount;
+
+        private RouteLimiter(RateLimitProperties.Route route, int stripes) {
+            this.method = route.getMethod();
+            this.perClient = toBuckets(route.getPerClient(), stripes);
+            this.perAccount = toBuckets(route.getPerAccount(), stripes);
+        }
+
+        private static StripedBucketMap toBuckets(RateLimitProperties.Limit limit, int stripes) {
+            if (limit == null || limit.getCapacity() <= 0 || limit.getRefillPerMinute() <= 0) {
+                return null;
+            }
+            long intervalNanos = TimeUnit.MINUTES.toNanos(1) / limit.getRefillPerMinute();
+            return new StripedBucketMap(stripes, limit.getCapacity(), intervalNanos);
+        }
+    }
+}
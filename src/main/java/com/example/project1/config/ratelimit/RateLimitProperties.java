@@ -0,0 +1,47 @@
+package com.example.project1.config.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// application.yml 의 rate-limit 설정을 받아오는 클래스
+// 경로마다 클라이언트(IP) 기준 제한과 계정(userEmail) 기준 제한을 따로 줄 수 있다.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // 프록시 뒤에 있을 때만 true 로 설정해야 한다.
+    // 그렇지 않으면 클라이언트가 X-Forwarded-For 를 조작해서 제한을 우회할 수 있다.
+    private boolean trustForwardedFor = false;
+    // 애플리케이션 앞에 있는 신뢰하는 프록시 수
+    // nginx($proxy_add_x_forwarded_for), ALB 같은 프록시는 X-Forwarded-For 를 바꾸지 않고 뒤에 덧붙이므로
+    // 왼쪽 항목은 클라이언트가 보낸 값일 수 있다. 오른쪽에서 이 개수번째 항목(신뢰하는 프록시가 덧붙인 가장 바깥 주소)을 쓴다.
+    private int trustedProxies = 1;
+    private int stripes = 16;
+    // 가득 찬 상태로 이 시간이 지난 버킷은 메모리에서 제거
+    private long idleEvictSeconds = 600;
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String method = "POST";
+        private String path;
+        private Limit perClient;
+        private Limit perAccount;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        // 한 번에 허용하는 최대 요청 수
+        private long capacity;
+        // 1분 동안 다시 채워지는 토큰 수
+        private long refillPerMinute;
+    }
+}
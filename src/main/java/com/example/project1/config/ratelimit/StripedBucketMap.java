@@ -0,0 +1,71 @@
+package com.example.project1.config.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 키(IP, 이메일)별 토큰 버킷을 보관하는 맵
+// 하나의 거대한 맵 대신 여러 개의 stripe 로 나눠서
+// 유휴 버킷 정리(sweep)가 stripe 단위로 조금씩 진행되도록 했다.
+// 조회는 ConcurrentHashMap.get 이라 락을 잡지 않고, 버킷이 없을 때만 putIfAbsent 를 사용한다.
+public class StripedBucketMap {
+
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes;
+    private final int mask;
+    private final long capacity;
+    private final long intervalNanos;
+
+    // 제네릭 배열은 만들 수 없어서 raw 타입 배열을 만든다. (조회 경로에서 List 대신 배열 접근)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public StripedBucketMap(int stripeCount, long capacity, long intervalNanos) {
+        // stripe 개수는 2의 거듭제곱으로 맞춰서 나머지 연산 대신 비트 연산을 사용
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.capacity = capacity;
+        this.intervalNanos = intervalNanos;
+    }
+
+    public long tryConsume(String key, long nowNanos) {
+        ConcurrentHashMap<String, TokenBucket> stripe = stripeFor(key);
+        TokenBucket bucket = stripe.get(key);
+
+        if (bucket == null) {
+            TokenBucket created = new TokenBucket(capacity, intervalNanos, nowNanos);
+            bucket = stripe.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        return bucket.tryConsume(nowNanos);
+    }
+
+    // 가득 찬 상태로 오래 방치된 버킷을 제거
+    public int evictIdle(long nowNanos, long idleNanos) {
+        int evicted = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            for (Map.Entry<String, TokenBucket> entry : stripe.entrySet()) {
+                if (entry.getValue().isIdle(nowNanos, idleNanos)
+                        && stripe.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, TokenBucket> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.project1.config.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 락 없이 동작하는 토큰 버킷
+// 남은 토큰 수와 마지막 충전 시각을 따로 들고 있으면 두 값을 함께 바꿔야 해서 락이 필요하다.
+// 그래서 GCRA(Generic Cell Rate Algorithm) 방식으로 "다음 토큰이 이론상 도착하는 시각(tat)" 하나만 저장하고
+// AtomicLong 의 CAS 한 번으로 토큰을 소비한다.
+// tat 가 현재 시각보다 과거라면 버킷이 가득 찬 상태이고, 미래로 갈수록 토큰이 소진된 상태이다.
+public class TokenBucket {
+
+    // 토큰 하나가 충전되는 데 걸리는 시간(나노초)
+    private final long intervalNanos;
+    // 버킷이 가득 찬 상태에서 한 번에 허용할 수 있는 요청 수(capacity)만큼의 여유 시간
+    private final long burstNanos;
+    private final AtomicLong tat;
+
+    public TokenBucket(long capacity, long intervalNanos, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = capacity * intervalNanos;
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    // 토큰 하나를 소비한다.
+    // 성공하면 0, 실패하면 다음 토큰을 받을 수 있을 때까지 기다려야 하는 시간(나노초)을 반환한다.
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, nowNanos);
+            long next = base + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    // 충전이 끝나 버킷이 가득 찬 뒤로 idleNanos 이상 지났는지 확인한다.
+    // 가득 찬 버킷은 새로 만든 버킷과 동일하기 때문에 제거해도 제한이 풀리는 일은 없다.
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - tat.get() > idleNanos;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.project1.config.security;
 
 import com.example.project1.config.jwt.JwtAuthenticationFilter;
 import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.config.annotation.SecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,6 +13,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
 
     private final JwtProvider jwtProvider;
+    private final ReferenceTokenService referenceTokenService;
 
 
     // JwtAuthenticationFilter 가 일반 로그인에 대한 토큰 검증을 처리하고,
@@ -20,7 +22,7 @@ public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurity
     public void configure(HttpSecurity http) throws Exception {
         // JwtAuthenticationFilter가 일반 로그인에 대한 토큰 검증을 처리
         JwtAuthenticationFilter jwtAuthenticationFilter =
-                new JwtAuthenticationFilter(jwtProvider);
+                new JwtAuthenticationFilter(jwtProvider, referenceTokenService);
 
         http
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,214 @@
+package com.example.project1.config.security;
+
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.domain.member.UserType;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+// 경로별 권한 규칙을 기동할 때 한 번 컴파일해서 요청마다 SpEL 없이 판단하는 AuthorizationManager
+// antMatchers(...).access("hasRole('ROLE_USER') or ...") 는 요청마다 규칙 목록을 순서대로 매칭하고 SpEL 식을 평가한다.
+// 여기서는
+// - 규칙 경로를 세그먼트 단위 트라이로 만들어 두고, 요청 경로를 한 번만 훑어서 규칙을 찾는다.
+// - 규칙은 허용할 역할(UserType)의 비트마스크로 바꿔 두고, 사용자 권한의 비트마스크와 AND 한 번으로 판단한다.
+//
+// 매칭 규칙은 AntPathRequestMatcher 와 같다.
+// - "/a/b" 는 정확히 /a/b 만 (대소문자 구분, 끝에 / 가 붙은 /a/b/ 는 제외)
+// - "/a/**" 는 /a, /a/ 와 그 하위 경로 전부
+// - 여러 규칙에 매칭되면 먼저 등록한 규칙을 사용한다.
+// - 어떤 규칙에도 매칭되지 않으면 허용한다. (authorizeRequests 에 anyRequest 규칙이 없던 것과 같다)
+// 빈 세그먼트(//)가 있는 경로는 StrictHttpFirewall 이 먼저 거절하므로 따로 다루지 않는다.
+public class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    // 역할 없이 모두 허용하는 규칙 (permitAll)
+    static final int PERMIT_ALL = -1;
+    private static final int NO_RULE = Integer.MAX_VALUE;
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Node root;
+    // 규칙 번호(등록 순서)별로 허용하는 역할 비트마스크
+    private final int[] ruleMasks;
+    private final List<String> rulePatterns;
+
+    private RouteAuthorizationManager(Node root, int[] ruleMasks, List<String> rulePatterns) {
+        this.root = root;
+        this.ruleMasks = ruleMasks;
+        this.rulePatterns = rulePatterns;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        int rule = match(requestPath(context.getRequest()));
+        if (rule == NO_RULE) {
+            return GRANTED;
+        }
+        int required = ruleMasks[rule];
+        if (required == PERMIT_ALL) {
+            return GRANTED;
+        }
+        return (roleMask(authentication.get()) & required) != 0 ? GRANTED : DENIED;
+    }
+
+    // 경로에 매칭되는 규칙 중 가장 먼저 등록된 규칙 번호, 없으면 NO_RULE
+    // 경로를 자르거나 복사하지 않고 세그먼트 위치만 옮겨 가며 트라이를 내려간다.
+    int match(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            return NO_RULE;
+        }
+        int best = root.subtreeRule;
+        Node node = root;
+        int length = path.length();
+        int start = 1;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                return best;
+            }
+            best = Math.min(best, node.subtreeRule);
+            start = end + 1;
+        }
+        // 끝에 / 가 붙은 경로(/a/b/)는 "/a/b" 규칙에 매칭되지 않는다. ("/" 규칙과 "/" 경로만 예외)
+        if (path.charAt(length - 1) != '/' || length == 1) {
+            best = Math.min(best, node.exactRule);
+        }
+        return best;
+    }
+
+    // 디버깅용, 경로에 적용되는 규칙의 패턴 (없으면 null)
+    public String matchedPattern(String path) {
+        int rule = match(path);
+        return rule == NO_RULE ? null : rulePatterns.get(rule);
+    }
+
+    // AntPathRequestMatcher 와 같이 servletPath + pathInfo 로 매칭한다.
+    private static String requestPath(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        if (pathInfo != null) {
+            path = path == null || path.isEmpty() ? pathInfo : path + pathInfo;
+        }
+        return path == null ? "" : path;
+    }
+
+    // 사용자 권한(ROLE_USER, ROLE_ADMIN)의 비트마스크, 규칙에 쓰이지 않는 권한은 무시한다.
+    static int roleMask(Authentication authentication) {
+        if (authentication == null) {
+            return 0;
+        }
+        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            mask |= RoleAuthorities.bitOf(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    // 트라이 노드, 자식은 몇 개 되지 않으므로 배열에서 순서대로 비교한다.
+    private static class Node {
+        private String[] segments = new String[0];
+        private Node[] children = new Node[0];
+        // "/a/b" 규칙
+        private int exactRule = NO_RULE;
+        // "/a/b/**" 규칙
+        private int subtreeRule = NO_RULE;
+
+        private Node child(String path, int offset, int length) {
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() == length && path.regionMatches(offset, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(String segment) {
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].equals(segment)) {
+                    return children[i];
+                }
+            }
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = segment;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+    }
+
+    // 규칙은 SecurityConfig 에서 antMatchers 를 쓰던 순서 그대로 등록한다.
+    public static class Builder {
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Integer> masks = new ArrayList<>();
+
+        public Builder permitAll(String pattern) {
+            return add(pattern, PERMIT_ALL);
+        }
+
+        // 역할 중 하나라도 있으면 허용 (hasRole('ROLE_A') or hasRole('ROLE_B'))
+        public Builder hasAnyRole(String pattern, UserType... userTypes) {
+            if (userTypes.length == 0) {
+                throw new IllegalArgumentException("역할을 하나 이상 지정해야 합니다. pattern : " + pattern);
+            }
+            int mask = 0;
+            for (UserType userType : userTypes) {
+                mask |= RoleAuthorities.bitOf("ROLE_" + userType.name());
+            }
+            return add(pattern, mask);
+        }
+
+        private Builder add(String pattern, int mask) {
+            patterns.add(pattern);
+            masks.add(mask);
+            return this;
+        }
+
+        public RouteAuthorizationManager build() {
+            Node root = new Node();
+            for (int rule = 0; rule < patterns.size(); rule++) {
+                String pattern = patterns.get(rule);
+                boolean subtree = pattern.endsWith("/**");
+                String literal = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+                if (!pattern.startsWith("/") || literal.contains("*") || literal.contains("?")
+                        || literal.contains("{") || literal.contains("//") || (!subtree && literal.endsWith("/") && literal.length() > 1)) {
+                    // 트라이로 표현할 수 없는 패턴은 기동할 때 바로 실패시킨다.
+                    throw new IllegalArgumentException("지원하지 않는 경로 패턴입니다. pattern : " + pattern);
+                }
+
+                Node node = root;
+                for (String segment : literal.split("/")) {
+                    if (!segment.isEmpty()) {
+                        node = node.childOrCreate(segment);
+                    }
+                }
+                // 같은 자리에 규칙이 여러 개면 먼저 등록한 규칙이 이긴다.
+                if (subtree) {
+                    node.subtreeRule = Math.min(node.subtreeRule, rule);
+                } else {
+                    node.exactRule = Math.min(node.exactRule, rule);
+                }
+            }
+            int[] ruleMasks = masks.stream().mapToInt(Integer::intValue).toArray();
+            return new RouteAuthorizationManager(root, ruleMasks, new ArrayList<>(patterns));
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.example.project1.config.security;
 import com.example.project1.config.jwt.JwtAccessDeniedHandler;
 import com.example.project1.config.jwt.JwtAuthenticationEntryPoint;
 import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
 import com.example.project1.config.oauth2.PrincipalOauth2UserService;
+import com.example.project1.config.oauth2.client.BulkheadTokenResponseClient;
+import com.example.project1.domain.member.UserType;
 import com.example.project1.repository.member.MemberRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -27,7 +30,9 @@ import java.util.Map;
 public class SecurityConfig {
 
     private final JwtProvider jwtProvider;
+    private final ReferenceTokenService referenceTokenService;
     private final PrincipalOauth2UserService principalOauth2UserService;
+    private final BulkheadTokenResponseClient oauth2TokenResponseClient;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -41,28 +46,17 @@ public class SecurityConfig {
                 // JWT 방식은 세션저장을 사용하지 않기 때문에 꺼줍니다.
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
+        // 경로별 권한 규칙은 기동할 때 트라이 + 역할 비트마스크로 컴파일해 두고 요청마다 SpEL 없이 판단한다.
         http
-                .authorizeRequests()
-                .antMatchers("/api/v1/boards/write")
-                .access("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
-                .antMatchers("/api/v1/boards/modify")
-                .access("hasRole('ROLE_USER')")
-                .antMatchers("/api/v1/boards/remove")
-                .access("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
-                .antMatchers("/api/v1/admin/**")
-                .access("hasRole('ROLE_ADMIN')")
-                // /success-oauth 엔드포인트에 대해 인증된 사용자만 접근 가능하도록 설정
-//                .antMatchers("/success-oauth").authenticated()
-                .antMatchers("/swagger-resources/**").permitAll()
-                        .antMatchers("/swagger-ui/**").permitAll()
-                        .antMatchers("/api/v1/users/**").permitAll();
+                .authorizeHttpRequests()
+                .anyRequest().access(authorizationRules());
 
         http
                 // JWT Token을 위한 Filter를 아래에서 만들어 줄건데,
                 // 이 Filter를 어느위치에서 사용하겠다고 등록을 해주어야 Filter가 작동이 됩니다.
                 // security 로직에 JwtFilter 등록
                 // .addFilterBefore(new JwtAuthenticationFilter(jwtProvider), UsernamePasswordAuthenticationFilter.class)
-                .apply(new JwtSecurityConfig(jwtProvider));
+                .apply(new JwtSecurityConfig(jwtProvider, referenceTokenService));
 
         // 에러 방지
         http
@@ -74,6 +68,10 @@ public class SecurityConfig {
         http
                 // oauth2Login() 메서드는 OAuth 2.0 프로토콜을 사용하여 소셜 로그인을 처리하는 기능을 제공합니다.
                 .oauth2Login()
+                    // code 를 액세스 토큰으로 교환할 때 커넥션 풀, 타임아웃, 제공자별 벌크헤드를 사용
+                    .tokenEndpoint()
+                        .accessTokenResponseClient(oauth2TokenResponseClient)
+                .and()
                     // OAuth2 로그인 성공 이후 사용자 정보를 가져올 때 설정 담당
                     .userInfoEndpoint()
                         // OAuth2 로그인 성공 시, 후작업을 진행할 서비스
@@ -84,6 +82,25 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // 기존 antMatchers(...).access(SpEL) 규칙과 같은 순서, 같은 의미
+    // (어떤 규칙에도 매칭되지 않는 경로는 허용)
+    public static RouteAuthorizationManager authorizationRules() {
+        return RouteAuthorizationManager.builder()
+                .hasAnyRole("/api/v1/boards/write", UserType.USER, UserType.ADMIN)
+                .hasAnyRole("/api/v1/boards/modify", UserType.USER)
+                .hasAnyRole("/api/v1/boards/remove", UserType.USER, UserType.ADMIN)
+                .hasAnyRole("/api/v1/admin/**", UserType.ADMIN)
+                .permitAll("/swagger-resources/**")
+                .permitAll("/swagger-ui/**")
+                .permitAll("/actuator/health/**")
+                .permitAll("/.well-known/**")
+                .permitAll("/api/v1/tokens/introspect")
+                // 여러 회원 조회는 로그인한 회원만 (아래 /api/v1/users/** 보다 먼저, 끝에 / 가 붙은 경로도 포함)
+                .hasAnyRole("/api/v1/users/batch/**", UserType.USER, UserType.ADMIN)
+                .permitAll("/api/v1/users/**")
+                .build();
+    }
+
     @Bean
     PasswordEncoder passwordEncoder() {
         String idForEncode = "bcrypt";
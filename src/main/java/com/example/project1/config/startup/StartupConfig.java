@@ -0,0 +1,25 @@
+package com.example.project1.config.startup;
+
+import com.example.project1.config.audit.AuthAuditJournal;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.authority.AuthorityVersionLoader;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class StartupConfig {
+
+    // fast-startup 프로필에서는 spring.main.lazy-initialization 으로 빈 생성을 첫 사용 시점까지 미룬다.
+    // 다만 로그인 경로에서 바로 쓰이는 빈까지 미루면 첫 로그인이 느려지므로 이 빈들은 기동할 때 만든다.
+    @Bean
+    static LazyInitializationExcludeFilter eagerAuthBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                JwtProvider.class,
+                PasswordEncoder.class,
+                AuthAuditJournal.class,
+                // 첫 사용 때 만들면 그 전에 다른 인스턴스에서 바뀐 권한을 반영하지 못한다.
+                AuthorityVersionLoader.class);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.project1.config.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+// AppCDS 아카이브를 만들기 위한 학습 실행(./gradlew cdsTrainingRun)에서만 사용
+// 애플리케이션이 준비되면 바로 종료해서 JVM 이 그동안 로드한 클래스를 아카이브로 남기게 한다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "startup.exit-after-ready", havingValue = "true")
+public class StartupExitListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("학습 실행이 끝났습니다. 애플리케이션을 종료합니다.");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
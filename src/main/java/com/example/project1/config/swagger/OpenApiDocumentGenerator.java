@@ -0,0 +1,224 @@
+package com.example.project1.config.swagger;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// 빌드할 때 컨트롤러의 매핑 정보를 읽어서 OpenAPI 3 문서(openapi.json)를 만드는 도구
+// springfox 는 애플리케이션이 뜰 때마다 클래스패스를 스캔해서 문서를 만들기 때문에 기동이 느려진다.
+// fast-startup 프로필에서는 springfox 를 끄고, 이 도구가 만든 정적 파일(/openapi.json)을 그대로 내려준다.
+//
+//   ./gradlew generateOpenApi
+public class OpenApiDocumentGenerator {
+
+    private static final String CONTROLLER_PACKAGE = "com.example.project1.controller";
+    private static final String DOMAIN_PACKAGE = "com.example.project1";
+
+    private final Map<String, Object> schemas = new TreeMap<>();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: OpenApiDocumentGenerator <output-file>");
+            System.exit(1);
+        }
+        File output = new File(args[0]);
+        output.getParentFile().mkdirs();
+
+        Map<String, Object> document = new OpenApiDocumentGenerator().generate();
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output, document);
+    }
+
+    public Map<String, Object> generate() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+
+        List<Class<?>> controllers = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(CONTROLLER_PACKAGE)) {
+            controllers.add(ClassUtils.forName(candidate.getBeanClassName(), getClass().getClassLoader()));
+        }
+        controllers.sort(Comparator.comparing(Class::getName));
+
+        Map<String, Object> paths = new TreeMap<>();
+        for (Class<?> controller : controllers) {
+            List<Method> methods = Arrays.stream(controller.getDeclaredMethods())
+                    .filter(method -> Modifier.isPublic(method.getModifiers()))
+                    .sorted(Comparator.comparing(Method::getName))
+                    .collect(Collectors.toList());
+
+            for (Method method : methods) {
+                RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+                if (mapping == null) {
+                    continue;
+                }
+                for (String path : mapping.path()) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> operations =
+                            (Map<String, Object>) paths.computeIfAbsent(path, key -> new TreeMap<>());
+                    for (RequestMethod requestMethod : mapping.method()) {
+                        operations.put(requestMethod.name().toLowerCase(), operation(controller, method));
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("title", "API 문서");
+        info.put("description", "구현한 사이트의 기능을 보여주는 곳입니다.");
+        info.put("version", "1.0");
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("openapi", "3.0.3");
+        document.put("info", info);
+        document.put("paths", paths);
+        document.put("components", Map.of("schemas", schemas));
+        return document;
+    }
+
+    private Map<String, Object> operation(Class<?> controller, Method method) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("tags", List.of(controller.getSimpleName()));
+        operation.put("operationId", method.getName());
+
+        List<Map<String, Object>> parameters = new ArrayList<>();
+        for (Parameter parameter : method.getParameters()) {
+            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+            RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+            RequestHeader requestHeader = parameter.getAnnotation(RequestHeader.class);
+
+            if (pathVariable != null) {
+                parameters.add(parameter("path", name(pathVariable.value(), parameter), true, parameter));
+            } else if (requestParam != null) {
+                parameters.add(parameter("query", name(requestParam.value(), parameter), requestParam.required(), parameter));
+            } else if (requestHeader != null) {
+                parameters.add(parameter("header", name(requestHeader.value(), parameter), requestHeader.required(), parameter));
+            } else if (parameter.isAnnotationPresent(RequestBody.class)) {
+                operation.put("requestBody", Map.of(
+                        "required", true,
+                        "content", Map.of("application/json",
+                                Map.of("schema", schema(parameter.getParameterizedType())))));
+            }
+        }
+        if (!parameters.isEmpty()) {
+            operation.put("parameters", parameters);
+        }
+        operation.put("responses", Map.of("200", Map.of("description", "OK")));
+        return operation;
+    }
+
+    private Map<String, Object> parameter(String in, String name, boolean required, Parameter parameter) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("in", in);
+        result.put("required", required);
+        result.put("schema", schema(parameter.getParameterizedType()));
+        return result;
+    }
+
+    // 컴파일 옵션(-parameters)이 없으면 파라미터 이름을 알 수 없으므로 어노테이션 값을 우선 사용
+    private String name(String annotated, Parameter parameter) {
+        return annotated.isEmpty() ? parameter.getName() : annotated;
+    }
+
+    private Map<String, Object> schema(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            if (Collection.class.isAssignableFrom(raw)) {
+                return Map.of("type", "array", "items", schema(parameterized.getActualTypeArguments()[0]));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                return Map.of("type", "object");
+            }
+            return schema(raw);
+        }
+        if (!(type instanceof Class)) {
+            return Map.of("type", "object");
+        }
+
+        Class<?> clazz = (Class<?>) type;
+        if (clazz == String.class || clazz == char.class || clazz == Character.class) {
+            return Map.of("type", "string");
+        }
+        if (clazz == Long.class || clazz == long.class) {
+            return Map.of("type", "integer", "format", "int64");
+        }
+        if (clazz == Integer.class || clazz == int.class || clazz == Short.class || clazz == short.class) {
+            return Map.of("type", "integer", "format", "int32");
+        }
+        if (clazz == Boolean.class || clazz == boolean.class) {
+            return Map.of("type", "boolean");
+        }
+        if (Number.class.isAssignableFrom(clazz) || clazz == double.class || clazz == float.class) {
+            return Map.of("type", "number");
+        }
+        if (Date.class.isAssignableFrom(clazz) || Temporal.class.isAssignableFrom(clazz)) {
+            return Map.of("type", "string", "format", "date-time");
+        }
+        if (clazz.isEnum()) {
+            List<String> values = Arrays.stream(clazz.getEnumConstants())
+                    .map(Object::toString)
+                    .collect(Collectors.toList());
+            return Map.of("type", "string", "enum", values);
+        }
+        if (clazz.isArray()) {
+            return Map.of("type", "array", "items", schema(clazz.getComponentType()));
+        }
+        if (clazz.getName().startsWith(DOMAIN_PACKAGE)) {
+            return Map.of("$ref", "#/components/schemas/" + component(clazz));
+        }
+        return Map.of("type", "object");
+    }
+
+    // DTO 필드를 읽어서 components.schemas 에 등록 (@JsonIgnore 필드는 제외)
+    private String component(Class<?> clazz) {
+        String name = clazz.getSimpleName();
+        if (schemas.containsKey(name)) {
+            return name;
+        }
+        // 자기 자신을 참조하는 DTO 에서 무한 재귀에 빠지지 않도록 먼저 자리를 잡아둔다.
+        schemas.put(name, Map.of());
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(JsonIgnore.class)) {
+                continue;
+            }
+            properties.put(field.getName(), schema(field.getGenericType()));
+        }
+        schemas.put(name, Map.of("type", "object", "properties", properties));
+        return name;
+    }
+}
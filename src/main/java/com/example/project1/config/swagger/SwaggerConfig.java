@@ -1,15 +1,26 @@
 package com.example.project1.config.swagger;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
+
+import java.lang.reflect.Field;
+import java.util.List;
 
 @Configuration
+// fast-startup 프로필처럼 springfox 를 끈 경우에는 Docket 도 만들지 않는다.
+@ConditionalOnProperty(name = "springfox.documentation.enabled", havingValue = "true", matchIfMissing = true)
 public class SwaggerConfig {
 
     @Bean
@@ -30,6 +41,36 @@ public class SwaggerConfig {
                 .useDefaultResponseMessages(false);
     }
 
+    // actuator 의 엔드포인트 핸들러 매핑은 PathPatternParser 를 사용하는데,
+    // springfox 3.0 은 ant_path_matcher 방식의 매핑만 처리할 수 있어서 기동 중에 NPE 가 난다.
+    // springfox 가 읽는 핸들러 매핑 목록에서 PathPatternParser 를 쓰는 매핑을 빼 준다.
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    removePathPatternMappings(bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void removePathPatternMappings(Object provider) {
+        Field field = ReflectionUtils.findField(provider.getClass(), "handlerMappings");
+        if (field == null) {
+            return;
+        }
+        ReflectionUtils.makeAccessible(field);
+        List<RequestMappingInfoHandlerMapping> mappings =
+                (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, provider);
+        if (mappings != null) {
+            mappings.removeIf(mapping -> mapping.getPatternParser() != null);
+        }
+    }
+
     private ApiInfo apiInfo() {
         return new ApiInfoBuilder()
                 .title("API 문서")
@@ -0,0 +1,170 @@
+package com.example.project1.config.warmup;
+
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.domain.jwt.TokenDTO;
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.repository.member.MemberRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 배포 직후 처음 몇 천 건의 요청이 느린 것은 JIT 컴파일 전의 인터프리터 실행,
+// Hibernate 쿼리 플랜, Jackson 직렬화기 생성이 모두 첫 요청 시점에 일어나기 때문이다.
+// 트래픽을 받기 전에 로그인 경로의 연산들을 가짜 데이터로 반복 실행해서 미리 데워 둔다.
+//
+// ApplicationRunner 는 스프링 부트가 ReadinessState.ACCEPTING_TRAFFIC 을 발행하기 전에 실행되므로
+// 워밍업이 끝날 때까지 /actuator/health/readiness 는 OUT_OF_SERVICE 를 응답한다.
+@Slf4j
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class JitWarmupRunner implements ApplicationRunner {
+
+    // 실제 회원과 겹치지 않는 주소 (.invalid 는 예약된 최상위 도메인)
+    private static final String WARMUP_EMAIL = "warmup@warmup.invalid";
+    private static final String WARMUP_PASSWORD = "warmup-password";
+    // 워밍업 중 토큰 발급 로그가 쏟아지지 않도록 잠시 올려 둘 로거
+    private static final String[] QUIET_LOGGERS = {JwtProvider.class.getName()};
+
+    private final WarmupProperties properties;
+    private final ApplicationContext context;
+    private final LoggingSystem loggingSystem;
+    private final JwtProvider jwtProvider;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final MemberRepository memberRepository;
+
+    public JitWarmupRunner(WarmupProperties properties,
+                           ApplicationContext context,
+                           LoggingSystem loggingSystem,
+                           JwtProvider jwtProvider,
+                           PasswordEncoder passwordEncoder,
+                           ObjectMapper objectMapper,
+                           MemberRepository memberRepository) {
+        this.properties = properties;
+        this.context = context;
+        this.loggingSystem = loggingSystem;
+        this.jwtProvider = jwtProvider;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.memberRepository = memberRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // 부트가 기본으로 REFUSING_TRAFFIC 을 돌려주지만 워밍업 중이라는 것을 명시적으로 남긴다.
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+
+        List<WarmupTask> tasks = createTasks();
+        LogLevel[] saved = quietLoggers();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(properties.getMaxDurationSeconds());
+        try {
+            // 연산을 번갈아 실행해서 실제 요청처럼 호출 지점의 프로파일이 섞이도록 한다.
+            boolean remaining = true;
+            while (remaining && System.nanoTime() < deadline) {
+                remaining = false;
+                for (WarmupTask task : tasks) {
+                    if (!task.isDone()) {
+                        task.runBatch(properties);
+                        remaining |= !task.isDone();
+                    }
+                }
+            }
+        } finally {
+            restoreLoggers(saved);
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("JIT 워밍업 완료 ({}ms)", elapsed);
+        for (WarmupTask task : tasks) {
+            if (task.getFailure() != null) {
+                log.warn("  {}", task.summary());
+            } else {
+                log.info("  {}", task.summary());
+            }
+        }
+        // 여기서 반환되면 부트가 ApplicationReadyEvent 와 함께 ACCEPTING_TRAFFIC 을 발행한다.
+    }
+
+    private List<WarmupTask> createTasks() {
+        List<GrantedAuthority> authorities =
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + UserType.USER.name()));
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(WARMUP_EMAIL, null, authorities);
+        // 로그인과 같은 비용의 bcrypt 검증을 위해서 실제 인코더로 만든 해시를 사용
+        String encodedPassword = passwordEncoder.encode(WARMUP_PASSWORD);
+        String accessToken = jwtProvider.createToken(authentication, authorities).getAccessToken();
+
+        MemberDTO member = MemberDTO.builder()
+                .userId(0L)
+                .userEmail(WARMUP_EMAIL)
+                .userName("warmup")
+                .nickName("warmup")
+                .userType(UserType.USER)
+                .build();
+        byte[] loginBody = ("{\"userEmail\":\"" + WARMUP_EMAIL + "\",\"userPw\":\"" + WARMUP_PASSWORD + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        List<WarmupTask> tasks = new ArrayList<>();
+        tasks.add(new WarmupTask("jwt.sign", 200,
+                () -> jwtProvider.createToken(authentication, authorities)));
+        // 요청마다 JwtAuthenticationFilter 가 지나가는 경로
+        tasks.add(new WarmupTask("jwt.parse", 200, () -> jwtProvider.authenticate(accessToken)));
+        tasks.add(new WarmupTask("bcrypt.matches", 2,
+                () -> passwordEncoder.matches(WARMUP_PASSWORD, encodedPassword)));
+        tasks.add(new WarmupTask("json.TokenDTO", 500, () -> objectMapper.writeValueAsBytes(
+                TokenDTO.builder()
+                        .grantType("Bearer ")
+                        .accessToken(accessToken)
+                        .refreshToken(accessToken)
+                        .userEmail(WARMUP_EMAIL)
+                        .userId(0L)
+                        .userType(UserType.USER)
+                        .build())));
+        tasks.add(new WarmupTask("json.MemberDTO", 500, () -> {
+            objectMapper.readValue(loginBody, MemberDTO.class);
+            objectMapper.writeValueAsBytes(member);
+        }));
+        // 존재하지 않는 이메일로 조회만 하므로 DB 에 남는 데이터는 없다.
+        tasks.add(new WarmupTask("db.findByEmail", 20,
+                () -> memberRepository.findByUserEmail(WARMUP_EMAIL)));
+        return tasks;
+    }
+
+    private LogLevel[] quietLoggers() {
+        LogLevel[] saved = new LogLevel[QUIET_LOGGERS.length];
+        for (int i = 0; i < QUIET_LOGGERS.length; i++) {
+            LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(QUIET_LOGGERS[i]);
+            saved[i] = configuration == null ? null : configuration.getConfiguredLevel();
+            loggingSystem.setLogLevel(QUIET_LOGGERS[i], LogLevel.WARN);
+        }
+        return saved;
+    }
+
+    private void restoreLoggers(LogLevel[] saved) {
+        for (int i = 0; i < QUIET_LOGGERS.length; i++) {
+            // null 이면 설정을 지우고 상위 로거의 레벨을 따르게 된다.
+            loggingSystem.setLogLevel(QUIET_LOGGERS[i], saved[i]);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.project1.config.warmup;
+
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.repository.member.MemberRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfig {
+
+    @Bean
+    public JitWarmupRunner jitWarmupRunner(WarmupProperties properties,
+                                           ApplicationContext context,
+                                           LoggingSystem loggingSystem,
+                                           JwtProvider jwtProvider,
+                                           PasswordEncoder passwordEncoder,
+                                           ObjectMapper objectMapper,
+                                           MemberRepository memberRepository) {
+        return new JitWarmupRunner(properties, context, loggingSystem,
+                jwtProvider, passwordEncoder, objectMapper, memberRepository);
+    }
+}
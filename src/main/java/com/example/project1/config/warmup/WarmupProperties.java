@@ -0,0 +1,23 @@
+package com.example.project1.config.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// application.yml 의 warmup 설정
+// 연산마다 배치 단위로 반복 실행하면서 배치 평균 응답 시간이 더 이상 줄지 않으면 안정된 것으로 본다.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+    // 안정되지 않더라도 이 시간이 지나면 워밍업을 끝내고 트래픽을 받는다.
+    private long maxDurationSeconds = 60;
+    // 최소 배치 수, 처음 몇 번은 인터프리터 → C1 → C2 로 바뀌는 중이라 값이 크게 흔들린다.
+    private int minBatches = 5;
+    // 직전 배치와 평균이 이 비율 이내로 차이 나면 안정된 배치로 센다.
+    private double tolerance = 0.1;
+    // 안정된 배치가 연속으로 이만큼 나오면 해당 연산의 워밍업을 끝낸다.
+    private int stableBatches = 3;
+}
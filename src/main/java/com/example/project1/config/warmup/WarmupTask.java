@@ -0,0 +1,94 @@
+package com.example.project1.config.warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 워밍업 대상 연산 하나와 그 측정 결과
+// 연산마다 비용이 크게 달라서(bcrypt 수십 ms, JWT 서명 수 µs) 배치 크기를 따로 준다.
+class WarmupTask {
+
+    interface Action {
+        void run() throws Exception;
+    }
+
+    private final String name;
+    private final int batchSize;
+    private final Action action;
+
+    private long firstCallNanos = -1;
+    private long firstBatchNanos = -1;
+    private long lastBatchNanos = -1;
+    private int batches;
+    private int stableStreak;
+    private boolean done;
+    private Exception failure;
+
+    WarmupTask(String name, int batchSize, Action action) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.action = action;
+    }
+
+    // 배치 하나를 실행하고 연산 1회당 평균 시간을 기록한다.
+    void runBatch(WarmupProperties properties) {
+        try {
+            int from = 0;
+            if (firstCallNanos < 0) {
+                // 첫 호출은 클래스 로딩, 초기화가 섞여 있어서 배치 평균과 따로 남긴다.
+                long start = System.nanoTime();
+                action.run();
+                firstCallNanos = System.nanoTime() - start;
+                from = 1;
+            }
+            long start = System.nanoTime();
+            for (int i = from; i < batchSize; i++) {
+                action.run();
+            }
+            long perCall = (System.nanoTime() - start) / Math.max(1, batchSize - from);
+            record(perCall, properties);
+        } catch (Exception e) {
+            // DB 에 연결할 수 없는 등 연산 자체가 실패하면 그 연산만 빼고 계속 진행
+            failure = e;
+            done = true;
+        }
+    }
+
+    private void record(long perCall, WarmupProperties properties) {
+        batches++;
+        if (firstBatchNanos < 0) {
+            firstBatchNanos = perCall;
+        } else {
+            double change = Math.abs(perCall - lastBatchNanos) / (double) Math.max(1, lastBatchNanos);
+            // 느려진 것은 GC 등의 잡음일 수 있어서 연속 횟수만 초기화한다.
+            stableStreak = change <= properties.getTolerance() ? stableStreak + 1 : 0;
+        }
+        lastBatchNanos = perCall;
+        if (batches >= properties.getMinBatches() && stableStreak >= properties.getStableBatches()) {
+            done = true;
+        }
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    Exception getFailure() {
+        return failure;
+    }
+
+    String summary() {
+        if (failure != null) {
+            return String.format("%-16s 실패 (%s)", name, failure.toString());
+        }
+        return String.format("%-16s 첫 호출 %8.1fµs, 첫 배치 %8.1fµs → 마지막 배치 %8.1fµs (배치 %d회%s)",
+                name,
+                micros(firstCallNanos),
+                micros(firstBatchNanos),
+                micros(lastBatchNanos),
+                batches,
+                done ? "" : ", 시간 초과");
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.project1.controller.admin;
+
+import com.example.project1.service.member.MemberExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+// 분석용 회원 전체 내보내기 (ADMIN 권한, SecurityConfig 의 /api/v1/admin/**)
+// 이메일, 이름, 주소를 모두 내보내므로 ADMIN 은 회원가입으로 얻을 수 없고 관리자가 권한 변경 API 로만 준다. (MemberService.signUp, changeRole)
+// 응답 : application/x-ndjson, 한 줄에 회원 하나 (MemberExportService)
+// Accept-Encoding 이 gzip 을 받으면(q=0 이 아니면) gzip 으로 압축해서 보낸다. (curl --compressed)
+// 이미 member.export.max-concurrent 개를 내보내는 중이면 503
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final MemberExportService memberExportService;
+
+    @GetMapping("/api/v1/admin/members/export")
+    public void export(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletResponse response) throws IOException {
+        if (!memberExportService.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "60");
+            return;
+        }
+        try {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            response.setContentType(NDJSON);
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.ndjson\"");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                // syncFlush : fetch-size 행마다 flush 할 때 압축한 데이터도 내보낸다.
+                GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192, true);
+                memberExportService.export(out);
+                out.finish();
+            } else {
+                OutputStream out = response.getOutputStream();
+                memberExportService.export(out);
+            }
+            response.flushBuffer();
+        } catch (IOException e) {
+            // 이미 응답을 쓰기 시작해서 상태 코드를 바꿀 수 없다. 연결이 끊기면 클라이언트는 잘린 응답을 받는다.
+            log.warn("회원 내보내기를 끝내지 못했습니다. : {}", e.getMessage());
+            throw e;
+        } finally {
+            memberExportService.release();
+        }
+    }
+
+    // Accept-Encoding 이 gzip 을 받는지 (예: "gzip, deflate", "br;q=1.0, gzip;q=0.5", "*")
+    // gzip(x-gzip)이 있으면 그 q 값, 없으면 * 의 q 값으로 판단한다. q=0 은 받지 않는다는 뜻이다.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] params = element.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality(params));
+            } else if (coding.equals("*")) {
+                any = Math.max(any, quality(params));
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    // q 파라미터, 없으면 1, 잘못되었으면 0
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            int eq = param.indexOf('=');
+            if (eq > 0 && param.substring(0, eq).trim().equalsIgnoreCase("q")) {
+                try {
+                    double q = Double.parseDouble(param.substring(eq + 1).trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.project1.controller.admin;
+
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.domain.member.MemberRoleDTO;
+import com.example.project1.service.member.MemberService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+// 회원 권한 변경 (ADMIN 권한, SecurityConfig 의 /api/v1/admin/**)
+// 회원 본인의 정보 수정(PUT /api/v1/users/)으로는 권한을 바꿀 수 없다.
+// 바꾸면 권한 버전이 올라가서 바뀌기 전에 발급한 토큰은 현재 권한으로 다시 만들거나 거절한다. (AuthorityVersions)
+@RestController
+@RequiredArgsConstructor
+public class MemberRoleController {
+
+    private final MemberService memberService;
+
+    @PutMapping("/api/v1/admin/members/{userId}/role")
+    public ResponseEntity<?> changeRole(@PathVariable Long userId, @RequestBody MemberRoleDTO request) {
+        if (request.getUserType() == null) {
+            return ResponseEntity.badRequest().body("userType 이 없습니다.");
+        }
+        try {
+            MemberDTO member = memberService.changeRole(userId, request.getUserType());
+            if (member == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("회원이 없습니다.");
+            }
+            return ResponseEntity.ok().body(member);
+        } catch (ConcurrencyFailureException e) {
+            // 같은 회원을 동시에 수정해서 버전이 맞지 않는 경우
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.project1.controller.jwt;
+
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// ES256 공개 키 목록 (JWKS, RFC 7517)
+// 다른 서비스는 이 목록을 캐시해 두고 토큰 헤더의 kid 로 공개 키를 찾아 직접 검증한다. (토큰마다 이 서비스를 부르지 않는다)
+// 아직 활성화 전인 키도 내보내서, 새 키로 서명한 토큰이 나오기 전에 다른 서비스가 미리 받아 둘 수 있게 한다.
+// HS256 키는 비밀값이라 내보내지 않는다.
+@RestController
+public class JwksController {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    // P-256 좌표 길이
+    private static final int COORDINATE_BYTES = 32;
+
+    private final JwtKeyRing keyRing;
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+
+    // 키링 상태가 바뀔 때만 JSON 을 다시 만든다.
+    private volatile Cached cached;
+
+    public JwksController(JwtKeyRing keyRing,
+                          ObjectMapper objectMapper,
+                          @Value("${jwt.jwks.max-age-seconds:300}") long maxAgeSeconds) {
+        this.keyRing = keyRing;
+        this.objectMapper = objectMapper;
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() throws JsonProcessingException {
+        JwtKeyRing.KeyEntry[] keys = keyRing.publicKeys();
+        Cached current = cached;
+        if (current == null || current.keys != keys) {
+            current = new Cached(keys, write(keys));
+            cached = current;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(current.json);
+    }
+
+    private String write(JwtKeyRing.KeyEntry[] keys) throws JsonProcessingException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode array = root.putArray("keys");
+        for (JwtKeyRing.KeyEntry key : keys) {
+            ECPublicKey publicKey = (ECPublicKey) key.getVerifyKey();
+            array.addObject()
+                    .put("kty", "EC")
+                    .put("crv", "P-256")
+                    .put("kid", key.getKid())
+                    .put("use", "sig")
+                    .put("alg", key.getAlgorithm().getValue())
+                    .put("x", coordinate(publicKey.getW().getAffineX()))
+                    .put("y", coordinate(publicKey.getW().getAffineY()));
+        }
+        return objectMapper.writeValueAsString(root);
+    }
+
+    // 좌표는 부호 없는 32byte 로 채워서 base64url (RFC 7518 6.2.1.2)
+    static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_BYTES - length, length);
+        return ENCODER.encodeToString(fixed);
+    }
+
+    private static class Cached {
+        private final JwtKeyRing.KeyEntry[] keys;
+        private final String json;
+
+        private Cached(JwtKeyRing.KeyEntry[] keys, String json) {
+            this.keys = keys;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.project1.controller.jwt;
+
+import com.example.project1.config.jwt.introspect.TokenIntrospectionService;
+import com.example.project1.domain.jwt.IntrospectionRequestDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 게이트웨이용 토큰 일괄 검사
+// 요청 : Authorization: Basic (client id:secret), {"tokens": ["...", "..."]}
+// 응답 : {"results": [{"active": true, "sub": ..., "auth": [...], "exp": ..., "token_type": ...}, {"active": false}]}
+// Cache-Control max-age 는 가장 먼저 만료되는 토큰까지(최대 token-introspection.max-cache-seconds)이다.
+@RestController
+@RequiredArgsConstructor
+public class TokenIntrospectionController {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    @PostMapping("/api/v1/tokens/introspect")
+    public ResponseEntity<?> introspect(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                        @RequestBody IntrospectionRequestDTO request) {
+        if (!tokenIntrospectionService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (!tokenIntrospectionService.authenticate(authorization)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"token-introspection\"")
+                    .build();
+        }
+        List<String> tokens = request.getTokens();
+        if (tokens == null || tokens.isEmpty() || tokens.size() > tokenIntrospectionService.getMaxBatchSize()) {
+            return ResponseEntity.badRequest()
+                    .body("토큰은 1개 이상 " + tokenIntrospectionService.getMaxBatchSize() + "개 이하로 보내야 합니다.");
+        }
+
+        TokenIntrospectionService.Result result = tokenIntrospectionService.introspect(tokens);
+        CacheControl cacheControl = result.getCacheSeconds() > 0
+                ? CacheControl.maxAge(result.getCacheSeconds(), TimeUnit.SECONDS).cachePrivate()
+                : CacheControl.noStore();
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(Collections.singletonMap("results", result.getResults()));
+    }
+}
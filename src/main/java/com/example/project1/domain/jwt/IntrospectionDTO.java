@@ -0,0 +1,46 @@
+package com.example.project1.domain.jwt;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+// 토큰 검사(introspection, RFC 7662) 결과 한 건
+// 통과하지 못한 토큰은 이유를 알려주지 않고 active=false 만 내려준다.
+@Getter
+@ToString
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionDTO {
+
+    public static final String ACCESS_TOKEN = "access_token";
+    public static final String REFRESH_TOKEN = "refresh_token";
+    public static final IntrospectionDTO INACTIVE = new IntrospectionDTO(false, null, null, null, null);
+
+    private boolean active;
+    // 회원 이메일
+    private String sub;
+    // 권한 이름 목록 (ROLE_USER 등)
+    private List<String> auth;
+    // 만료 시각 (epoch 초)
+    private Long exp;
+    @JsonProperty("token_type")
+    private String tokenType;
+
+    @Builder
+    public IntrospectionDTO(boolean active,
+                            String sub,
+                            List<String> auth,
+                            Long exp,
+                            String tokenType) {
+        this.active = active;
+        this.sub = sub;
+        this.auth = auth;
+        this.exp = exp;
+        this.tokenType = tokenType;
+    }
+}
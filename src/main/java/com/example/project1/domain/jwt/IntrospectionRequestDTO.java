@@ -0,0 +1,18 @@
+package com.example.project1.domain.jwt;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+// 토큰 검사 요청, 게이트웨이가 모은 토큰을 한 번에 보낸다.
+// 결과는 같은 순서로 내려준다.
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class IntrospectionRequestDTO {
+    private List<String> tokens;
+}
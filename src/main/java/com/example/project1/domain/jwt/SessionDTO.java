@@ -0,0 +1,47 @@
+package com.example.project1.domain.jwt;
+
+import com.example.project1.entity.jwt.TokenEntity;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+// 회원의 세션 목록 응답 (기기별 로그인)
+// 토큰 값이나 다이제스트는 내려주지 않는다.
+@Getter
+@ToString
+@NoArgsConstructor
+public class SessionDTO {
+    // 세션 해지(DELETE /api/v1/users/sessions/{sessionId})에 사용
+    private Long sessionId;
+    private String deviceLabel;
+    private LocalDateTime loginTime;
+    private Date lastUsedAt;
+    private Date refreshTokenTime;
+
+    @Builder
+    public SessionDTO(Long sessionId,
+                      String deviceLabel,
+                      LocalDateTime loginTime,
+                      Date lastUsedAt,
+                      Date refreshTokenTime) {
+        this.sessionId = sessionId;
+        this.deviceLabel = deviceLabel;
+        this.loginTime = loginTime;
+        this.lastUsedAt = lastUsedAt;
+        this.refreshTokenTime = refreshTokenTime;
+    }
+
+    public static SessionDTO toSessionDTO(TokenEntity token) {
+        return SessionDTO.builder()
+                .sessionId(token.getId())
+                .deviceLabel(token.getDeviceLabel())
+                .loginTime(token.getRegTime())
+                .lastUsedAt(token.getLastUsedAt())
+                .refreshTokenTime(token.getRefreshTokenTime())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.project1.domain.member;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+// 여러 회원 조회 응답
+// members : 찾은 회원, 요청한 id 순서 (같은 id 를 여러 번 보내면 처음 나온 자리에 한 번만)
+// missing : 없는 회원 id, 요청한 순서
+@ToString
+@Getter
+@NoArgsConstructor
+public class MemberBatchDTO {
+    private List<MemberDTO> members;
+    private List<Long> missing;
+
+    public MemberBatchDTO(List<MemberDTO> members, List<Long> missing) {
+        this.members = members;
+        this.missing = missing;
+    }
+}
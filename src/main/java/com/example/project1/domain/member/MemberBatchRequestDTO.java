@@ -0,0 +1,17 @@
+package com.example.project1.domain.member;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+// 여러 회원 조회 요청, 목록 화면 등에서 필요한 회원 id 를 한 번에 보낸다.
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class MemberBatchRequestDTO {
+    private List<Long> userIds;
+}
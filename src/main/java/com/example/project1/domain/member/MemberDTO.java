@@ -1,15 +1,15 @@
 package com.example.project1.domain.member;
 
 import com.example.project1.domain.member.embedded.AddressDTO;
+import com.example.project1.domain.member.validation.ValidEmail;
 import com.example.project1.entity.member.MemberEntity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
-import javax.validation.constraints.Email;
 import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Pattern;
 import java.util.Optional;
 
 @ToString
@@ -19,8 +19,8 @@ public class MemberDTO {
     private Long userId;
 
     @NotNull(message = "이메일은 필수 입력입니다.")
-    @Pattern(regexp = "^(?:\\w+\\.?)*\\w+@(?:\\w+\\.)+\\w+$", message = "이메일 형식이 올바르지 않습니다.")
-    @Email(message = "이메일 형식에 맞지 않습니다.")
+    // 기존 @Pattern + @Email 과 같은 값을 받지만 정규식 되돌아가기 없이 검사한다.
+    @ValidEmail
     private String userEmail;
 
     @NotNull(message = "이름은 필수입력입니다.")
@@ -35,6 +35,10 @@ public class MemberDTO {
 
     private AddressDTO addressDTO;
 
+    // 응답 body 에는 넣지 않고 ETag 헤더로만 내려준다.
+    @JsonIgnore
+    private Long version;
+
 
     @Builder
     public MemberDTO(Long userId,
@@ -45,7 +49,8 @@ public class MemberDTO {
                      UserType userType,
                      String provider,
                      String providerId,
-                     AddressDTO addressDTO) {
+                     AddressDTO addressDTO,
+                     Long version) {
         this.userId = userId;
         this.userEmail = userEmail;
         this.userName = userName;
@@ -55,6 +60,22 @@ public class MemberDTO {
         this.provider = provider;
         this.providerId = providerId;
         this.addressDTO = addressDTO;
+        this.version = version;
+    }
+
+    // 여러 회원 조회(MemberRepository.findMemberDTOsByUserIdIn)의 JPQL 생성자 표현식용, 비밀번호와 버전은 읽지 않는다.
+    public MemberDTO(Long userId,
+                     String userEmail,
+                     String userName,
+                     String nickName,
+                     UserType userType,
+                     String provider,
+                     String providerId,
+                     String userAddr,
+                     String userAddrDetail,
+                     String userAddrEtc) {
+        this(userId, userEmail, userName, nickName, null, userType, provider, providerId,
+                new AddressDTO(userAddr, userAddrDetail, userAddrEtc), null);
     }
 
     public static MemberDTO toMemberDTO(MemberEntity member) {
@@ -73,6 +94,7 @@ public class MemberDTO {
                             .userAddrDetail(member.getAddress().getUserAddrDetail())
                             .userAddrEtc(member.getAddress().getUserAddrEtc())
                             .build())
+                    .version(member.getVersion())
                     .build();
 
             return memberDTO;
@@ -0,0 +1,15 @@
+package com.example.project1.domain.member;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+// 관리자의 권한 변경 요청
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class MemberRoleDTO {
+    private UserType userType;
+}
@@ -0,0 +1,66 @@
+package com.example.project1.domain.member.validation;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+// @ValidEmail 검사기
+// 기존의 @Pattern("^(?:\\w+\\.?)*\\w+@(?:\\w+\\.)+\\w+$") 와 @Email 을 둘 다 통과하는 값만 받는다.
+// - 로컬 부분 : 단어 문자([A-Za-z0-9_]) 묶음을 점 하나로 이은 것 (점으로 시작, 끝나거나 점이 이어지면 안 된다), 64자 이하
+// - 도메인 : 단어 문자 묶음(63자 이하)을 점으로 이은 것, 두 개 이상, 255자 이하
+// 정규식은 로컬 부분의 중첩된 반복((\w+\.?)*) 때문에 @ 가 없는 긴 단어 문자열에서 길이의 세제곱 정도로 되돌아간다. (800자에 1초)
+// 여기서는 문자를 한 번씩만 보고 되돌아가지 않으며, 객체를 만들지 않는다.
+public class ValidEmailValidator implements ConstraintValidator<ValidEmail, CharSequence> {
+
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_DOMAIN_LENGTH = 255;
+    private static final int MAX_DOMAIN_LABEL_LENGTH = 63;
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || isValidEmail(value);
+    }
+
+    public static boolean isValidEmail(CharSequence email) {
+        int length = email.length();
+        int i = 0;
+        // 로컬 부분, 점 앞에는 단어 문자가 하나 이상 있어야 한다.
+        int run = 0;
+        for (; i < length; i++) {
+            char c = email.charAt(i);
+            if (isWordChar(c)) {
+                run++;
+            } else if (c == '.' && run > 0) {
+                run = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == length || email.charAt(i) != '@' || run == 0 || i > MAX_LOCAL_PART_LENGTH) {
+            return false;
+        }
+
+        // 도메인
+        int domainStart = ++i;
+        int labels = 1;
+        run = 0;
+        for (; i < length; i++) {
+            char c = email.charAt(i);
+            if (isWordChar(c)) {
+                if (++run > MAX_DOMAIN_LABEL_LENGTH) {
+                    return false;
+                }
+            } else if (c == '.' && run > 0) {
+                run = 0;
+                labels++;
+            } else {
+                return false;
+            }
+        }
+        return run > 0 && labels >= 2 && length - domainStart <= MAX_DOMAIN_LENGTH;
+    }
+
+    // 정규식의 \w (UNICODE_CHARACTER_CLASS 없이)
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -2,71 +2,106 @@ package com.example.project1.entity.jwt;
 
 import com.example.project1.domain.jwt.TokenDTO;
 import com.example.project1.domain.member.UserType;
+import com.example.project1.entity.Base.BaseTimeEntity;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.util.Date;
 
+// 로그인한 기기 하나의 세션
+// 회원 한 명이 여러 기기에서 로그인할 수 있으므로 회원마다 여러 행이 생기고,
+// 회원별 세션 목록과 오래된 세션 정리는 (user_email, last_used_at) 인덱스로 찾는다.
+// 리프레시 토큰은 그대로 저장하지 않고 SHA-256 다이제스트로만 저장해서 재발급할 때 찾는다.
 @Entity(name = "token")
+@Table(indexes = @Index(name = "idx_token_user_email_last_used_at", columnList = "user_email, last_used_at"))
 @Getter
 @NoArgsConstructor
 @ToString
-public class TokenEntity {
+public class TokenEntity extends BaseTimeEntity {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String grantType;
-    private String accessToken;
-    private String refreshToken;
+
+    // 리프레시 토큰의 SHA-256 다이제스트 (base64url)
+    @Column(name = "refresh_token_digest", unique = true, length = 64)
+    private String refreshTokenDigest;
+
+    @Column(name = "user_email", nullable = false)
     private String userEmail;
+
+    // 로그인한 기기 (User-Agent)
+    @Column(name = "device_label", length = 100)
+    private String deviceLabel;
+
     private String nickName;
     private Long userId;
     private Date accessTokenTime;
     private Date refreshTokenTime;
     private UserType userType;
 
+    // 마지막으로 로그인하거나 재발급한 시각
+    // 회원의 세션이 최대 개수를 넘으면 이 값이 가장 오래된 세션부터 지운다.
+    @Column(name = "last_used_at")
+    private Date lastUsedAt;
+
+    // 세션이 재발급될 때마다 1씩 올라가는 버전
+    // 기존 행에도 값이 들어가도록 기본값을 0으로 지정
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
 
     @Builder
     public TokenEntity(Long id,
                        String grantType,
-                       String accessToken,
-                       String refreshToken,
+                       String refreshTokenDigest,
                        String userEmail,
+                       String deviceLabel,
                        String nickName,
                        Long userId,
                        Date accessTokenTime,
                        Date refreshTokenTime,
-                       UserType userType
+                       UserType userType,
+                       Date lastUsedAt,
+                       Long version
                        ) {
         this.id = id;
         this.grantType = grantType;
-        this.accessToken = accessToken;
-        this.refreshToken = refreshToken;
+        this.refreshTokenDigest = refreshTokenDigest;
         this.userEmail = userEmail;
+        this.deviceLabel = deviceLabel;
         this.nickName = nickName;
         this.userId = userId;
         this.accessTokenTime = accessTokenTime;
         this.refreshTokenTime = refreshTokenTime;
         this.userType = userType;
+        this.lastUsedAt = lastUsedAt;
+        this.version = version;
     }
 
-    public static TokenEntity toTokenEntity(TokenDTO tokenDTO) {
+    // 새 세션으로 저장할 때 사용
+    public static TokenEntity toTokenEntity(TokenDTO tokenDTO, String refreshTokenDigest, String deviceLabel) {
         TokenEntity tokenEntity = TokenEntity.builder()
-                .id(tokenDTO.getId())
                 .grantType(tokenDTO.getGrantType())
-                .accessToken(tokenDTO.getAccessToken())
-                .refreshToken(tokenDTO.getRefreshToken())
+                .refreshTokenDigest(refreshTokenDigest)
                 .userEmail(tokenDTO.getUserEmail())
+                .deviceLabel(deviceLabel)
                 .nickName(tokenDTO.getNickName())
                 .userId(tokenDTO.getUserId())
                 .accessTokenTime(tokenDTO.getAccessTokenTime())
                 .refreshTokenTime(tokenDTO.getRefreshTokenTime())
                 .userType(tokenDTO.getUserType())
+                .lastUsedAt(new Date())
                 .build();
 
         return tokenEntity;
@@ -11,6 +11,9 @@ import lombok.ToString;
 import javax.persistence.*;
 
 @Entity(name = "member")
+// AuthorityVersionLoader 가 몇 초마다 최근에 수정된 회원(update_time > since)을 읽으므로 전체를 훑지 않도록 인덱스를 둔다.
+// (update_time 은 BaseTimeEntity 의 컬럼이라 논리 이름인 updateTime 으로 적는다)
+@Table(indexes = @Index(name = "idx_member_update_time", columnList = "updateTime"))
 @Getter
 @ToString
 @NoArgsConstructor
@@ -43,6 +46,18 @@ public class MemberEntity extends BaseEntity {
     @Embedded
     private AddressEntity address;
 
+    // 회원 정보가 수정될 때마다 JPA 가 1씩 올려주는 버전
+    // 회원 조회 응답의 ETag 로 사용해서 변경이 없으면 304 로 응답한다.
+    // 기존 행에도 값이 들어가도록 기본값을 0으로 지정
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
+    // 권한(userType)이 바뀔 때마다 MemberService 가 1씩 올리는 버전
+    // 토큰에 발급할 때의 버전(av 클레임)을 넣어서, 권한이 바뀌기 전에 발급한 토큰을 만료 전이라도 알아본다.
+    @Column(name = "authority_version", columnDefinition = "bigint default 0")
+    private Long authorityVersion;
+
     @Builder
     public MemberEntity(
             Long userId,
@@ -53,7 +68,9 @@ public class MemberEntity extends BaseEntity {
             UserType userType,
             String provider,
             String providerId,
-            AddressEntity address) {
+            AddressEntity address,
+            Long version,
+            Long authorityVersion) {
         this.userId = userId;
         this.userName = userName;
         this.userEmail = userEmail;
@@ -63,6 +80,13 @@ public class MemberEntity extends BaseEntity {
         this.provider = provider;
         this.providerId = providerId;
         this.address = address;
+        this.version = version;
+        this.authorityVersion = authorityVersion == null ? 0L : authorityVersion;
+    }
+
+    // 컬럼을 추가하기 전의 행은 null 일 수 있다.
+    public long authorityVersionOrZero() {
+        return authorityVersion == null ? 0L : authorityVersion;
     }
 
 
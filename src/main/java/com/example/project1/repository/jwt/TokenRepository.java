@@ -1,11 +1,52 @@
 package com.example.project1.repository.jwt;
 
 import com.example.project1.entity.jwt.TokenEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface TokenRepository extends JpaRepository<TokenEntity, Long> {
-    TokenEntity findByRefreshToken(String refreshToken);
-    TokenEntity findByUserEmail(String userEmail);
+    // 재발급할 때 리프레시 토큰 다이제스트로 세션 조회 (unique 인덱스)
+    TokenEntity findByRefreshTokenDigest(String refreshTokenDigest);
+
+    // 토큰 검사 : 주어진 다이제스트 중 세션이 남아 있는(해지되지 않은) 것만 조회 (unique 인덱스)
+    @Query("select t.refreshTokenDigest from token t where t.refreshTokenDigest in :digests")
+    List<String> findRefreshTokenDigestsIn(@Param("digests") Collection<String> digests);
+
+    // 회원의 세션 목록, 최근에 사용한 순서 ((user_email, last_used_at) 인덱스)
+    List<TokenEntity> findByUserEmailOrderByLastUsedAtDesc(String userEmail);
+
+    // 회원의 세션 id 를 최근에 사용한 순서로 pageable 범위만 조회 (오래된 세션 정리용)
+    @Query("select t.id from token t where t.userEmail = :userEmail order by t.lastUsedAt desc, t.id desc")
+    List<Long> findIdsByUserEmailOrderByLastUsed(@Param("userEmail") String userEmail, Pageable pageable);
+
+    // 재발급 : 읽지 않고 update 한 번으로 마지막 사용 시각과 액세스 토큰 만료 시각을 바꾸고 버전을 올린다.
+    // 그 사이에 세션이 해지되었으면 0 을 돌려준다.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update token t set t.accessTokenTime = :accessTokenTime, t.lastUsedAt = :lastUsedAt, " +
+            "t.version = t.version + 1 where t.id = :id")
+    int touch(@Param("id") Long id,
+              @Param("accessTokenTime") Date accessTokenTime,
+              @Param("lastUsedAt") Date lastUsedAt);
+
+    // 회원 본인의 세션만 해지
+    @Transactional
+    @Modifying
+    @Query("delete from token t where t.id = :id and t.userEmail = :userEmail")
+    int deleteByIdAndUserEmail(@Param("id") Long id, @Param("userEmail") String userEmail);
+
+    @Transactional
+    @Modifying
+    @Query("delete from token t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
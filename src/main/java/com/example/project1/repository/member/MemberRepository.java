@@ -1,9 +1,15 @@
 package com.example.project1.repository.member;
 
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.domain.member.UserType;
 import com.example.project1.entity.member.MemberEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +19,26 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Long> {
     MemberEntity findByUserEmail(String userEmail);
     MemberEntity deleteByUserId(Long userId);
     MemberEntity findByProviderId(String providerId);
+
+    // 엔티티 전체를 불러오지 않고 버전만 조회 (ETag 비교용)
+    @Query("select m.version from member m where m.userId = :userId")
+    Long findVersionByUserId(@Param("userId") Long userId);
+
+    // since 이후에 수정된 회원 중 권한이 바뀐 적 있는 회원의 권한 버전 (AuthorityVersionLoader 가 주기적으로 읽는다)
+    // update_time 인덱스(idx_member_update_time)로 최근 수정된 행만 읽고, authority_version 은 그 행에서 거른다.
+    @Query("select m.userEmail as userEmail, m.authorityVersion as authorityVersion, m.userType as userType"
+            + " from member m where m.authorityVersion > 0 and m.updateTime > :since")
+    List<AuthorityVersionView> findAuthorityVersionsModifiedSince(@Param("since") LocalDateTime since);
+
+    // 여러 회원 조회 : 엔티티를 만들지 않고 응답에 필요한 컬럼만 읽어서 MemberDTO 로 바로 만든다. (비밀번호 제외, 기본 키 IN)
+    @Query("select new com.example.project1.domain.member.MemberDTO(m.userId, m.userEmail, m.userName, m.nickName,"
+            + " m.userType, m.provider, m.providerId, m.address.userAddr, m.address.userAddrDetail, m.address.userAddrEtc)"
+            + " from member m where m.userId in :userIds")
+    List<MemberDTO> findMemberDTOsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    interface AuthorityVersionView {
+        String getUserEmail();
+        Long getAuthorityVersion();
+        UserType getUserType();
+    }
 }
@@ -1,15 +1,19 @@
 package com.example.project1.service.jwt;
 
+import com.example.project1.config.audit.AuthAuditJournal;
+import com.example.project1.config.audit.AuthAuditType;
+import com.example.project1.config.concurrency.SingleFlight;
 import com.example.project1.config.jwt.JwtAuthenticationFilter;
 import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
 import com.example.project1.domain.jwt.TokenDTO;
 import com.example.project1.domain.member.UserType;
 import com.example.project1.entity.jwt.TokenEntity;
 import com.example.project1.entity.member.MemberEntity;
-import com.example.project1.repository.jwt.TokenRepository;
 import com.example.project1.repository.member.MemberRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +21,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,42 +30,73 @@ import java.util.List;
 @Slf4j
 public class RefreshTokenService {
 
-    private final TokenRepository tokenRepository;
+    private final TokenSessionService tokenSessionService;
     private final JwtProvider jwtProvider;
     private final MemberRepository memberRepository;
+    private final AuthAuditJournal authAuditJournal;
+    private final ReferenceTokenService referenceTokenService;
 
-    public ResponseEntity<TokenDTO> createAccessToken(String refreshToken) {
+    // 액세스 토큰이 만료되면 앱이 재발급을 여러 개 동시에 보내므로, 같은 리프레시 토큰의 재발급은 한 번만 처리한다.
+    // 끝난 뒤 grace-millis 안에 도착한 재발급에도 같은 액세스 토큰을 돌려준다.
+    // (그 사이에 세션을 해지해도 이미 발급한 토큰을 다시 돌려줄 뿐 새로 발급하지는 않는다)
+    @Value("${jwt.refresh.single-flight.grace-millis:2000}")
+    private long singleFlightGraceMillis;
+    private SingleFlight<String, ResponseEntity<TokenDTO>> refreshFlights;
+
+    @PostConstruct
+    void init() {
+        refreshFlights = new SingleFlight<>(singleFlightGraceMillis);
+    }
+
+    // 참조 토큰을 쓰는 클라이언트(clientId)면 액세스 토큰을 참조 토큰으로 발급한다.
+    // 같은 리프레시 토큰, 같은 클라이언트로 동시에 들어온 요청은 세션 조회, 서명, 저장을 한 번만 하고 같은 결과를 받는다.
+    public ResponseEntity<TokenDTO> createAccessToken(String refreshToken, String clientId) {
+        // 리프레시 토큰 원문을 키로 들고 있지 않도록 세션 조회에 쓰는 다이제스트를 키로 쓴다.
+        String key = TokenSessionService.digest(refreshToken) + (clientId == null ? "" : " " + clientId);
+        return refreshFlights.execute(key, () -> refresh(refreshToken, clientId));
+    }
+
+    private ResponseEntity<TokenDTO> refresh(String refreshToken, String clientId) {
 
         // refreshToken 유효성 검사하고 true면 넘어감
         if(jwtProvider.validateToken(refreshToken)) {
-            TokenEntity findRefreshTokenEmail = tokenRepository.findByRefreshToken(refreshToken);
+            // 리프레시 토큰으로 기기 세션을 찾는다. 해지되었거나 다른 로그인에 밀려서 지워졌으면 null
+            TokenEntity session = tokenSessionService.find(refreshToken);
+            if (session == null) {
+                throw new IllegalArgumentException("Unexpected token");
+            }
             // 아이디 추출
-            String userEmail = findRefreshTokenEmail.getUserEmail();
-            log.info("userEmail : " + userEmail);
+            String userEmail = session.getUserEmail();
+            log.info("userEmail : {}", userEmail);
             MemberEntity member = memberRepository.findByUserEmail(userEmail);
-            log.info("member : " + member);
             // 사용자의 권한 정보를 가져옴
             List<GrantedAuthority> authoritiesForUser = getAuthoritiesForUser(member);
 
-            TokenDTO accessToken = jwtProvider.createAccessToken(userEmail, authoritiesForUser);
-            log.info("accessToken : " + accessToken);
+            TokenDTO accessToken = jwtProvider.createAccessToken(userEmail, authoritiesForUser,
+                    member.authorityVersionOrZero());
+
+            // 그 사이에 세션이 해지되었으면 재발급하지 않는다.
+            if (!tokenSessionService.touch(session, accessToken.getAccessTokenTime())) {
+                throw new IllegalArgumentException("Unexpected token");
+            }
+            log.info("token : {}", session.getId());
 
             accessToken = TokenDTO.builder()
-                    .id(findRefreshTokenEmail.getId())
                     .grantType(accessToken.getGrantType())
                     .accessToken(accessToken.getAccessToken())
-                    .refreshToken(findRefreshTokenEmail.getRefreshToken())
-                    .refreshTokenTime(findRefreshTokenEmail.getRefreshTokenTime())
+                    .refreshToken(refreshToken)
+                    .refreshTokenTime(session.getRefreshTokenTime())
                     .userEmail(accessToken.getUserEmail())
                     .nickName(member.getNickName())
                     .userId(member.getUserId())
                     .accessTokenTime(accessToken.getAccessTokenTime())
                     .build();
 
-            TokenEntity tokenEntity = TokenEntity.toTokenEntity(accessToken);
+            if (referenceTokenService.appliesTo(clientId)) {
+                accessToken = referenceTokenService.issue(accessToken, authoritiesForUser);
+            }
 
-            log.info("token : " + tokenEntity);
-            tokenRepository.save(tokenEntity);
+            authAuditJournal.record(AuthAuditType.REFRESH, userEmail);
 
             HttpHeaders headers = new HttpHeaders();
             // response header에 jwt token을 넣어줌
@@ -80,7 +116,7 @@ public class RefreshTokenService {
         // member 객체를 이용하여 데이터베이스에서 사용자의 권한 정보를 조회하는 예시로 대체합니다.
         UserType role = member.getUserType();  // 사용자의 권한 정보를 가져오는 로직 (예시)
 
-        log.info("role : " + role.name());
+        log.info("role : {}", role);
         List<GrantedAuthority> authorities = new ArrayList<>();
             authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
         return authorities;
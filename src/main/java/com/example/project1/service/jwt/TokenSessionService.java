@@ -0,0 +1,131 @@
+package com.example.project1.service.jwt;
+
+import com.example.project1.domain.jwt.SessionDTO;
+import com.example.project1.domain.jwt.TokenDTO;
+import com.example.project1.entity.jwt.TokenEntity;
+import com.example.project1.repository.jwt.TokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 회원의 기기별 세션(token 테이블)을 관리한다.
+// - 로그인 : 기기마다 세션을 하나씩 추가하고, 회원의 세션이 max-per-user 개를 넘으면 가장 오래 사용하지 않은 세션부터 지운다.
+// - 재발급 : 리프레시 토큰 다이제스트로 세션을 찾고 update 한 번으로 마지막 사용 시각을 바꾼다.
+// - 목록, 해지 : (user_email, last_used_at) 인덱스와 기본 키로 찾는다.
+// 로그인, 재발급 모두 한 세션 행만 건드리므로 같은 회원이 여러 기기에서 동시에 요청해도 서로 기다리거나 덮어쓰지 않는다.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenSessionService {
+
+    private static final int DEVICE_LABEL_MAX_LENGTH = 100;
+    private static final int IN_CHUNK_SIZE = 500;
+
+    private final TokenRepository tokenRepository;
+
+    // 회원 한 명이 가질 수 있는 최대 세션 수
+    @Value("${jwt.session.max-per-user:10}")
+    private int maxSessionsPerUser;
+
+    // 로그인 : 새 세션을 추가하고 최대 개수를 넘은 오래된 세션을 지운다.
+    public TokenEntity open(TokenDTO token, String deviceLabel) {
+        TokenEntity session = tokenRepository.save(
+                TokenEntity.toTokenEntity(token, digest(token.getRefreshToken()), deviceLabel(deviceLabel)));
+        evictLeastRecentlyUsed(token.getUserEmail());
+        return session;
+    }
+
+    // 재발급할 세션 조회, 해지되었거나 모르는 리프레시 토큰이면 null
+    public TokenEntity find(String refreshToken) {
+        return tokenRepository.findByRefreshTokenDigest(digest(refreshToken));
+    }
+
+    // 토큰 검사 : 세션이 해지되지 않은 리프레시 토큰
+    // IN 목록이 너무 길어지지 않도록 IN_CHUNK_SIZE 개씩 나눠서 조회한다.
+    public Set<String> activeRefreshTokens(List<String> refreshTokens) {
+        Map<String, String> byDigest = new HashMap<>();
+        for (String refreshToken : refreshTokens) {
+            byDigest.put(digest(refreshToken), refreshToken);
+        }
+        List<String> digests = new ArrayList<>(byDigest.keySet());
+        Set<String> active = new HashSet<>();
+        for (int from = 0; from < digests.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = digests.subList(from, Math.min(from + IN_CHUNK_SIZE, digests.size()));
+            for (String digest : tokenRepository.findRefreshTokenDigestsIn(chunk)) {
+                active.add(byDigest.get(digest));
+            }
+        }
+        return active;
+    }
+
+    // 재발급 : 세션의 마지막 사용 시각과 액세스 토큰 만료 시각을 바꾼다.
+    // 그 사이에 해지되었으면 false
+    public boolean touch(TokenEntity session, Date accessTokenTime) {
+        return tokenRepository.touch(session.getId(), accessTokenTime, new Date()) > 0;
+    }
+
+    // 회원의 세션 목록, 최근에 사용한 순서
+    public List<SessionDTO> sessions(String userEmail) {
+        return tokenRepository.findByUserEmailOrderByLastUsedAtDesc(userEmail).stream()
+                .map(SessionDTO::toSessionDTO)
+                .collect(Collectors.toList());
+    }
+
+    // 회원 본인의 세션 해지, 없는 세션이면 false
+    public boolean revoke(String userEmail, Long sessionId) {
+        return tokenRepository.deleteByIdAndUserEmail(sessionId, userEmail) > 0;
+    }
+
+    // 최근에 사용한 세션 max-per-user 개만 남기고 지운다.
+    // 최근 순서로 max-per-user 번째 다음부터 max-per-user 개(두 번째 페이지)만 인덱스에서 읽어서 지우므로
+    // 회원의 세션 행 전체를 세거나 읽지 않는다.
+    // 동시에 로그인한 요청끼리 같은 세션을 지워도 되고, 여기서 실패해도 다음 로그인에서 다시 정리하므로 로그인은 실패시키지 않는다.
+    private void evictLeastRecentlyUsed(String userEmail) {
+        try {
+            List<Long> overflow = tokenRepository.findIdsByUserEmailOrderByLastUsed(
+                    userEmail, PageRequest.of(1, maxSessionsPerUser));
+            if (!overflow.isEmpty()) {
+                int evicted = tokenRepository.deleteByIdIn(overflow);
+                log.debug("오래된 세션 정리 userEmail : {}, 삭제 : {}", userEmail, evicted);
+            }
+        } catch (ConcurrencyFailureException e) {
+            log.debug("오래된 세션 정리를 다음 로그인으로 미룹니다. userEmail : {}", userEmail);
+        }
+    }
+
+    private static String deviceLabel(String userAgent) {
+        if (!StringUtils.hasText(userAgent)) {
+            return "unknown";
+        }
+        String label = userAgent.trim();
+        return label.length() > DEVICE_LABEL_MAX_LENGTH ? label.substring(0, DEVICE_LABEL_MAX_LENGTH) : label;
+    }
+
+    // 리프레시 토큰의 SHA-256 다이제스트 (base64url, 43자)
+    static String digest(String refreshToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.project1.service.member;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Semaphore;
+
+// 분석용 회원 전체 내보내기 (NDJSON, 한 줄에 회원 하나)
+// - JPA 를 거치지 않고 JDBC 로 읽는다. 엔티티와 영속성 컨텍스트가 없으므로 회원 수와 관계없이 힙 사용량이 일정하다.
+// - forward-only, read-only 커서로 fetch-size 행씩 읽는다.
+//   MySQL 드라이버는 양수 fetch size 를 무시하고 결과 전체를 메모리에 받으므로, MySQL 이면 이 조회만 Integer.MIN_VALUE 로
+//   한 행씩 스트리밍한다. (URL 의 useCursorFetch 는 모든 조회를 서버 측 프리페어드 문장으로 바꾸므로 쓰지 않는다)
+//   H2 등은 음수 fetch size 를 거절하므로 fetch-size 를 그대로 쓴다.
+// - 읽은 행은 Jackson JsonGenerator 로 바로 응답에 쓰고, fetch-size 행마다 flush 해서 클라이언트가 받는 대로 처리하게 한다.
+// - 비밀번호는 읽지 않는다.
+// 내보내기는 회원 수에 따라 몇 분씩 걸리므로 관리자 API 동시 처리 한도(RouteClass.ADMIN)에서 빼고, 여기서 max-concurrent 개로 제한한다.
+@Slf4j
+@Service
+public class MemberExportService {
+
+    private static final String SQL = "select user_id, user_email, user_name, nick_name, user_type, provider, provider_id,"
+            + " user_addr, user_addr_detail, user_addr_etc, reg_time, update_time from member order by user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Semaphore permits;
+
+    public MemberExportService(JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${member.export.fetch-size:1000}") int fetchSize,
+                               @Value("${member.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    // 내보내기 자리를 얻는다. 이미 max-concurrent 개가 진행 중이면 false
+    // 응답을 쓰기 시작하기 전에 확인해서 503 으로 돌려보낼 수 있게 한다. 얻었으면 끝난 뒤 release 를 부른다.
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    // out 에 회원 전체를 user_id 순서로 쓰고 쓴 회원 수를 돌려준다. out 은 닫지 않는다.
+    public long export(OutputStream out) throws IOException {
+        long[] rows = new long[1];
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 줄바꿈은 직접 쓴다. (기본 구분자는 공백)
+            generator.setRootValueSeparator(null);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : fetchSize);
+                return statement;
+            }, resultSet -> {
+                try {
+                    writeRow(generator, resultSet);
+                    if (++rows[0] % fetchSize == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    // 클라이언트가 연결을 끊은 경우, 커서를 닫고 빠져나간다.
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("회원 {}명을 내보냈습니다.", rows[0]);
+        return rows[0];
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    // MemberDTO 와 같은 이름 (비밀번호, 버전 제외) + 가입, 수정 시각
+    private static void writeRow(JsonGenerator generator, ResultSet resultSet) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeNumberField("userId", resultSet.getLong(1));
+        generator.writeStringField("userEmail", resultSet.getString(2));
+        generator.writeStringField("userName", resultSet.getString(3));
+        generator.writeStringField("nickName", resultSet.getString(4));
+        generator.writeStringField("userType", resultSet.getString(5));
+        generator.writeStringField("provider", resultSet.getString(6));
+        generator.writeStringField("providerId", resultSet.getString(7));
+        generator.writeObjectFieldStart("addressDTO");
+        generator.writeStringField("userAddr", resultSet.getString(8));
+        generator.writeStringField("userAddrDetail", resultSet.getString(9));
+        generator.writeStringField("userAddrEtc", resultSet.getString(10));
+        generator.writeEndObject();
+        writeTime(generator, "regTime", resultSet.getTimestamp(11));
+        writeTime(generator, "updateTime", resultSet.getTimestamp(12));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    // LocalDateTime 을 응답으로 직렬화할 때와 같은 ISO-8601 형식
+    private static void writeTime(JsonGenerator generator, String name, Timestamp time) throws IOException {
+        if (time == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeStringField(name, time.toLocalDateTime().toString());
+        }
+    }
+}
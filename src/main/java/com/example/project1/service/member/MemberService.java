@@ -1,21 +1,30 @@
 package com.example.project1.service.member;
 
+import com.example.project1.config.audit.AuthAuditJournal;
+import com.example.project1.config.audit.AuthAuditType;
 import com.example.project1.config.auth.PrincipalDetails;
 import com.example.project1.config.jwt.JwtAuthenticationFilter;
 import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.domain.jwt.SessionDTO;
 import com.example.project1.domain.jwt.TokenDTO;
+import com.example.project1.domain.member.MemberBatchDTO;
 import com.example.project1.domain.member.MemberDTO;
 import com.example.project1.domain.member.UserType;
 import com.example.project1.domain.member.embedded.AddressDTO;
 import com.example.project1.entity.jwt.TokenEntity;
 import com.example.project1.entity.member.MemberEntity;
 import com.example.project1.entity.member.embedded.AddressEntity;
-import com.example.project1.repository.jwt.TokenRepository;
 import com.example.project1.repository.member.MemberRepository;
+import com.example.project1.service.jwt.TokenSessionService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -39,7 +48,19 @@ public class MemberService {
     private final MemberRepository memberRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
-    private final TokenRepository tokenRepository;
+    private final TokenSessionService tokenSessionService;
+    private final AuthAuditJournal authAuditJournal;
+    private final ReferenceTokenService referenceTokenService;
+    private final AuthorityVersions authorityVersions;
+
+    // 여러 회원 조회에서 한 번에 받는 id 수
+    @Getter
+    @Value("${member.batch.max-ids:5000}")
+    private int maxBatchIds;
+
+    // 여러 회원 조회의 IN 목록 길이 (드라이버, DB 의 바인드 변수 한도보다 작게)
+    @Value("${member.batch.in-chunk-size:500}")
+    private int batchInChunkSize;
 
     // 회원가입
     public String signUp(MemberDTO memberDTO) throws Exception {
@@ -56,7 +77,8 @@ public class MemberService {
                         .userPw(passwordEncoder.encode(memberDTO.getUserPw()))
                         .userName(memberDTO.getUserName())
                         .nickName(memberDTO.getNickName())
-                        .userType(memberDTO.getUserType())
+                        // 요청의 userType 은 믿지 않는다. 권한은 관리자가 changeRole 로만 바꾼다.
+                        .userType(UserType.USER)
                         .provider(memberDTO.getProvider())
                         .providerId(memberDTO.getProviderId())
                         .address(AddressEntity.builder()
@@ -66,8 +88,9 @@ public class MemberService {
                                 .build())
                         .build();
 
-                log.info("member : " + member);
+                log.info("member : {}", member.getUserEmail());
                 memberRepository.save(member);
+                authAuditJournal.record(AuthAuditType.SIGNUP, member.getUserEmail());
 
 //            MemberDTO memberDTO1 = MemberDTO.toMemberDTO(Optional.of(save));
 
@@ -89,6 +112,41 @@ public class MemberService {
         return memberDTO;
     }
 
+    // 회원 버전 조회
+    // If-None-Match 로 들어온 ETag 와 비교하기 위해서 버전 컬럼만 조회한다.
+    // 회원이 없으면 null
+    public Long searchVersion(Long userId) {
+        return memberRepository.findVersionByUserId(userId);
+    }
+
+    // 여러 회원 조회
+    // 중복을 뺀 id 를 in-chunk-size 개씩 나눠서 IN 으로 조회하고, 엔티티 대신 필요한 컬럼만 읽어서 MemberDTO 로 바로 만든다.
+    // 회원 N 명을 findById N 번(쿼리 N 번) 대신 ceil(N / in-chunk-size) 번으로 조회한다.
+    // 응답은 요청한 id 순서이고, 없는 id 는 missing 으로 알려준다.
+    public MemberBatchDTO searchAll(List<Long> userIds) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(userIds));
+        Map<Long, MemberDTO> found = new HashMap<>(distinct.size() * 2);
+        int chunkSize = Math.max(1, batchInChunkSize);
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            for (MemberDTO member : memberRepository.findMemberDTOsByUserIdIn(chunk)) {
+                found.put(member.getUserId(), member);
+            }
+        }
+
+        List<MemberDTO> members = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : distinct) {
+            MemberDTO member = found.get(userId);
+            if (member != null) {
+                members.add(member);
+            } else {
+                missing.add(userId);
+            }
+        }
+        return new MemberBatchDTO(members, missing);
+    }
+
     // 회원 삭제
     public String remove(Long userId) {
         MemberEntity member = memberRepository.deleteByUserId(userId);
@@ -101,10 +159,12 @@ public class MemberService {
     }
 
     // 로그인
-    public ResponseEntity<TokenDTO> login(String userEmail, String userPw) throws Exception {
+    // 기기(deviceLabel)마다 세션을 하나씩 만들어서 다른 기기의 로그인을 끊지 않는다.
+    // 참조 토큰을 쓰는 클라이언트(clientId)면 액세스 토큰을 참조 토큰으로 발급한다.
+    public ResponseEntity<TokenDTO> login(String userEmail, String userPw, String deviceLabel, String clientId) throws Exception {
 
         MemberEntity findUser = memberRepository.findByUserEmail(userEmail);
-        log.info("findUser : " + findUser);
+        log.info("findUser : {}", userEmail);
 
 
         if (findUser != null) {
@@ -129,67 +189,49 @@ public class MemberService {
                 // 이 시점에서는 아직 실제로 인증이 이루어지지 않았기 때문에 Authenticated 속성은 false로 설정
                 // 인증 과정은 AuthenticationManager와 AuthenticationProvider에서 이루어지며,
                 // 인증이 성공하면 Authentication 객체의 isAuthenticated() 속성이 true로 변경됩니다.
-                log.info("authentication in MemberService : " + authentication);
+                log.info("authentication in MemberService : {}", authentication.getName());
 
                 List<GrantedAuthority> authoritiesForUser = getAuthoritiesForUser(findUser);
 
 //                TokenDTO token = jwtProvider.createToken(authentication, findUser.getUserType());
-                TokenDTO token = jwtProvider.createToken(authentication, authoritiesForUser);
-
-                log.info("tokenEmail in MemberService : " + token.getUserEmail());
-
-                TokenEntity checkEmail = tokenRepository.findByUserEmail(token.getUserEmail());
-                log.info("checkEmail in MemberService : " + checkEmail);
-
-                // 사용자에게 이미 토큰이 할당되어 있는지 확인합니다.
-                if (checkEmail != null) {
-                    log.info("이미 발급한 토큰이 있습니다.");
-                    // 발급한 토큰이 있을 때 id를 식별해서 수정한다.
-                    // id가 없으면 새로운 거로 인식해서 새로 저장된다.
-                    token = TokenDTO.builder()
-                            .id(checkEmail.getId())
-                            .grantType(token.getGrantType())
-                            .accessToken(token.getAccessToken())
-                            .refreshToken(token.getRefreshToken())
-                            .userEmail(token.getUserEmail())
-                            .nickName(findUser.getNickName())
-                            .userId(findUser.getUserId())
-                            .accessTokenTime(token.getAccessTokenTime())
-                            .refreshTokenTime(token.getRefreshTokenTime())
-                            .userType(findUser.getUserType())
-                            .build();
-
-                    TokenEntity updateToken = TokenEntity.toTokenEntity(token);
-                    log.info("token in MemberService : " + updateToken);
-                    tokenRepository.save(updateToken);
-                } else {
-                    log.info("발급한 토큰이 없습니다.");
-                    token = TokenDTO.builder()
-                            .grantType(token.getGrantType())
-                            .accessToken(token.getAccessToken())
-                            .refreshToken(token.getRefreshToken())
-                            .userEmail(token.getUserEmail())
-                            .nickName(findUser.getNickName())
-                            .userId(findUser.getUserId())
-                            .accessTokenTime(token.getAccessTokenTime())
-                            .refreshTokenTime(token.getRefreshTokenTime())
-                            .userType(findUser.getUserType())
-                            .build();
-
-                    // 새로운 토큰을 DB에 저장할 때 사용할 임시 객체로 TokenEntity tokenEntity를 생성합니다.
-                    TokenEntity newToken = TokenEntity.toTokenEntity(token);
-                    log.info("token in MemberService : " + newToken);
-                    tokenRepository.save(newToken);
+                TokenDTO token = jwtProvider.createToken(authentication, authoritiesForUser,
+                        findUser.authorityVersionOrZero());
+
+                log.info("tokenEmail in MemberService : {}", token.getUserEmail());
+
+                token = TokenDTO.builder()
+                        .grantType(token.getGrantType())
+                        .accessToken(token.getAccessToken())
+                        .refreshToken(token.getRefreshToken())
+                        .userEmail(token.getUserEmail())
+                        .nickName(findUser.getNickName())
+                        .userId(findUser.getUserId())
+                        .accessTokenTime(token.getAccessTokenTime())
+                        .refreshTokenTime(token.getRefreshTokenTime())
+                        .userType(findUser.getUserType())
+                        .build();
+
+                if (referenceTokenService.appliesTo(clientId)) {
+                    token = referenceTokenService.issue(token, authoritiesForUser);
                 }
+
+                // 이 기기의 세션을 새로 만든다. 회원의 세션이 최대 개수를 넘으면 가장 오래 사용하지 않은 세션이 지워진다.
+                TokenEntity session = tokenSessionService.open(token, deviceLabel);
+                log.info("token in MemberService : {}", session.getId());
+
                 HttpHeaders headers = new HttpHeaders();
                 // response header에 jwt token을 넣어줌
                 headers.add(JwtAuthenticationFilter.HEADER_AUTHORIZATION, "Bearer " + token);
 
+                authAuditJournal.record(AuthAuditType.LOGIN_SUCCESS, userEmail);
                 return new ResponseEntity<>(token, headers, HttpStatus.OK);
             }
         } else {
+            authAuditJournal.record(AuthAuditType.LOGIN_FAILURE, userEmail);
             return null;
         }
+        // 비밀번호 불일치
+        authAuditJournal.record(AuthAuditType.LOGIN_FAILURE, userEmail);
         return null;
     }
 
@@ -200,8 +242,7 @@ public class MemberService {
 
         List<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
-        log.info("role in MemberService : " + role.name());
-        log.info("authorities in MemberService : " + authorities);
+        log.info("role in MemberService : {}", role);
         return authorities;
     }
 
@@ -215,7 +256,7 @@ public class MemberService {
         // userPw={bcrypt}$2a$10$awW/iOrOTzbDSQU2MnS8Hu.c1T/oNgmEG6/z6wMI1JKUw3BpXKXtm,
         // nickName=test, userType=USER, provider=null,
         // providerId=null, address=AddressEntity(userAddr=서울시 강남구, userAddrDetail=160-41, userAddrEtc=3층))
-        log.info("findUser : " + findUser);
+        log.info("findUser : {}", userEmail);
 
         // 새로 가입
         if (findUser == null) {
@@ -233,7 +274,7 @@ public class MemberService {
 
             memberRepository.save(findUser);
             MemberDTO modifyUser = MemberDTO.toMemberDTO(findUser);
-            log.info("modifyUser : " + modifyUser);
+            log.info("modifyUser : {}", modifyUser.getUserEmail());
             return modifyUser;
         } else {
             // 회원 수정
@@ -244,11 +285,15 @@ public class MemberService {
                     // 클라이언트에서 userEmail을 전달하더라도 서버에서 기존 값으로 업데이트가 이루어질 것입니다.
                     // 이렇게 하면 userEmail을 수정하지 못하게 할 수 있습니다.
                     .userId(findUser.getUserId())
+                    // 버전을 같이 넘겨야 JPA 가 기존 회원의 수정으로 인식하고 버전을 올려준다.
+                    .version(findUser.getVersion())
+                    .authorityVersion(findUser.authorityVersionOrZero())
                     .userEmail(findUser.getUserEmail())
                     .userPw(passwordEncoder.encode(memberDTO.getUserPw()))
                     .userName(memberDTO.getUserName())
                     .nickName(memberDTO.getNickName())
-                    .userType(memberDTO.getUserType())
+                    // 권한은 본인이 바꿀 수 없다. 관리자가 changeRole 로 바꾼다.
+                    .userType(findUser.getUserType())
                     .address(AddressEntity.builder()
                             .userAddr(memberDTO.getAddressDTO().getUserAddr())
                             .userAddrDetail(memberDTO.getAddressDTO().getUserAddrDetail())
@@ -260,41 +305,93 @@ public class MemberService {
             // 제대로 DTO 값이 엔티티에 넣어졌는지 확인하기 위해서
             // 엔티티에 넣어주고 다시 DTO 객체로 바꿔서 리턴을 해줬습니다.
             MemberDTO memberDto = MemberDTO.toMemberDTO(findUser);
-            log.info("memberDto : " + memberDto);
+            log.info("memberDto : {}", memberDto.getUserEmail());
             return memberDto;
         }
     }
 
+    // 권한 변경 (관리자)
+    // 권한 버전을 올려서, 바뀌기 전에 발급한 토큰을 알아보게 한다. 회원이 없으면 null
+    public MemberDTO changeRole(Long userId, UserType userType) {
+        MemberEntity findUser = memberRepository.findById(userId).orElse(null);
+        if (findUser == null) {
+            return null;
+        }
+        if (findUser.getUserType() == userType) {
+            return MemberDTO.toMemberDTO(findUser);
+        }
+        long authorityVersion = findUser.authorityVersionOrZero() + 1;
+
+        findUser = MemberEntity.builder()
+                .userId(findUser.getUserId())
+                .version(findUser.getVersion())
+                .authorityVersion(authorityVersion)
+                .userEmail(findUser.getUserEmail())
+                .userPw(findUser.getUserPw())
+                .userName(findUser.getUserName())
+                .nickName(findUser.getNickName())
+                .userType(userType)
+                .provider(findUser.getProvider())
+                .providerId(findUser.getProviderId())
+                .address(findUser.getAddress())
+                .build();
+
+        memberRepository.save(findUser);
+        // 이 인스턴스에는 바로 반영하고, 다른 인스턴스는 AuthorityVersionLoader 가 읽어 간다.
+        authorityVersions.record(findUser.getUserEmail(), authorityVersion,
+                RoleAuthorities.bitOf("ROLE_" + userType), System.currentTimeMillis());
+        authAuditJournal.record(AuthAuditType.ROLE_CHANGED, findUser.getUserEmail());
+        log.info("권한 변경 userId : {}, userType : {}, av : {}", userId, userType, authorityVersion);
+        return MemberDTO.toMemberDTO(findUser);
+    }
+
     // 소셜 로그인 성공시 jwt 반환
-    // OAuth2User에서 필요한 정보를 추출하여 UserDetails 객체를 생성하는 메서드
-    public ResponseEntity<?> createToken(String userEmail) {
-
-        log.info("userEmail in MemberService : " + userEmail);
-
-        MemberEntity findEmail = memberRepository.findByUserEmail(userEmail);
-        log.info("findUser in MemberService : " + findEmail);
-
-        TokenEntity findToken = tokenRepository.findByUserEmail(findEmail.getUserEmail());
-        log.info("findUser in MemberService : " + findToken);
-
-        // PrincipalOauth2UserService 에서 만든 토큰이 있으면 true
-        if(findToken != null) {
-            TokenDTO token = TokenDTO.builder()
-                    .id(findToken.getId())
-                    .grantType(findToken.getGrantType())
-                    .accessToken(findToken.getAccessToken())
-                    .accessTokenTime(findToken.getRefreshTokenTime())
-                    .refreshToken(findToken.getRefreshToken())
-                    .refreshTokenTime(findToken.getAccessTokenTime())
-                    .userEmail(findToken.getUserEmail())
-                    .userType(findToken.getUserType())
-                    .nickName(findToken.getNickName())
-                    .userId(findToken.getUserId())
+    // 이 기기의 세션을 새로 만들어서 토큰을 발급한다.
+    public ResponseEntity<?> createToken(String userEmail, String deviceLabel) {
+
+        log.info("userEmail in MemberService : {}", userEmail);
+
+        MemberEntity findUser = memberRepository.findByUserEmail(userEmail);
+
+        // PrincipalOauth2UserService 에서 가입시킨 회원이 있으면 true
+        if(findUser != null) {
+            List<GrantedAuthority> authorities = getAuthoritiesForUser(findUser);
+            TokenDTO token = jwtProvider.createTokenForOAuth2(findUser.getUserEmail(), authorities,
+                    findUser.authorityVersionOrZero());
+
+            token = TokenDTO.builder()
+                    .grantType(token.getGrantType())
+                    .accessToken(token.getAccessToken())
+                    .accessTokenTime(token.getAccessTokenTime())
+                    .refreshToken(token.getRefreshToken())
+                    .refreshTokenTime(token.getRefreshTokenTime())
+                    .userEmail(token.getUserEmail())
+                    .userType(findUser.getUserType())
+                    .nickName(findUser.getNickName())
+                    .userId(findUser.getUserId())
                     .build();
 
+            TokenEntity session = tokenSessionService.open(token, deviceLabel);
+            log.info("token in MemberService : {}", session.getId());
+
             return ResponseEntity.ok().body(token);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("토큰이 가입되지 않았습니다. 소셜 로그인에 문제가 있습니다.");
         }
     }
+
+    // 로그인한 회원의 기기별 세션 목록
+    public List<SessionDTO> sessions(String userEmail) {
+        return tokenSessionService.sessions(userEmail);
+    }
+
+    // 로그인한 회원의 세션 해지
+    // 해지한 기기는 리프레시 토큰으로 재발급할 수 없고 다시 로그인해야 한다.
+    public boolean revokeSession(String userEmail, Long sessionId) {
+        boolean revoked = tokenSessionService.revoke(userEmail, sessionId);
+        if (revoked) {
+            authAuditJournal.record(AuthAuditType.SESSION_REVOKED, userEmail);
+        }
+        return revoked;
+    }
 }
@@ -7,4 +7,34 @@ drop table token;
 drop table member;
 
 delete from member where user_email = "gminju1665@gmail.com";
-delete from token where user_email = "gminju1665@gmail.com";
\ No newline at end of file
+delete from token where user_email = "gminju1665@gmail.com";
+
+-- 회원 조회 ETag 용 버전 컬럼 (ddl-auto: update 를 쓰지 않는 환경)
+alter table member add column version bigint default 0;
+
+-- 권한 버전 컬럼 (회원의 userType 이 바뀔 때마다 1씩 올린다, JWT 의 av 클레임)
+alter table member add column authority_version bigint default 0;
+-- 권한 버전을 몇 초마다 읽는 조회(update_time > since)가 member 전체를 훑지 않도록
+create index idx_member_update_time on member (update_time);
+
+-- 기기별 세션 (ddl-auto: update 는 컬럼, 제약 조건을 지우지 않는다)
+-- ddl-auto: none 인 환경(fast-startup 프로필)은 TokenEntity 가 읽고 쓰는 컬럼을 먼저 추가한다.
+alter table token add column refresh_token_digest varchar(64);
+alter table token add column device_label varchar(100);
+alter table token add column last_used_at datetime;
+-- 세션 재발급 버전 (기존 행에도 값이 들어가도록 기본값 0)
+alter table token add column version bigint default 0;
+-- BaseTimeEntity 의 가입, 수정 시각
+alter table token add column reg_time datetime;
+alter table token add column update_time datetime;
+-- 회원마다 세션이 여럿이므로 토큰 동시 발급 때 걸어 둔 user_email 유니크 제약을 지운다. (이름은 Hibernate 가 만든 것)
+alter table token drop index UK_so5ntw79xw1xpgdpy2p0gtugq;
+-- 토큰 원문 대신 리프레시 토큰 다이제스트(refresh_token_digest)만 저장한다.
+-- 다이제스트가 없는 예전 세션은 찾을 수 없으므로 지운다. (그 기기는 다시 로그인한다)
+delete from token where refresh_token_digest is null;
+-- 재발급할 때 다이제스트로 세션을 찾는다. (이름은 Hibernate 가 만드는 것과 같게)
+alter table token add constraint UK_dqx0r1cabncw8embcl90gac0k unique (refresh_token_digest);
+-- 회원별 세션 목록, 오래된 세션 정리
+create index idx_token_user_email_last_used_at on token (user_email, last_used_at);
+alter table token drop column access_token;
+alter table token drop column refresh_token;
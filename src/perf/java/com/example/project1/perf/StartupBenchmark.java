@@ -0,0 +1,142 @@
+package com.example.project1.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 프로세스를 띄운 시점부터 첫 로그인이 성공할 때까지 걸린 시간(time-to-first-successful-login)을 잰다.
+// 매 회차마다 새 JVM 을 띄우고, 회원가입 요청이 응답할 때까지 기다린 뒤 로그인이 토큰을 돌려줄 때까지 반복한다.
+// MySQL 이 떠 있어야 한다.
+//
+//   ./gradlew startupBenchmark
+//   ./gradlew startupBenchmark -Pruns=5 -Pprofile=default
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.example.project1.Project1Application";
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+    private static final long POLL_MILLIS = 20;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String classpath = require(options, "classpath");
+        String archive = options.get("cds-archive");
+        String profile = options.getOrDefault("profile", "fast-startup");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        int port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        Path logDir = Paths.get(options.getOrDefault("log-dir", "build/startup-benchmark"));
+        Files.createDirectories(logDir);
+
+        boolean useArchive = archive != null && new File(archive).isFile();
+        System.out.printf("profile=%s, cds=%s, runs=%d%n", profile, useArchive ? archive : "off", runs);
+
+        List<Long> results = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            if (useArchive) {
+                command.add("-XX:SharedArchiveFile=" + archive);
+                command.add("-Xshare:auto");
+            }
+            command.add("-cp");
+            command.add(classpath);
+            command.add(MAIN_CLASS);
+            command.add("--server.port=" + port);
+            command.add("--spring.profiles.active=" + profile);
+
+            File log = logDir.resolve("run-" + run + ".log").toFile();
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log)
+                    .start();
+            try {
+                long millis = timeToFirstLogin(process, port, start);
+                results.add(millis);
+                System.out.printf("run %d : %d ms%n", run, millis);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+
+        Collections.sort(results);
+        System.out.printf("time-to-first-successful-login : min %d ms, median %d ms, max %d ms%n",
+                results.get(0), results.get(results.size() / 2), results.get(results.size() - 1));
+    }
+
+    private static long timeToFirstLogin(Process process, int port, long start) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        String base = "http://localhost:" + port;
+        String email = "startup-bench@example.com";
+        String password = "startup-bench";
+
+        String signup = "{\"userEmail\":\"" + email + "\",\"userName\":\"bench\",\"userPw\":\"" + password + "\","
+                + "\"userType\":\"USER\",\"addressDTO\":{\"userAddr\":\"-\",\"userAddrDetail\":\"-\",\"userAddrEtc\":\"-\"}}";
+        String login = "{\"userEmail\":\"" + email + "\",\"userPw\":\"" + password + "\"}";
+
+        // 1. 서버가 요청을 받을 때까지 회원가입을 시도 (이미 가입되어 있어도 응답만 오면 된다)
+        while (post(client, base + "/api/v1/users/", signup, process, start) == null) {
+            Thread.sleep(POLL_MILLIS);
+        }
+        // 2. 토큰이 담긴 응답을 받을 때까지 로그인
+        while (true) {
+            HttpResponse<String> response = post(client, base + "/api/v1/users/login", login, process, start);
+            if (response != null && response.statusCode() == 200 && response.body().contains("accessToken")) {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    // 아직 포트가 열리지 않았으면 null
+    private static HttpResponse<String> post(HttpClient client, String url, String body,
+                                             Process process, long start) throws Exception {
+        if (!process.isAlive()) {
+            throw new IllegalStateException("애플리케이션이 종료되었습니다. exit code : " + process.exitValue());
+        }
+        if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+            throw new IllegalStateException("첫 로그인까지 " + TIMEOUT + " 이상 걸렸습니다.");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // 포트가 아직 열리지 않았거나(ConnectException) 기동 중에 연결이 끊긴 경우
+            return null;
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " 옵션이 필요합니다.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.project1.perf.authz;
+
+import com.example.project1.config.security.RouteAuthorizationManager;
+import com.example.project1.config.security.SecurityConfig;
+import com.example.project1.config.security.SpelAuthorizationRules;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// 요청 하나의 권한 판단 비용을 기존 SpEL 규칙과 컴파일한 규칙으로 비교하는 마이크로 벤치마크
+// 실제 트래픽처럼 규칙에 걸리는 경로(게시판 쓰기, 관리자), permitAll 경로, 규칙이 없는 경로와
+// 익명/USER/ADMIN 사용자를 섞은 요청 목록을 미리 만들어 두고, 같은 목록을 두 방식으로 반복 판단한다.
+// 준비 운동(--warmup-rounds) 뒤 --rounds 번 측정해서 판단 한 건당 ns 의 중앙값을 출력하고,
+// 컴파일한 규칙이 --min-speedup 배보다 빠르지 않으면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew authorizationBenchmark
+//   ./gradlew authorizationBenchmark --args="--requests 4096 --rounds 20 --min-speedup 5"
+public class AuthorizationBenchmark {
+
+    private static final String[] PATHS = {
+            "/api/v1/boards/write", "/api/v1/boards/modify", "/api/v1/boards/remove",
+            "/api/v1/admin/users", "/api/v1/admin/audit/recent",
+            "/api/v1/users/login", "/api/v1/users/1", "/api/v1/users/sessions",
+            "/refresh", "/success-oauth", "/actuator/health/readiness", "/swagger-ui/index.html"
+    };
+
+    // 판단 결과를 모아서 JIT 가 판단을 없애지 못하게 한다.
+    private static int sink;
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int requests = Integer.parseInt(options.getOrDefault("requests", "4096"));
+        int warmupRounds = Integer.parseInt(options.getOrDefault("warmup-rounds", "10"));
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "15"));
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "50"));
+        double minSpeedup = Double.parseDouble(options.getOrDefault("min-speedup", "1"));
+
+        SpelAuthorizationRules spel = new SpelAuthorizationRules();
+        RouteAuthorizationManager compiled = SecurityConfig.authorizationRules();
+
+        List<Authentication> principals = Arrays.asList(
+                new AnonymousAuthenticationToken("key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")),
+                user("ROLE_USER"),
+                user("ROLE_ADMIN"));
+        Random random = new Random(1);
+        FilterInvocation[] invocations = new FilterInvocation[requests];
+        RequestAuthorizationContext[] contexts = new RequestAuthorizationContext[requests];
+        Authentication[] authentications = new Authentication[requests];
+        for (int i = 0; i < requests; i++) {
+            invocations[i] = new FilterInvocation(PATHS[random.nextInt(PATHS.length)], "GET");
+            contexts[i] = new RequestAuthorizationContext(invocations[i].getRequest());
+            authentications[i] = principals.get(random.nextInt(principals.size()));
+        }
+
+        for (int i = 0; i < warmupRounds; i++) {
+            runSpel(spel, invocations, authentications, repeat);
+            runCompiled(compiled, contexts, authentications, repeat);
+        }
+
+        double[] spelNanos = new double[rounds];
+        double[] compiledNanos = new double[rounds];
+        long decisions = (long) requests * repeat;
+        for (int i = 0; i < rounds; i++) {
+            spelNanos[i] = (double) runSpel(spel, invocations, authentications, repeat) / decisions;
+            compiledNanos[i] = (double) runCompiled(compiled, contexts, authentications, repeat) / decisions;
+        }
+
+        double spelMedian = median(spelNanos);
+        double compiledMedian = median(compiledNanos);
+        double speedup = spelMedian / compiledMedian;
+        System.out.printf("SpEL 규칙 : %.1f ns/판단%n", spelMedian);
+        System.out.printf("컴파일한 규칙 : %.1f ns/판단%n", compiledMedian);
+        System.out.printf("%.1f배 빠름 (요청 %d개 x %d번, %d라운드 중앙값, sink=%d)%n",
+                speedup, requests, repeat, rounds, sink);
+
+        if (speedup < minSpeedup) {
+            System.out.printf("실패 : 기준 %.1f배보다 느림%n", minSpeedup);
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static long runSpel(SpelAuthorizationRules spel, FilterInvocation[] invocations,
+                                Authentication[] authentications, int repeat) {
+        int granted = 0;
+        long begin = System.nanoTime();
+        for (int r = 0; r < repeat; r++) {
+            for (int i = 0; i < invocations.length; i++) {
+                if (spel.decide(authentications[i], invocations[i])) {
+                    granted++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        sink += granted;
+        return elapsed;
+    }
+
+    private static long runCompiled(RouteAuthorizationManager compiled, RequestAuthorizationContext[] contexts,
+                                    Authentication[] authentications, int repeat) {
+        int granted = 0;
+        long begin = System.nanoTime();
+        for (int r = 0; r < repeat; r++) {
+            for (int i = 0; i < contexts.length; i++) {
+                Authentication authentication = authentications[i];
+                if (compiled.check(() -> authentication, contexts[i]).isGranted()) {
+                    granted++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        sink += granted;
+        return elapsed;
+    }
+
+    private static Authentication user(String authority) {
+        return new UsernamePasswordAuthenticationToken("user@test.com", "", AuthorityUtils.createAuthorityList(authority));
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
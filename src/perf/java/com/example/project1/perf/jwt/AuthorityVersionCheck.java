@@ -0,0 +1,185 @@
+package com.example.project1.perf.jwt;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.domain.jwt.IntrospectionDTO;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 권한 버전(av 클레임)으로 권한 변경을 토큰 만료 전에 반영하는지 확인하는 프로그램
+// - 권한이 바뀌기 전에 발급한 토큰은 현재 역할로 권한을 다시 만들고, reject-stale 이면 거절한다. (authenticate, getAuthentication, introspect)
+// - 바뀐 뒤에 발급한 토큰, 권한이 바뀐 적 없는 회원의 토큰은 토큰의 권한을 그대로 쓴다.
+// - 예전 버전으로 돌아가지 않고, 오래된 항목은 정리된다.
+// - authenticate 한 번의 비용(ns)과 할당량(byte) : 항목이 없을 때, 다른 회원 항목이 많을 때, 다시 만들 때
+// 확인이 하나라도 실패하면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew authorityVersionCheck
+//   ./gradlew authorityVersionCheck --args="--iterations 500000 --entries 100000"
+public class AuthorityVersionCheck {
+
+    private static final String EMAIL = "user@test.com";
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final List<GrantedAuthority> ADMIN = AuthorityUtils.createAuthorityList("ROLE_ADMIN");
+    private static final int USER_BIT = RoleAuthorities.bitOf("ROLE_USER");
+    private static final int ADMIN_BIT = RoleAuthorities.bitOf("ROLE_ADMIN");
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "200000"));
+        int entries = Integer.parseInt(options.getOrDefault("entries", "100000"));
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        List<String> failures = new ArrayList<>();
+        JwtKeyRing keyRing = JwtKeyRing.of(JwtClaimProfileCheck.SECRET_KEY, JwtClaimProfileCheck.REFRESH_TOKEN_TIME);
+        AuthorityVersions versions = new AuthorityVersions();
+        JwtProvider provider = provider(keyRing, versions, false);
+        JwtProvider rejecting = provider(keyRing, versions, true);
+
+        // 권한이 바뀌기 전 : 토큰의 권한을 그대로 쓴다.
+        String before = provider.createAccessToken(EMAIL, USER, 0).getAccessToken();
+        expect(failures, "바뀌기 전", provider.authenticate(before), "ROLE_USER");
+
+        // USER -> ADMIN
+        versions.record(EMAIL, 1, ADMIN_BIT, System.currentTimeMillis());
+        expect(failures, "바뀌기 전 토큰, 다시 만들기", provider.authenticate(before), "ROLE_ADMIN");
+        expect(failures, "바뀌기 전 토큰, getAuthentication", provider.getAuthentication(before), "ROLE_ADMIN");
+        IntrospectionDTO introspected = provider.introspect(before);
+        if (!introspected.isActive() || !introspected.getAuth().equals(Collections.singletonList("ROLE_ADMIN"))) {
+            failures.add("바뀌기 전 토큰, introspect : " + introspected.getAuth());
+        }
+        expect(failures, "바뀌기 전 토큰, 거절", rejecting.authenticate(before));
+        try {
+            rejecting.getAuthentication(before);
+            failures.add("바뀌기 전 토큰, 거절 getAuthentication : 예외가 나지 않음");
+        } catch (JwtException expected) {
+            // 거절
+        }
+        if (rejecting.introspect(before).isActive()) {
+            failures.add("바뀌기 전 토큰, 거절 introspect : active");
+        }
+
+        // 바뀐 뒤에 발급한 토큰
+        String after = provider.createAccessToken(EMAIL, ADMIN, 1).getAccessToken();
+        expect(failures, "바뀐 뒤 토큰", rejecting.authenticate(after), "ROLE_ADMIN");
+
+        // ADMIN -> USER, 그 뒤에 늦게 도착한 예전 버전은 무시한다.
+        versions.record(EMAIL, 2, USER_BIT, System.currentTimeMillis());
+        versions.record(EMAIL, 1, ADMIN_BIT, System.currentTimeMillis());
+        expect(failures, "두 번 바뀐 뒤 av=1 토큰", provider.authenticate(after), "ROLE_USER");
+        expect(failures, "두 번 바뀐 뒤 av=0 토큰", provider.authenticate(before), "ROLE_USER");
+
+        // 다른 회원은 영향이 없다.
+        String other = provider.createAccessToken("other@test.com", ADMIN, 0).getAccessToken();
+        expect(failures, "다른 회원", rejecting.authenticate(other), "ROLE_ADMIN");
+
+        // 정리 : 기록한 지 오래된 항목은 지운다.
+        versions.record("old@test.com", 1, USER_BIT, 0);
+        if (versions.expire(1) != 1 || versions.find("old@test.com") != null || versions.find(EMAIL) == null) {
+            failures.add("정리 : 오래된 항목만 지워야 한다.");
+        }
+
+        // 비용 : 항목 없음 / 다른 회원 항목이 많음 / 다시 만들기
+        AuthorityVersions empty = new AuthorityVersions();
+        JwtProvider plain = provider(keyRing, empty, false);
+        AuthorityVersions crowded = new AuthorityVersions();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < entries; i++) {
+            crowded.record("member" + i + "@test.com", 1, USER_BIT, now);
+        }
+        JwtProvider crowdedProvider = provider(keyRing, crowded, false);
+        for (int i = 0; i < 3; i++) {
+            measure(plain, other, iterations / 4);
+            measure(crowdedProvider, other, iterations / 4);
+            measure(provider, before, iterations / 4);
+        }
+        long[] plainCost = measure(plain, other, iterations);
+        long[] crowdedCost = measure(crowdedProvider, other, iterations);
+        long[] staleCost = measure(provider, before, iterations);
+        System.out.printf("authenticate 항목 없음 : %d ns, %d byte%n", plainCost[0], plainCost[1]);
+        System.out.printf("authenticate 다른 회원 항목 %d개 : %d ns, %d byte%n", entries, crowdedCost[0], crowdedCost[1]);
+        System.out.printf("authenticate 권한 다시 만들기 : %d ns, %d byte (sink=%d)%n", staleCost[0], staleCost[1], sink);
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    // expected 가 없으면 거절(null)이어야 한다.
+    private static void expect(List<String> failures, String label, Authentication authentication, String... expected) {
+        if (expected.length == 0) {
+            if (authentication != null) {
+                failures.add(label + " : 거절해야 하는데 " + authentication.getAuthorities());
+            }
+            return;
+        }
+        if (authentication == null) {
+            failures.add(label + " : 거절됨");
+            return;
+        }
+        Set<String> actual = AuthorityUtils.authorityListToSet(authentication.getAuthorities());
+        if (!actual.equals(new HashSet<>(Arrays.asList(expected)))) {
+            failures.add(String.format("%s : 기대 %s, 실제 %s", label, Arrays.toString(expected), actual));
+        }
+    }
+
+    // 한 번당 평균 [ns, 할당 byte]
+    private static long[] measure(JwtProvider provider, String token, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += provider.authenticate(token).getAuthorities().size();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new long[]{elapsed / iterations, allocated / iterations};
+    }
+
+    // 스프링 없이 JwtProvider 를 만들고 @Value 필드만 채운다.
+    private static JwtProvider provider(JwtKeyRing keyRing, AuthorityVersions versions, boolean rejectStale) {
+        JwtProvider provider = new JwtProvider(keyRing, versions);
+        setField(provider, "accessTokenTime", 1800000L);
+        setField(provider, "refreshTokenTime", JwtClaimProfileCheck.REFRESH_TOKEN_TIME);
+        setField(provider, "rejectStaleAuthorities", rejectStale);
+        return provider;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.project1.perf.jwt;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.controller.jwt.JwksController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+
+// JWT 서명 알고리즘별 발급, 검증 비용을 비교하고 ES256 모드를 확인하는 프로그램
+// HS256(jwt.secret_key)과 ES256(키링의 P-256 키)으로
+// 한 스레드에서 발급(createAccessToken), 검증(authenticate) 한 번의 ns, 할당 byte 와
+// --threads 스레드에서 초당 발급, 검증 수를 출력한다.
+// jjwt 는 서명, 검증마다 Signature 를 새로 만들고 init 하므로, 스레드마다 init 해 둔 Signature 를 재사용하는 것과
+// ECDSA 서명 자체의 비용도 비교한다. (차이가 작으면 재사용할 이유가 없다)
+//
+// 확인 항목 (하나라도 실패하면 종료 코드 1)
+// - 키링으로 서명한 ES256 토큰을 JWKS 의 공개 키만으로 (이 서비스 코드 없이 jjwt 로) 검증할 수 있는지
+// - 변조한 토큰, 공개 키를 HMAC 비밀값으로 쓴 토큰(alg 바꿔치기), HS256 키링에 ES256 토큰을 거절하는지
+// - 활성화 전 ES256 키도 JWKS 에 있고 서명에는 쓰지 않는지
+// - 짝이 맞지 않는 키 쌍, P-256 이 아닌 키는 키링이 읽지 않는지
+//
+//   ./gradlew jwtAlgorithmBenchmark
+//   ./gradlew jwtAlgorithmBenchmark --args="--threads 16 --seconds 5"
+public class JwtAlgorithmBenchmark {
+
+    private static final long LIFETIME_MILLIS = 1209600000L;
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final List<String> failures = new ArrayList<>();
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "3"));
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Path dir = Files.createTempDirectory("jwt-algorithm-benchmark");
+        KeyPair active = JwtKeyGenerator.generate();
+        KeyPair staged = JwtKeyGenerator.generate();
+        Path keyring = dir.resolve("keyring.json");
+        writeKeys(keyring,
+                JwtKeyGenerator.es256Entry("es-1", active, Instant.now().minusSeconds(60)),
+                JwtKeyGenerator.es256Entry("es-2", staged, Instant.now().plusSeconds(3600)));
+
+        JwtKeyRing esRing = new JwtKeyRing("", keyring.toString(), 10, LIFETIME_MILLIS);
+        JwtProvider hs = JwtClaimProfileCheck.provider(false);
+        JwtProvider es = JwtClaimProfileCheck.provider(esRing, false);
+
+        // 검증에 쓸 토큰
+        String[] hsTokens = new String[1024];
+        String[] esTokens = new String[1024];
+        for (int i = 0; i < hsTokens.length; i++) {
+            hsTokens[i] = hs.createAccessToken("user" + i + "@test.com", USER).getAccessToken();
+            esTokens[i] = es.createAccessToken("user" + i + "@test.com", USER).getAccessToken();
+        }
+        System.out.printf("토큰 길이 : HS256 %d자, ES256 %d자%n", hsTokens[0].length(), esTokens[0].length());
+
+        check(hs, es, esRing, active, staged, esTokens, dir);
+
+        IntUnaryOperator hsSign = i -> hs.createAccessToken("user" + i + "@test.com", USER).getAccessToken().length();
+        IntUnaryOperator esSign = i -> es.createAccessToken("user" + i + "@test.com", USER).getAccessToken().length();
+        IntUnaryOperator hsVerify = i -> verify(hs, hsTokens[i & 1023]);
+        IntUnaryOperator esVerify = i -> verify(es, esTokens[i & 1023]);
+
+        for (int i = 0; i < 3; i++) {
+            for (IntUnaryOperator op : Arrays.asList(hsSign, esSign, hsVerify, esVerify)) {
+                measure(op, iterations / 4);
+            }
+        }
+        print("발급 HS256", measure(hsSign, iterations));
+        print("발급 ES256", measure(esSign, iterations));
+        print("검증 HS256", measure(hsVerify, iterations));
+        print("검증 ES256", measure(esVerify, iterations));
+
+        // ECDSA 서명만 : 매번 getInstance + initSign (jjwt) / 한 번 initSign 한 Signature 재사용
+        byte[] input = esTokens[0].substring(0, esTokens[0].lastIndexOf('.')).getBytes(StandardCharsets.US_ASCII);
+        Signature reused = Signature.getInstance("SHA256withECDSA");
+        reused.initSign(active.getPrivate());
+        IntUnaryOperator freshSignature = i -> rawSign(null, active, input);
+        IntUnaryOperator reusedSignature = i -> rawSign(reused, active, input);
+        measure(freshSignature, iterations / 4);
+        measure(reusedSignature, iterations / 4);
+        print("ECDSA 서명 (매번 init)", measure(freshSignature, iterations));
+        print("ECDSA 서명 (재사용)", measure(reusedSignature, iterations));
+
+        System.out.printf("%d스레드 초당 발급 HS256 : %,d, ES256 : %,d%n", threads,
+                throughput(hsSign, threads, seconds), throughput(esSign, threads, seconds));
+        System.out.printf("%d스레드 초당 검증 HS256 : %,d, ES256 : %,d (sink=%d)%n", threads,
+                throughput(hsVerify, threads, seconds), throughput(esVerify, threads, seconds), sink);
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    private static void check(JwtProvider hs, JwtProvider es, JwtKeyRing esRing, KeyPair active, KeyPair staged,
+                              String[] esTokens, Path dir) throws Exception {
+        // JWKS 만으로 검증 (다른 서비스 입장)
+        String jwks = new JwksController(esRing, OBJECT_MAPPER, 300).jwks().getBody();
+        Map<String, PublicKey> published = publicKeys(jwks);
+        expect(published.keySet().equals(new HashSet<>(Arrays.asList("es-1", "es-2"))),
+                "JWKS 에 활성 키와 활성화 전 키가 모두 있어야 합니다. kid : " + published.keySet());
+        expect(Arrays.equals(published.get("es-2").getEncoded(), staged.getPublic().getEncoded()),
+                "JWKS 의 활성화 전 키가 키링 파일의 공개 키와 같아야 합니다.");
+        JwtParser downstream = Jwts.parserBuilder().setSigningKey(published.get("es-1")).build();
+        int rejected = 0;
+        for (String token : esTokens) {
+            try {
+                downstream.parseClaimsJws(token);
+            } catch (RuntimeException e) {
+                rejected++;
+            }
+        }
+        expect(rejected == 0, String.format("JWKS 공개 키로 검증하지 못한 ES256 토큰 %d/%d", rejected, esTokens.length));
+        expect("es-1".equals(kidOf(esTokens[0])), "활성 키 es-1 으로 서명해야 합니다. kid : " + kidOf(esTokens[0]));
+
+        // 거절해야 하는 토큰
+        String token = esTokens[0];
+        int dot = token.indexOf('.');
+        String tampered = token.substring(0, dot + 1) + payload("{\"sub\":\"admin@test.com\",\"auth\":\"ROLE_ADMIN\",\"exp\":"
+                + (System.currentTimeMillis() / 1000 + 3600) + "}") + token.substring(token.lastIndexOf('.'));
+        expect(!es.validateToken(tampered), "클레임을 바꾼 ES256 토큰을 거절해야 합니다.");
+        String confused = Jwts.builder()
+                .setSubject("admin@test.com")
+                .claim("auth", "ROLE_ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .setHeaderParam(JwsHeader.KEY_ID, "es-1")
+                .signWith(Keys.hmacShaKeyFor(active.getPublic().getEncoded()), SignatureAlgorithm.HS256)
+                .compact();
+        expect(!es.validateToken(confused), "공개 키를 HMAC 비밀값으로 서명한 토큰을 거절해야 합니다.");
+        expect(!hs.validateToken(token), "HS256 키링은 ES256 토큰을 거절해야 합니다.");
+
+        // 잘못된 키 항목
+        KeyPair other = JwtKeyGenerator.generate();
+        Map<String, Object> mismatched = JwtKeyGenerator.es256Entry("bad", active, Instant.now().minusSeconds(60));
+        mismatched.put("publicKey", Base64.getEncoder().encodeToString(other.getPublic().getEncoded()));
+        expect(!loads(dir.resolve("mismatched.json"), mismatched), "짝이 맞지 않는 키 쌍을 읽으면 안 됩니다.");
+        KeyPairGenerator p384 = KeyPairGenerator.getInstance("EC");
+        p384.initialize(new ECGenParameterSpec("secp384r1"));
+        Map<String, Object> wrongCurve = JwtKeyGenerator.es256Entry("p384", p384.generateKeyPair(), Instant.now().minusSeconds(60));
+        expect(!loads(dir.resolve("p384.json"), wrongCurve), "P-384 키를 ES256 키로 읽으면 안 됩니다.");
+    }
+
+    private static int rawSign(Signature reused, KeyPair keyPair, byte[] input) {
+        try {
+            Signature signature = reused;
+            if (signature == null) {
+                signature = Signature.getInstance("SHA256withECDSA");
+                signature.initSign(keyPair.getPrivate());
+            }
+            signature.update(input);
+            return signature.sign().length;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // JwtAuthenticationFilter 와 같은 경로
+    private static int verify(JwtProvider provider, String token) {
+        Authentication authentication = provider.authenticate(token);
+        return authentication == null ? 0 : authentication.getAuthorities().size();
+    }
+
+    // JWKS JSON 의 좌표로 공개 키를 다시 만든다. (다른 서비스가 하는 일)
+    private static Map<String, PublicKey> publicKeys(String jwks) throws Exception {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec p256 = parameters.getParameterSpec(ECParameterSpec.class);
+        KeyFactory factory = KeyFactory.getInstance("EC");
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode key : OBJECT_MAPPER.readTree(jwks).path("keys")) {
+            BigInteger x = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("x").asText()));
+            BigInteger y = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("y").asText()));
+            keys.put(key.path("kid").asText(), factory.generatePublic(new ECPublicKeySpec(new ECPoint(x, y), p256)));
+        }
+        return keys;
+    }
+
+    private static boolean loads(Path file, Map<String, Object> entry) throws Exception {
+        writeKeys(file, entry);
+        try {
+            new JwtKeyRing("", file.toString(), 10, LIFETIME_MILLIS);
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    @SafeVarargs
+    private static void writeKeys(Path file, Map<String, Object>... keys) throws Exception {
+        Files.write(file, OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("keys", Arrays.asList(keys))));
+    }
+
+    private static String kidOf(String token) throws Exception {
+        byte[] header = Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.')));
+        Object kid = OBJECT_MAPPER.readValue(header, Map.class).get("kid");
+        return kid == null ? null : kid.toString();
+    }
+
+    private static String payload(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 한 번당 평균 [ns, 할당 byte]
+    private static long[] measure(IntUnaryOperator op, int iterations) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = mx.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        int local = 0;
+        for (int i = 0; i < iterations; i++) {
+            local += op.applyAsInt(i);
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = mx.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        sink += local;
+        return new long[]{elapsed / iterations, allocated / iterations};
+    }
+
+    private static long throughput(IntUnaryOperator op, int threads, int seconds) throws InterruptedException {
+        LongAdder count = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            new Thread(() -> {
+                int local = 0;
+                int i = offset;
+                while (System.nanoTime() < deadline) {
+                    for (int j = 0; j < 64; j++) {
+                        local += op.applyAsInt(i++);
+                    }
+                    count.add(64);
+                }
+                synchronized (JwtAlgorithmBenchmark.class) {
+                    sink += local;
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return count.sum() / seconds;
+    }
+
+    private static void print(String name, long[] cost) {
+        System.out.printf("%s : %,d ns, %,d byte%n", name, cost[0], cost[1]);
+    }
+
+    private static void expect(boolean condition, String message) {
+        System.out.println((condition ? "확인 : " : "실패 : ") + message);
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
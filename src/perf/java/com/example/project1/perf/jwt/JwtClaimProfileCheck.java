@@ -0,0 +1,145 @@
+package com.example.project1.perf.jwt;
+
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.project1.domain.jwt.TokenDTO;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 기존 권한 클레임("auth": ["ROLE_USER"])과 간단한 클레임("r": 1)을 비교하는 확인용 프로그램
+// - 두 형식으로 발급한 accessToken 의 길이 (요청마다 Authorization 헤더로 오가는 크기)
+// - 배포 중 호환성 : compact-claims 를 켠 인스턴스가 기존 토큰을, 끈 인스턴스가 새 토큰을 읽어서 같은 권한이 나오는지
+// - 역할이 아닌 권한이 섞인 경우 기존 형식으로 발급되는지
+// - getAuthentication 한 번의 비용(ns)과 할당량(byte)
+// 호환성 확인이 하나라도 실패하면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew jwtClaimProfileCheck
+//   ./gradlew jwtClaimProfileCheck --args="--iterations 500000"
+public class JwtClaimProfileCheck {
+
+    // application-loadtest.yml 과 같은 테스트용 키
+    static final String SECRET_KEY = "bG9hZC10ZXN0LW9ubHktc2VjcmV0LWtleS1mb3ItaHMyNTYtc2lnbmluZyE=";
+    static final long REFRESH_TOKEN_TIME = 1209600000L;
+
+    private static final List<List<String>> AUTHORITY_SETS = Arrays.asList(
+            Arrays.asList("ROLE_USER"),
+            Arrays.asList("ROLE_ADMIN"),
+            Arrays.asList("ROLE_USER", "ROLE_ADMIN"),
+            Arrays.asList()
+    );
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "200000"));
+        // 스프링 없이 실행하면 logback 기본 설정(DEBUG)이라 측정에 로그 출력 비용이 섞인다.
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        JwtProvider standard = provider(false);
+        JwtProvider compact = provider(true);
+
+        List<String> failures = new ArrayList<>();
+        for (List<String> names : AUTHORITY_SETS) {
+            List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(names.toArray(new String[0]));
+            String standardToken = standard.createAccessToken("user@test.com", authorities).getAccessToken();
+            String compactToken = compact.createAccessToken("user@test.com", authorities).getAccessToken();
+            System.out.printf("%s : 기존 %d자, 간단 %d자 (%d자 감소)%n",
+                    names, standardToken.length(), compactToken.length(), standardToken.length() - compactToken.length());
+
+            check(failures, names, "기존 토큰 -> 기존 인스턴스", standard.getAuthentication(standardToken));
+            check(failures, names, "기존 토큰 -> 간단 인스턴스", compact.getAuthentication(standardToken));
+            check(failures, names, "간단 토큰 -> 기존 인스턴스", standard.getAuthentication(compactToken));
+            check(failures, names, "간단 토큰 -> 간단 인스턴스", compact.getAuthentication(compactToken));
+        }
+
+        // 역할이 아닌 권한이 섞이면 비트마스크로 표현할 수 없으므로 기존 형식으로 발급해야 한다.
+        List<String> mixed = Arrays.asList("ROLE_USER", "SCOPE_profile");
+        TokenDTO mixedToken = compact.createAccessToken("user@test.com",
+                AuthorityUtils.createAuthorityList(mixed.toArray(new String[0])));
+        check(failures, mixed, "역할이 아닌 권한", standard.getAuthentication(mixedToken.getAccessToken()));
+
+        String standardToken = standard.createAccessToken("user@test.com",
+                AuthorityUtils.createAuthorityList("ROLE_USER")).getAccessToken();
+        String compactToken = compact.createAccessToken("user@test.com",
+                AuthorityUtils.createAuthorityList("ROLE_USER")).getAccessToken();
+        for (int i = 0; i < 3; i++) {
+            measure(compact, standardToken, iterations / 4);
+            measure(compact, compactToken, iterations / 4);
+        }
+        long[] standardCost = measure(compact, standardToken, iterations);
+        long[] compactCost = measure(compact, compactToken, iterations);
+        System.out.printf("getAuthentication 기존 토큰 : %d ns, %d byte%n", standardCost[0], standardCost[1]);
+        System.out.printf("getAuthentication 간단 토큰 : %d ns, %d byte (sink=%d)%n", compactCost[0], compactCost[1], sink);
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    private static void check(List<String> failures, List<String> expected, String label, Authentication authentication) {
+        Set<String> actual = new HashSet<>(AuthorityUtils.authorityListToSet(authentication.getAuthorities()));
+        if (!actual.equals(new HashSet<>(expected))) {
+            failures.add(String.format("%s : 기대 %s, 실제 %s", label, expected, actual));
+        }
+    }
+
+    // 한 번당 평균 [ns, 할당 byte]
+    private static long[] measure(JwtProvider provider, String token, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += provider.getAuthentication(token).getAuthorities().size();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new long[]{elapsed / iterations, allocated / iterations};
+    }
+
+    // 스프링 없이 JwtProvider 를 만들고 @Value 필드만 채운다.
+    static JwtProvider provider(boolean compactClaims) {
+        return provider(JwtKeyRing.of(SECRET_KEY, REFRESH_TOKEN_TIME), compactClaims);
+    }
+
+    static JwtProvider provider(JwtKeyRing keyRing, boolean compactClaims) {
+        JwtProvider provider = new JwtProvider(keyRing);
+        setField(provider, "accessTokenTime", 1800000L);
+        setField(provider, "refreshTokenTime", REFRESH_TOKEN_TIME);
+        setField(provider, "compactClaims", compactClaims);
+        return provider;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.project1.perf.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 키링 파일(jwt.keyring.path)에 넣을 ES256 키 항목을 만든다.
+// 출력한 JSON 을 키링 파일의 keys 배열에 추가한다. activateAt 은 --activate-in-seconds 뒤 (기본 1시간)
+//
+//   ./gradlew jwtKeyGenerator --args="--kid 2024-08-es"
+//   ./gradlew jwtKeyGenerator --args="--kid 2024-08-es --activate-in-seconds 86400"
+public class JwtKeyGenerator {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        String kid = options.getOrDefault("kid", "es-" + System.currentTimeMillis() / 1000);
+        long activateInSeconds = Long.parseLong(options.getOrDefault("activate-in-seconds", "3600"));
+
+        Map<String, Object> entry = es256Entry(kid, generate(), Instant.now().plusSeconds(activateInSeconds));
+        System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(entry));
+    }
+
+    static KeyPair generate() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    static Map<String, Object> es256Entry(String kid, KeyPair keyPair, Instant activateAt) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("kid", kid);
+        entry.put("algorithm", "ES256");
+        entry.put("privateKey", Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        entry.put("publicKey", Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        entry.put("activateAt", activateAt.toString());
+        return entry;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.project1.perf.jwt;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// JWT 키링(JwtKeyRing)의 키 교체 과정을 실제 시간 순서대로 확인하는 프로그램
+// 토큰 수명을 몇 초로 줄인 키링으로
+// 1. kid 없는 기존 토큰(jwt.secret_key)이 키링에서도 통과하는지
+// 2. 새 키를 미리 추가(activateAt 이 미래)하면 재시작 없이 읽히고, 활성화 전에는 기존 키로 서명하는지
+// 3. 활성화 뒤에는 새 kid 로 서명하고, 기존 키의 토큰도 계속 통과하는지
+// 4. 잘못된 키링 파일로 바꾸면 기존 키를 그대로 쓰는지
+// 5. 모르는 kid 의 토큰은 거절하는지
+// 6. 다음 키가 활성화되고 토큰 수명이 지나면 기존 키(와 kid 없는 키)가 폐기되는지
+// 를 확인하고, 키가 1개일 때와 64개일 때 검증 비용을 비교해서 (kid 로 바로 찾으므로 같아야 한다)
+// 하나라도 실패하면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew keyRotationCheck
+public class KeyRotationCheck {
+
+    // 키링이 폐기를 판단할 때 쓰는 토큰 수명
+    private static final long LIFETIME_MILLIS = 4000;
+    // 실제 토큰 만료는 길게 둬서, 토큰 만료가 아니라 키 폐기 때문에 거절되는지 확인한다.
+    private static final long EXPIRATION_MILLIS = 60_000;
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final List<String> failures = new ArrayList<>();
+    private static int sink;
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        Path file = Files.createTempDirectory("jwt-keyring").resolve("keyring.json");
+
+        long t0 = System.currentTimeMillis();
+        String k1 = secret();
+        String k2 = secret();
+        writeKeys(file, Collections.singletonList(key("k1", k1, t0 - 100)));
+
+        JwtKeyRing ring = new JwtKeyRing(JwtClaimProfileCheck.SECRET_KEY, file.toString(), 1, LIFETIME_MILLIS);
+        ring.start();
+        JwtProvider provider = provider(ring);
+        JwtProvider legacyProvider = provider(JwtKeyRing.of(JwtClaimProfileCheck.SECRET_KEY, LIFETIME_MILLIS));
+
+        // 1. 키링을 쓰기 전에 발급된 토큰
+        String legacyToken = legacyProvider.createAccessToken("user@test.com", USER).getAccessToken();
+        expect(kidOf(legacyToken) == null, "기존 토큰에는 kid 가 없어야 합니다.");
+        expect(provider.validateToken(legacyToken), "kid 없는 기존 토큰이 통과해야 합니다.");
+        String k1Token = provider.createAccessToken("user@test.com", USER).getAccessToken();
+        expect("k1".equals(kidOf(k1Token)), "활성 키 k1 으로 서명해야 합니다. kid : " + kidOf(k1Token));
+
+        // 2. k2 를 2.5초 뒤에 활성화되도록 미리 추가
+        writeKeys(file, Arrays.asList(key("k1", k1, t0 - 100), key("k2", k2, t0 + 2500)));
+        sleepUntil(t0 + 1800);
+        expect(ring.kids().contains("k2"), "재시작 없이 k2 를 읽어야 합니다. kid : " + ring.kids());
+        expect("k1".equals(kidOf(provider.createAccessToken("user@test.com", USER).getAccessToken())),
+                "k2 활성화 전에는 k1 으로 서명해야 합니다.");
+        String stagedToken = sign("k2", k2);
+        expect(provider.validateToken(stagedToken), "활성화 전의 k2 토큰도 통과해야 합니다. (먼저 활성화된 인스턴스)");
+
+        // 3. k2 활성화 뒤
+        sleepUntil(t0 + 2700);
+        String k2Token = provider.createAccessToken("user@test.com", USER).getAccessToken();
+        expect("k2".equals(kidOf(k2Token)), "k2 활성화 뒤에는 k2 로 서명해야 합니다. kid : " + kidOf(k2Token));
+        expect(provider.validateToken(k1Token), "검증 전용이 된 k1 의 토큰도 통과해야 합니다.");
+        expect(provider.validateToken(legacyToken), "폐기 전에는 kid 없는 토큰도 통과해야 합니다.");
+
+        // 4. 잘못된 키링 파일
+        Files.write(file, "{\"keys\": [{\"kid\": \"k3\", \"secret\": \"c2hvcnQ=\", \"activateAt\": \"2000-01-01T00:00:00Z\"}]}"
+                .getBytes(StandardCharsets.UTF_8));
+        Thread.sleep(1300);
+        expect(ring.kids().contains("k1") && ring.kids().contains("k2") && !ring.kids().contains("k3"),
+                "잘못된 키링 파일은 무시해야 합니다. kid : " + ring.kids());
+        expect("k2".equals(kidOf(provider.createAccessToken("user@test.com", USER).getAccessToken())),
+                "잘못된 키링 파일을 읽은 뒤에도 k2 로 서명해야 합니다.");
+        writeKeys(file, Arrays.asList(key("k1", k1, t0 - 100), key("k2", k2, t0 + 2500)));
+
+        // 5. 모르는 kid
+        expect(!provider.validateToken(sign("unknown", secret())), "모르는 kid 의 토큰은 거절해야 합니다.");
+        expect(!provider.validateToken(sign("k2", secret())), "kid 는 맞지만 다른 키로 서명한 토큰은 거절해야 합니다.");
+
+        // 6. 폐기 : kid 없는 키는 k1 활성화(t0) + 4초, k1 은 k2 활성화(t0 + 2.5초) + 4초
+        sleepUntil(t0 + 100 + LIFETIME_MILLIS + 1200);
+        expect(!provider.validateToken(legacyToken), "k1 활성화 뒤 토큰 수명이 지나면 kid 없는 키는 폐기되어야 합니다.");
+        expect(provider.validateToken(k1Token), "k1 은 아직 폐기되지 않아야 합니다.");
+        sleepUntil(t0 + 2500 + LIFETIME_MILLIS + 1200);
+        expect(!provider.validateToken(k1Token), "k2 활성화 뒤 토큰 수명이 지나면 k1 은 폐기되어야 합니다.");
+        expect(provider.validateToken(sign("k2", k2)), "k2 토큰은 계속 통과해야 합니다.");
+        ring.stop();
+
+        measureLookup(file);
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    // 키가 1개일 때와 64개일 때 가장 오래된 kid, 가장 최근 kid 의 검증 비용
+    private static void measureLookup(Path file) throws Exception {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> keys = new ArrayList<>();
+        List<String> secrets = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            secrets.add(secret());
+            keys.add(key("k" + i, secrets.get(i), now - 64_000 + i * 1000L));
+        }
+        writeKeys(file, keys.subList(0, 1));
+        JwtProvider one = provider(new JwtKeyRing("", file.toString(), 10, 3_600_000));
+        writeKeys(file, keys);
+        JwtProvider many = provider(new JwtKeyRing("", file.toString(), 10, 3_600_000));
+
+        String[] oneTokens = {sign("k0", secrets.get(0))};
+        String[] manyTokens = {sign("k0", secrets.get(0)), sign("k63", secrets.get(63))};
+        for (int i = 0; i < 3; i++) {
+            verify(one, oneTokens, 50_000);
+            verify(many, manyTokens, 50_000);
+        }
+        long oneNanos = verify(one, oneTokens, 200_000);
+        long manyNanos = verify(many, manyTokens, 200_000);
+        System.out.printf("검증 1회 : 키 1개 %d ns, 키 64개 %d ns (sink=%d)%n", oneNanos, manyNanos, sink);
+        expect(manyNanos < oneNanos * 2, "키가 많아도 검증 비용은 같아야 합니다.");
+    }
+
+    private static long verify(JwtProvider provider, String[] tokens, int iterations) {
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (provider.validateToken(tokens[i % tokens.length])) {
+                sink++;
+            }
+        }
+        return (System.nanoTime() - begin) / iterations;
+    }
+
+    private static void expect(boolean condition, String message) {
+        System.out.println((condition ? "확인 : " : "실패 : ") + message);
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+
+    private static JwtProvider provider(JwtKeyRing ring) {
+        JwtProvider provider = new JwtProvider(ring);
+        setField(provider, "accessTokenTime", EXPIRATION_MILLIS);
+        setField(provider, "refreshTokenTime", EXPIRATION_MILLIS);
+        return provider;
+    }
+
+    private static String sign(String kid, String secret) {
+        return Jwts.builder()
+                .setSubject("user@test.com")
+                .claim("auth", AuthorityUtils.authorityListToSet(USER))
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MILLIS))
+                .setHeaderParam(JwsHeader.KEY_ID, kid)
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static String kidOf(String token) throws Exception {
+        byte[] header = Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.')));
+        Object kid = OBJECT_MAPPER.readValue(header, Map.class).get("kid");
+        return kid == null ? null : kid.toString();
+    }
+
+    private static String secret() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static Map<String, Object> key(String kid, String secret, long activateAtMillis) {
+        Map<String, Object> key = new HashMap<>();
+        key.put("kid", kid);
+        key.put("secret", secret);
+        key.put("activateAt", Instant.ofEpochMilli(activateAtMillis).toString());
+        return key;
+    }
+
+    private static void writeKeys(Path file, List<Map<String, Object>> keys) throws Exception {
+        Map<String, Object> root = new HashMap<>();
+        root.put("keys", keys);
+        // 이름 바꾸기로 교체해서 reloader 가 반쯤 쓰인 파일을 읽지 않게 한다.
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        OBJECT_MAPPER.writeValue(temp.toFile(), root);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void sleepUntil(long epochMillis) throws InterruptedException {
+        long wait = epochMillis - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.project1.perf.jwt;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.reference.ReferenceTokenProperties;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.domain.jwt.TokenDTO;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// JwtAuthenticationFilter 의 토큰 검증 비용을 JWT 와 참조 토큰으로 비교하고, 참조 토큰 스냅샷 복원을 확인하는 프로그램
+// 1. 회원 --users 명에게 JWT 와 참조 토큰을 하나씩 발급한다.
+// 2. 한 스레드 : 검증 한 번의 ns 와 할당 byte (JWT 는 필터와 같이 validateToken + getAuthentication)
+// 3. --threads 스레드 : 초당 검증 수
+// 4. 스냅샷을 남기고 새 인스턴스에서 복원해서 모든 토큰이 같은 회원, 권한으로 풀리는지,
+//    만료된 토큰과 로그아웃한 토큰은 복원되지 않는지 확인한다.
+// 확인이 하나라도 실패하면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew referenceTokenBenchmark
+//   ./gradlew referenceTokenBenchmark --args="--users 1000000 --threads 16"
+public class ReferenceTokenBenchmark {
+
+    private static final String CLIENT_ID = "benchmark";
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final List<GrantedAuthority> ADMIN = AuthorityUtils.createAuthorityList("ROLE_ADMIN");
+
+    private static int sink;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int users = Integer.parseInt(options.getOrDefault("users", "100000"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "200000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "3"));
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Path dir = Files.createTempDirectory("reference-token-benchmark");
+        ReferenceTokenProperties properties = properties(dir.resolve("reference-tokens.snap"));
+        JwtProvider jwtProvider = JwtClaimProfileCheck.provider(false);
+        ReferenceTokenService referenceTokens = new ReferenceTokenService(properties);
+
+        String[] emails = new String[users];
+        String[] jwts = new String[users];
+        String[] references = new String[users];
+        for (int i = 0; i < users; i++) {
+            emails[i] = "user" + i + "@test.com";
+            List<GrantedAuthority> authorities = i % 10 == 0 ? ADMIN : USER;
+            TokenDTO token = jwtProvider.createAccessToken(emails[i], authorities);
+            jwts[i] = token.getAccessToken();
+            references[i] = referenceTokens.issue(token, authorities).getAccessToken();
+        }
+        System.out.printf("토큰 길이 : JWT %d자, 참조 토큰 %d자%n", jwts[0].length(), references[0].length());
+
+        // 한 스레드 비용
+        for (int i = 0; i < 3; i++) {
+            measure(jwtProvider, referenceTokens, jwts, iterations / 4);
+            measure(jwtProvider, referenceTokens, references, iterations / 4);
+        }
+        long[] jwtCost = measure(jwtProvider, referenceTokens, jwts, iterations);
+        long[] referenceCost = measure(jwtProvider, referenceTokens, references, iterations);
+        System.out.printf("검증 1회 JWT : %d ns, %d byte%n", jwtCost[0], jwtCost[1]);
+        System.out.printf("검증 1회 참조 토큰 : %d ns, %d byte%n", referenceCost[0], referenceCost[1]);
+
+        // 여러 스레드 처리량
+        long jwtThroughput = throughput(jwtProvider, referenceTokens, jwts, threads, seconds);
+        long referenceThroughput = throughput(jwtProvider, referenceTokens, references, threads, seconds);
+        System.out.printf("%d스레드 초당 검증 JWT : %,d, 참조 토큰 : %,d (sink=%d)%n",
+                threads, jwtThroughput, referenceThroughput, sink);
+
+        List<String> failures = new ArrayList<>();
+        checkSnapshot(properties, jwtProvider, referenceTokens, emails, references, failures);
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    private static void checkSnapshot(ReferenceTokenProperties properties, JwtProvider jwtProvider,
+                                      ReferenceTokenService referenceTokens, String[] emails, String[] references,
+                                      List<String> failures) throws Exception {
+        // 만료된 토큰, 로그아웃한 토큰은 복원되면 안 된다.
+        TokenDTO expired = TokenDTO.builder()
+                .grantType("Bearer")
+                .userEmail("expired@test.com")
+                .accessTokenTime(new Date(System.currentTimeMillis() + 200))
+                .build();
+        String expiredToken = referenceTokens.issue(expired, USER).getAccessToken();
+        String revokedToken = referenceTokens.issue(jwtProvider.createAccessToken("revoked@test.com", USER), USER)
+                .getAccessToken();
+        if (referenceTokens.resolve(revokedToken) == null || !referenceTokens.revoke(revokedToken)
+                || referenceTokens.resolve(revokedToken) != null) {
+            failures.add("로그아웃한 참조 토큰이 지워지지 않았습니다.");
+        }
+        Thread.sleep(300);
+        if (referenceTokens.resolve(expiredToken) != null) {
+            failures.add("만료된 참조 토큰이 검증을 통과했습니다.");
+        }
+
+        long begin = System.nanoTime();
+        referenceTokens.snapshot();
+        long writeMillis = (System.nanoTime() - begin) / 1_000_000;
+        Path path = Paths.get(properties.getSnapshotPath());
+        long bytes = Files.size(path);
+
+        ReferenceTokenService restarted = new ReferenceTokenService(properties);
+        begin = System.nanoTime();
+        restarted.start();
+        long readMillis = (System.nanoTime() - begin) / 1_000_000;
+        System.out.printf("스냅샷 : 토큰 %,d개, %,d byte, 쓰기 %dms, 복원 %dms%n",
+                restarted.size(), bytes, writeMillis, readMillis);
+
+        int mismatches = 0;
+        for (int i = 0; i < references.length; i++) {
+            Authentication authentication = restarted.resolve(references[i]);
+            List<GrantedAuthority> expected = i % 10 == 0 ? ADMIN : USER;
+            if (authentication == null || !emails[i].equals(authentication.getName())
+                    || !AuthorityUtils.authorityListToSet(authentication.getAuthorities())
+                    .equals(AuthorityUtils.authorityListToSet(expected))) {
+                mismatches++;
+            }
+        }
+        if (mismatches > 0) {
+            failures.add(String.format("복원한 참조 토큰 %d개가 원래 회원, 권한과 다릅니다.", mismatches));
+        }
+        if (restarted.resolve(expiredToken) != null || restarted.resolve(revokedToken) != null) {
+            failures.add("만료되었거나 로그아웃한 참조 토큰이 복원되었습니다.");
+        }
+        if (restarted.size() != references.length) {
+            failures.add(String.format("복원한 참조 토큰 수 %d, 기대 %d", restarted.size(), references.length));
+        }
+        restarted.stop();
+    }
+
+    // 필터와 같은 순서로 검증한다. 한 번당 평균 [ns, 할당 byte]
+    private static long[] measure(JwtProvider jwtProvider, ReferenceTokenService referenceTokens,
+                                  String[] tokens, int iterations) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = mx.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += authenticate(jwtProvider, referenceTokens, tokens[i % tokens.length]);
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = mx.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new long[]{elapsed / iterations, allocated / iterations};
+    }
+
+    private static long throughput(JwtProvider jwtProvider, ReferenceTokenService referenceTokens,
+                                   String[] tokens, int threads, int seconds) throws InterruptedException {
+        LongAdder count = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            new Thread(() -> {
+                int local = 0;
+                int i = offset;
+                while (System.nanoTime() < deadline) {
+                    for (int j = 0; j < 256; j++) {
+                        local += authenticate(jwtProvider, referenceTokens, tokens[i++ % tokens.length]);
+                    }
+                    count.add(256);
+                }
+                synchronized (ReferenceTokenBenchmark.class) {
+                    sink += local;
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return count.sum() / seconds;
+    }
+
+    // JwtAuthenticationFilter 와 같은 분기
+    private static int authenticate(JwtProvider jwtProvider, ReferenceTokenService referenceTokens, String token) {
+        Authentication authentication = null;
+        if (ReferenceTokenService.isReferenceToken(token)) {
+            authentication = referenceTokens.resolve(token);
+        } else {
+            authentication = jwtProvider.authenticate(token);
+        }
+        return authentication == null ? 0 : authentication.getAuthorities().size();
+    }
+
+    private static ReferenceTokenProperties properties(Path snapshot) {
+        ReferenceTokenProperties properties = new ReferenceTokenProperties();
+        properties.setEnabled(true);
+        properties.setClients(Collections.singletonList(CLIENT_ID));
+        properties.setMaxEntries(Integer.MAX_VALUE);
+        properties.setSnapshotPath(snapshot.toString());
+        // 벤치마크 중에는 주기 작업이 끼어들지 않게 한다.
+        properties.setSweepIntervalSeconds(3600);
+        properties.setSnapshotIntervalSeconds(0);
+        return properties;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.project1.perf.jwt;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.introspect.TokenIntrospectionProperties;
+import com.example.project1.config.jwt.introspect.TokenIntrospectionService;
+import com.example.project1.config.jwt.reference.ReferenceTokenProperties;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.repository.jwt.TokenRepository;
+import com.example.project1.service.jwt.TokenSessionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 토큰 일괄 검사(TokenIntrospectionService)의 비용을 재는 프로그램
+// --batch 개 토큰을 필터처럼 하나씩 검사할 때와 일괄 검사(검사 스레드 1개, --threads 개)할 때 토큰 하나당 비용을
+// HS256, ES256 으로 비교한다. 코어가 하나뿐인 환경에서는 스레드를 늘려도 빨라지지 않는다.
+// 결과 순서, 세션 해지, 캐시 시간, 게이트웨이 인증은 TokenIntrospectionServiceTest, TokenIntrospectionControllerTest 가 확인한다.
+//
+//   ./gradlew tokenIntrospectionBenchmark
+//   ./gradlew tokenIntrospectionBenchmark --args="--batch 5000 --threads 8"
+public class TokenIntrospectionBenchmark {
+
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static int sink;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int batch = Integer.parseInt(options.getOrDefault("batch", "2000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "5"));
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Path dir = Files.createTempDirectory("token-introspection");
+        ReferenceTokenService referenceTokens = new ReferenceTokenService(referenceProperties());
+        TokenSessionService tokenSessionService = new TokenSessionService(repository());
+
+        JwtProvider hs = JwtClaimProfileCheck.provider(false);
+
+        Path keyring = dir.resolve("keyring.json");
+        Files.write(keyring, OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("keys", Collections.singletonList(
+                JwtKeyGenerator.es256Entry("es-1", JwtKeyGenerator.generate(), Instant.now().minusSeconds(60))))));
+        JwtProvider es = JwtClaimProfileCheck.provider(new JwtKeyRing("", keyring.toString(), 10, 1209600000L), false);
+
+        compare("HS256", hs, batch, threads, rounds, referenceTokens, tokenSessionService);
+        // ES256 은 토큰 하나에 ms 단위라 배치를 줄인다.
+        compare("ES256", es, Math.max(1, batch / 10), threads, rounds, referenceTokens, tokenSessionService);
+        System.out.printf("(sink=%d)%n", sink);
+    }
+
+    // 같은 배치를 필터처럼 하나씩 / 일괄 검사 스레드 1개 / threads 개로 검사한 토큰 하나당 ns
+    private static void compare(String name, JwtProvider provider, int batch, int threads, int rounds,
+                                ReferenceTokenService referenceTokens, TokenSessionService tokenSessionService) {
+        List<String> tokens = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            tokens.add(provider.createAccessToken("user" + i + "@test.com", USER).getAccessToken());
+        }
+        TokenIntrospectionService single = service(provider, referenceTokens, tokenSessionService, 1, 30);
+        TokenIntrospectionService parallel = service(provider, referenceTokens, tokenSessionService, threads, 30);
+
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int round = 0; round < rounds; round++) {
+            long begin = System.nanoTime();
+            for (String token : tokens) {
+                if (provider.validateToken(token)) {
+                    sink += provider.getAuthentication(token).getAuthorities().size();
+                }
+            }
+            best[0] = Math.min(best[0], System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            sink += single.introspect(tokens).getResults().size();
+            best[1] = Math.min(best[1], System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            sink += parallel.introspect(tokens).getResults().size();
+            best[2] = Math.min(best[2], System.nanoTime() - begin);
+        }
+        System.out.printf("%s 토큰 %d개, 토큰당 : 하나씩 %,d ns, 일괄(1스레드) %,d ns, 일괄(%d스레드) %,d ns%n",
+                name, batch, best[0] / batch, best[1] / batch, threads, best[2] / batch);
+        single.shutdown();
+        parallel.shutdown();
+    }
+
+    private static TokenIntrospectionService service(JwtProvider provider, ReferenceTokenService referenceTokens,
+                                                     TokenSessionService tokenSessionService, int threads,
+                                                     long maxCacheSeconds) {
+        TokenIntrospectionProperties properties = new TokenIntrospectionProperties();
+        properties.setEnabled(true);
+        properties.setClients(Collections.singletonMap("gateway", "gateway-secret"));
+        properties.setThreads(threads);
+        properties.setMaxCacheSeconds(maxCacheSeconds);
+        return new TokenIntrospectionService(properties, provider, referenceTokens, tokenSessionService);
+    }
+
+    // 액세스 토큰만 검사하므로 세션(token 테이블)은 조회하지 않는다.
+    private static TokenRepository repository() {
+        return (TokenRepository) Proxy.newProxyInstance(TokenRepository.class.getClassLoader(),
+                new Class<?>[]{TokenRepository.class}, (proxy, method, methodArgs) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static ReferenceTokenProperties referenceProperties() {
+        ReferenceTokenProperties properties = new ReferenceTokenProperties();
+        properties.setEnabled(true);
+        properties.setClients(Collections.singletonList("benchmark"));
+        properties.setSnapshotPath("");
+        return properties;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
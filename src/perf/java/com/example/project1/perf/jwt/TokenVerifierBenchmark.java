@@ -0,0 +1,602 @@
+package com.example.project1.perf.jwt;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.verifier.TokenVerifier;
+import com.example.project1.verifier.VerifiedToken;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+// token-verifier 모듈(TokenVerifier)이 jjwt 파서와 같은 판정을 하는지 확인하고 검증 비용을 비교하는 프로그램
+// jjwt 쪽은 TokenVerifier 로 바꾸기 전의 JwtProvider 와 같은 파서(kid 로 키링에서 키를 찾고 alg 가 다르면 거절)이다.
+//
+// 확인 항목 (하나라도 실패하면 종료 코드 1)
+// - 토큰 모음(정상, 만료, 변조, 모르는 kid, alg none, alg 바꿔치기, 잘못된 base64, 점 개수, 이스케이프된 sub,
+//   역할이 아닌 권한, 간단한 클레임(r), 리프레시 토큰(jti), ES256, nbf 등)에서
+//   두 검증기의 결과(통과 / 만료 / 거절)와 sub, exp, jti, 권한이 같은지
+// - 정상 토큰을 무작위로 바꾼 토큰에서 TokenVerifier 가 예외를 던지지 않고 jjwt 와 통과 여부가 같은지
+// - 페이로드 JSON 을 무작위로 바꿔서 서명한 토큰에서 TokenVerifier 가 예외를 던지지 않고,
+//   받은 JSON 은 Jackson(엄격 모드)도 읽을 수 있고 sub, exp, jti 가 같은지 (JSON 을 더 느슨하게 읽지 않는지)
+// 알고 있는 차이
+// - 페이로드 JSON 앞뒤에 공백이 있으면 jjwt 는 클레임이 아닌 평문으로 보고 거절하지만 TokenVerifier 는 받는다.
+// - 서명 부분이 비어 있고 만료된 토큰에 jjwt 는 서명을 보기 전에 ExpiredJwtException(서명 안 된 클레임 포함)을 던진다.
+//   예전 getAuthentication 은 이 클레임으로 인증 정보를 만들었다. TokenVerifier 는 서명부터 확인해서 거절하므로 여기서는 거절로 센다.
+// - jjwt 는 base64url 부분의 공백, '=' 를 건너뛰고 base64 문자(+, /)도 받지만 TokenVerifier 는 이런 토큰을 거절한다.
+// - 마지막 글자의 남는 비트가 0 이 아닌 base64url, TokenVerifier 가 읽는 키(alg, kid, sub, exp ...)가 두 번 나오는 JSON 을
+//   jjwt 는 받지만(중복 키는 뒤의 값) TokenVerifier 는 거절한다.
+//
+// 한 스레드에서 한 번 검증하는 ns, 할당 byte 와 --threads 스레드에서 초당 검증 수를 출력한다.
+//
+//   ./gradlew tokenVerifierBenchmark
+//   ./gradlew tokenVerifierBenchmark --args="--iterations 200000 --mutations 20000"
+public class TokenVerifierBenchmark {
+
+    private static final long LIFETIME_MILLIS = 1209600000L;
+    private static final String HS_SECRET = "dG9rZW4tdmVyaWZpZXItYmVuY2htYXJrLWhzMjU2LXNpZ25pbmcta2V5IQ==";
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // TokenVerifier 가 읽어서 중복을 거절하는 키
+    private static final Set<String> HEADER_KEYS = new HashSet<>(Arrays.asList("alg", "kid"));
+    private static final Set<String> PAYLOAD_KEYS = new HashSet<>(Arrays.asList("sub", "exp", "iat", "nbf", "jti", "av", "r", "auth"));
+
+    private static final List<String> failures = new ArrayList<>();
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "100000"));
+        int mutations = Integer.parseInt(options.getOrDefault("mutations", "5000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "3"));
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        // hsRing 은 hs-1 로, esRing 은 es-1 로 서명한다. 검증은 모든 키가 있는 esRing 으로 한다.
+        Path dir = Files.createTempDirectory("token-verifier-benchmark");
+        KeyPair esKey = JwtKeyGenerator.generate();
+        Map<String, Object> hsEntry = new LinkedHashMap<>();
+        hsEntry.put("kid", "hs-1");
+        hsEntry.put("secret", HS_SECRET);
+        hsEntry.put("activateAt", Instant.now().minusSeconds(120).toString());
+        Path hsFile = dir.resolve("hs.json");
+        Path esFile = dir.resolve("es.json");
+        writeKeys(hsFile, hsEntry);
+        writeKeys(esFile, hsEntry, JwtKeyGenerator.es256Entry("es-1", esKey, Instant.now().minusSeconds(60)));
+        JwtKeyRing hsRing = new JwtKeyRing(JwtClaimProfileCheck.SECRET_KEY, hsFile.toString(), 10, LIFETIME_MILLIS);
+        JwtKeyRing ring = new JwtKeyRing(JwtClaimProfileCheck.SECRET_KEY, esFile.toString(), 10, LIFETIME_MILLIS);
+
+        JwtProvider hs = JwtClaimProfileCheck.provider(hsRing, false);
+        JwtProvider hsCompact = JwtClaimProfileCheck.provider(hsRing, true);
+        JwtProvider es = JwtClaimProfileCheck.provider(ring, false);
+        JwtParser jjwt = jjwtParser(ring);
+        TokenVerifier verifier = TokenVerifier.builder(ring).roles(RoleAuthorities.names()).build();
+
+        Map<String, String> corpus = corpus(hs, hsCompact, es, esKey);
+        for (Map.Entry<String, String> entry : corpus.entrySet()) {
+            compare(entry.getKey(), entry.getValue(), jjwt, verifier);
+        }
+        fuzz(corpus, jjwt, verifier, mutations);
+        fuzzJson(corpus, verifier, mutations);
+
+        // 비용 비교 : jjwt 파싱 / TokenVerifier, 필터 경로(예전 validateToken + getAuthentication / authenticate)
+        String[] hsTokens = new String[1024];
+        String[] esTokens = new String[64];
+        for (int i = 0; i < hsTokens.length; i++) {
+            hsTokens[i] = hs.createAccessToken("user" + i + "@test.com", USER).getAccessToken();
+        }
+        for (int i = 0; i < esTokens.length; i++) {
+            esTokens[i] = es.createAccessToken("user" + i + "@test.com", USER).getAccessToken();
+        }
+        JwtProvider filter = JwtClaimProfileCheck.provider(ring, false);
+        ToIntFunction<String> jjwtParse = token -> jjwt.parseClaimsJws(token).getBody().getSubject().length();
+        ToIntFunction<String> verify = token -> verifier.verify(token).getSubject().length();
+        ToIntFunction<String> jjwtFilter = token -> {
+            // 예전 필터 : 검증하고 한 번 더 파싱해서 인증 정보를 만든다.
+            jjwt.parseClaimsJws(token);
+            Claims claims = jjwt.parseClaimsJws(token).getBody();
+            List<GrantedAuthority> authorities = RoleAuthorities.fromNames(jjwtAuthorities(claims));
+            return new UsernamePasswordAuthenticationToken(claims.getSubject(), token, authorities).getAuthorities().size();
+        };
+        ToIntFunction<String> authenticate = token -> filter.authenticate(token).getAuthorities().size();
+
+        for (int i = 0; i < 3; i++) {
+            for (ToIntFunction<String> op : Arrays.asList(jjwtParse, verify, jjwtFilter, authenticate)) {
+                measure(op, hsTokens, iterations / 10);
+            }
+        }
+        print("HS256 jjwt 파싱", measure(jjwtParse, hsTokens, iterations));
+        print("HS256 TokenVerifier", measure(verify, hsTokens, iterations));
+        print("HS256 필터 (jjwt 2번 파싱)", measure(jjwtFilter, hsTokens, iterations));
+        print("HS256 필터 (authenticate)", measure(authenticate, hsTokens, iterations));
+        int esIterations = Math.max(100, iterations / 100);
+        measure(jjwtParse, esTokens, esIterations / 4);
+        measure(verify, esTokens, esIterations / 4);
+        print("ES256 jjwt 파싱", measure(jjwtParse, esTokens, esIterations));
+        print("ES256 TokenVerifier", measure(verify, esTokens, esIterations));
+
+        System.out.printf("%d스레드 초당 HS256 검증 jjwt : %,d, TokenVerifier : %,d (sink=%d)%n", threads,
+                throughput(jjwtParse, hsTokens, threads, seconds), throughput(verify, hsTokens, threads, seconds), sink);
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    private static Map<String, String> corpus(JwtProvider hs, JwtProvider hsCompact, JwtProvider es, KeyPair esKey)
+            throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        String hsHeader = "{\"kid\":\"hs-1\",\"alg\":\"HS256\"}";
+        Map<String, String> corpus = new LinkedHashMap<>();
+        String valid = hs.createAccessToken("user@test.com", USER).getAccessToken();
+        corpus.put("정상 HS256", valid);
+        corpus.put("정상 HS256 관리자", hs.createAccessToken("admin@test.com",
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN")).getAccessToken());
+        corpus.put("간단한 클레임(r)", hsCompact.createAccessToken("user@test.com", USER).getAccessToken());
+        corpus.put("리프레시 토큰(jti)", hs.createToken(
+                new UsernamePasswordAuthenticationToken("user@test.com", "", USER), USER).getRefreshToken());
+        corpus.put("정상 ES256", es.createAccessToken("user@test.com", USER).getAccessToken());
+        corpus.put("역할이 아닌 권한", hs.createAccessToken("user@test.com",
+                AuthorityUtils.createAuthorityList("ROLE_USER", "SCOPE_read")).getAccessToken());
+        corpus.put("kid 없는 기존 키", Jwts.builder()
+                .setSubject("legacy@test.com")
+                .claim("auth", Collections.singletonList("ROLE_USER"))
+                .setExpiration(new Date((now + 600) * 1000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(JwtClaimProfileCheck.SECRET_KEY)))
+                .compact());
+        corpus.put("만료", hsToken(hsHeader, "{\"sub\":\"expired@test.com\",\"auth\":[\"ROLE_USER\"],\"exp\":" + (now - 600) + "}"));
+        corpus.put("nbf 전", hsToken(hsHeader, "{\"sub\":\"early@test.com\",\"auth\":[\"ROLE_USER\"],\"nbf\":" + (now + 600)
+                + ",\"exp\":" + (now + 1200) + "}"));
+        corpus.put("이스케이프된 sub", hsToken(hsHeader, "{\"sub\":\"\\u00e9\\uD83D\\uDE00 \\\"q\\\" \\/ \\\\ \\t@test.com\","
+                + "\"auth\":[\"ROLE_\\u0055SER\"],\"exp\":" + (now + 600) + "}"));
+        corpus.put("UTF-8 sub", hsToken(hsHeader, "{\"sub\":\"한글😀@test.com\",\"auth\":[\"ROLE_USER\"],\"exp\":" + (now + 600) + "}"));
+        corpus.put("중첩된 모르는 클레임", hsToken(hsHeader, "{\"ext\":{\"a\":[1,-2.5e3,{\"b\":null},[]],\"c\":true,\"d\":{}},"
+                + "\"sub\":\"nested@test.com\",\"auth\":[\"ROLE_USER\"],\"exp\":" + (now + 600) + ",\"x\":[[[\"]\"]]]}"));
+        corpus.put("중복 sub", hsToken(hsHeader, "{\"sub\":\"first@test.com\",\"sub\":\"second@test.com\","
+                + "\"auth\":[],\"exp\":" + (now + 600) + "}"));
+        corpus.put("exp 없음", hsToken(hsHeader, "{\"sub\":\"forever@test.com\",\"auth\":[\"ROLE_ADMIN\"]}"));
+        // jjwt 는 페이로드가 '{' 로 시작하고 '}' 로 끝나야 클레임으로 보므로 앞뒤 공백은 넣지 않는다. (TokenVerifier 는 받는다)
+        corpus.put("공백이 있는 JSON", hsToken("{ \"alg\" : \"HS256\" ,\n \"kid\" : \"hs-1\" }",
+                "{\n\t\"sub\" : \"space@test.com\" , \"auth\" : [ \"ROLE_USER\" ] , \"exp\" : " + (now + 600) + " }"));
+
+        int dot = valid.indexOf('.');
+        int lastDot = valid.lastIndexOf('.');
+        corpus.put("페이로드 변조", valid.substring(0, dot + 1)
+                + base64("{\"sub\":\"admin@test.com\",\"auth\":[\"ROLE_ADMIN\"],\"exp\":" + (now + 600) + "}")
+                + valid.substring(lastDot));
+        int middle = lastDot + (valid.length() - lastDot) / 2;
+        corpus.put("서명 변조", valid.substring(0, middle) + (valid.charAt(middle) == 'A' ? 'B' : 'A') + valid.substring(middle + 1));
+        corpus.put("서명 없음", valid.substring(0, lastDot + 1));
+        corpus.put("정규형이 아닌 서명 base64url", nonCanonical(valid));
+        corpus.put("중복 alg", hsToken("{\"kid\":\"hs-1\",\"alg\":\"HS256\",\"alg\":\"none\"}",
+                "{\"sub\":\"x@test.com\",\"auth\":[\"ROLE_USER\"]}"));
+        String expired = corpus.get("만료");
+        corpus.put("서명 없는 만료 토큰", expired.substring(0, expired.lastIndexOf('.') + 1));
+        corpus.put("모르는 kid", hsToken("{\"kid\":\"nope\",\"alg\":\"HS256\"}", "{\"sub\":\"x@test.com\",\"auth\":[\"ROLE_USER\"]}"));
+        corpus.put("alg none", base64("{\"alg\":\"none\"}") + "." + base64("{\"sub\":\"admin@test.com\",\"auth\":[\"ROLE_ADMIN\"]}") + ".");
+        corpus.put("alg 바꿔치기 (공개 키를 HMAC 비밀값으로)", Jwts.builder()
+                .setSubject("admin@test.com")
+                .claim("auth", Collections.singletonList("ROLE_ADMIN"))
+                .setHeaderParam(JwsHeader.KEY_ID, "es-1")
+                .signWith(Keys.hmacShaKeyFor(esKey.getPublic().getEncoded()), SignatureAlgorithm.HS256)
+                .compact());
+        corpus.put("HS256 kid 에 ES256 헤더", hsToken("{\"kid\":\"hs-1\",\"alg\":\"ES256\"}", "{\"sub\":\"x@test.com\"}"));
+        corpus.put("잘못된 base64", valid.substring(0, dot + 1) + "*" + valid.substring(dot + 2));
+        corpus.put("점이 더 있음", valid + ".abc");
+        corpus.put("점이 하나", valid.substring(0, lastDot));
+        corpus.put("JSON 이 아닌 페이로드", hsToken(hsHeader, "not json"));
+        corpus.put("닫히지 않은 JSON", hsToken(hsHeader, "{\"sub\":\"x@test.com\",\"auth\":[\"ROLE_USER\""));
+        corpus.put("빈 토큰", "");
+        return corpus;
+    }
+
+    // 두 검증기의 판정과 클레임을 비교한다.
+    private static void compare(String name, String token, JwtParser jjwt, TokenVerifier verifier) {
+        Outcome expected = rejectedOnlyByVerifier(token) ? new Outcome("거절", null, -1, null, null) : jjwtOutcome(jjwt, token);
+        Outcome actual = verifierOutcome(verifier, token);
+        boolean same = expected.equals(actual);
+        System.out.printf("%s %s : jjwt %s / TokenVerifier %s (%s)%n", same ? "확인" : "실패", name,
+                expected.result, actual.result, verifier.verify(token).getStatus());
+        if (!same) {
+            failures.add(name + " : jjwt " + expected + ", TokenVerifier " + actual);
+        }
+    }
+
+    // 정상 토큰의 글자를 무작위로 바꾸거나, 지우거나, 끼워 넣어도 예외 없이 jjwt 와 같은 판정을 하는지
+    private static void fuzz(Map<String, String> corpus, JwtParser jjwt, TokenVerifier verifier, int mutations) {
+        Random random = new Random(44);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.=+/ ";
+        List<String> seeds = new ArrayList<>(corpus.values());
+        int mismatches = 0;
+        int thrown = 0;
+        for (int i = 0; i < mutations; i++) {
+            StringBuilder token = new StringBuilder(seeds.get(random.nextInt(seeds.size())));
+            int edits = 1 + random.nextInt(3);
+            for (int e = 0; e < edits && token.length() > 0; e++) {
+                int at = random.nextInt(token.length());
+                switch (random.nextInt(3)) {
+                    case 0:
+                        token.setCharAt(at, alphabet.charAt(random.nextInt(alphabet.length())));
+                        break;
+                    case 1:
+                        token.deleteCharAt(at);
+                        break;
+                    default:
+                        token.insert(at, alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            String mutated = token.toString();
+            Outcome actual;
+            try {
+                actual = verifierOutcome(verifier, mutated);
+            } catch (RuntimeException e) {
+                thrown++;
+                continue;
+            }
+            // base64url 이 아닌 글자가 있으면 jjwt 와 관계없이 거절해야 한다. (알고 있는 차이)
+            String expected = mutated.matches(".*[ =+/].*") || rejectedOnlyByVerifier(mutated)
+                    ? "거절" : jjwtOutcome(jjwt, mutated).result;
+            if (!expected.equals(actual.result)) {
+                mismatches++;
+                if (mismatches <= 5) {
+                    System.out.println("불일치 : " + mutated);
+                }
+            }
+        }
+        expect(thrown == 0, String.format("무작위로 바꾼 토큰 %d개에서 TokenVerifier 가 예외를 던진 횟수 %d", mutations, thrown));
+        expect(mismatches == 0, String.format("무작위로 바꾼 토큰 %d개에서 jjwt 와 판정이 다른 횟수 %d", mutations, mismatches));
+    }
+
+    private static void fuzzJson(Map<String, String> corpus, TokenVerifier verifier, int mutations) throws Exception {
+        ObjectMapper strict = new ObjectMapper()
+                .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                .enable(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
+        Random random = new Random(4444);
+        String alphabet = "{}[]:,\"\\/ \t\n-+.0123456789eEtrufalsn abxu";
+        List<String> seeds = new ArrayList<>();
+        for (String token : corpus.values()) {
+            int dot = token.indexOf('.');
+            int lastDot = token.lastIndexOf('.');
+            try {
+                seeds.add(new String(Base64.getUrlDecoder().decode(token.substring(dot + 1, lastDot)), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                // 잘못된 base64 로 만든 토큰
+            }
+        }
+        int accepted = 0;
+        int thrown = 0;
+        int lenient = 0;
+        for (int i = 0; i < mutations; i++) {
+            StringBuilder json = new StringBuilder(seeds.get(random.nextInt(seeds.size())));
+            int edits = 1 + random.nextInt(3);
+            for (int e = 0; e < edits && json.length() > 0; e++) {
+                int at = random.nextInt(json.length());
+                switch (random.nextInt(3)) {
+                    case 0:
+                        json.setCharAt(at, alphabet.charAt(random.nextInt(alphabet.length())));
+                        break;
+                    case 1:
+                        json.deleteCharAt(at);
+                        break;
+                    default:
+                        json.insert(at, alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            String payload = json.toString();
+            VerifiedToken verified;
+            try {
+                verified = verifier.verify(hsToken("{\"kid\":\"hs-1\",\"alg\":\"HS256\"}", payload));
+            } catch (RuntimeException e) {
+                thrown++;
+                continue;
+            }
+            if (!verified.isSigned()) {
+                continue;
+            }
+            accepted++;
+            Map<?, ?> claims;
+            try {
+                // 서명한 UTF-8 바이트로 읽는다. (글자를 바꾸다 서로게이트 쌍이 깨지면 '?' 로 인코딩된다)
+                claims = strict.readValue(payload.getBytes(StandardCharsets.UTF_8), Map.class);
+            } catch (Exception e) {
+                // 모르는 클레임의 중복 키는 Jackson 엄격 모드만 거절한다. (TokenVerifier 는 건너뛴다)
+                if (!String.valueOf(e.getMessage()).contains("Duplicate field")) {
+                    lenient++;
+                    if (lenient <= 5) {
+                        System.out.println("Jackson 이 읽지 못하는 JSON 을 받음 : " + payload);
+                    }
+                }
+                continue;
+            }
+            Object exp = claims.get("exp");
+            if (!Objects.equals(claims.get("sub"), verified.getSubject())
+                    || !Objects.equals(claims.get("jti"), verified.getTokenId())
+                    || (exp instanceof Number ? ((Number) exp).longValue() : -1) != verified.getExpiresAt()) {
+                lenient++;
+                if (lenient <= 5) {
+                    System.out.println("Jackson 과 값이 다름 : " + payload + " -> " + verified);
+                }
+            }
+        }
+        expect(thrown == 0, String.format("무작위로 바꾼 JSON %d개에서 TokenVerifier 가 예외를 던진 횟수 %d", mutations, thrown));
+        expect(lenient == 0, String.format("TokenVerifier 가 받은 JSON %d개 중 Jackson 과 다르게 읽은 횟수 %d", accepted, lenient));
+    }
+
+    private static Outcome jjwtOutcome(JwtParser jjwt, String token) {
+        Claims claims;
+        String result;
+        try {
+            claims = jjwt.parseClaimsJws(token).getBody();
+            result = "통과";
+        } catch (ExpiredJwtException e) {
+            if (!(e.getHeader() instanceof JwsHeader)) {
+                // 서명 없는 토큰 (알고 있는 차이)
+                return new Outcome("거절", null, -1, null, null);
+            }
+            claims = e.getClaims();
+            result = "만료";
+        } catch (RuntimeException e) {
+            return new Outcome("거절", null, -1, null, null);
+        }
+        List<String> authorities;
+        try {
+            authorities = jjwtAuthorities(claims);
+        } catch (RuntimeException e) {
+            authorities = null;
+        }
+        return new Outcome(result, claims.getSubject(),
+                claims.getExpiration() == null ? -1 : claims.getExpiration().getTime() / 1000, claims.getId(), authorities);
+    }
+
+    private static Outcome verifierOutcome(TokenVerifier verifier, String token) {
+        VerifiedToken verified = verifier.verify(token);
+        if (!verified.isSigned()) {
+            return new Outcome("거절", null, -1, null, null);
+        }
+        return new Outcome(verified.isValid() ? "통과" : "만료", verified.getSubject(), verified.getExpiresAt(),
+                verified.getTokenId(), verified.getAuthorities());
+    }
+
+    // 예전 JwtProvider 의 권한 읽기 : 역할 비트마스크(r)가 있으면 먼저 쓴다.
+    @SuppressWarnings("unchecked")
+    private static List<String> jjwtAuthorities(Claims claims) {
+        Object roles = claims.get("r");
+        List<? extends GrantedAuthority> authorities;
+        if (roles instanceof Number) {
+            authorities = RoleAuthorities.forMask(((Number) roles).intValue());
+        } else if (claims.get("auth") != null) {
+            authorities = RoleAuthorities.fromNames((List<String>) claims.get("auth"));
+        } else {
+            return null;
+        }
+        return authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+    }
+
+    // TokenVerifier 로 바꾸기 전 JwtProvider 의 파서
+    private static JwtParser jjwtParser(JwtKeyRing ring) {
+        return Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        JwtKeyRing.KeyEntry entry = ring.verificationKey(header.getKeyId());
+                        if (entry == null || !entry.getAlgorithm().getValue().equals(header.getAlgorithm())) {
+                            throw new SignatureException("kid : " + header.getKeyId());
+                        }
+                        return entry.getVerifyKey();
+                    }
+                })
+                .build();
+    }
+
+    // TokenVerifier 만 거절하는 토큰인지 (알고 있는 차이) : 정규형이 아닌 base64url, 읽는 키의 중복
+    private static boolean rejectedOnlyByVerifier(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            return false;
+        }
+        for (int i = 0; i < parts.length; i++) {
+            byte[] bytes;
+            try {
+                bytes = Base64.getUrlDecoder().decode(parts[i]);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (!Base64.getUrlEncoder().withoutPadding().encodeToString(bytes).equals(parts[i])
+                    || (i < 2 && hasDuplicateKey(bytes, i == 0 ? HEADER_KEYS : PAYLOAD_KEYS))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 최상위 객체에서 keys 중 하나가 두 번 나오는지
+    private static boolean hasDuplicateKey(byte[] json, Set<String> keys) {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            Set<String> seen = new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                if (keys.contains(name) && !seen.add(name)) {
+                    return true;
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // JSON 이 아니면 두 검증기 모두 거절한다.
+        }
+        return false;
+    }
+
+    // 서명의 마지막 글자에서 쓰지 않는 비트를 바꾼 토큰 (디코딩한 바이트는 같다)
+    private static String nonCanonical(String token) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        char last = token.charAt(token.length() - 1);
+        return token.substring(0, token.length() - 1) + alphabet.charAt(alphabet.indexOf(last) ^ 1);
+    }
+
+    // hs-1 키로 헤더, 페이로드 JSON 을 그대로 서명한다. (jjwt 빌더가 만들지 않는 JSON 을 넣기 위해)
+    private static String hsToken(String header, String payload) throws Exception {
+        String input = base64(header) + "." + base64(payload);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(HS_SECRET), "HmacSHA256"));
+        return input + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(input.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SafeVarargs
+    private static void writeKeys(Path file, Map<String, Object>... keys) throws Exception {
+        Files.write(file, OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("keys", Arrays.asList(keys))));
+    }
+
+    // 한 번당 평균 [ns, 할당 byte]
+    private static long[] measure(ToIntFunction<String> op, String[] tokens, int iterations) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = mx.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        int local = 0;
+        for (int i = 0; i < iterations; i++) {
+            local += op.applyAsInt(tokens[i % tokens.length]);
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = mx.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        sink += local;
+        return new long[]{elapsed / iterations, allocated / iterations};
+    }
+
+    private static long throughput(ToIntFunction<String> op, String[] tokens, int threads, int seconds)
+            throws InterruptedException {
+        LongAdder count = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            new Thread(() -> {
+                int local = 0;
+                int i = offset;
+                while (System.nanoTime() < deadline) {
+                    for (int j = 0; j < 256; j++) {
+                        local += op.applyAsInt(tokens[i++ % tokens.length]);
+                    }
+                    count.add(256);
+                }
+                synchronized (TokenVerifierBenchmark.class) {
+                    sink += local;
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return count.sum() / seconds;
+    }
+
+    private static void print(String name, long[] cost) {
+        System.out.printf("%s : %,d ns, %,d byte%n", name, cost[0], cost[1]);
+    }
+
+    private static void expect(boolean condition, String message) {
+        System.out.println((condition ? "확인 : " : "실패 : ") + message);
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    // 검증 결과 중 비교하는 것
+    private static final class Outcome {
+        private final String result;
+        private final String subject;
+        private final long expiresAt;
+        private final String tokenId;
+        private final List<String> authorities;
+
+        private Outcome(String result, String subject, long expiresAt, String tokenId, List<String> authorities) {
+            this.result = result;
+            this.subject = subject;
+            this.expiresAt = expiresAt;
+            this.tokenId = tokenId;
+            this.authorities = authorities;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Outcome)) {
+                return false;
+            }
+            Outcome other = (Outcome) o;
+            return result.equals(other.result) && Objects.equals(subject, other.subject) && expiresAt == other.expiresAt
+                    && Objects.equals(tokenId, other.tokenId) && Objects.equals(authorities, other.authorities);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(result, subject, expiresAt, tokenId, authorities);
+        }
+
+        @Override
+        public String toString() {
+            return result + " " + subject + " exp=" + expiresAt + " jti=" + tokenId + " auth=" + authorities;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.project1.perf.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// MemberController 의 회원가입 → 로그인 → 회원 조회 → 토큰 재발급 요청을 보내는 클라이언트
+// 요청마다 HTTP 상태 코드를 돌려주고, 연결 자체가 실패하면 IOException 을 던진다.
+// 부하 테스트(LoadTest)와 트래픽 재현(TrafficReplay)에서 사용
+public class AuthApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SHED_RETRY_ATTEMPTS = 20;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String base;
+
+    public AuthApiClient(int port) {
+        this("http://localhost:" + port);
+    }
+
+    public AuthApiClient(String base) {
+        this.base = base;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    // 부하 테스트용 회원 한 명의 로그인 상태
+    public static class Session {
+        public final String email;
+        public final String password;
+        public volatile Long userId;
+        public volatile String accessToken;
+        public volatile String refreshToken;
+        // 부하 테스트에서 한 번에 한 요청만 이 회원을 사용하도록 표시
+        final AtomicBoolean busy = new AtomicBoolean();
+
+        public Session(String email, String password) {
+            this.email = email;
+            this.password = password;
+        }
+
+        public boolean isLoggedIn() {
+            return accessToken != null;
+        }
+    }
+
+    public int signUp(Session session) throws IOException, InterruptedException {
+        String body = "{\"userEmail\":\"" + session.email + "\",\"userName\":\"load\",\"userPw\":\"" + session.password + "\","
+                + "\"userType\":\"USER\",\"addressDTO\":{\"userAddr\":\"-\",\"userAddrDetail\":\"-\",\"userAddrEtc\":\"-\"}}";
+        return send(post("/api/v1/users/", body)).statusCode();
+    }
+
+    public int login(Session session) throws IOException, InterruptedException {
+        String body = "{\"userEmail\":\"" + session.email + "\",\"userPw\":\"" + session.password + "\"}";
+        HttpResponse<String> response = send(post("/api/v1/users/login", body));
+        if (response.statusCode() == 200) {
+            // 응답은 ResponseEntity 를 한 번 더 감싼 형태라서 body 안쪽에서 값을 찾는다.
+            JsonNode json = objectMapper.readTree(response.body());
+            JsonNode userId = json.findValue("userId");
+            session.userId = userId == null || userId.isNull() ? null : userId.asLong();
+            session.accessToken = text(json, "accessToken");
+            session.refreshToken = text(json, "refreshToken");
+        }
+        return response.statusCode();
+    }
+
+    public int search(Session session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/v1/users/" + session.userId))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + session.accessToken)
+                .GET()
+                .build();
+        return send(request).statusCode();
+    }
+
+    public int refresh(Session session) throws IOException, InterruptedException {
+        // /refresh 는 Authorization 헤더 값 전체를 리프레시 토큰으로 사용한다.
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/refresh"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", session.refreshToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = send(request);
+        if (response.statusCode() == 200) {
+            String accessToken = text(objectMapper.readTree(response.body()), "accessToken");
+            if (accessToken != null) {
+                session.accessToken = accessToken;
+            }
+        }
+        return response.statusCode();
+    }
+
+    // 경로와 body 를 그대로 보내는 요청 (body 가 null 이면 보내지 않는다)
+    public int send(String method, String path, String body, String authorization)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return send(builder.build()).statusCode();
+    }
+
+    public interface Call {
+        int send() throws Exception;
+    }
+
+    // 준비 단계는 측정하지 않으므로 동시 처리 한도(503)나 요청 수 제한(429)에 걸리면 잠시 후 다시 보낸다.
+    public static int retryWhenShed(Call call) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            int status = call.send();
+            if ((status != 503 && status != 429) || attempt == SHED_RETRY_ATTEMPTS) {
+                return status;
+            }
+            Thread.sleep(50L * attempt);
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String text(JsonNode json, String field) {
+        JsonNode value = json.findValue(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.project1.perf.load;
+
+// 부하 테스트에서 호출하는 MemberController 엔드포인트
+enum Endpoint {
+    SIGNUP("signup"),
+    LOGIN("login"),
+    SEARCH("search"),
+    REFRESH("refresh");
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    // 시나리오 옵션(--mix)과 결과 파일에서 쓰는 이름
+    String key() {
+        return key;
+    }
+
+    static Endpoint of(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 엔드포인트입니다. : " + key);
+    }
+}
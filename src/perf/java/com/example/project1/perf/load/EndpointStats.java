@@ -0,0 +1,44 @@
+package com.example.project1.perf.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 엔드포인트 하나의 응답 시간 분포(µs)와 실패 횟수
+// 여러 클라이언트 스레드가 동시에 기록하므로 ConcurrentHistogram 을 사용한다.
+class EndpointStats {
+
+    // 1분보다 오래 걸린 응답은 1분으로 기록
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    // 서버가 밀리면 측정 구간에 도착한 요청이 구간이 끝난 뒤에 완료된다.
+    // 응답 시간은 모두 기록하지만 처리량은 구간 안에 완료된 것만 센다.
+    void recordSuccess(long latencyNanos, boolean completedInWindow) {
+        histogram.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (completedInWindow) {
+            completed.increment();
+        }
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    Histogram histogram() {
+        return histogram;
+    }
+
+    long completedInWindow() {
+        return completed.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.project1.perf.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// 부하 테스트 결과 (엔드포인트별 처리량, 지연 시간 백분위)
+// 같은 형식의 JSON 을 기준선(baseline)으로 저장해 두고 다음 실행 결과와 비교한다.
+class LoadReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final ObjectNode root;
+
+    private LoadReport(ObjectNode root) {
+        this.root = root;
+    }
+
+    static LoadReport of(LoadScenario scenario, Map<Endpoint, EndpointStats> stats, double measuredSeconds) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("scenario", scenario.describe());
+        ObjectNode endpoints = root.putObject("endpoints");
+        Histogram total = new Histogram(3);
+        long totalCompleted = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            Histogram histogram = endpoint.histogram().copy();
+            write(endpoints.putObject(entry.getKey().key()), histogram,
+                    endpoint.completedInWindow(), endpoint.errors(), measuredSeconds);
+            total.add(histogram);
+            totalCompleted += endpoint.completedInWindow();
+            totalErrors += endpoint.errors();
+        }
+        write(root.putObject("total"), total, totalCompleted, totalErrors, measuredSeconds);
+        return new LoadReport(root);
+    }
+
+    private static void write(ObjectNode node, Histogram histogram, long completed, long errors, double seconds) {
+        node.put("count", histogram.getTotalCount());
+        node.put("errors", errors);
+        node.put("throughput", round(completed / seconds));
+        node.put("p50Micros", histogram.getValueAtPercentile(50));
+        node.put("p90Micros", histogram.getValueAtPercentile(90));
+        node.put("p99Micros", histogram.getValueAtPercentile(99));
+        node.put("p999Micros", histogram.getValueAtPercentile(99.9));
+        node.put("maxMicros", histogram.getMaxValue());
+    }
+
+    static LoadReport read(Path path) throws IOException {
+        return new LoadReport((ObjectNode) MAPPER.readTree(path.toFile()));
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), root);
+    }
+
+    String scenario() {
+        return root.path("scenario").asText();
+    }
+
+    void print() {
+        System.out.println(scenario());
+        System.out.printf("%-8s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        root.path("endpoints").fields().forEachRemaining(e -> printRow(e.getKey(), e.getValue()));
+        printRow("total", root.path("total"));
+    }
+
+    private static void printRow(String name, JsonNode node) {
+        System.out.printf("%-8s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                node.path("count").asLong(),
+                node.path("errors").asLong(),
+                node.path("throughput").asDouble(),
+                millis(node, "p50Micros"),
+                millis(node, "p90Micros"),
+                millis(node, "p99Micros"),
+                millis(node, "p999Micros"),
+                millis(node, "maxMicros"));
+    }
+
+    // 기준선보다 p99 가 maxP99Regression 비율 넘게 늘었거나, 처리량이 maxThroughputRegression 비율 넘게 줄었거나,
+    // 실패 비율이 maxErrorRate 를 넘은 엔드포인트를 돌려준다. 비어 있으면 통과
+    List<String> compare(LoadReport baseline, double maxP99Regression, double maxThroughputRegression, double maxErrorRate) {
+        List<String> violations = new ArrayList<>();
+        JsonNode current = root.path("endpoints");
+        baseline.root.path("endpoints").fields().forEachRemaining(entry -> {
+            String name = entry.getKey();
+            JsonNode base = entry.getValue();
+            JsonNode now = current.path(name);
+            if (now.isMissingNode()) {
+                violations.add(name + " : 이번 실행에서 측정되지 않았습니다.");
+                return;
+            }
+            long baseP99 = base.path("p99Micros").asLong();
+            long nowP99 = now.path("p99Micros").asLong();
+            if (nowP99 > baseP99 * (1 + maxP99Regression)) {
+                violations.add(String.format("%s : p99 %.2fms → %.2fms (허용 +%.0f%%)",
+                        name, baseP99 / 1000.0, nowP99 / 1000.0, maxP99Regression * 100));
+            }
+            double baseThroughput = base.path("throughput").asDouble();
+            double nowThroughput = now.path("throughput").asDouble();
+            if (nowThroughput < baseThroughput * (1 - maxThroughputRegression)) {
+                violations.add(String.format("%s : 처리량 %.1f/s → %.1f/s (허용 -%.0f%%)",
+                        name, baseThroughput, nowThroughput, maxThroughputRegression * 100));
+            }
+        });
+        current.fields().forEachRemaining(entry -> {
+            JsonNode node = entry.getValue();
+            long count = node.path("count").asLong();
+            long errors = node.path("errors").asLong();
+            if (count + errors > 0 && errors > (count + errors) * maxErrorRate) {
+                violations.add(String.format("%s : 실패 %d / %d 건 (허용 %.1f%%)",
+                        entry.getKey(), errors, count + errors, maxErrorRate * 100));
+            }
+        });
+        return violations;
+    }
+
+    private static double millis(JsonNode node, String field) {
+        return node.path(field).asLong() / 1000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.project1.perf.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 부하 시나리오 (오픈 모델)
+// 응답을 기다리지 않고 rate 에 맞춰 요청을 도착시키므로, 서버가 느려져도 요청 간격이 늘어나지 않는다.
+// 응답 시간은 요청을 보내야 했던 시각부터 재기 때문에 클라이언트 대기열에서 기다린 시간도 포함된다.
+class LoadScenario {
+
+    // 초당 도착하는 요청 수 (모든 엔드포인트 합계)
+    final int rate;
+    // 측정 구간 길이, 그 앞의 warmup 구간은 기록하지 않는다.
+    final int durationSeconds;
+    final int warmupSeconds;
+    // 동시에 요청을 보내는 클라이언트(스레드) 수
+    final int clients;
+    // 미리 가입시키고 로그인해 두는 회원 수
+    final int users;
+    final Map<Endpoint, Integer> mix;
+
+    private final Endpoint[] table;
+
+    LoadScenario(int rate, int durationSeconds, int warmupSeconds, int clients, int users, Map<Endpoint, Integer> mix) {
+        if (rate <= 0 || durationSeconds <= 0 || clients <= 0 || users <= 0) {
+            throw new IllegalArgumentException("rate, duration, clients, users 는 0보다 커야 합니다.");
+        }
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = Math.max(0, warmupSeconds);
+        this.clients = clients;
+        this.users = users;
+        this.mix = mix;
+
+        // 가중치만큼 칸을 채워 두고 무작위로 한 칸을 고른다.
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("mix 의 가중치 합이 0입니다.");
+        }
+        this.table = new Endpoint[total];
+        int i = 0;
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            for (int n = 0; n < entry.getValue(); n++) {
+                table[i++] = entry.getKey();
+            }
+        }
+    }
+
+    Endpoint next() {
+        return table[ThreadLocalRandom.current().nextInt(table.length)];
+    }
+
+    long intervalNanos() {
+        return 1_000_000_000L / rate;
+    }
+
+    // signup:1,login:2,search:6,refresh:1
+    static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("mix 형식이 잘못되었습니다. : " + part);
+            }
+            mix.put(Endpoint.of(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey().key()).append(':').append(entry.getValue());
+        }
+        return String.format("rate=%d/s, duration=%ds, warmup=%ds, clients=%d, users=%d, mix=%s",
+                rate, durationSeconds, warmupSeconds, clients, users, sb);
+    }
+}
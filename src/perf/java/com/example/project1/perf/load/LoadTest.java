@@ -0,0 +1,246 @@
+package com.example.project1.perf.load;
+
+import com.example.project1.Project1Application;
+import com.example.project1.perf.load.AuthApiClient.Session;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// 회원가입 → 로그인 → 회원 조회 → 토큰 재발급의 처리량과 지연 시간을 재는 부하 테스트
+// 같은 JVM 에서 애플리케이션을 H2 메모리 DB 로 띄우고(loadtest 프로필),
+// 정해진 도착률로 요청을 보내면서 엔드포인트별로 HdrHistogram 에 응답 시간을 기록한다.
+// 기준선(baseline)과 비교해서 p99, 처리량, 실패 비율이 허용 범위를 벗어나면 종료 코드 1 로 끝나서 빌드가 실패한다.
+// 기준선 파일이 없어도 실패하므로, 처음 실행하는 장비에서는 -PupdateBaseline 으로 기준선을 먼저 저장한다.
+//
+//   ./gradlew loadTest
+//   ./gradlew loadTest -PloadRate=400 -PloadDuration=120
+//   ./gradlew loadTest -PupdateBaseline       (현재 결과를 기준선으로 저장)
+public class LoadTest {
+
+    private static final String PASSWORD = "load-password";
+
+    private final LoadScenario scenario;
+    private final AuthApiClient client;
+    private final Session[] sessions;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicLong signupSequence = new AtomicLong();
+    // 측정 구간이 끝나는 시각, 이후에 끝난 응답은 처리량에 넣지 않는다.
+    private volatile long measureEnd;
+
+    private LoadTest(LoadScenario scenario, int port) {
+        this.scenario = scenario;
+        this.client = new AuthApiClient(port);
+        this.sessions = new Session[scenario.users];
+        for (Endpoint endpoint : scenario.mix.keySet()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        LoadScenario scenario = new LoadScenario(
+                Integer.parseInt(options.getOrDefault("rate", "200")),
+                Integer.parseInt(options.getOrDefault("duration", "60")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Integer.parseInt(options.getOrDefault("clients", "64")),
+                Integer.parseInt(options.getOrDefault("users", "200")),
+                LoadScenario.parseMix(options.getOrDefault("mix", "signup:1,login:2,search:6,refresh:1")));
+        Path baselinePath = Paths.get(options.getOrDefault("baseline", "src/perf/baseline/load-test.json"));
+        Path resultPath = Paths.get(options.getOrDefault("result", "build/load-test/result.json"));
+        boolean updateBaseline = Boolean.parseBoolean(options.getOrDefault("update-baseline", "false"));
+        double maxP99Regression = Double.parseDouble(options.getOrDefault("max-p99-regression", "0.2"));
+        double maxThroughputRegression = Double.parseDouble(options.getOrDefault("max-throughput-regression", "0.1"));
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+
+        int exitCode;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Project1Application.class)
+                .profiles("loadtest")
+                .properties("server.port=0")
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            LoadTest test = new LoadTest(scenario, port);
+            test.seed();
+            LoadReport report = test.run();
+            report.print();
+            report.write(resultPath);
+            exitCode = judge(report, baselinePath, updateBaseline,
+                    maxP99Regression, maxThroughputRegression, maxErrorRate);
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    // 측정 전에 회원을 가입시키고 로그인해 둔다. (닫힌 모델, 기록하지 않음)
+    private void seed() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(scenario.clients);
+        AtomicInteger ready = new AtomicInteger();
+        for (int i = 0; i < sessions.length; i++) {
+            Session session = new Session("loaduser" + i + "@load.test", PASSWORD);
+            sessions[i] = session;
+            pool.execute(() -> {
+                try {
+                    if (isSuccess(AuthApiClient.retryWhenShed(() -> client.signUp(session)))
+                            && isSuccess(AuthApiClient.retryWhenShed(() -> client.login(session)))
+                            && session.isLoggedIn()) {
+                        ready.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    System.out.println("회원 준비 실패 : " + session.email + " (" + e + ")");
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        if (ready.get() < sessions.length) {
+            throw new IllegalStateException("회원 준비에 실패했습니다. " + ready.get() + " / " + sessions.length);
+        }
+    }
+
+    private LoadReport run() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(scenario.clients);
+        long interval = scenario.intervalNanos();
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(scenario.warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(scenario.durationSeconds);
+        measureEnd = end;
+
+        // 요청을 보내야 하는 시각(intended)은 앞선 요청의 응답과 상관없이 정해진다.
+        // 클라이언트가 모두 바쁘면 요청은 대기열에서 기다리고, 그 시간도 응답 시간에 포함된다.
+        for (long n = 0; ; n++) {
+            long intended = start + n * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean record = intended >= measureStart;
+            Endpoint endpoint = scenario.next();
+            pool.execute(() -> execute(endpoint, intended, record));
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(2, TimeUnit.MINUTES)) {
+            pool.shutdownNow();
+        }
+        return LoadReport.of(scenario, stats, scenario.durationSeconds);
+    }
+
+    private void execute(Endpoint endpoint, long intended, boolean record) {
+        Session session = endpoint == Endpoint.SIGNUP
+                ? new Session("loadsignup" + signupSequence.incrementAndGet() + "@load.test", PASSWORD)
+                : acquire();
+        int status;
+        try {
+            switch (endpoint) {
+                case SIGNUP:
+                    status = client.signUp(session);
+                    break;
+                case LOGIN:
+                    status = client.login(session);
+                    break;
+                case SEARCH:
+                    status = client.search(session);
+                    break;
+                case REFRESH:
+                    status = client.refresh(session);
+                    break;
+                default:
+                    throw new IllegalStateException(endpoint.name());
+            }
+        } catch (Exception e) {
+            status = -1;
+        } finally {
+            if (endpoint != Endpoint.SIGNUP) {
+                release(session);
+            }
+        }
+
+        if (!record) {
+            return;
+        }
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (isSuccess(status)) {
+            long now = System.nanoTime();
+            endpointStats.recordSuccess(now - intended, now <= measureEnd);
+        } else {
+            endpointStats.recordError();
+        }
+    }
+
+    // 실제 클라이언트처럼 한 회원이 로그인과 재발급을 동시에 하지 않도록 사용 중인 회원은 건너뛴다.
+    private Session acquire() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Session session = sessions[random.nextInt(sessions.length)];
+            if (session.busy.compareAndSet(false, true)) {
+                return session;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void release(Session session) {
+        session.busy.set(false);
+    }
+
+    private static boolean isSuccess(int status) {
+        return (status >= 200 && status < 300) || status == 304;
+    }
+
+    private static int judge(LoadReport report, Path baselinePath, boolean updateBaseline,
+                             double maxP99Regression, double maxThroughputRegression, double maxErrorRate)
+            throws Exception {
+        if (updateBaseline) {
+            report.write(baselinePath);
+            System.out.println("기준선을 저장했습니다. : " + baselinePath);
+            return 0;
+        }
+        // 기준선이 없을 때 통과시키면 기준선을 지우거나 경로를 잘못 줘도 성능 저하를 잡지 못하므로 실패로 본다.
+        if (!Files.isRegularFile(baselinePath)) {
+            System.out.println("기준선이 없습니다. 이 장비에서 -PupdateBaseline 으로 먼저 저장하세요. : " + baselinePath);
+            return 1;
+        }
+        LoadReport baseline = LoadReport.read(baselinePath);
+        if (!baseline.scenario().equals(report.scenario())) {
+            System.out.println("기준선과 시나리오가 다릅니다. 같은 시나리오로 실행하거나 기준선을 다시 저장하세요.");
+            System.out.println("  기준선 : " + baseline.scenario());
+            System.out.println("  이번   : " + report.scenario());
+            return 1;
+        }
+        List<String> violations = report.compare(baseline, maxP99Regression, maxThroughputRegression, maxErrorRate);
+        if (violations.isEmpty()) {
+            System.out.println("기준선 대비 성능 저하 없음");
+            return 0;
+        }
+        System.out.println("기준선 대비 성능이 떨어졌습니다.");
+        violations.forEach(v -> System.out.println("  " + v));
+        return 1;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.project1.perf.member;
+
+import com.example.project1.Project1Application;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.entity.member.MemberEntity;
+import com.example.project1.entity.member.embedded.AddressEntity;
+import com.example.project1.repository.member.MemberRepository;
+import com.example.project1.service.member.MemberService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// 여러 회원 조회(POST /api/v1/users/batch)와 회원 조회(findById)를 N 번 하는 것의 비용을 비교하는 프로그램
+// 같은 JVM 에서 애플리케이션을 H2 메모리 DB 로 띄우고(loadtest 프로필) 서비스를 직접 호출한다.
+// 회원 --members 명을 넣고, --batch 명을 여러 회원 조회 한 번과 회원 조회 --batch 번으로 가져오는 시간과 SQL 수를
+// --iterations 번 평균으로 재서, 여러 회원 조회가 더 느리면 종료 코드 1 로 끝난다.
+// 순서, 없는 id, SQL 수, 요청 한도는 src/test 의 MemberBatchSearchTest 가 확인한다.
+//
+//   ./gradlew memberBatchCheck
+//   ./gradlew memberBatchCheck --args="--members 20000 --batch 5000 --iterations 20"
+public class MemberBatchCheck {
+
+    private final MemberService memberService;
+    private final Statistics statistics;
+    private final List<String> failures = new ArrayList<>();
+
+    private MemberBatchCheck(ConfigurableApplicationContext context) {
+        this.memberService = context.getBean(MemberService.class);
+        this.statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int members = Integer.parseInt(options.getOrDefault("members", "5000"));
+        int batch = Integer.parseInt(options.getOrDefault("batch", "1000"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "20"));
+
+        List<String> failures;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Project1Application.class)
+                .profiles("loadtest")
+                .properties("server.port=0", "warmup.enabled=false")
+                .run();
+        try {
+            List<Long> ids = seed(context.getBean(MemberRepository.class), members);
+            MemberBatchCheck check = new MemberBatchCheck(context);
+            check.cost(ids, Math.min(batch, ids.size()), iterations);
+            failures = check.failures;
+        } finally {
+            context.close();
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    private static List<Long> seed(MemberRepository memberRepository, int members) {
+        List<MemberEntity> entities = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            entities.add(MemberEntity.builder()
+                    .userEmail("batch" + i + "@batch.test")
+                    .userPw("{bcrypt}not-a-real-hash")
+                    .userName("batch" + i)
+                    .nickName(i % 3 == 0 ? null : "nick" + i)
+                    .userType(i % 10 == 0 ? UserType.ADMIN : UserType.USER)
+                    .address(AddressEntity.builder().userAddr("addr" + i).userAddrDetail("detail").userAddrEtc(null).build())
+                    .build());
+        }
+        List<Long> ids = new ArrayList<>(members);
+        memberRepository.saveAll(entities).forEach(saved -> ids.add(saved.getUserId()));
+        return ids;
+    }
+
+    // batch 명을 가져오는 ms : 여러 회원 조회 한 번 / 회원 조회 batch 번
+    private void cost(List<Long> ids, int batch, int iterations) {
+        List<Long> requested = new ArrayList<>(ids.subList(0, batch));
+        Collections.shuffle(requested, new Random(7));
+        for (int i = 0; i < Math.max(1, iterations / 4); i++) {
+            memberService.searchAll(requested);
+            requested.forEach(memberService::search);
+        }
+        statistics.clear();
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            memberService.searchAll(requested);
+        }
+        double batched = (System.nanoTime() - begin) / 1e6 / iterations;
+        long batchedStatements = statistics.getPrepareStatementCount() / iterations;
+        statistics.clear();
+        begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            requested.forEach(memberService::search);
+        }
+        double single = (System.nanoTime() - begin) / 1e6 / iterations;
+        long singleStatements = statistics.getPrepareStatementCount() / iterations;
+        System.out.printf("%d명 : 여러 회원 조회 %.3f ms (SQL %d번), 회원 조회 %d번 %.3f ms (SQL %d번), %.1f배%n",
+                batch, batched, batchedStatements, batch, single, singleStatements, single / batched);
+        check(batched < single, "여러 회원 조회가 회원 조회를 반복하는 것보다 느림");
+    }
+
+    private void check(boolean condition, String failure) {
+        if (!condition) {
+            failures.add(failure);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
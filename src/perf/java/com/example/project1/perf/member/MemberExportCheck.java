@@ -0,0 +1,277 @@
+package com.example.project1.perf.member;
+
+import com.example.project1.Project1Application;
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.entity.member.MemberEntity;
+import com.example.project1.repository.member.MemberRepository;
+import com.example.project1.service.member.MemberExportService;
+import com.example.project1.service.member.MemberService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 회원 내보내기(GET /api/v1/admin/members/export)가 회원 수와 관계없이 일정한 힙으로 끝나는지 확인하는 프로그램
+// 같은 JVM 에서 애플리케이션을 H2 파일 DB 로 띄운다. (메모리 DB 는 행이 힙에 있어서 내보내기의 힙 사용량과 구분되지 않는다)
+// 1. 회원 1000명 : 모든 줄이 JSON 이고 user_id 순서인지, 비밀번호가 없는지, 회원 조회와 같은 값인지, gzip 을 풀면 같은지
+// 2. 동시에 member.export.max-concurrent 개까지만 내보내는지
+// 3. 회원 --members 명 : --checkpoint 행마다 GC 뒤 힙 사용량을 재서, 처음보다 --max-growth-mb 넘게 늘지 않는지
+//    비교용으로 findAll 로 --naive-members 명을 MemberDTO 목록으로 만들면 힙이 얼마나 느는지
+// 확인에 실패하면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew memberExportCheck
+//   ./gradlew memberExportCheck --args="--members 2000000 --checkpoint 200000"
+public class MemberExportCheck {
+
+    private static final String INSERT = "insert into member (user_name, user_email, user_pw, nick_name, user_type,"
+            + " provider, provider_id, user_addr, user_addr_detail, user_addr_etc, version, authority_version, reg_time, update_time)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?)";
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final MemberExportService memberExportService;
+    private final MemberService memberService;
+    private final MemberRepository memberRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxConcurrent;
+    private final List<String> failures = new ArrayList<>();
+    private int seeded;
+
+    private MemberExportCheck(ConfigurableApplicationContext context) {
+        this.memberExportService = context.getBean(MemberExportService.class);
+        this.memberService = context.getBean(MemberService.class);
+        this.memberRepository = context.getBean(MemberRepository.class);
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.maxConcurrent = Integer.parseInt(context.getEnvironment().getProperty("member.export.max-concurrent", "2"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int members = Integer.parseInt(options.getOrDefault("members", "500000"));
+        int checkpoint = Integer.parseInt(options.getOrDefault("checkpoint", "50000"));
+        double maxGrowthMb = Double.parseDouble(options.getOrDefault("max-growth-mb", "16"));
+        int naiveMembers = Integer.parseInt(options.getOrDefault("naive-members", "100000"));
+
+        Path dir = Files.createTempDirectory("member-export");
+        List<String> failures;
+        // 명령행 인자는 프로필 설정보다 우선한다.
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Project1Application.class)
+                .profiles("loadtest")
+                .properties("server.port=0", "warmup.enabled=false")
+                .run("--spring.datasource.url=jdbc:h2:file:" + dir.resolve("export") + ";DATABASE_TO_LOWER=TRUE",
+                        // 종료하면서 파일 DB 를 닫을 때 권한 버전 조회가 끼어들지 않게 한다.
+                        "--jwt.authority-version.poll-interval-seconds=0");
+        try {
+            MemberExportCheck check = new MemberExportCheck(context);
+            check.seed(1000);
+            check.correctness();
+            check.concurrency();
+            check.seed(members);
+            check.flatHeap(checkpoint, maxGrowthMb);
+            check.naive(Math.min(naiveMembers, members), members);
+            failures = check.failures;
+        } finally {
+            context.close();
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    // 회원이 total 명이 될 때까지 JDBC 배치로 넣는다.
+    private void seed(int total) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long begin = System.nanoTime();
+        while (seeded < total) {
+            int from = seeded;
+            int to = Math.min(total, from + 1000);
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                rows.add(new Object[]{"export" + i, "export" + i + "@export.test", "{bcrypt}not-a-real-hash",
+                        i % 3 == 0 ? null : "nick" + i, i % 10 == 0 ? "ADMIN" : "USER",
+                        i % 5 == 0 ? "google" : null, i % 5 == 0 ? "google_" + i : null,
+                        "주소 " + i, "상세 \"" + i + "\"", null, now, now});
+            }
+            jdbcTemplate.batchUpdate(INSERT, rows);
+            seeded = to;
+        }
+        System.out.printf("회원 %d명 준비 (%.1f s)%n", seeded, (System.nanoTime() - begin) / 1e9);
+    }
+
+    private void correctness() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        long rows = memberExportService.export(plain);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192, true)) {
+            memberExportService.export(gzip);
+        }
+        byte[] unzipped = readAll(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())));
+
+        String text = new String(plain.toByteArray(), StandardCharsets.UTF_8);
+        List<String> lines = Arrays.asList(text.split("\n"));
+        System.out.printf("회원 %d명 : %d줄, %d byte, gzip %d byte%n", rows, lines.size(), plain.size(), compressed.size());
+        check(rows == seeded && lines.size() == seeded, "줄 수 " + lines.size() + ", 회원 " + seeded + "명");
+        check(text.endsWith("\n"), "마지막 줄이 줄바꿈으로 끝나지 않음");
+        check(Arrays.equals(plain.toByteArray(), unzipped), "gzip 을 푼 내용이 다름");
+
+        long previous = 0;
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            long userId = node.get("userId").asLong();
+            if (userId <= previous) {
+                failures.add("user_id 순서가 아님 : " + previous + " 다음 " + userId);
+            }
+            previous = userId;
+            if (node.has("userPw")) {
+                failures.add(userId + " : 비밀번호가 들어 있음");
+            }
+            if (userId % 97 == 0) {
+                compare(node, memberService.search(userId));
+            }
+        }
+    }
+
+    private void compare(JsonNode node, MemberDTO member) {
+        List<String> expected = Arrays.asList(member.getUserEmail(), member.getUserName(), member.getNickName(),
+                member.getUserType().name(), member.getProvider(), member.getProviderId(),
+                member.getAddressDTO().getUserAddr(), member.getAddressDTO().getUserAddrDetail(),
+                member.getAddressDTO().getUserAddrEtc());
+        List<String> actual = Arrays.asList(text(node, "userEmail"), text(node, "userName"), text(node, "nickName"),
+                text(node, "userType"), text(node, "provider"), text(node, "providerId"),
+                text(node.get("addressDTO"), "userAddr"), text(node.get("addressDTO"), "userAddrDetail"),
+                text(node.get("addressDTO"), "userAddrEtc"));
+        if (!expected.equals(actual) || !node.get("regTime").isTextual()) {
+            failures.add(member.getUserId() + " : 회원 조회와 다름 " + actual + " / " + expected);
+        }
+    }
+
+    private void concurrency() {
+        int acquired = 0;
+        while (acquired <= maxConcurrent && memberExportService.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            memberExportService.release();
+        }
+        System.out.printf("동시 내보내기 : %d개까지 (max-concurrent %d)%n", acquired, maxConcurrent);
+        check(acquired == maxConcurrent, "동시에 " + acquired + "개를 내보낼 수 있음");
+    }
+
+    private void flatHeap(int checkpoint, double maxGrowthMb) throws IOException {
+        HeapSampler sampler = new HeapSampler(checkpoint);
+        long begin = System.nanoTime();
+        long rows = memberExportService.export(sampler);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        List<Long> samples = sampler.samples;
+        double growthMb = samples.isEmpty() ? 0
+                : (samples.stream().mapToLong(Long::longValue).max().getAsLong() - samples.get(0)) / 1048576.0;
+        System.out.printf("회원 %d명 내보내기 : %.1f s (GC 시간 포함), %.1f MB, GC 뒤 힙 %s MB, 처음보다 최대 %.1f MB%n",
+                rows, seconds, sampler.bytes / 1048576.0,
+                samples.stream().map(each -> String.format("%.1f", each / 1048576.0)).collect(Collectors.toList()), growthMb);
+        check(rows == seeded, "내보낸 회원 " + rows + "명, 회원 " + seeded + "명");
+        check(samples.size() >= 2, "힙을 " + samples.size() + "번만 잼 (--checkpoint 를 줄이세요)");
+        check(growthMb <= maxGrowthMb, String.format("내보내는 동안 힙이 %.1f MB 늘었음", growthMb));
+    }
+
+    // 비교용 : findAll 로 엔티티를 불러와 MemberDTO 목록을 만들 때 늘어나는 힙
+    private void naive(int count, int members) {
+        long before = liveHeap();
+        List<MemberEntity> entities = memberRepository.findAll(PageRequest.of(0, count)).getContent();
+        List<MemberDTO> dtos = entities.stream().map(MemberDTO::toMemberDTO).collect(Collectors.toList());
+        long after = liveHeap();
+        double perMember = (after - before) / (double) dtos.size();
+        System.out.printf("비교 : findAll 로 %d명을 MemberDTO 목록으로 만들면 힙 +%.1f MB (%.0f byte/명, %d명이면 약 %.0f MB)%n",
+                dtos.size(), (after - before) / 1048576.0, perMember, members, perMember * members / 1048576.0);
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    // 내보낸 줄을 버리면서 checkpoint 줄마다 GC 뒤 힙 사용량을 남긴다.
+    private static final class HeapSampler extends OutputStream {
+        private final int checkpoint;
+        private final List<Long> samples = new ArrayList<>();
+        private long lines;
+        private long bytes;
+
+        private HeapSampler(int checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n' && ++lines % checkpoint == 0) {
+                    samples.add(liveHeap());
+                }
+            }
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static byte[] readAll(GZIPInputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private void check(boolean condition, String failure) {
+        if (!condition) {
+            failures.add(failure);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
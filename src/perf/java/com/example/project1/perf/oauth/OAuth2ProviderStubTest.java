@@ -0,0 +1,406 @@
+package com.example.project1.perf.oauth;
+
+import com.example.project1.config.oauth2.client.BulkheadTokenResponseClient;
+import com.example.project1.config.oauth2.client.OAuth2HttpConfig;
+import com.example.project1.config.oauth2.client.OAuth2HttpProperties;
+import com.example.project1.config.oauth2.client.ProviderBulkhead;
+import com.example.project1.config.oauth2.client.ProviderUserInfoClient;
+import com.example.project1.config.oauth2.client.UserInfoCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationExchange;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponse;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 소셜 로그인 제공자가 느려지거나 멈췄을 때 제공자 요청이 요청 스레드를 붙잡지 않는지 확인하는 테스트
+// JDK HttpServer 로 띄운 가짜 제공자(토큰 교환, 사용자 정보)에 지연을 넣고,
+// OAuth2HttpConfig 와 같은 커넥션 풀, 벌크헤드, 캐시로 요청한다. 제공자는 fast(지연 없음), slow(지연 주입) 두 개다.
+// 1. keep-alive : 사용자 정보를 --requests 번 연속 조회해도 연결은 몇 개만 열린다.
+// 2. 캐시 : 같은 액세스 토큰으로 다시 조회하면 제공자에 요청하지 않는다.
+// 3. 타임아웃 : 제공자 응답이 read timeout 보다 늦으면 read timeout 근처에서 실패한다.
+// 4. 벌크헤드 : slow 에 동시에 몰린 요청은 max-concurrent 개만 제공자까지 가고 나머지는 max-wait 안에 실패하며,
+//    그동안 fast 로그인은 지연되지 않는다.
+// 5. 토큰 교환도 같은 풀, 타임아웃을 사용한다.
+// 확인에 실패하면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew oauthProviderStubTest
+//   ./gradlew oauthProviderStubTest --args="--requests 500 --read-timeout 500 --max-concurrent 4"
+public class OAuth2ProviderStubTest {
+
+    private final StubProvider stub;
+    private final OAuth2HttpProperties properties;
+    private final ProviderUserInfoClient userInfoClient;
+    private final BulkheadTokenResponseClient tokenClient;
+    private final AtomicInteger tokenSequence = new AtomicInteger();
+    private final List<String> failures = new ArrayList<>();
+
+    private OAuth2ProviderStubTest(StubProvider stub, OAuth2HttpProperties properties, CloseableHttpClient httpClient) {
+        this.stub = stub;
+        this.properties = properties;
+        ProviderBulkhead bulkhead = new ProviderBulkhead(properties.getBulkhead());
+        this.userInfoClient = new ProviderUserInfoClient(OAuth2HttpConfig.userInfoRestTemplate(httpClient),
+                bulkhead, new UserInfoCache(properties.getUserInfoCache()));
+        this.tokenClient = new BulkheadTokenResponseClient(OAuth2HttpConfig.tokenRestTemplate(httpClient), bulkhead);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int requests = Integer.parseInt(options.getOrDefault("requests", "200"));
+
+        OAuth2HttpProperties properties = new OAuth2HttpProperties();
+        properties.setReadTimeoutMillis(Integer.parseInt(options.getOrDefault("read-timeout", "500")));
+        properties.getBulkhead().setMaxConcurrent(Integer.parseInt(options.getOrDefault("max-concurrent", "4")));
+        properties.getBulkhead().setMaxWaitMillis(Integer.parseInt(options.getOrDefault("max-wait", "50")));
+
+        List<String> failures;
+        StubProvider stub = StubProvider.start();
+        try (CloseableHttpClient httpClient = OAuth2HttpConfig.createHttpClient(properties)) {
+            OAuth2ProviderStubTest test = new OAuth2ProviderStubTest(stub, properties, httpClient);
+            test.keepAlive(requests);
+            test.cache();
+            test.readTimeout();
+            test.bulkhead();
+            test.tokenExchange();
+            failures = test.failures;
+        } finally {
+            stub.stop();
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    private void keepAlive(int requests) {
+        // 준비 운동 겸 첫 연결
+        userInfoClient.load(userRequest("fast"));
+        int before = stub.connections("fast");
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            userInfoClient.load(userRequest("fast"));
+        }
+        double averageMillis = (System.nanoTime() - begin) / 1e6 / requests;
+        int opened = stub.connections("fast") - before;
+        System.out.printf("keep-alive : 사용자 정보 %d건, 새 연결 %d개, 평균 %.2fms%n", requests, opened, averageMillis);
+
+        check(opened <= 1, "연속 요청 " + requests + "건에 연결을 " + opened + "개 새로 열었음");
+    }
+
+    private void cache() {
+        OAuth2UserRequest request = userRequest("fast");
+        int before = stub.userInfoHits("fast");
+        OAuth2User first = userInfoClient.load(request);
+        OAuth2User second = userInfoClient.load(request);
+        int hits = stub.userInfoHits("fast") - before;
+        System.out.printf("캐시 : 같은 액세스 토큰으로 2번 조회, 제공자 요청 %d건%n", hits);
+
+        check(hits == 1, "같은 액세스 토큰으로 제공자에 " + hits + "번 요청함");
+        check(first.getName().equals(second.getName()), "캐시한 사용자 정보가 다름");
+    }
+
+    private void readTimeout() {
+        int readTimeout = properties.getReadTimeoutMillis();
+        stub.setLatency("slow", readTimeout * 4L);
+        long begin = System.nanoTime();
+        String error = null;
+        try {
+            userInfoClient.load(userRequest("slow"));
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName();
+        }
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+        stub.setLatency("slow", 0);
+        System.out.printf("타임아웃 : 제공자 지연 %dms, read timeout %dms, %dms 뒤 실패 (%s)%n",
+                readTimeout * 4L, readTimeout, elapsedMillis, error);
+
+        check(error != null, "제공자 응답이 read timeout 보다 늦었는데 실패하지 않음");
+        check(elapsedMillis < readTimeout + 300, "read timeout " + readTimeout + "ms 인데 " + elapsedMillis + "ms 기다림");
+    }
+
+    private void bulkhead() throws InterruptedException {
+        int maxConcurrent = properties.getBulkhead().getMaxConcurrent();
+        int maxWait = properties.getBulkhead().getMaxWaitMillis();
+        long latency = properties.getReadTimeoutMillis() / 2;
+        stub.setLatency("slow", latency);
+        stub.resetMaxInFlight("slow");
+
+        int slowCalls = maxConcurrent * 4;
+        int fastCalls = maxConcurrent * 4;
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger otherErrors = new AtomicInteger();
+        AtomicLong slowestRejectionMillis = new AtomicLong();
+        AtomicLong slowestFastMillis = new AtomicLong();
+        AtomicInteger fastErrors = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(slowCalls + fastCalls);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(slowCalls + fastCalls);
+        for (int i = 0; i < slowCalls; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    try {
+                        userInfoClient.load(userRequest("slow"));
+                        succeeded.incrementAndGet();
+                    } catch (OAuth2AuthenticationException e) {
+                        if (ProviderBulkhead.PROVIDER_BUSY.equals(e.getError().getErrorCode())) {
+                            rejected.incrementAndGet();
+                            slowestRejectionMillis.accumulateAndGet((System.nanoTime() - begin) / 1_000_000, Math::max);
+                        } else {
+                            otherErrors.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        for (int i = 0; i < fastCalls; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    // slow 요청이 벌크헤드를 채운 뒤에 출발
+                    Thread.sleep(maxWait / 2);
+                    long begin = System.nanoTime();
+                    userInfoClient.load(userRequest("fast"));
+                    slowestFastMillis.accumulateAndGet((System.nanoTime() - begin) / 1_000_000, Math::max);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    if (fastErrors.incrementAndGet() == 1) {
+                        System.out.println("fast 첫 실패 : " + e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await(1, TimeUnit.MINUTES);
+        pool.shutdown();
+        stub.setLatency("slow", 0);
+
+        int maxInFlight = stub.maxInFlight("slow");
+        System.out.printf("벌크헤드 : slow %d건 중 성공 %d건, 거절 %d건(가장 늦은 거절 %dms), 기타 실패 %d건, 제공자 최대 동시 요청 %d건%n",
+                slowCalls, succeeded.get(), rejected.get(), slowestRejectionMillis.get(), otherErrors.get(), maxInFlight);
+        System.out.printf("벌크헤드 : 그동안 fast %d건 중 실패 %d건, 가장 느린 요청 %dms%n",
+                fastCalls, fastErrors.get(), slowestFastMillis.get());
+
+        check(maxInFlight <= maxConcurrent, "slow 제공자에 동시에 " + maxInFlight + "건 요청함 (한도 " + maxConcurrent + ")");
+        check(succeeded.get() >= 1 && rejected.get() >= slowCalls - 2 * maxConcurrent,
+                "slow 요청 " + slowCalls + "건 중 성공 " + succeeded.get() + "건, 거절 " + rejected.get() + "건");
+        check(otherErrors.get() == 0, "slow 요청 중 벌크헤드 거절이 아닌 실패 " + otherErrors.get() + "건");
+        check(slowestRejectionMillis.get() < maxWait + 200,
+                "벌크헤드 거절까지 " + slowestRejectionMillis.get() + "ms 걸림 (max-wait " + maxWait + "ms)");
+        check(fastErrors.get() == 0, "slow 제공자가 밀린 동안 fast 요청 " + fastErrors.get() + "건 실패");
+        check(slowestFastMillis.get() < latency,
+                "slow 제공자가 밀린 동안 fast 요청이 " + slowestFastMillis.get() + "ms 걸림");
+    }
+
+    private void tokenExchange() {
+        OAuth2AccessTokenResponse response = tokenClient.getTokenResponse(grantRequest("fast"));
+        check(response.getAccessToken().getTokenValue().startsWith("stub-"), "토큰 교환 응답이 잘못됨");
+
+        int readTimeout = properties.getReadTimeoutMillis();
+        stub.setLatency("slow", readTimeout * 4L);
+        long begin = System.nanoTime();
+        boolean failed = false;
+        try {
+            tokenClient.getTokenResponse(grantRequest("slow"));
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+        stub.setLatency("slow", 0);
+        System.out.printf("토큰 교환 : fast 성공, slow(지연 %dms) %dms 뒤 실패 %s%n", readTimeout * 4L, elapsedMillis, failed);
+
+        check(failed, "토큰 교환 응답이 read timeout 보다 늦었는데 실패하지 않음");
+        check(elapsedMillis < readTimeout + 300, "토큰 교환에서 " + elapsedMillis + "ms 기다림");
+    }
+
+    private OAuth2UserRequest userRequest(String provider) {
+        Instant now = Instant.now();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "token-" + tokenSequence.incrementAndGet(), now, now.plusSeconds(3600));
+        return new OAuth2UserRequest(stub.registration(provider), accessToken);
+    }
+
+    private OAuth2AuthorizationCodeGrantRequest grantRequest(String provider) {
+        ClientRegistration registration = stub.registration(provider);
+        OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri(registration.getProviderDetails().getAuthorizationUri())
+                .clientId(registration.getClientId())
+                .redirectUri(registration.getRedirectUri())
+                .state("state")
+                .build();
+        OAuth2AuthorizationResponse authorizationResponse = OAuth2AuthorizationResponse.success("code")
+                .redirectUri(registration.getRedirectUri())
+                .state("state")
+                .build();
+        return new OAuth2AuthorizationCodeGrantRequest(registration,
+                new OAuth2AuthorizationExchange(authorizationRequest, authorizationResponse));
+    }
+
+    private void check(boolean condition, String failure) {
+        if (!condition) {
+            failures.add(failure);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    // 지연을 넣을 수 있는 가짜 제공자
+    // /{provider}/token : 토큰 교환, /{provider}/userinfo : 사용자 정보
+    // 제공자별로 요청 수, 연결(클라이언트 포트) 수, 최대 동시 요청 수를 센다.
+    private static class StubProvider {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final Map<String, AtomicLong> latencies = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> userInfoHits = new ConcurrentHashMap<>();
+        private final Map<String, Set<Integer>> clientPorts = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> maxInFlight = new ConcurrentHashMap<>();
+
+        private StubProvider(HttpServer server) {
+            this.server = server;
+        }
+
+        static StubProvider start() throws IOException {
+            // 응답 헤더와 body 를 따로 보낼 때 Nagle 알고리즘 때문에 요청마다 수십 ms 씩 지연되지 않도록 한다.
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            StubProvider stub = new StubProvider(HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0));
+            stub.server.createContext("/", stub::handle);
+            stub.server.setExecutor(stub.executor);
+            stub.server.start();
+            return stub;
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        ClientRegistration registration(String provider) {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/" + provider;
+            return ClientRegistration.withRegistrationId(provider)
+                    .clientId("stub-client")
+                    .clientSecret("stub-secret")
+                    .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                    .redirectUri("http://localhost/login/oauth2/code/" + provider)
+                    .authorizationUri(base + "/authorize")
+                    .tokenUri(base + "/token")
+                    .userInfoUri(base + "/userinfo")
+                    .userNameAttributeName("sub")
+                    .build();
+        }
+
+        void setLatency(String provider, long millis) {
+            latencies.computeIfAbsent(provider, p -> new AtomicLong()).set(millis);
+        }
+
+        int userInfoHits(String provider) {
+            return userInfoHits.computeIfAbsent(provider, p -> new AtomicInteger()).get();
+        }
+
+        int connections(String provider) {
+            return clientPorts.computeIfAbsent(provider, p -> ConcurrentHashMap.newKeySet()).size();
+        }
+
+        // 타임아웃 확인에서 클라이언트가 먼저 끊은 요청이 끝날 때까지 기다린 뒤 초기화
+        void resetMaxInFlight(String provider) throws InterruptedException {
+            AtomicInteger current = inFlight.computeIfAbsent(provider, p -> new AtomicInteger());
+            for (int i = 0; i < 100 && current.get() > 0; i++) {
+                Thread.sleep(50);
+            }
+            maxInFlight.computeIfAbsent(provider, p -> new AtomicInteger()).set(0);
+        }
+
+        int maxInFlight(String provider) {
+            return maxInFlight.computeIfAbsent(provider, p -> new AtomicInteger()).get();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String provider = path.length > 1 ? path[1] : "";
+            String endpoint = path.length > 2 ? path[2] : "";
+            clientPorts.computeIfAbsent(provider, p -> ConcurrentHashMap.newKeySet())
+                    .add(exchange.getRemoteAddress().getPort());
+            int current = inFlight.computeIfAbsent(provider, p -> new AtomicInteger()).incrementAndGet();
+            maxInFlight.computeIfAbsent(provider, p -> new AtomicInteger()).accumulateAndGet(current, Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                long latency = latencies.computeIfAbsent(provider, p -> new AtomicLong()).get();
+                if (latency > 0) {
+                    Thread.sleep(latency);
+                }
+                String body;
+                if ("userinfo".equals(endpoint)) {
+                    userInfoHits.computeIfAbsent(provider, p -> new AtomicInteger()).incrementAndGet();
+                    String token = exchange.getRequestHeaders().getFirst("Authorization");
+                    body = "{\"sub\":\"" + provider + "-user\",\"email\":\"user@" + provider + ".test\",\"token\":\""
+                            + token + "\"}";
+                } else if ("token".equals(endpoint)) {
+                    body = "{\"access_token\":\"stub-" + System.nanoTime()
+                            + "\",\"token_type\":\"Bearer\",\"expires_in\":3600}";
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // 클라이언트가 타임아웃으로 먼저 끊은 경우
+            } finally {
+                inFlight.get(provider).decrementAndGet();
+                exchange.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.project1.perf.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+
+// 트래픽 재현 결과
+// 두 빌드의 결과를 여러 백분위에서 비교할 수 있도록 경로별 히스토그램 전체를 압축해서 함께 저장한다.
+class ReplayReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9};
+
+    private final ObjectNode root;
+
+    private ReplayReport(ObjectNode root) {
+        this.root = root;
+    }
+
+    static ReplayReport of(String label, String capture, String speed, Map<String, RouteStats> routes) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("label", label);
+        root.put("capture", capture);
+        root.put("speed", speed);
+        ObjectNode nodes = root.putObject("routes");
+        for (Map.Entry<String, RouteStats> entry : routes.entrySet()) {
+            RouteStats stats = entry.getValue();
+            Histogram histogram = stats.histogram.copy();
+            ObjectNode node = nodes.putObject(entry.getKey());
+            node.put("count", histogram.getTotalCount());
+            node.put("errors", stats.errors.sum());
+            node.put("statusMismatches", stats.mismatches.sum());
+            node.put("skipped", stats.skipped.sum());
+            node.put("p50Micros", histogram.getValueAtPercentile(50));
+            node.put("p99Micros", histogram.getValueAtPercentile(99));
+            node.put("maxMicros", histogram.getMaxValue());
+            node.put("histogram", encode(histogram));
+        }
+        return new ReplayReport(root);
+    }
+
+    static ReplayReport read(Path path) throws IOException {
+        return new ReplayReport((ObjectNode) MAPPER.readTree(path.toFile()));
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), root);
+    }
+
+    void print() {
+        System.out.printf("%s (capture=%s, speed=%s)%n",
+                root.path("label").asText(), root.path("capture").asText(), root.path("speed").asText());
+        System.out.printf("%-44s %8s %7s %8s %8s %9s %9s %9s%n",
+                "route", "count", "errors", "mismatch", "skipped", "p50(ms)", "p99(ms)", "max(ms)");
+        root.path("routes").fields().forEachRemaining(e -> {
+            JsonNode node = e.getValue();
+            System.out.printf("%-44s %8d %7d %8d %8d %9.2f %9.2f %9.2f%n",
+                    e.getKey(),
+                    node.path("count").asLong(),
+                    node.path("errors").asLong(),
+                    node.path("statusMismatches").asLong(),
+                    node.path("skipped").asLong(),
+                    node.path("p50Micros").asLong() / 1000.0,
+                    node.path("p99Micros").asLong() / 1000.0,
+                    node.path("maxMicros").asLong() / 1000.0);
+        });
+    }
+
+    // 두 결과를 경로별, 백분위별로 나란히 출력하고 p99 가 maxP99Regression 비율 넘게 늘어난 경로 수를 돌려준다.
+    static int compare(ReplayReport before, ReplayReport after, double maxP99Regression) throws IOException {
+        System.out.printf("A : %s (speed=%s)%nB : %s (speed=%s)%n",
+                before.root.path("label").asText(), before.root.path("speed").asText(),
+                after.root.path("label").asText(), after.root.path("speed").asText());
+        if (!before.root.path("capture").asText().equals(after.root.path("capture").asText())
+                || !before.root.path("speed").asText().equals(after.root.path("speed").asText())) {
+            System.out.println("주의 : 두 결과의 캡처 파일 또는 재현 속도가 다릅니다.");
+        }
+
+        TreeSet<String> names = new TreeSet<>();
+        before.root.path("routes").fieldNames().forEachRemaining(names::add);
+        after.root.path("routes").fieldNames().forEachRemaining(names::add);
+
+        int regressions = 0;
+        for (String name : names) {
+            JsonNode a = before.root.path("routes").path(name);
+            JsonNode b = after.root.path("routes").path(name);
+            if (a.isMissingNode() || b.isMissingNode()) {
+                System.out.printf("%n%s : %s 에만 있습니다.%n", name, a.isMissingNode() ? "B" : "A");
+                continue;
+            }
+            Histogram ha = decode(a.path("histogram").asText());
+            Histogram hb = decode(b.path("histogram").asText());
+            if (ha.getTotalCount() == 0 || hb.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%n%s (A %d건, B %d건)%n", name, ha.getTotalCount(), hb.getTotalCount());
+            for (double percentile : PERCENTILES) {
+                printLine("p" + trim(percentile), ha.getValueAtPercentile(percentile), hb.getValueAtPercentile(percentile));
+            }
+            printLine("max", ha.getMaxValue(), hb.getMaxValue());
+
+            long p99a = ha.getValueAtPercentile(99);
+            long p99b = hb.getValueAtPercentile(99);
+            if (p99b > p99a * (1 + maxP99Regression)) {
+                regressions++;
+                System.out.printf("  → p99 가 허용 범위(+%.0f%%)를 넘었습니다.%n", maxP99Regression * 100);
+            }
+        }
+        return regressions;
+    }
+
+    private static void printLine(String name, long a, long b) {
+        double change = a == 0 ? 0 : (b - a) * 100.0 / a;
+        System.out.printf("  %-6s %10.2fms %10.2fms %+8.1f%%%n", name, a / 1000.0, b / 1000.0, change);
+    }
+
+    private static String trim(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static Histogram decode(String encoded) throws IOException {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException e) {
+            throw new IOException("히스토그램을 읽지 못했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.project1.perf.replay;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 경로 하나의 재현 결과
+class RouteStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    final Histogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    // 5xx 응답이나 연결 실패
+    final LongAdder errors = new LongAdder();
+    // 캡처 당시와 응답 종류(성공/실패)가 달라진 요청
+    final LongAdder mismatches = new LongAdder();
+    // 재현할 수 없어서 보내지 않은 요청 (외부 OAuth2 콜백 등)
+    final LongAdder skipped = new LongAdder();
+
+    void record(long latencyNanos) {
+        histogram.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.project1.perf.replay;
+
+import com.example.project1.perf.load.AuthApiClient.Session;
+
+// 캡처된 body 모양({userEmail:s,userPw:s,...})으로 보낼 수 있는 JSON body 를 다시 만든다.
+// 값은 남아 있지 않으므로 회원 식별에 쓰이는 필드만 재현용 회원의 값으로 채우고 나머지는 자리만 채운다.
+final class ShapeBody {
+
+    private final String shape;
+    private final Session session;
+    private int pos;
+
+    private ShapeBody(String shape, Session session) {
+        this.shape = shape;
+        this.session = session;
+    }
+
+    static String of(String shape, Session session) {
+        if (shape == null) {
+            return null;
+        }
+        StringBuilder json = new StringBuilder(shape.length() * 2);
+        new ShapeBody(shape, session).value(json, null);
+        return json.toString();
+    }
+
+    private void value(StringBuilder json, String field) {
+        if (pos >= shape.length()) {
+            json.append("null");
+            return;
+        }
+        char c = shape.charAt(pos);
+        if (c == '{') {
+            pos++;
+            json.append('{');
+            boolean first = true;
+            // "{..}" 는 깊이 제한으로 잘린 객체
+            if (shape.startsWith("..}", pos)) {
+                pos += 3;
+                json.append('}');
+                return;
+            }
+            while (pos < shape.length() && shape.charAt(pos) != '}') {
+                int colon = shape.indexOf(':', pos);
+                if (colon < 0) {
+                    break;
+                }
+                String name = shape.substring(pos, colon);
+                pos = colon + 1;
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append('"').append(name).append("\":");
+                value(json, name);
+                if (pos < shape.length() && shape.charAt(pos) == ',') {
+                    pos++;
+                }
+            }
+            pos++;
+            json.append('}');
+        } else if (c == '[') {
+            pos++;
+            json.append('[');
+            if (pos < shape.length() && shape.charAt(pos) != ']') {
+                value(json, null);
+            }
+            pos++;
+            json.append(']');
+        } else {
+            pos++;
+            json.append(scalar(c, field));
+        }
+    }
+
+    private String scalar(char type, String field) {
+        if (type == 's') {
+            if ("userEmail".equals(field)) {
+                return quote(session.email);
+            }
+            if ("userPw".equals(field)) {
+                return quote(session.password);
+            }
+            if ("userType".equals(field)) {
+                return quote("USER");
+            }
+            return quote("replay");
+        }
+        if (type == 'n') {
+            return "userId".equals(field) && session.userId != null ? session.userId.toString() : "0";
+        }
+        if (type == 'b') {
+            return "false";
+        }
+        return "null";
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.project1.perf.replay;
+
+import com.example.project1.config.capture.CapturedRequest;
+import com.example.project1.config.capture.TrafficCapture;
+import com.example.project1.config.capture.TrafficCaptureFormat;
+import com.example.project1.perf.load.AuthApiClient;
+import com.example.project1.perf.load.AuthApiClient.Session;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// TrafficCaptureFilter 로 캡처한 트래픽을 로컬 인스턴스에 다시 보내고 경로별 지연 시간 분포를 기록한다.
+// 캡처된 도착 간격을 그대로 지키면서 1배, 10배 등으로 빠르게 하거나(--speed 10), 간격 없이 최대한 빨리(--speed max) 보낼 수 있다.
+// 캡처의 익명 사용자마다 재현용 회원을 만들어서 로그인해 두고, 같은 사용자의 요청은 같은 회원으로 보낸다.
+// 외부 OAuth2 제공자가 필요한 콜백과 재현용 회원을 지우는 요청은 보내지 않고 skipped 로 센다.
+//
+//   ./gradlew trafficReplay --args="--capture capture/traffic-20240101-120000.tcap --speed 10 --label before"
+//   ./gradlew trafficReplay --args="--compare build/traffic-replay/before.json build/traffic-replay/after.json --max-p99-regression 0.2"
+public class TrafficReplay {
+
+    private static final String PASSWORD = "replay-password";
+
+    private final AuthApiClient client;
+    private final Map<Integer, Session> sessions = new HashMap<>();
+    private final List<Session> sessionList = new ArrayList<>();
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong signupSequence = new AtomicLong();
+
+    private TrafficReplay(String target) {
+        this.client = new AuthApiClient(target);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && "--compare".equals(args[0])) {
+            ReplayReport before = ReplayReport.read(Paths.get(args[1]));
+            ReplayReport after = ReplayReport.read(Paths.get(args[2]));
+            Map<String, String> options = parse(Arrays.copyOfRange(args, 3, args.length));
+            double maxP99Regression = Double.parseDouble(options.getOrDefault("max-p99-regression", "0.2"));
+            int regressions = ReplayReport.compare(before, after, maxP99Regression);
+            System.exit(regressions == 0 ? 0 : 1);
+        }
+
+        Map<String, String> options = parse(args);
+        Path capturePath = Paths.get(require(options, "capture"));
+        String target = options.getOrDefault("target", "http://localhost:8080");
+        String speedOption = options.getOrDefault("speed", "1");
+        // 0 이면 도착 간격 없이 보낸다.
+        double speed = "max".equals(speedOption) ? 0 : Double.parseDouble(speedOption);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        String label = options.getOrDefault("label", "replay");
+        Path resultPath = Paths.get(options.getOrDefault("result", "build/traffic-replay/" + label + ".json"));
+
+        TrafficCapture capture = TrafficCapture.read(capturePath);
+        System.out.printf("요청 %d건을 %s 로 재현합니다. (speed=%s)%n",
+                capture.getRequests().size(), target, speedOption);
+
+        TrafficReplay replay = new TrafficReplay(target);
+        replay.seed(capture.getRequests(), clients);
+        replay.run(capture.getRequests(), speed, clients);
+
+        ReplayReport report = ReplayReport.of(label, capturePath.getFileName().toString(), speedOption,
+                new TreeMap<>(replay.stats));
+        report.print();
+        report.write(resultPath);
+        System.out.println("결과를 저장했습니다. : " + resultPath);
+    }
+
+    // 캡처에 나온 사용자마다 재현용 회원을 가입시키고 로그인해 둔다. (기록하지 않음)
+    private void seed(List<CapturedRequest> requests, int clients) throws InterruptedException {
+        for (CapturedRequest request : requests) {
+            int subject = request.getSubject();
+            if (subject != TrafficCaptureFormat.ANONYMOUS && !sessions.containsKey(subject)) {
+                Session session = new Session("replay" + Integer.toHexString(subject) + "@replay.test", PASSWORD);
+                sessions.put(subject, session);
+                sessionList.add(session);
+            }
+        }
+        // 익명 요청에 쓸 회원
+        if (sessionList.isEmpty()) {
+            Session session = new Session("replayanonymous@replay.test", PASSWORD);
+            sessions.put(TrafficCaptureFormat.ANONYMOUS, session);
+            sessionList.add(session);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicInteger ready = new AtomicInteger();
+        for (Session session : sessionList) {
+            pool.execute(() -> {
+                try {
+                    AuthApiClient.retryWhenShed(() -> client.signUp(session));
+                    AuthApiClient.retryWhenShed(() -> client.login(session));
+                    if (session.isLoggedIn()) {
+                        ready.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    System.out.println("재현용 회원 준비 실패 : " + session.email + " (" + e + ")");
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.MINUTES);
+        System.out.printf("재현용 회원 %d / %d 명 준비%n", ready.get(), sessionList.size());
+    }
+
+    private void run(List<CapturedRequest> requests, double speed, int clients) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        for (CapturedRequest request : requests) {
+            long intended;
+            if (speed > 0) {
+                // 캡처된 도착 간격을 speed 배로 줄여서 그 시각에 보낸다.
+                intended = start + (long) (TimeUnit.MICROSECONDS.toNanos(request.getOffsetMicros()) / speed);
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                // max : 도착 간격 없이 클라이언트 수만큼 동시에 보내고, 실제로 보낸 시각부터 잰다.
+                intended = -1;
+            }
+            long scheduled = intended;
+            pool.execute(() -> execute(request, scheduled));
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void execute(CapturedRequest request, long intended) {
+        String route = request.getRoute() == null ? "?" : request.getRoute();
+        RouteStats routeStats = stats.computeIfAbsent(request.getMethod() + " " + route, k -> new RouteStats());
+        if (!isReplayable(request.getMethod(), route)) {
+            routeStats.skipped.increment();
+            return;
+        }
+
+        Session session = sessions.get(request.getSubject());
+        if (session == null) {
+            session = sessionList.get((int) (request.getOffsetMicros() % sessionList.size()));
+        }
+        long start = intended < 0 ? System.nanoTime() : intended;
+        int status;
+        try {
+            status = send(request, route, session);
+        } catch (Exception e) {
+            status = -1;
+        }
+        long latency = System.nanoTime() - start;
+
+        if (status < 0 || status >= 500) {
+            routeStats.errors.increment();
+            return;
+        }
+        routeStats.record(latency);
+        if (isSuccess(status) != isSuccess(request.getStatus())) {
+            routeStats.mismatches.increment();
+        }
+    }
+
+    private int send(CapturedRequest request, String route, Session session) throws Exception {
+        String method = request.getMethod();
+        if ("POST".equals(method) && "/api/v1/users/".equals(route)) {
+            // 회원가입은 매번 새 회원으로 보낸다.
+            return client.signUp(new Session("replaysignup" + signupSequence.incrementAndGet() + "@replay.test", PASSWORD));
+        }
+        if ("POST".equals(method) && "/api/v1/users/login".equals(route)) {
+            return client.login(session);
+        }
+        if ("POST".equals(method) && "/refresh".equals(route)) {
+            return client.refresh(session);
+        }
+
+        String path = route.replaceAll("\\{[^}]*}", String.valueOf(session.userId));
+        String authorization = null;
+        if (request.hasFlag(TrafficCaptureFormat.FLAG_BEARER)) {
+            authorization = "Bearer " + session.accessToken;
+        } else if (request.hasFlag(TrafficCaptureFormat.FLAG_RAW_AUTHORIZATION)) {
+            authorization = session.refreshToken;
+        }
+        return client.send(method, path, ShapeBody.of(request.getShape(), session), authorization);
+    }
+
+    private static boolean isReplayable(String method, String route) {
+        if (route.startsWith("/login/oauth2/") || route.startsWith("/oauth2/") || route.equals("/success-oauth")) {
+            return false;
+        }
+        // 재현용 회원이 지워지면 이후 요청이 모두 달라진다.
+        return !("DELETE".equals(method) && route.startsWith("/api/v1/users/"));
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 400;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " 옵션이 필요합니다.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.project1.perf.session;
+
+import com.example.project1.Project1Application;
+import com.example.project1.controller.member.MemberController;
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.domain.member.embedded.AddressDTO;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Idempotency-Key 로 다시 보낸 회원가입과 새 회원가입의 비용을 비교하는 프로그램
+// 같은 JVM 에서 애플리케이션을 H2 메모리 DB 로 띄우고(loadtest 프로필) 컨트롤러를 직접 호출한다.
+// 새 가입(조회 + 비밀번호 해시 + 저장)과 다시 보낸 가입의 한 번당 시간을 --iterations 번 평균으로 재고,
+// 다시 보낸 가입이 새 가입보다 느리면 종료 코드 1 로 끝난다.
+// 같은 키의 동시 가입, 로그인이 한 번만 처리되는지는 src/test 의 MemberControllerIdempotencyTest 가 확인한다.
+//
+//   ./gradlew idempotentSignupCheck
+//   ./gradlew idempotentSignupCheck --args="--iterations 200"
+public class IdempotentSignupCheck {
+
+    private static final String PASSWORD = "idempotent-password";
+
+    private final MemberController memberController;
+    private final List<String> failures = new ArrayList<>();
+
+    private IdempotentSignupCheck(ConfigurableApplicationContext context) {
+        this.memberController = context.getBean(MemberController.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "100"));
+
+        List<String> failures;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Project1Application.class)
+                .profiles("loadtest")
+                .properties("server.port=0", "warmup.enabled=false")
+                .run();
+        try {
+            IdempotentSignupCheck check = new IdempotentSignupCheck(context);
+            check.cost(iterations);
+            failures = check.failures;
+        } finally {
+            context.close();
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    // 새 가입과 다시 보낸 가입의 한 번당 ms
+    private void cost(int iterations) {
+        String prefix = "cost" + System.nanoTime();
+        // 준비 운동
+        for (int i = 0; i < iterations / 4; i++) {
+            signUp(member(prefix + "w" + i + "@idempotent.test", PASSWORD), prefix + "w" + i);
+            signUp(member(prefix + "w" + i + "@idempotent.test", PASSWORD), prefix + "w" + i);
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            signUp(member(prefix + i + "@idempotent.test", PASSWORD), prefix + i);
+        }
+        double fresh = (System.nanoTime() - begin) / 1e6 / iterations;
+        begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            signUp(member(prefix + i + "@idempotent.test", PASSWORD), prefix + i);
+        }
+        double retried = (System.nanoTime() - begin) / 1e6 / iterations;
+        System.out.printf("새 가입 : %.3f ms, 다시 보낸 가입 : %.3f ms (%.0f배)%n", fresh, retried, fresh / retried);
+        check(retried < fresh, "다시 보낸 가입이 새 가입보다 느림");
+    }
+
+    private ResponseEntity<?> signUp(MemberDTO member, String idempotencyKey) {
+        try {
+            return memberController.join(member, new BeanPropertyBindingResult(member, "memberDTO"), idempotencyKey);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MemberDTO member(String email, String password) {
+        return MemberDTO.builder()
+                .userEmail(email)
+                .userPw(password)
+                .userName("idempotent")
+                .nickName("idempotent")
+                .userType(UserType.USER)
+                .addressDTO(AddressDTO.builder().userAddr("a").userAddrDetail("b").userAddrEtc("c").build())
+                .build();
+    }
+
+    private void check(boolean condition, String failure) {
+        if (!condition) {
+            failures.add(failure);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.project1.perf.session;
+
+import com.example.project1.Project1Application;
+import com.example.project1.domain.jwt.TokenDTO;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.entity.jwt.TokenEntity;
+import com.example.project1.service.jwt.TokenSessionService;
+import com.example.project1.support.ConcurrentRunner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 한 회원이 여러 기기에서 동시에 로그인, 재발급할 때의 처리량을 재는 스트레스 테스트
+// 같은 JVM 에서 애플리케이션을 H2 메모리 DB 로 띄우고(loadtest 프로필) 서비스를 직접 호출한다.
+// 세션이 올바르게 유지되는지(최대 개수, 재발급 버전, 재발급 폭주, 해지)는 src/test 의 TokenSessionServiceTest 가 확인한다.
+// 1. 같은 회원으로 --threads 개 스레드가 --iterations 번씩 로그인 (세션 추가 + 오래된 세션 정리 경쟁)
+//    초당 로그인 수가 --min-throughput 보다 낮으면 실패한다.
+// 2. 세션이 1개인 회원과 최대 개수(--max-sessions)만큼 있는 회원의 로그인, 재발급 처리량을 비교
+//    세션이 많은 회원의 처리량이 --min-scaling 배보다 낮으면 실패한다.
+// 기준에 못 미치면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew tokenSessionStressTest
+//   ./gradlew tokenSessionStressTest --args="--threads 64 --iterations 500 --max-sessions 500 --min-throughput 200"
+public class TokenSessionStressTest {
+
+    private static final String EMAIL = "stressuser@stress.test";
+
+    private final TokenSessionService tokenSessionService;
+    private final int threads;
+    private final int maxSessions;
+    private final List<String> failures = new ArrayList<>();
+
+    private TokenSessionStressTest(ConfigurableApplicationContext context, int threads, int maxSessions) {
+        this.tokenSessionService = context.getBean(TokenSessionService.class);
+        this.threads = threads;
+        this.maxSessions = maxSessions;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "64"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "100"));
+        int maxSessions = Integer.parseInt(options.getOrDefault("max-sessions", "200"));
+        double minThroughput = Double.parseDouble(options.getOrDefault("min-throughput", "0"));
+        double minScaling = Double.parseDouble(options.getOrDefault("min-scaling", "0.7"));
+
+        List<String> failures;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Project1Application.class)
+                .profiles("loadtest")
+                .properties("server.port=0", "warmup.enabled=false", "jwt.session.max-per-user=" + maxSessions)
+                .run();
+        try {
+            TokenSessionStressTest test = new TokenSessionStressTest(context, threads, maxSessions);
+            test.concurrentOpen(iterations, minThroughput);
+            test.scaling(minScaling);
+            failures = test.failures;
+        } finally {
+            context.close();
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.exit(1);
+    }
+
+    // 같은 회원으로 여러 기기에서 동시에 계속 로그인
+    private void concurrentOpen(int iterations, double minThroughput) throws InterruptedException {
+        AtomicInteger errors = new AtomicInteger();
+        long elapsed = ConcurrentRunner.run(threads, iterations,
+                id -> tokenSessionService.open(token(EMAIL, "open-" + id), "device-" + id),
+                e -> {
+                    if (errors.incrementAndGet() == 1) {
+                        System.out.println("첫 실패 : " + e);
+                    }
+                });
+
+        int total = threads * iterations;
+        int sessions = sessionCount(EMAIL);
+        double throughput = (total - errors.get()) / (elapsed / 1e9);
+        System.out.printf("동시 세션 추가 : %d건, 실패 %d건, 세션 %d개, %.2f초, %.0f건/초%n",
+                total, errors.get(), sessions, elapsed / 1e9, throughput);
+
+        check(errors.get() == 0, "동시 세션 추가 중 " + errors.get() + "건 실패");
+        check(throughput >= minThroughput,
+                String.format("초당 로그인 %.0f건이 기준 %.0f건보다 낮음", throughput, minThroughput));
+    }
+
+    // 세션이 1개인 회원과 최대 개수만큼 있는 회원의 로그인(세션 추가 + 정리), 재발급 처리량 비교 (단일 스레드)
+    private void scaling(double minScaling) {
+        String small = "scalesmall@stress.test";
+        String large = "scalelarge@stress.test";
+        for (int i = 0; i < maxSessions; i++) {
+            tokenSessionService.open(token(large, large + "-" + i), "scale");
+        }
+        int operations = Math.max(2000, maxSessions * 4);
+        // 준비 운동
+        measure(small, operations / 4, false);
+        measure(large, operations / 4, true);
+
+        double[] smallRate = measure(small, operations, false);
+        double[] largeRate = measure(large, operations, true);
+        System.out.printf("세션 1개 회원 : 로그인 %.0f건/초, 재발급 %.0f건/초%n", smallRate[0], smallRate[1]);
+        System.out.printf("세션 %d개 회원 : 로그인 %.0f건/초, 재발급 %.0f건/초%n",
+                sessionCount(large), largeRate[0], largeRate[1]);
+
+        check(largeRate[0] >= smallRate[0] * minScaling,
+                String.format("세션이 많은 회원의 로그인 처리량이 %.0f%% 로 떨어짐", largeRate[0] * 100 / smallRate[0]));
+        check(largeRate[1] >= smallRate[1] * minScaling,
+                String.format("세션이 많은 회원의 재발급 처리량이 %.0f%% 로 떨어짐", largeRate[1] * 100 / smallRate[1]));
+    }
+
+    // {초당 로그인 수, 초당 재발급 수}
+    // keep 이 false 면 로그인한 세션을 바로 해지해서 회원의 세션을 1개로 유지한다.
+    private double[] measure(String userEmail, int operations, boolean keep) {
+        String prefix = userEmail + "-" + System.nanoTime();
+        String refreshToken = prefix + "-refresh";
+        tokenSessionService.open(token(userEmail, refreshToken), "scale");
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            TokenEntity session = tokenSessionService.find(refreshToken);
+            if (session == null || !tokenSessionService.touch(session, new Date())) {
+                failures.add("처리량 측정 중 세션이 사라짐 : " + userEmail);
+                return new double[]{0, 0};
+            }
+        }
+        double refresh = operations / ((System.nanoTime() - begin) / 1e9);
+
+        begin = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            TokenEntity session = tokenSessionService.open(token(userEmail, prefix + "-" + i), "scale");
+            if (!keep) {
+                tokenSessionService.revoke(userEmail, session.getId());
+            }
+        }
+        double open = operations / ((System.nanoTime() - begin) / 1e9);
+        if (!keep) {
+            tokenSessionService.revoke(userEmail, tokenSessionService.find(refreshToken).getId());
+        }
+        return new double[]{open, refresh};
+    }
+
+    private static TokenDTO token(String userEmail, String refreshToken) {
+        return TokenDTO.builder()
+                .grantType("Bearer")
+                .accessToken("access")
+                .refreshToken(refreshToken)
+                .userEmail(userEmail)
+                .userType(UserType.USER)
+                .build();
+    }
+
+    private int sessionCount(String userEmail) {
+        return tokenSessionService.sessions(userEmail).size();
+    }
+
+    private void check(boolean condition, String failure) {
+        if (!condition) {
+            failures.add(failure);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
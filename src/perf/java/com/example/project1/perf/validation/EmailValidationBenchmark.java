@@ -0,0 +1,115 @@
+package com.example.project1.perf.validation;
+
+import com.example.project1.domain.member.validation.LegacyEmailRules;
+import com.example.project1.domain.member.validation.ValidEmailValidator;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// 회원가입 이메일 검사 비용을 기존 제약(@Pattern + @Email)과 @ValidEmail 로 비교하는 프로그램
+// 1. 보통 입력 : 맞는 이메일, 틀린 이메일을 Bean Validation 으로 검사한 한 번당 ns, 할당 byte (--iterations 번)
+// 2. 되돌아가기를 일으키는 입력("aaaa...a!", @ 가 없음) : 기존 제약은 길이 16자부터 두 배씩 늘리며 한 번이 --legacy-cap-millis 를 넘을 때까지,
+//    @ValidEmail 은 같은 길이와 --max-length 자까지
+//    기존 정규식은 길이가 두 배가 되면 시간이 대략 8배(길이의 세제곱)로 늘고, @ValidEmail 은 2배로 는다.
+// 검사 결과(통과 여부)가 기존과 다르면 종료 코드 1 로 끝난다.
+//
+//   ./gradlew emailValidationBenchmark
+//   ./gradlew emailValidationBenchmark --args="--iterations 1000000 --legacy-cap-millis 5000"
+public class EmailValidationBenchmark {
+
+    private static final String[] TYPICAL = {
+            "zxzz45@naver.com", "gminju1665@gmail.com", "first.last_01@mail.example.co.kr",
+            "zxzz45naver.com", "zxzz45@naver", "zxzz45@@naver.com", "한글@naver.com"
+    };
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "200000"));
+        long legacyCapMillis = Long.parseLong(options.getOrDefault("legacy-cap-millis", "1000"));
+        int maxLength = Integer.parseInt(options.getOrDefault("max-length", "100000"));
+
+        boolean mismatch = false;
+        System.out.println("보통 입력 (Bean Validation, 한 번당)");
+        for (String email : TYPICAL) {
+            if (LegacyEmailRules.legacyValid(email) != LegacyEmailRules.currentValid(email)) {
+                System.out.println("판단이 다름 : " + email);
+                mismatch = true;
+            }
+            for (int i = 0; i < 3; i++) {
+                measure(email, true, iterations / 4);
+                measure(email, false, iterations / 4);
+            }
+            long[] legacy = measure(email, true, iterations);
+            long[] current = measure(email, false, iterations);
+            System.out.printf("  %-34s 기존 %6d ns %5d byte, @ValidEmail %6d ns %5d byte%n",
+                    email, legacy[0], legacy[1], current[0], current[1]);
+        }
+
+        System.out.println("되돌아가기를 일으키는 입력 (한 번)");
+        for (int n = 16; ; n *= 2) {
+            String attack = attack(n);
+            long begin = System.nanoTime();
+            boolean legacy = LegacyEmailRules.legacyValid(attack);
+            double legacyMillis = (System.nanoTime() - begin) / 1e6;
+            mismatch |= legacy != LegacyEmailRules.currentValid(attack);
+            System.out.printf("  %7d자 기존 %10.3f ms, @ValidEmail %8.4f ms%n", n, legacyMillis, currentMillis(attack));
+            if (legacyMillis > legacyCapMillis) {
+                break;
+            }
+        }
+        for (int n = 1000; n <= maxLength; n *= 10) {
+            String attack = attack(n);
+            System.out.printf("  %7d자 기존 (생략), @ValidEmail %8.4f ms%n", n, currentMillis(attack));
+        }
+        System.out.printf("(sink=%d)%n", sink);
+        System.exit(mismatch ? 1 : 0);
+    }
+
+    // 한 번당 평균 [ns, 할당 byte]
+    private static long[] measure(String email, boolean legacy, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += (legacy ? LegacyEmailRules.legacyValid(email) : LegacyEmailRules.currentValid(email)) ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new long[]{elapsed / iterations, allocated / iterations};
+    }
+
+    // 준비 운동 뒤 Bean Validation 을 거친 한 번의 ms (중간값)
+    private static double currentMillis(String email) {
+        for (int i = 0; i < 100; i++) {
+            sink += ValidEmailValidator.isValidEmail(email) ? 1 : 0;
+        }
+        long[] samples = new long[21];
+        for (int i = 0; i < samples.length; i++) {
+            long begin = System.nanoTime();
+            sink += LegacyEmailRules.currentValid(email) ? 1 : 0;
+            samples[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2] / 1e6;
+    }
+
+    private static String attack(int n) {
+        char[] chars = new char[n];
+        Arrays.fill(chars, 'a');
+        chars[n - 1] = '!';
+        return new String(chars);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.project1.perf.validation;
+
+import com.example.project1.domain.member.validation.LegacyEmailRules;
+import com.example.project1.domain.member.validation.ValidEmailValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// @ValidEmail 의 검사 시간이 최악의 입력에서도 길이에 비례하는지 재는 프로그램
+// 되돌아가기를 일으키는 입력(@ 가 없는 긴 단어 문자열 등)을 1천 ~ --max-length 자로 늘려서
+// 한 번 검사가 --max-millis 안에 끝나고, 길이를 10배로 늘렸을 때 시간이 --max-growth 배를 넘지 않는지 확인한다.
+// (시간은 준비 운동 뒤 21번 잰 값의 중앙값이라 GC, JIT 컴파일이 한 번 끼어도 결과가 바뀌지 않는다)
+// 하나라도 느리면 종료 코드 1 로 끝난다. 기존 제약과 같은 판단을 하는지는 ValidEmailValidatorTest 가 확인한다.
+//
+//   ./gradlew emailValidationTimingCheck
+//   ./gradlew emailValidationTimingCheck --args="--max-length 1000000"
+public class EmailValidationTimingCheck {
+
+    // 기존 정규식을 되돌아가게 만드는 입력 (길이 n)
+    private static final String[] ATTACK_NAMES = {"@ 없는 단어 문자", "끝에 !", "점 섞인 로컬 + 끝에 !", "긴 도메인 + 끝에 점"};
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int maxLength = Integer.parseInt(options.getOrDefault("max-length", "100000"));
+        double maxMillis = Double.parseDouble(options.getOrDefault("max-millis", "20"));
+        double maxGrowth = Double.parseDouble(options.getOrDefault("max-growth", "30"));
+
+        List<String> failures = new ArrayList<>();
+        for (int kind = 0; kind < ATTACK_NAMES.length; kind++) {
+            double previous = -1;
+            for (int n = 1000; n <= maxLength; n *= 10) {
+                String attack = attack(kind, n);
+                double millis = medianMillis(attack);
+                System.out.printf("%s %d자 : %.3f ms%n", ATTACK_NAMES[kind], n, millis);
+                if (millis > maxMillis) {
+                    failures.add(String.format("%s %d자 검사가 %.3f ms", ATTACK_NAMES[kind], n, millis));
+                }
+                // 아주 짧은 시간은 측정 오차가 커서 0.05 ms 이상일 때만 증가율을 본다.
+                if (previous > 0.05 && millis / previous > maxGrowth) {
+                    failures.add(String.format("%s 길이를 10배로 늘렸더니 시간이 %.1f배", ATTACK_NAMES[kind], millis / previous));
+                }
+                previous = millis;
+            }
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("통과");
+            System.exit(0);
+        }
+        failures.forEach(f -> System.out.println("실패 : " + f));
+        System.out.printf("실패 %d건%n", failures.size());
+        System.exit(1);
+    }
+
+    private static String attack(int kind, int n) {
+        switch (kind) {
+            case 0:
+                return repeat('a', n);
+            case 1:
+                return repeat('a', n - 1) + "!";
+            case 2:
+                return repeat('a', n / 2) + "." + repeat('b', n / 2 - 2) + "!";
+            default:
+                return "a@" + labels(n - 3) + ".";
+        }
+    }
+
+    // 준비 운동 뒤 한 번 검사의 ms, 21번 잰 값의 중앙값
+    private static double medianMillis(String email) {
+        for (int i = 0; i < 200; i++) {
+            LegacyEmailRules.currentValid(email);
+        }
+        long[] nanos = new long[21];
+        for (int i = 0; i < nanos.length; i++) {
+            long begin = System.nanoTime();
+            if (LegacyEmailRules.currentValid(email) != ValidEmailValidator.isValidEmail(email)) {
+                throw new IllegalStateException("Bean Validation 과 직접 호출의 판단이 다릅니다.");
+            }
+            nanos[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2] / 1e6;
+    }
+
+    // "b.b.b..." 처럼 한 글자 라벨을 점으로 이은 length 자 도메인
+    private static String labels(int length) {
+        StringBuilder domain = new StringBuilder(length);
+        while (domain.length() < length) {
+            domain.append(domain.length() % 2 == 0 ? 'b' : '.');
+        }
+        if (domain.charAt(length - 1) == '.') {
+            domain.setCharAt(length - 1, 'b');
+        }
+        return domain.toString();
+    }
+
+    private static String repeat(char c, int n) {
+        char[] chars = new char[n];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
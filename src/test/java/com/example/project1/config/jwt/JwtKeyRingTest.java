@@ -0,0 +1,110 @@
+package com.example.project1.config.jwt;
+
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 키링 상태(JwtKeyRing.State)가 시각에 따라 서명 키, 검증 키, 폐기를 정하는지 확인한다.
+// 실제 시간 순서대로 파일을 바꿔 가며 교체하는 과정은 perf 의 KeyRotationCheck 가 확인한다.
+class JwtKeyRingTest {
+
+    private static final String SECRET_KEY = "dGVzdC1vbmx5LXNlY3JldC1rZXktZm9yLWhzMjU2LXNpZ25pbmctMTIzNDU2Nzg=";
+    private static final long LIFETIME_MILLIS = 60_000;
+    private static final long T1 = Instant.parse("2024-07-01T00:00:00Z").toEpochMilli();
+    private static final long T2 = T1 + 10_000;
+
+    private final JwtKeyRing.KeyEntry legacy = key("", Instant.EPOCH.toEpochMilli());
+    private final JwtKeyRing.KeyEntry k1 = key("k1", T1);
+    private final JwtKeyRing.KeyEntry k2 = key("k2", T2);
+    private final List<JwtKeyRing.KeyEntry> entries = Arrays.asList(legacy, k1, k2);
+
+    @Test
+    @DisplayName("activateAt 이 지난 키 중 가장 최근 키로 서명한다")
+    void signsWithLatestActivatedKey() {
+        assertThat(signingKey(T1 - 1)).isSameAs(legacy);
+        assertThat(signingKey(T1)).isSameAs(k1);
+        assertThat(signingKey(T2 - 1)).isSameAs(k1);
+        assertThat(signingKey(T2)).isSameAs(k2);
+    }
+
+    @Test
+    @DisplayName("활성화 전인 키도 검증에는 바로 쓴다")
+    void verifiesWithKeyBeforeActivation() {
+        JwtKeyRing.State state = JwtKeyRing.State.of(entries, T1 - 1, LIFETIME_MILLIS);
+
+        assertThat(state.verificationKey("")).isSameAs(legacy);
+        assertThat(state.verificationKey("k1")).isSameAs(k1);
+        assertThat(state.verificationKey("k2")).isSameAs(k2);
+        assertThat(state.verificationKey("unknown")).isNull();
+    }
+
+    @Test
+    @DisplayName("다음 키가 활성화되고 리프레시 토큰 수명이 지나면 폐기한다")
+    void retiresKeyAfterNextActivationPlusLifetime() {
+        JwtKeyRing.State beforeLegacyRetired = JwtKeyRing.State.of(entries, T1 + LIFETIME_MILLIS - 1, LIFETIME_MILLIS);
+        JwtKeyRing.State legacyRetired = JwtKeyRing.State.of(entries, T1 + LIFETIME_MILLIS, LIFETIME_MILLIS);
+        JwtKeyRing.State k1Retired = JwtKeyRing.State.of(entries, T2 + LIFETIME_MILLIS, LIFETIME_MILLIS);
+
+        assertThat(beforeLegacyRetired.verificationKey("")).isSameAs(legacy);
+        assertThat(legacyRetired.verificationKey("")).isNull();
+        assertThat(legacyRetired.verificationKey("k1")).isSameAs(k1);
+        assertThat(k1Retired.verificationKey("k1")).isNull();
+        // 마지막 키는 다음 키가 없으므로 폐기하지 않는다.
+        assertThat(k1Retired.verificationKey("k2")).isSameAs(k2);
+        assertThat(k1Retired.signingKey(T2 + LIFETIME_MILLIS)).isSameAs(k2);
+    }
+
+    @Test
+    @DisplayName("활성화된 키가 하나도 없으면 상태를 만들지 않는다")
+    void rejectsRingWithoutActiveKey() {
+        assertThatThrownBy(() -> JwtKeyRing.State.of(Arrays.asList(k1, k2), T1 - 1, LIFETIME_MILLIS))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtKeyRing.State.of(Collections.emptyList(), T1, LIFETIME_MILLIS))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("키링 파일에 미리 추가한 키는 활성화 전까지 검증에만 쓴다")
+    void keyringFileWithFutureKey(@TempDir Path dir) throws Exception {
+        long now = System.currentTimeMillis();
+        Path file = dir.resolve("keyring.json");
+        Files.write(file, ("{\"keys\": ["
+                + entry("k1", now - 3_600_000) + ", "
+                + entry("k2", now + 3_600_000) + "]}").getBytes(StandardCharsets.UTF_8));
+
+        JwtKeyRing ring = new JwtKeyRing(SECRET_KEY, file.toString(), 10, LIFETIME_MILLIS);
+
+        assertThat(ring.signingKey().getKid()).isEqualTo("k1");
+        assertThat(ring.find("k2")).isNotNull();
+        // kid 없는 키는 k1 활성화 뒤 토큰 수명이 지나서 폐기되었다.
+        assertThat(ring.find(null)).isNull();
+        assertThat(ring.kids()).containsExactlyInAnyOrder("k1", "k2");
+    }
+
+    private JwtKeyRing.KeyEntry signingKey(long nowMillis) {
+        return JwtKeyRing.State.of(entries, nowMillis, LIFETIME_MILLIS).signingKey(nowMillis);
+    }
+
+    private static JwtKeyRing.KeyEntry key(String kid, long activateAtMillis) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) kid.hashCode());
+        return JwtKeyRing.KeyEntry.hmac(kid, Keys.hmacShaKeyFor(secret), Instant.ofEpochMilli(activateAtMillis));
+    }
+
+    private static String entry(String kid, long activateAtMillis) {
+        return String.format("{\"kid\": \"%s\", \"secret\": \"%s\", \"activateAt\": \"%s\"}",
+                kid, SECRET_KEY, Instant.ofEpochMilli(activateAtMillis));
+    }
+}
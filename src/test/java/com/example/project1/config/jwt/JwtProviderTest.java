@@ -0,0 +1,77 @@
+package com.example.project1.config.jwt;
+
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.domain.jwt.IntrospectionDTO;
+import com.example.project1.domain.jwt.TokenDTO;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtProviderTest {
+
+    private static final String SECRET_KEY = "dGVzdC1vbmx5LXNlY3JldC1rZXktZm9yLWhzMjU2LXNpZ25pbmctMTIzNDU2Nzg=";
+    private static final long ACCESS_TOKEN_TIME = 1800000L;
+    private static final long REFRESH_TOKEN_TIME = 1209600000L;
+    private static final String EMAIL = "user@test.com";
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+
+    private AuthorityVersions versions;
+    private JwtProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        versions = new AuthorityVersions();
+        provider = new JwtProvider(JwtKeyRing.of(SECRET_KEY, REFRESH_TOKEN_TIME), versions);
+        ReflectionTestUtils.setField(provider, "accessTokenTime", ACCESS_TOKEN_TIME);
+        ReflectionTestUtils.setField(provider, "refreshTokenTime", REFRESH_TOKEN_TIME);
+    }
+
+    @Test
+    @DisplayName("액세스 토큰은 인증 정보가 된다")
+    void accessTokenAuthenticates() {
+        TokenDTO token = provider.createTokenForOAuth2(EMAIL, USER, 0);
+
+        assertThat(provider.authenticate(token.getAccessToken()).getName()).isEqualTo(EMAIL);
+        assertThat(provider.getAuthentication(token.getAccessToken()).getName()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    @DisplayName("리프레시 토큰(jti)은 Bearer 인증에 쓸 수 없다")
+    void refreshTokenIsNotBearerCredential() {
+        String refreshToken = provider.createTokenForOAuth2(EMAIL, USER, 0).getRefreshToken();
+
+        assertThat(provider.authenticate(refreshToken)).isNull();
+        assertThatThrownBy(() -> provider.getAuthentication(refreshToken)).isInstanceOf(JwtException.class);
+        // 재발급 경로의 검증은 그대로 통과한다.
+        assertThat(provider.validateToken(refreshToken)).isTrue();
+    }
+
+    @Test
+    @DisplayName("권한 버전 항목이 정리된 뒤에도 예전 권한의 리프레시 토큰으로 인증할 수 없다")
+    void refreshTokenWithOldRoleAfterEntryExpired() {
+        String refreshToken = provider.createTokenForOAuth2(EMAIL, AuthorityUtils.createAuthorityList("ROLE_ADMIN"), 0)
+                .getRefreshToken();
+        versions.record(EMAIL, 1, RoleAuthorities.bitOf("ROLE_USER"), 0);
+        versions.expire(1);
+
+        assertThat(provider.authenticate(refreshToken)).isNull();
+    }
+
+    @Test
+    @DisplayName("토큰 검사는 리프레시 토큰을 refresh_token 으로 알려준다")
+    void introspectReportsRefreshToken() {
+        TokenDTO token = provider.createTokenForOAuth2(EMAIL, USER, 0);
+
+        assertThat(provider.introspect(token.getAccessToken()).getTokenType()).isEqualTo(IntrospectionDTO.ACCESS_TOKEN);
+        assertThat(provider.introspect(token.getRefreshToken()).getTokenType()).isEqualTo(IntrospectionDTO.REFRESH_TOKEN);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.project1.config.jwt.introspect;
+
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.config.jwt.reference.ReferenceTokenProperties;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.domain.jwt.IntrospectionDTO;
+import com.example.project1.domain.jwt.TokenDTO;
+import com.example.project1.service.jwt.TokenSessionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 토큰 일괄 검사의 게이트웨이 인증, 결과 순서, 세션 해지, 캐시 시간을 확인한다.
+// 하나씩 검사할 때와 비교한 비용은 perf 의 TokenIntrospectionBenchmark 가 잰다.
+class TokenIntrospectionServiceTest {
+
+    private static final String SECRET_KEY = "dGVzdC1vbmx5LXNlY3JldC1rZXktZm9yLWhzMjU2LXNpZ25pbmctMTIzNDU2Nzg=";
+    private static final long REFRESH_TOKEN_TIME = 1209600000L;
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final int CHUNK_SIZE = 2;
+    private static final long MAX_CACHE_SECONDS = 30;
+
+    private JwtProvider jwtProvider;
+    private ReferenceTokenService referenceTokenService;
+    private TokenSessionService tokenSessionService;
+    private TokenIntrospectionService service;
+
+    @BeforeEach
+    void setUp() {
+        jwtProvider = new JwtProvider(JwtKeyRing.of(SECRET_KEY, REFRESH_TOKEN_TIME), new AuthorityVersions());
+        ReflectionTestUtils.setField(jwtProvider, "accessTokenTime", 1800000L);
+        ReflectionTestUtils.setField(jwtProvider, "refreshTokenTime", REFRESH_TOKEN_TIME);
+        ReferenceTokenProperties referenceProperties = new ReferenceTokenProperties();
+        referenceProperties.setEnabled(true);
+        referenceProperties.setClients(Collections.singletonList("internal"));
+        referenceTokenService = new ReferenceTokenService(referenceProperties);
+        tokenSessionService = mock(TokenSessionService.class);
+        service = service(true, Collections.singletonMap("gateway", "gateway-secret"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("등록한 게이트웨이의 Basic 인증만 통과한다")
+    void authenticatesRegisteredGatewayOnly() {
+        assertThat(service.authenticate(basic("gateway:gateway-secret"))).isTrue();
+
+        assertThat(service.authenticate(null)).isFalse();
+        assertThat(service.authenticate("Bearer " + jwtProvider.createAccessToken("a@test.com", USER).getAccessToken())).isFalse();
+        assertThat(service.authenticate("Basic %%%not-base64%%%")).isFalse();
+        assertThat(service.authenticate(basic("gateway-gateway-secret"))).isFalse();
+        assertThat(service.authenticate(basic("unknown:gateway-secret"))).isFalse();
+        assertThat(service.authenticate(basic("gateway:wrong"))).isFalse();
+        assertThat(service.authenticate(basic("gateway:gateway-secret-longer"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("clients 가 비어 있으면 켜도 사용하지 않는다")
+    void disabledWithoutClients() {
+        TokenIntrospectionService withoutClients = service(true, Collections.emptyMap());
+        TokenIntrospectionService disabled = service(false, Collections.singletonMap("gateway", "gateway-secret"));
+
+        assertThat(withoutClients.isEnabled()).isFalse();
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.authenticate(basic("gateway:gateway-secret"))).isFalse();
+        withoutClients.shutdown();
+        disabled.shutdown();
+    }
+
+    @Test
+    @DisplayName("여러 덩어리로 나눠 검사해도 요청한 순서대로 돌려준다")
+    void keepsRequestOrderAcrossChunks() {
+        List<String> tokens = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            String email = "user" + i + "@test.com";
+            if (i % 4 == 3) {
+                tokens.add("not-a-token-" + i);
+                expected.add(null);
+            } else if (i % 4 == 1) {
+                tokens.add(referenceTokenService.issue(jwt(email, 60_000), USER).getAccessToken());
+                expected.add(email);
+            } else {
+                tokens.add(jwtProvider.createAccessToken(email, USER).getAccessToken());
+                expected.add(email);
+            }
+        }
+        tokens.add("");
+        expected.add(null);
+
+        List<IntrospectionDTO> results = service.introspect(tokens).getResults();
+
+        assertThat(results).hasSize(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            IntrospectionDTO result = results.get(i);
+            if (expected.get(i) == null) {
+                assertThat(result.isActive()).as("토큰 %d", i).isFalse();
+            } else {
+                assertThat(result.isActive()).as("토큰 %d", i).isTrue();
+                assertThat(result.getSub()).as("토큰 %d", i).isEqualTo(expected.get(i));
+                assertThat(result.getAuth()).containsExactly("ROLE_USER");
+                assertThat(result.getTokenType()).isEqualTo(IntrospectionDTO.ACCESS_TOKEN);
+            }
+        }
+        verify(tokenSessionService, never()).activeRefreshTokens(any());
+    }
+
+    @Test
+    @DisplayName("세션이 해지된 리프레시 토큰은 서명이 맞아도 active=false 로 알려준다")
+    void revokedRefreshTokenIsInactive() {
+        String active = issue("active@test.com").getRefreshToken();
+        String revoked = issue("revoked@test.com").getRefreshToken();
+        String access = jwtProvider.createAccessToken("access@test.com", USER).getAccessToken();
+        when(tokenSessionService.activeRefreshTokens(Arrays.asList(active, revoked)))
+                .thenReturn(Collections.singleton(active));
+
+        List<IntrospectionDTO> results = service.introspect(Arrays.asList(active, access, revoked)).getResults();
+
+        assertThat(results.get(0).isActive()).isTrue();
+        assertThat(results.get(0).getSub()).isEqualTo("active@test.com");
+        assertThat(results.get(0).getTokenType()).isEqualTo(IntrospectionDTO.REFRESH_TOKEN);
+        assertThat(results.get(1).isActive()).isTrue();
+        assertThat(results.get(2).isActive()).isFalse();
+        // 리프레시 토큰의 세션은 배치 하나에 한 번만 확인한다.
+        verify(tokenSessionService, times(1)).activeRefreshTokens(any());
+    }
+
+    @Test
+    @DisplayName("캐시 시간은 max-cache-seconds 를 넘지 않고, 곧 만료되는 토큰이 있으면 그 토큰의 만료까지다")
+    void cacheSecondsCappedByEarliestExp() {
+        String longLived = jwtProvider.createAccessToken("long@test.com", USER).getAccessToken();
+        String soon = referenceTokenService.issue(jwt("soon@test.com", 5_000), USER).getAccessToken();
+        String expired = referenceTokenService.issue(jwt("expired@test.com", -5_000), USER).getAccessToken();
+
+        assertThat(service.introspect(Collections.singletonList(longLived)).getCacheSeconds())
+                .isEqualTo(MAX_CACHE_SECONDS);
+        assertThat(service.introspect(Arrays.asList(longLived, soon)).getCacheSeconds()).isBetween(1L, 5L);
+        // 만료된 토큰은 active=false 라 캐시 시간에 영향이 없다.
+        assertThat(service.introspect(Arrays.asList(longLived, expired)).getCacheSeconds())
+                .isEqualTo(MAX_CACHE_SECONDS);
+    }
+
+    private TokenIntrospectionService service(boolean enabled, Map<String, String> clients) {
+        TokenIntrospectionProperties properties = new TokenIntrospectionProperties();
+        properties.setEnabled(enabled);
+        properties.setClients(clients);
+        properties.setThreads(2);
+        properties.setChunkSize(CHUNK_SIZE);
+        properties.setMaxCacheSeconds(MAX_CACHE_SECONDS);
+        return new TokenIntrospectionService(properties, jwtProvider, referenceTokenService, tokenSessionService);
+    }
+
+    private TokenDTO issue(String email) {
+        return jwtProvider.createToken(new UsernamePasswordAuthenticationToken(email, "", USER), USER);
+    }
+
+    // 참조 토큰으로 바꿀 JWT 발급 결과, 만료 시각만 정한다.
+    private static TokenDTO jwt(String email, long expiresInMillis) {
+        return TokenDTO.builder()
+                .grantType("Bearer")
+                .accessToken("header.payload.signature")
+                .accessTokenTime(new Date(System.currentTimeMillis() + expiresInMillis))
+                .userEmail(email)
+                .build();
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
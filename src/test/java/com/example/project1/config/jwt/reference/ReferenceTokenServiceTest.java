@@ -0,0 +1,84 @@
+package com.example.project1.config.jwt.reference;
+
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.domain.jwt.TokenDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceTokenServiceTest {
+
+    private static final String EMAIL = "user@test.com";
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+    private static final List<GrantedAuthority> ADMIN = AuthorityUtils.createAuthorityList("ROLE_ADMIN");
+
+    private AuthorityVersions versions;
+    private ReferenceTokenProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        versions = new AuthorityVersions();
+        properties = new ReferenceTokenProperties();
+        properties.setEnabled(true);
+        properties.setClients(Collections.singletonList("internal"));
+    }
+
+    @Test
+    @DisplayName("권한이 바뀌기 전에 발급한 참조 토큰은 현재 역할로 권한을 다시 만든다")
+    void staleTokenUsesCurrentRole() {
+        ReferenceTokenService service = new ReferenceTokenService(properties, versions, false);
+        String token = issue(service, ADMIN);
+
+        versions.record(EMAIL, 1, RoleAuthorities.bitOf("ROLE_USER"), System.currentTimeMillis());
+
+        assertThat(AuthorityUtils.authorityListToSet(service.resolve(token).getAuthorities()))
+                .containsExactly("ROLE_USER");
+        assertThat(service.introspect(token).getAuth()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("reject-stale 이면 권한이 바뀌기 전에 발급한 참조 토큰을 거절한다")
+    void staleTokenRejected() {
+        ReferenceTokenService service = new ReferenceTokenService(properties, versions, true);
+        String before = issue(service, ADMIN);
+
+        versions.record(EMAIL, 1, RoleAuthorities.bitOf("ROLE_USER"), System.currentTimeMillis());
+        String after = issue(service, USER);
+
+        assertThat(service.resolve(before)).isNull();
+        assertThat(service.introspect(before).isActive()).isFalse();
+        assertThat(service.resolve(after).getName()).isEqualTo(EMAIL);
+        assertThat(service.introspect(after).isActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("다른 회원의 권한이 바뀌어도 영향이 없다")
+    void otherMemberUnaffected() {
+        ReferenceTokenService service = new ReferenceTokenService(properties, versions, true);
+        String token = issue(service, ADMIN);
+
+        versions.record("other@test.com", 1, RoleAuthorities.bitOf("ROLE_USER"), System.currentTimeMillis());
+
+        assertThat(AuthorityUtils.authorityListToSet(service.resolve(token).getAuthorities()))
+                .containsExactly("ROLE_ADMIN");
+    }
+
+    private static String issue(ReferenceTokenService service, List<GrantedAuthority> authorities) {
+        TokenDTO jwt = TokenDTO.builder()
+                .grantType("Bearer ")
+                .accessToken("header.payload.signature")
+                .accessTokenTime(new Date(System.currentTimeMillis() + 60000))
+                .userEmail(EMAIL)
+                .build();
+        return service.issue(jwt, authorities).getAccessToken();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.project1.config.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String LOGIN = "/api/v1/users/login";
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit perAccount = new RateLimitProperties.Limit();
+        perAccount.setCapacity(2);
+        perAccount.setRefillPerMinute(1);
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(LOGIN);
+        route.setPerAccount(perAccount);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(Collections.singletonList(route));
+        filter = new RateLimitFilter(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    @DisplayName("계정 제한은 같은 컨트롤러로 가는 경로 변형(끝의 /, 컨텍스트 경로, 인코딩, ;jsessionid)에도 적용된다")
+    void accountLimitCoversPathVariants() throws Exception {
+        String body = "{\"userEmail\":\"victim@test.com\",\"userPw\":\"x\"}";
+        assertThat(status(login(LOGIN, body))).isEqualTo(200);
+        assertThat(status(login(LOGIN + "/", body))).isEqualTo(200);
+
+        MockHttpServletRequest withContext = login("/app" + LOGIN, body);
+        withContext.setContextPath("/app");
+        assertThat(status(withContext)).isEqualTo(429);
+        assertThat(status(login("/api/v1/users/%6Cogin", body))).isEqualTo(429);
+        assertThat(status(login("/api/v1/users/login;jsessionid=1", body))).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("대소문자, 앞뒤 공백만 바꾼 계정도 같은 계정으로 센다")
+    void accountIsCaseInsensitive() throws Exception {
+        assertThat(status(login(LOGIN, "{\"userEmail\":\"a@test.com\"}"))).isEqualTo(200);
+        assertThat(status(login(LOGIN, "{\"userEmail\":\"A@TEST.COM\"}"))).isEqualTo(200);
+        assertThat(status(login(LOGIN, "{\"userEmail\":\" a@Test.com \"}"))).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("8KB 를 넘는 body 는 chunked 여도 413")
+    void oversizedBodyIsRejected() throws Exception {
+        StringBuilder padding = new StringBuilder();
+        while (padding.length() < 9000) {
+            padding.append("aaaaaaaaaa");
+        }
+        String body = "{\"userEmail\":\"victim@test.com\",\"pad\":\"" + padding + "\"}";
+
+        // 길이를 알 수 없는 body
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", LOGIN) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.addHeader("Transfer-Encoding", "chunked");
+        chunked.setContent(body.getBytes(StandardCharsets.UTF_8));
+        assertThat(status(chunked)).isEqualTo(413);
+        assertThat(status(login(LOGIN, body))).isEqualTo(413);
+    }
+
+    @Test
+    @DisplayName("계정을 알 수 없는 body 는 400")
+    void unreadableAccountIsRejected() throws Exception {
+        assertThat(status(login(LOGIN, ""))).isEqualTo(400);
+        assertThat(status(login(LOGIN, "{\"userEmail\":\"a@test.com\""))).isEqualTo(400);
+        assertThat(status(login(LOGIN, "{\"userEmail\":1}"))).isEqualTo(400);
+        assertThat(status(login(LOGIN, "{\"userPw\":\"x\"}"))).isEqualTo(400);
+        assertThat(status(login(LOGIN, "[\"a@test.com\"]"))).isEqualTo(400);
+        assertThat(status(login(LOGIN, "{\"userEmail\":\"a@test.com\"} {}"))).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("중복 키(이스케이프한 키 포함)로 다른 계정을 끼워 넣으면 400")
+    void duplicateAccountKeyIsRejected() throws Exception {
+        assertThat(status(login(LOGIN, "{\"userEmail\":\"random@test.com\",\"userEmail\":\"victim@test.com\"}")))
+                .isEqualTo(400);
+        // 이스케이프한 키도 같은 키다.
+        assertThat(status(login(LOGIN, "{\"userEmail\":\"random@test.com\",\"user\\u0045mail\":\"victim@test.com\"}")))
+                .isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("컨트롤러는 필터가 읽은 body 를 ReadListener 로 다시 읽을 수 있다")
+    void controllerCanReadCachedBodyAsynchronously() throws Exception {
+        String body = "{\"userEmail\":\"reader@test.com\"}";
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login(LOGIN, body), new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[4];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer, 0, buffer.length);
+                    if (n > 0) {
+                        read.write(buffer, 0, n);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        assertThat(allRead[0]).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("다른 경로와 메서드는 제한하지 않는다")
+    void otherRoutesAreNotLimited() throws Exception {
+        MockHttpServletRequest get = login(LOGIN, "");
+        get.setMethod("GET");
+        assertThat(status(get)).isEqualTo(200);
+        assertThat(status(login("/api/v1/users/", "not json"))).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("X-Forwarded-For 의 왼쪽 항목을 바꿔 보내도 같은 클라이언트로 센다")
+    void spoofedForwardedForIsIgnored() throws Exception {
+        RateLimitFilter behindProxy = clientLimitedFilter(1);
+        try {
+            // 클라이언트가 보낸 가짜 주소 뒤에 프록시가 실제 주소(203.0.113.7)를 덧붙인다.
+            assertThat(status(behindProxy, forwarded("10.0.0.1, 203.0.113.7"))).isEqualTo(200);
+            assertThat(status(behindProxy, forwarded("10.0.0.2, 203.0.113.7"))).isEqualTo(200);
+            assertThat(status(behindProxy, forwarded("10.0.0.3,203.0.113.7"))).isEqualTo(429);
+            assertThat(status(behindProxy, forwarded("203.0.113.8"))).isEqualTo(200);
+        } finally {
+            behindProxy.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("신뢰하는 프록시가 둘이면 오른쪽에서 두 번째 항목을 클라이언트로 쓴다")
+    void trustedProxiesSkipsProxyHops() throws Exception {
+        RateLimitFilter behindTwoProxies = clientLimitedFilter(2);
+        try {
+            assertThat(status(behindTwoProxies, forwarded("10.0.0.1, 203.0.113.7, 192.168.0.10"))).isEqualTo(200);
+            assertThat(status(behindTwoProxies, forwarded("10.0.0.2, 203.0.113.7, 192.168.0.11"))).isEqualTo(200);
+            assertThat(status(behindTwoProxies, forwarded("203.0.113.7, 192.168.0.10"))).isEqualTo(429);
+        } finally {
+            behindTwoProxies.destroy();
+        }
+    }
+
+    private static RateLimitFilter clientLimitedFilter(int trustedProxies) {
+        RateLimitProperties.Limit perClient = new RateLimitProperties.Limit();
+        perClient.setCapacity(2);
+        perClient.setRefillPerMinute(1);
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(LOGIN);
+        route.setPerClient(perClient);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustForwardedFor(true);
+        properties.setTrustedProxies(trustedProxies);
+        properties.setRoutes(Collections.singletonList(route));
+        return new RateLimitFilter(properties);
+    }
+
+    private static MockHttpServletRequest forwarded(String forwardedFor) {
+        MockHttpServletRequest request = login(LOGIN, "{\"userEmail\":\"a@test.com\"}");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+
+    private int status(MockHttpServletRequest request) throws Exception {
+        return status(filter, request);
+    }
+
+    private static int status(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest login(String uri, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.addHeader("Content-Length", body.getBytes(StandardCharsets.UTF_8).length);
+        return request;
+    }
+}
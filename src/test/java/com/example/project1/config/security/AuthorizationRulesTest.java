@@ -0,0 +1,151 @@
+package com.example.project1.config.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 컴파일한 권한 규칙(SecurityConfig.authorizationRules)이 기존 SpEL 규칙과 같은 판단을 하는지 확인한다.
+// 규칙 경로와 그 주변 경로(끝의 /, 하위 경로, 대소문자, 접두사만 같은 경로)와 무작위 경로를
+// 익명, USER, ADMIN, USER+ADMIN, 알 수 없는 권한 사용자로 판단하고, servletPath 와 pathInfo 가 나뉜 요청도 확인한다.
+class AuthorizationRulesTest {
+
+    // 무작위 경로를 만들 때 쓰는 세그먼트 (규칙에 쓰인 세그먼트와 비슷하지만 다른 세그먼트)
+    private static final String[] SEGMENTS = {
+            "api", "v1", "boards", "write", "modify", "remove", "admin", "users", "sessions",
+            "swagger-ui", "swagger-resources", "actuator", "health", "readiness",
+            "API", "V1", "Admin", "writes", "admi", "users.json", "1", "x"
+    };
+
+    private static final String[] FIXED_PATHS = {
+            "/", "/refresh", "/success-oauth", "/logOut", "/login/oauth2/code/google",
+            "/api", "/api/v1", "/api/v1/boards", "/api/v1/boards/",
+            "/api/v1/boards/write", "/api/v1/boards/write/", "/api/v1/boards/write/1", "/api/v1/boards/writex",
+            "/api/v1/boards/Write", "/API/v1/boards/write",
+            "/api/v1/boards/modify", "/api/v1/boards/modify/", "/api/v1/boards/modify/1",
+            "/api/v1/boards/remove", "/api/v1/boards/remove/", "/api/v1/boards/remove/1",
+            "/api/v1/admin", "/api/v1/admin/", "/api/v1/admin/users", "/api/v1/admin/users/", "/api/v1/admin/a/b/c",
+            "/api/v1/administrator", "/api/v1/Admin/users", "/api/v1/admin.json",
+            "/api/v1/users", "/api/v1/users/", "/api/v1/users/1", "/api/v1/users/sessions", "/api/v1/users/sessions/3",
+            "/api/v1/users/batch", "/api/v1/users/batch/", "/api/v1/users/batchx",
+            "/api/v1/usersx", "/api/v1/Users/1",
+            "/swagger-ui", "/swagger-ui/", "/swagger-ui/index.html", "/swagger-uix",
+            "/swagger-resources", "/swagger-resources/configuration/ui",
+            "/actuator", "/actuator/health", "/actuator/health/", "/actuator/health/readiness", "/actuator/healthz",
+            "/actuator/info"
+    };
+
+    private final SpelAuthorizationRules spel = new SpelAuthorizationRules();
+    private final RouteAuthorizationManager compiled = SecurityConfig.authorizationRules();
+
+    @Test
+    @DisplayName("규칙 경로와 그 주변 경로에서 SpEL 규칙과 같은 판단을 한다")
+    void fixedPathsMatchSpelRules() {
+        assertThat(mismatches(Arrays.asList(FIXED_PATHS))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("무작위 경로에서 SpEL 규칙과 같은 판단을 한다")
+    void randomPathsMatchSpelRules() {
+        assertThat(mismatches(new LinkedHashSet<>(randomPaths(new Random(42), 20000)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("여러 회원 조회는 로그인한 사용자만 호출할 수 있다")
+    void batchLookupRequiresLogin() {
+        Map<String, Authentication> principals = principals();
+        FilterInvocation batch = new FilterInvocation("/api/v1/users/batch", "POST");
+
+        assertThat(granted(principals.get("익명"), batch)).isFalse();
+        assertThat(granted(principals.get("USER"), batch)).isTrue();
+        assertThat(granted(principals.get("ADMIN"), batch)).isTrue();
+        assertThat(granted(principals.get("익명"), new FilterInvocation("/api/v1/users/1", "GET"))).isTrue();
+    }
+
+    private List<String> mismatches(Collection<String> paths) {
+        List<String> mismatches = new ArrayList<>();
+        for (String path : paths) {
+            for (FilterInvocation invocation : invocations(path)) {
+                for (Map.Entry<String, Authentication> principal : principals().entrySet()) {
+                    boolean expected = spel.decide(principal.getValue(), invocation);
+                    boolean actual = granted(principal.getValue(), invocation);
+                    if (expected != actual) {
+                        mismatches.add(String.format("%s (servletPath=%s, pathInfo=%s) %s : SpEL %s, 컴파일 %s",
+                                path, invocation.getRequest().getServletPath(), invocation.getRequest().getPathInfo(),
+                                principal.getKey(), expected, actual));
+                    }
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private boolean granted(Authentication authentication, FilterInvocation invocation) {
+        return compiled.check(() -> authentication,
+                new RequestAuthorizationContext(invocation.getRequest())).isGranted();
+    }
+
+    private static Map<String, Authentication> principals() {
+        Map<String, Authentication> principals = new LinkedHashMap<>();
+        principals.put("익명", new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        principals.put("USER", user("ROLE_USER"));
+        principals.put("ADMIN", user("ROLE_ADMIN"));
+        principals.put("USER+ADMIN", user("ROLE_USER", "ROLE_ADMIN"));
+        principals.put("알 수 없는 권한", user("ROLE_GUEST", "ADMIN", "role_admin"));
+        principals.put("권한 없음", user());
+        return principals;
+    }
+
+    private static Authentication user(String... authorities) {
+        return new UsernamePasswordAuthenticationToken("user@test.com", "",
+                AuthorityUtils.createAuthorityList(authorities));
+    }
+
+    // 경로 하나를 servletPath 로만, servletPath + pathInfo 로 나눠서 만든 요청들
+    private static List<FilterInvocation> invocations(String path) {
+        List<FilterInvocation> invocations = new ArrayList<>();
+        invocations.add(new FilterInvocation(path, "GET"));
+        int split = path.indexOf('/', 1);
+        if (split > 0) {
+            invocations.add(new FilterInvocation(null, path.substring(0, split), path.substring(split), null, "POST"));
+        }
+        return invocations;
+    }
+
+    // 깊이 0~6 의 무작위 경로, 절반은 끝에 / 를 붙인다. (빈 세그먼트는 방화벽이 거절하므로 만들지 않는다)
+    private static List<String> randomPaths(Random random, int count) {
+        List<String> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int depth = random.nextInt(7);
+            StringBuilder path = new StringBuilder();
+            for (int d = 0; d < depth; d++) {
+                // 앞쪽 세그먼트는 규칙 경로를 따라가도록 해서 규칙 근처의 경로가 많이 나오게 한다.
+                String segment = d < 2 && random.nextInt(4) != 0
+                        ? (d == 0 ? "api" : "v1")
+                        : SEGMENTS[random.nextInt(SEGMENTS.length)];
+                path.append('/').append(segment);
+            }
+            if (path.length() == 0 || random.nextBoolean()) {
+                path.append('/');
+            }
+            paths.add(path.toString());
+        }
+        return paths;
+    }
+}
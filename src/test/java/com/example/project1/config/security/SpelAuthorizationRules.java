@@ -0,0 +1,60 @@
+package com.example.project1.config.security;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.access.expression.DefaultWebSecurityExpressionHandler;
+import org.springframework.security.web.access.expression.ExpressionBasedFilterInvocationSecurityMetadataSource;
+import org.springframework.security.web.access.expression.WebExpressionVoter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+// RouteAuthorizationManager 로 바꾸기 전 SecurityConfig 의 authorizeRequests 규칙 (AuthorizationRulesTest, perf 의 AuthorizationBenchmark 의 비교 기준)
+// antMatchers(...).access(...) 가 만들던 것과 같은 메타데이터 소스와 투표기(WebExpressionVoter)로 판단한다.
+public class SpelAuthorizationRules {
+
+    private final ExpressionBasedFilterInvocationSecurityMetadataSource metadataSource;
+    private final AffirmativeBased decisionManager =
+            new AffirmativeBased(Collections.singletonList(new WebExpressionVoter()));
+
+    public SpelAuthorizationRules() {
+        LinkedHashMap<RequestMatcher, Collection<ConfigAttribute>> rules = new LinkedHashMap<>();
+        rule(rules, "/api/v1/boards/write", "hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')");
+        rule(rules, "/api/v1/boards/modify", "hasRole('ROLE_USER')");
+        rule(rules, "/api/v1/boards/remove", "hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')");
+        rule(rules, "/api/v1/admin/**", "hasRole('ROLE_ADMIN')");
+        rule(rules, "/swagger-resources/**", "permitAll");
+        rule(rules, "/swagger-ui/**", "permitAll");
+        rule(rules, "/actuator/health/**", "permitAll");
+        rule(rules, "/api/v1/users/batch/**", "hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')");
+        rule(rules, "/api/v1/users/**", "permitAll");
+        this.metadataSource = new ExpressionBasedFilterInvocationSecurityMetadataSource(
+                rules, new DefaultWebSecurityExpressionHandler());
+    }
+
+    private static void rule(LinkedHashMap<RequestMatcher, Collection<ConfigAttribute>> rules,
+                             String pattern, String expression) {
+        rules.put(new AntPathRequestMatcher(pattern),
+                org.springframework.security.access.SecurityConfig.createList(expression));
+    }
+
+    // FilterSecurityInterceptor 와 같이, 매칭되는 규칙이 없으면 허용하고 있으면 투표 결과를 따른다.
+    public boolean decide(Authentication authentication, FilterInvocation invocation) {
+        Collection<ConfigAttribute> attributes = metadataSource.getAttributes(invocation);
+        if (attributes == null || attributes.isEmpty()) {
+            return true;
+        }
+        try {
+            decisionManager.decide(authentication, invocation, attributes);
+            return true;
+        } catch (AccessDeniedException e) {
+            return false;
+        }
+    }
+}
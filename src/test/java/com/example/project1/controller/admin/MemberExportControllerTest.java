@@ -0,0 +1,33 @@
+package com.example.project1.controller.admin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberExportControllerTest {
+
+    @Test
+    @DisplayName("gzip 이 있고 q 가 0 이 아니면 압축한다")
+    void acceptsGzip() {
+        assertThat(MemberExportController.acceptsGzip("gzip")).isTrue();
+        assertThat(MemberExportController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(MemberExportController.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(MemberExportController.acceptsGzip(" x-gzip ; q=0.1 ")).isTrue();
+        assertThat(MemberExportController.acceptsGzip("*")).isTrue();
+    }
+
+    @Test
+    @DisplayName("q=0, 없는 gzip, gzip 이 들어간 다른 이름은 압축하지 않는다")
+    void rejectsGzip() {
+        assertThat(MemberExportController.acceptsGzip(null)).isFalse();
+        assertThat(MemberExportController.acceptsGzip("")).isFalse();
+        assertThat(MemberExportController.acceptsGzip("identity")).isFalse();
+        assertThat(MemberExportController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(MemberExportController.acceptsGzip("gzip;q=0.000, deflate")).isFalse();
+        assertThat(MemberExportController.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(MemberExportController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(MemberExportController.acceptsGzip("notgzip")).isFalse();
+        assertThat(MemberExportController.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+}
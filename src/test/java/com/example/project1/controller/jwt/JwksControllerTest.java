@@ -0,0 +1,119 @@
+package com.example.project1.controller.jwt;
+
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// /.well-known/jwks.json 이 ES256 공개 키만, 좌표를 32byte 로 맞춰서 내보내는지 확인한다.
+class JwksControllerTest {
+
+    private static final String SECRET_KEY = "dGVzdC1vbmx5LXNlY3JldC1rZXktZm9yLWhzMjU2LXNpZ25pbmctMTIzNDU2Nzg=";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("부호 byte 가 붙어 33byte 가 되는 좌표는 앞의 0 을 떼고 32byte 로 쓴다")
+    void coordinateWithSignByte() {
+        byte[] expected = new byte[32];
+        Arrays.fill(expected, (byte) 0xff);
+        BigInteger value = new BigInteger(1, expected);
+
+        assertThat(value.toByteArray()).hasSize(33);
+        assertThat(decode(JwksController.coordinate(value))).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("32byte 보다 짧은 좌표는 앞을 0 으로 채워 32byte 로 쓴다")
+    void shortCoordinateIsPadded() {
+        byte[] expected = new byte[32];
+        expected[31] = 0x01;
+        expected[30] = 0x7f;
+
+        assertThat(BigInteger.valueOf(0x7f01).toByteArray()).hasSize(2);
+        assertThat(decode(JwksController.coordinate(BigInteger.valueOf(0x7f01)))).isEqualTo(expected);
+        assertThat(decode(JwksController.coordinate(BigInteger.ZERO))).isEqualTo(new byte[32]);
+    }
+
+    @Test
+    @DisplayName("HS256 키는 내보내지 않고, ES256 키는 활성화 전이라도 공개 키 좌표로 내보낸다")
+    void exportsEs256KeysOnly(@TempDir Path dir) throws Exception {
+        long now = System.currentTimeMillis();
+        KeyPair active = generate();
+        KeyPair upcoming = generate();
+        Path file = dir.resolve("keyring.json");
+        Files.write(file, ("{\"keys\": ["
+                + "{\"kid\": \"hs-1\", \"secret\": \"" + SECRET_KEY + "\", \"activateAt\": \"" + Instant.ofEpochMilli(now - 7_200_000) + "\"}, "
+                + es256Entry("es-1", active, now - 3_600_000) + ", "
+                + es256Entry("es-2", upcoming, now + 3_600_000) + "]}").getBytes(StandardCharsets.UTF_8));
+        JwtKeyRing ring = new JwtKeyRing(SECRET_KEY, file.toString(), 10, 1209600000L);
+        JwksController controller = new JwksController(ring, OBJECT_MAPPER, 300);
+
+        ResponseEntity<String> response = controller.jwks();
+
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=300, public");
+        JsonNode keys = OBJECT_MAPPER.readTree(response.getBody()).get("keys");
+        assertThat(keys).hasSize(2);
+        assertKey(keys.get(0), "es-1", (ECPublicKey) active.getPublic());
+        assertKey(keys.get(1), "es-2", (ECPublicKey) upcoming.getPublic());
+        assertThat(response.getBody()).doesNotContain("hs-1").doesNotContain("HS256").doesNotContain(SECRET_KEY);
+        // 키링 상태가 그대로면 같은 JSON 을 다시 쓴다.
+        assertThat(controller.jwks().getBody()).isSameAs(response.getBody());
+    }
+
+    @Test
+    @DisplayName("HS256 키만 있으면 빈 목록")
+    void hmacOnlyRingExportsNothing() throws Exception {
+        JwksController controller = new JwksController(JwtKeyRing.of(SECRET_KEY, 1209600000L), OBJECT_MAPPER, 300);
+
+        assertThat(OBJECT_MAPPER.readTree(controller.jwks().getBody()).get("keys")).isEmpty();
+    }
+
+    private static void assertKey(JsonNode key, String kid, ECPublicKey publicKey) {
+        assertThat(key.get("kid").asText()).isEqualTo(kid);
+        assertThat(key.get("kty").asText()).isEqualTo("EC");
+        assertThat(key.get("crv").asText()).isEqualTo("P-256");
+        assertThat(key.get("alg").asText()).isEqualTo("ES256");
+        assertThat(key.get("use").asText()).isEqualTo("sig");
+        for (String name : List.of("x", "y")) {
+            byte[] coordinate = decode(key.get(name).asText());
+            BigInteger expected = name.equals("x") ? publicKey.getW().getAffineX() : publicKey.getW().getAffineY();
+            assertThat(coordinate).hasSize(32);
+            assertThat(new BigInteger(1, coordinate)).isEqualTo(expected);
+        }
+    }
+
+    private static KeyPair generate() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static String es256Entry(String kid, KeyPair keyPair, long activateAtMillis) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return String.format("{\"kid\": \"%s\", \"algorithm\": \"ES256\", \"privateKey\": \"%s\", \"publicKey\": \"%s\", \"activateAt\": \"%s\"}",
+                kid, encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+                encoder.encodeToString(keyPair.getPublic().getEncoded()), Instant.ofEpochMilli(activateAtMillis));
+    }
+
+    private static byte[] decode(String base64Url) {
+        return Base64.getUrlDecoder().decode(base64Url);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.project1.controller.jwt;
+
+import com.example.project1.config.jwt.JwtKeyRing;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.config.jwt.introspect.TokenIntrospectionProperties;
+import com.example.project1.config.jwt.introspect.TokenIntrospectionService;
+import com.example.project1.config.jwt.reference.ReferenceTokenProperties;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.domain.jwt.IntrospectionDTO;
+import com.example.project1.domain.jwt.IntrospectionRequestDTO;
+import com.example.project1.service.jwt.TokenSessionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// POST /api/v1/tokens/introspect 의 상태 코드와 Cache-Control 을 확인한다.
+class TokenIntrospectionControllerTest {
+
+    private static final String SECRET_KEY = "dGVzdC1vbmx5LXNlY3JldC1rZXktZm9yLWhzMjU2LXNpZ25pbmctMTIzNDU2Nzg=";
+    private static final String GATEWAY = basic("gateway:gateway-secret");
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private JwtProvider jwtProvider;
+    private final List<TokenIntrospectionService> services = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jwtProvider = new JwtProvider(JwtKeyRing.of(SECRET_KEY, 1209600000L), new AuthorityVersions());
+        ReflectionTestUtils.setField(jwtProvider, "accessTokenTime", 1800000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(TokenIntrospectionService::shutdown);
+    }
+
+    @Test
+    @DisplayName("토큰 검사를 켜지 않았으면 404")
+    void disabledReturnsNotFound() {
+        TokenIntrospectionController disabled = controller(false, Collections.singletonMap("gateway", "gateway-secret"), 30);
+        TokenIntrospectionController withoutClients = controller(true, Collections.emptyMap(), 30);
+
+        assertThat(disabled.introspect(GATEWAY, request("token")).getStatusCodeValue()).isEqualTo(404);
+        assertThat(withoutClients.introspect(GATEWAY, request("token")).getStatusCodeValue()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("게이트웨이 인증에 실패하면 WWW-Authenticate 와 함께 401")
+    void unauthenticatedGatewayIsRejected() {
+        TokenIntrospectionController controller = controller(true, Collections.singletonMap("gateway", "gateway-secret"), 30);
+
+        for (String authorization : Arrays.asList(null, "Bearer token", "Basic %%%not-base64%%%",
+                basic("gateway-gateway-secret"), basic("unknown:gateway-secret"), basic("gateway:wrong"))) {
+            ResponseEntity<?> response = controller.introspect(authorization, request("token"));
+
+            assertThat(response.getStatusCodeValue()).as(String.valueOf(authorization)).isEqualTo(401);
+            assertThat(response.getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE))
+                    .isEqualTo("Basic realm=\"token-introspection\"");
+            assertThat(response.getBody()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("토큰이 없거나 max-batch-size 를 넘으면 400")
+    void invalidBatchIsRejected() {
+        TokenIntrospectionController controller = controller(true, Collections.singletonMap("gateway", "gateway-secret"), 30);
+
+        assertThat(controller.introspect(GATEWAY, new IntrospectionRequestDTO()).getStatusCodeValue()).isEqualTo(400);
+        assertThat(controller.introspect(GATEWAY, request()).getStatusCodeValue()).isEqualTo(400);
+        assertThat(controller.introspect(GATEWAY, request("a", "b", "c", "d")).getStatusCodeValue()).isEqualTo(400);
+        assertThat(controller.introspect(GATEWAY, request("a", "b", "c")).getStatusCodeValue()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("결과를 요청 순서대로 돌려주고 캐시 시간을 Cache-Control 로 알려준다")
+    void resultsWithCacheControl() {
+        TokenIntrospectionController controller = controller(true, Collections.singletonMap("gateway", "gateway-secret"), 30);
+        String token = jwtProvider.createAccessToken("user@test.com", AuthorityUtils.createAuthorityList("ROLE_USER"))
+                .getAccessToken();
+
+        ResponseEntity<?> response = controller.introspect(GATEWAY, request("not-a-token", token));
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=30, private");
+        List<IntrospectionDTO> results = results(response);
+        assertThat(results.get(0).isActive()).isFalse();
+        assertThat(results.get(1).isActive()).isTrue();
+        assertThat(results.get(1).getSub()).isEqualTo("user@test.com");
+    }
+
+    @Test
+    @DisplayName("캐시 시간이 0 이면 no-store")
+    void zeroCacheSecondsIsNoStore() {
+        TokenIntrospectionController controller = controller(true, Collections.singletonMap("gateway", "gateway-secret"), 0);
+
+        ResponseEntity<?> response = controller.introspect(GATEWAY, request("not-a-token"));
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-store");
+    }
+
+    private TokenIntrospectionController controller(boolean enabled, Map<String, String> clients, long maxCacheSeconds) {
+        TokenIntrospectionProperties properties = new TokenIntrospectionProperties();
+        properties.setEnabled(enabled);
+        properties.setClients(clients);
+        properties.setThreads(1);
+        properties.setMaxBatchSize(MAX_BATCH_SIZE);
+        properties.setMaxCacheSeconds(maxCacheSeconds);
+        TokenIntrospectionService service = new TokenIntrospectionService(properties, jwtProvider,
+                new ReferenceTokenService(new ReferenceTokenProperties()), mock(TokenSessionService.class));
+        services.add(service);
+        return new TokenIntrospectionController(service);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<IntrospectionDTO> results(ResponseEntity<?> response) {
+        return ((Map<String, List<IntrospectionDTO>>) response.getBody()).get("results");
+    }
+
+    private static IntrospectionRequestDTO request(String... tokens) {
+        IntrospectionRequestDTO request = new IntrospectionRequestDTO();
+        request.setTokens(Arrays.asList(tokens));
+        return request;
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
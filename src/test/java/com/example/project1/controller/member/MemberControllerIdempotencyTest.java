@@ -0,0 +1,151 @@
+package com.example.project1.controller.member;
+
+import com.example.project1.config.idempotency.IdempotentRequests;
+import com.example.project1.domain.jwt.TokenDTO;
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.domain.member.embedded.AddressDTO;
+import com.example.project1.repository.member.MemberRepository;
+import com.example.project1.service.jwt.TokenSessionService;
+import com.example.project1.support.ConcurrentRunner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Idempotency-Key 로 다시 보낸 회원가입, 로그인이 한 번만 처리되고, 로그인은 재시도 동안만 다시 돌려주는지 확인한다.
+// 새 가입과 다시 보낸 가입의 비용은 perf 의 IdempotentSignupCheck 가 잰다.
+@SpringBootTest(properties = "idempotency.login-ttl-seconds=" + MemberControllerIdempotencyTest.LOGIN_TTL_SECONDS)
+@ActiveProfiles("test")
+class MemberControllerIdempotencyTest {
+
+    static final long LOGIN_TTL_SECONDS = 1;
+
+    private static final String PASSWORD = "idempotent-password";
+    private static final int THREADS = 16;
+
+    @Autowired
+    private MemberController memberController;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private TokenSessionService tokenSessionService;
+
+    @Test
+    @DisplayName("같은 키로 동시에 보낸 가입은 한 번만 처리하고 나머지는 같은 응답을 다시 돌려준다")
+    void concurrentSignupWithSameKeyRunsOnce() throws InterruptedException {
+        String email = "signup" + System.nanoTime() + "@idempotent.test";
+        String key = "signup-" + email;
+        Set<String> bodies = ConcurrentHashMap.newKeySet();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger replayed = new AtomicInteger();
+
+        List<Exception> errors = runConcurrently(id -> {
+            ResponseEntity<?> response = signUp(member(email, PASSWORD), key);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                succeeded.incrementAndGet();
+            }
+            if (response.getHeaders().containsKey(IdempotentRequests.REPLAYED_HEADER)) {
+                replayed.incrementAndGet();
+            }
+            bodies.add(String.valueOf(response.getBody()));
+        });
+
+        assertThat(errors).isEmpty();
+        assertThat(succeeded.get()).isEqualTo(THREADS);
+        assertThat(replayed.get()).isEqualTo(THREADS - 1);
+        assertThat(bodies).hasSize(1);
+        assertThat(memberRepository.findByUserEmail(email)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 본문을 보내면 422 로 거절한다")
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        String email = "conflict" + System.nanoTime() + "@idempotent.test";
+        String key = "conflict-" + email;
+
+        assertThat(signUp(member(email, PASSWORD), key).getStatusCodeValue()).isEqualTo(200);
+        assertThat(signUp(member(email, "other-password"), key).getStatusCodeValue()).isEqualTo(422);
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 보낸 로그인은 같은 리프레시 토큰을 받고 세션은 하나만 생긴다")
+    void concurrentLoginWithSameKeyOpensOneSession() throws Exception {
+        String email = "login" + System.nanoTime() + "@idempotent.test";
+        signUp(member(email, PASSWORD), null);
+        int before = tokenSessionService.sessions(email).size();
+        Set<String> refreshTokens = ConcurrentHashMap.newKeySet();
+
+        List<Exception> errors = runConcurrently(id -> refreshTokens.add(refreshToken(login(email, "login-" + email))));
+
+        assertThat(errors).isEmpty();
+        assertThat(refreshTokens).hasSize(1);
+        assertThat(tokenSessionService.sessions(email).size() - before).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("로그인 응답은 login-ttl-seconds 동안만 다시 돌려주고, 그 뒤에는 해지한 세션의 토큰 대신 새로 로그인한다")
+    void loginReplayEndsAfterRetryWindow() throws Exception {
+        String email = "revoke" + System.nanoTime() + "@idempotent.test";
+        String key = "login-" + email;
+        signUp(member(email, PASSWORD), null);
+        ResponseEntity<?> first = login(email, key);
+        Long sessionId = tokenSessionService.sessions(email).get(0).getSessionId();
+
+        ResponseEntity<?> retried = login(email, key);
+        assertThat(retried.getHeaders().containsKey(IdempotentRequests.REPLAYED_HEADER)).isTrue();
+        assertThat(refreshToken(retried)).isEqualTo(refreshToken(first));
+
+        assertThat(tokenSessionService.revoke(email, sessionId)).isTrue();
+        Thread.sleep(LOGIN_TTL_SECONDS * 1000 + 200);
+        ResponseEntity<?> afterRevoke = login(email, key);
+
+        assertThat(afterRevoke.getHeaders().containsKey(IdempotentRequests.REPLAYED_HEADER)).isFalse();
+        assertThat(refreshToken(afterRevoke)).isNotEqualTo(refreshToken(first));
+        assertThat(tokenSessionService.find(refreshToken(afterRevoke))).isNotNull();
+    }
+
+    private ResponseEntity<?> login(String email, String idempotencyKey) throws Exception {
+        return memberController.login(member(email, PASSWORD), "idempotent", null, idempotencyKey);
+    }
+
+    // 로그인은 MemberService 가 만든 ResponseEntity<TokenDTO> 를 본문으로 감싸서 돌려준다.
+    private static String refreshToken(ResponseEntity<?> response) {
+        Object token = ((ResponseEntity<?>) response.getBody()).getBody();
+        return ((TokenDTO) token).getRefreshToken();
+    }
+
+    private ResponseEntity<?> signUp(MemberDTO member, String idempotencyKey) throws Exception {
+        return memberController.join(member, new BeanPropertyBindingResult(member, "memberDTO"), idempotencyKey);
+    }
+
+    private static MemberDTO member(String email, String password) {
+        return MemberDTO.builder()
+                .userEmail(email)
+                .userPw(password)
+                .userName("idempotent")
+                .nickName("idempotent")
+                .userType(UserType.USER)
+                .addressDTO(AddressDTO.builder().userAddr("a").userAddrDetail("b").userAddrEtc("c").build())
+                .build();
+    }
+
+    // 모든 스레드가 task 를 한 번씩 동시에 실행하고, 실패한 실행의 예외를 돌려준다.
+    private static List<Exception> runConcurrently(ConcurrentRunner.Task task) throws InterruptedException {
+        List<Exception> errors = Collections.synchronizedList(new ArrayList<>());
+        ConcurrentRunner.run(THREADS, 1, task, errors::add);
+        return errors;
+    }
+}
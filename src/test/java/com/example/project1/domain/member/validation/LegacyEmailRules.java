@@ -0,0 +1,43 @@
+package com.example.project1.domain.member.validation;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Pattern;
+
+// MemberDTO.userEmail 에 달려 있던 기존 제약(@Pattern + @Email)과 지금의 제약(@ValidEmail) (ValidEmailValidatorTest, perf 의 이메일 검사 측정의 비교 기준)
+// 컨트롤러의 @Validated 와 같은 Bean Validation 으로 검사한다.
+public final class LegacyEmailRules {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private LegacyEmailRules() {
+    }
+
+    public static boolean legacyValid(String email) {
+        return VALIDATOR.validate(new Legacy(email)).isEmpty();
+    }
+
+    public static boolean currentValid(String email) {
+        return VALIDATOR.validate(new Current(email)).isEmpty();
+    }
+
+    static final class Legacy {
+        @Pattern(regexp = "^(?:\\w+\\.?)*\\w+@(?:\\w+\\.)+\\w+$", message = "이메일 형식이 올바르지 않습니다.")
+        @Email(message = "이메일 형식에 맞지 않습니다.")
+        private final String userEmail;
+
+        Legacy(String userEmail) {
+            this.userEmail = userEmail;
+        }
+    }
+
+    static final class Current {
+        @ValidEmail
+        private final String userEmail;
+
+        Current(String userEmail) {
+            this.userEmail = userEmail;
+        }
+    }
+}
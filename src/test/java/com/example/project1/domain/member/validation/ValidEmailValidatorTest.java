@@ -0,0 +1,185 @@
+package com.example.project1.domain.member.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+// @ValidEmail 검사기가 길이 경계, 점 위치, 도메인의 _ 를 기존 제약(@Pattern + @Email)과 같이 판단하고,
+// 기존 정규식을 되돌아가게 만들던 긴 입력도 정해진 시간 안에 검사하는지 확인한다.
+// 검사 비용과 길이에 따른 시간 증가는 perf 의 EmailValidationBenchmark, EmailValidationTimingCheck 가 잰다.
+class ValidEmailValidatorTest {
+
+    // 이메일에 쓰이는 문자가 많이 나오도록 고른 문자들
+    private static final char[] ALPHABET = "aZ09_..@@-+ \té한\n".toCharArray();
+
+    @Test
+    @DisplayName("로컬 부분은 64자까지 받는다")
+    void localPartUpTo64Chars() {
+        assertValid(repeat('a', 64) + "@b.c");
+        assertInvalid(repeat('a', 65) + "@b.c");
+        assertValid(repeat('a', 30) + "." + repeat('b', 33) + "@c.d");
+        assertInvalid(repeat('a', 30) + "." + repeat('b', 34) + "@c.d");
+    }
+
+    @Test
+    @DisplayName("도메인 라벨은 63자까지 받는다")
+    void domainLabelUpTo63Chars() {
+        assertValid("a@" + repeat('b', 63) + ".c");
+        assertInvalid("a@" + repeat('b', 64) + ".c");
+        assertValid("a@b." + repeat('c', 63));
+        assertInvalid("a@b." + repeat('c', 64));
+    }
+
+    @Test
+    @DisplayName("도메인은 255자까지 받는다")
+    void domainUpTo255Chars() {
+        assertValid("a@" + labels(255));
+        assertInvalid("a@" + labels(256));
+        assertInvalid("a@" + labels(300));
+    }
+
+    @Test
+    @DisplayName("점으로 시작하거나 끝나거나 점이 이어지면 거절한다")
+    void rejectsMisplacedDots() {
+        assertValid("a.b@c.d");
+        assertInvalid(".a@b.c");
+        assertInvalid("a.@b.c");
+        assertInvalid("a..b@c.d");
+        assertInvalid("a@.b.c");
+        assertInvalid("a@b.c.");
+        assertInvalid("a@b..c");
+        assertInvalid("a@" + labels(254) + ".");
+    }
+
+    @Test
+    @DisplayName("도메인의 _ 는 기존 제약처럼 받는다")
+    void acceptsUnderscoreInDomain() {
+        assertValid("a@b_c.d");
+        assertValid("A_b.C9@Ex_ample.COM");
+        assertValid("a@b._");
+    }
+
+    @Test
+    @DisplayName("단어 문자가 아닌 문자, @ 개수, 도메인 라벨 수가 틀리면 거절한다")
+    void rejectsMalformedEmails() {
+        for (String email : Arrays.asList("", " ", "@", ".", "a", "a@", "@b.c", "a@b", "a@@b.c", "a@b@c.d",
+                "a+b@c.d", "a-b@c.d", "a@b-c.d", "a b@c.d", "a@b.c ", " a@b.c", "a@b.c\n",
+                "é@b.c", "a@é.c", "한글@b.c", "a@b.c\u0000", "a\u0000@b.c", "a@[127.0.0.1]", "\"a\"@b.c")) {
+            assertInvalid(email);
+        }
+        assertValid("zxzz45@naver.com");
+    }
+
+    @Test
+    @DisplayName("null 은 @NotBlank 가 거절하도록 통과시킨다")
+    void nullIsLeftToNotBlank() {
+        assertThat(new ValidEmailValidator().isValid(null, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("무작위 입력에서 기존 제약과 같은 판단을 한다")
+    void randomInputsMatchLegacyRules() {
+        Random random = new Random(42);
+        List<String> mismatches = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            // 기존 정규식이 오래 되돌아가지 않도록 18자 이하로 만든다.
+            char[] chars = new char[random.nextInt(19)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            compare(mismatches, new String(chars));
+            compare(mismatches, wellFormed(random));
+        }
+
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    @DisplayName("기존 정규식을 되돌아가게 만들던 10만 자 입력도 바로 검사한다")
+    void craftedInputsAreCheckedInBoundedTime() {
+        int n = 100_000;
+        List<String> attacks = Arrays.asList(
+                repeat('a', n),
+                repeat('a', n - 1) + "!",
+                repeat('a', n / 2) + "." + repeat('b', n / 2 - 2) + "!",
+                "a@" + labels(n - 3) + ".");
+
+        // 기존 정규식은 800자에서도 1초가 걸리므로 넉넉하게 잡아도 되돌아가면 넘는다.
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (String attack : attacks) {
+                assertThat(LegacyEmailRules.currentValid(attack)).isFalse();
+            }
+        });
+    }
+
+    private static void assertValid(String email) {
+        assertThat(ValidEmailValidator.isValidEmail(email)).as(email).isTrue();
+        assertThat(LegacyEmailRules.currentValid(email)).as(email).isTrue();
+        assertThat(LegacyEmailRules.legacyValid(email)).as(email).isTrue();
+    }
+
+    private static void assertInvalid(String email) {
+        assertThat(ValidEmailValidator.isValidEmail(email)).as(email).isFalse();
+        assertThat(LegacyEmailRules.currentValid(email)).as(email).isFalse();
+        assertThat(LegacyEmailRules.legacyValid(email)).as(email).isFalse();
+    }
+
+    private static void compare(List<String> mismatches, String email) {
+        boolean legacy = LegacyEmailRules.legacyValid(email);
+        if (legacy != LegacyEmailRules.currentValid(email)) {
+            mismatches.add(String.format("\"%s\" : 기존 %s", email, legacy));
+        }
+    }
+
+    // 형식은 지키면서 로컬 부분, 라벨 길이가 경계 근처인 입력, 가끔 끝 가까이의 한 글자를 바꾼다.
+    // 형식을 지키거나 바꾼 글자가 끝에서 가까우면 기존 정규식도 오래 되돌아가지 않는다.
+    private static String wellFormed(Random random) {
+        StringBuilder email = new StringBuilder();
+        appendLabels(email, random, 1 + random.nextInt(3));
+        email.append('@');
+        appendLabels(email, random, 2 + random.nextInt(5));
+        if (random.nextInt(4) == 0) {
+            int at = Math.max(0, email.length() - 1 - random.nextInt(Math.min(4, email.length())));
+            email.setCharAt(at, ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return email.toString();
+    }
+
+    private static void appendLabels(StringBuilder email, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                email.append('.');
+            }
+            int length = 1 + (random.nextBoolean() ? random.nextInt(70) : random.nextInt(4));
+            for (int j = 0; j < length; j++) {
+                email.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+    }
+
+    // "b.b.b..." 처럼 한 글자 라벨을 점으로 이은 length 자 도메인
+    private static String labels(int length) {
+        StringBuilder domain = new StringBuilder(length);
+        while (domain.length() < length) {
+            domain.append(domain.length() % 2 == 0 ? 'b' : '.');
+        }
+        if (domain.charAt(length - 1) == '.') {
+            domain.setCharAt(length - 1, 'b');
+        }
+        return domain.toString();
+    }
+
+    private static String repeat(char c, int n) {
+        char[] chars = new char[n];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
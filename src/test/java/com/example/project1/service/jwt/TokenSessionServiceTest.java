@@ -0,0 +1,170 @@
+package com.example.project1.service.jwt;
+
+import com.example.project1.domain.jwt.TokenDTO;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.entity.jwt.TokenEntity;
+import com.example.project1.entity.member.MemberEntity;
+import com.example.project1.repository.member.MemberRepository;
+import com.example.project1.service.member.MemberService;
+import com.example.project1.support.ConcurrentRunner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 한 회원이 여러 기기에서 동시에 로그인, 재발급, 해지할 때 기기별 세션이 올바르게 유지되는지 확인한다.
+// 처리량은 perf 의 TokenSessionStressTest 가 잰다.
+@SpringBootTest(properties = {
+        "jwt.session.max-per-user=" + TokenSessionServiceTest.MAX_SESSIONS,
+        "jwt.refresh.single-flight.grace-millis=" + TokenSessionServiceTest.GRACE_MILLIS
+})
+@ActiveProfiles("test")
+class TokenSessionServiceTest {
+
+    static final int MAX_SESSIONS = 8;
+    static final long GRACE_MILLIS = 500;
+
+    private static final String PASSWORD = "session-password";
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private TokenSessionService tokenSessionService;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    @Qualifier("passwordEncoder")
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    @DisplayName("여러 기기에서 동시에 로그인해도 남은 세션은 모두 이번에 발급한 리프레시 토큰으로 찾을 수 있다")
+    void concurrentLoginsKeepIssuedSessions() throws InterruptedException {
+        String email = member("login");
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        List<Exception> errors = runConcurrently(1,
+                id -> issued.add(memberService.login(email, PASSWORD, "device-" + id, null).getBody().getRefreshToken()));
+
+        assertThat(errors).isEmpty();
+        assertThat(issued).hasSize(THREADS);
+        assertThat(sessionCount(email)).isEqualTo(Math.min(THREADS, MAX_SESSIONS));
+        assertThat(issued.stream().filter(token -> tokenSessionService.find(token) != null).count())
+                .isEqualTo(sessionCount(email));
+    }
+
+    @Test
+    @DisplayName("같은 회원으로 동시에 계속 로그인해도 세션 수는 최대 개수를 넘지 않는다")
+    void concurrentOpensStayWithinMaxSessions() throws InterruptedException {
+        String email = member("open");
+
+        List<Exception> errors = runConcurrently(ITERATIONS,
+                id -> tokenSessionService.open(token(email, email + "-" + id), "device-" + id));
+
+        assertThat(errors).isEmpty();
+        assertThat(sessionCount(email)).isLessThanOrEqualTo(MAX_SESSIONS);
+    }
+
+    @Test
+    @DisplayName("한 세션을 동시에 재발급해도 성공한 재발급은 하나도 사라지지 않는다")
+    void concurrentTouchesAreNotLost() throws InterruptedException {
+        String email = member("touch");
+        String refreshToken = email + "-refresh";
+        long before = tokenSessionService.open(token(email, refreshToken), "target").getVersion();
+
+        List<Exception> errors = runConcurrently(ITERATIONS, id -> {
+            TokenEntity session = tokenSessionService.find(refreshToken);
+            if (session == null || !tokenSessionService.touch(session, new Date())) {
+                throw new IllegalStateException("세션이 없습니다.");
+            }
+        });
+
+        assertThat(errors).isEmpty();
+        assertThat(tokenSessionService.find(refreshToken).getVersion() - before)
+                .isEqualTo((long) THREADS * ITERATIONS);
+    }
+
+    @Test
+    @DisplayName("같은 리프레시 토큰의 동시 재발급은 한 번으로 합쳐지고, 유예 시간이 지나면 새로 처리한다")
+    void refreshStormIsSingleFlight() throws Exception {
+        String email = member("storm");
+        String refreshToken = memberService.login(email, PASSWORD, "storm", null).getBody().getRefreshToken();
+        long before = tokenSessionService.find(refreshToken).getVersion();
+        Set<String> accessTokens = ConcurrentHashMap.newKeySet();
+
+        List<Exception> errors = runConcurrently(1,
+                id -> accessTokens.add(refreshTokenService.createAccessToken(refreshToken, null).getBody().getAccessToken()));
+        long stormWrites = tokenSessionService.find(refreshToken).getVersion() - before;
+
+        assertThat(errors).isEmpty();
+        assertThat(accessTokens).hasSize(1);
+        assertThat(stormWrites).isEqualTo(1);
+
+        Thread.sleep(GRACE_MILLIS + 100);
+        refreshTokenService.createAccessToken(refreshToken, null);
+        // 액세스 토큰은 초 단위 iat, exp 만 다르므로 같은 초에 재발급하면 내용이 같을 수 있어서 세션 저장 횟수로 확인한다.
+        assertThat(tokenSessionService.find(refreshToken).getVersion() - before).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("해지한 세션은 해지 전에 읽어 둔 세션으로도 재발급되지 않는다")
+    void revokedSessionCannotBeTouched() {
+        String email = member("revoke");
+        String refreshToken = email + "-refresh";
+        tokenSessionService.open(token(email, email + "-other"), "other");
+        TokenEntity session = tokenSessionService.open(token(email, refreshToken), "target");
+
+        assertThat(tokenSessionService.revoke("other@session.test", session.getId())).isFalse();
+        assertThat(tokenSessionService.revoke(email, session.getId())).isTrue();
+        assertThat(tokenSessionService.touch(session, new Date())).isFalse();
+        assertThat(tokenSessionService.find(refreshToken)).isNull();
+        assertThat(sessionCount(email)).isEqualTo(1);
+    }
+
+    private String member(String name) {
+        String email = name + System.nanoTime() + "@session.test";
+        memberRepository.save(MemberEntity.builder()
+                .userEmail(email)
+                .userPw(passwordEncoder.encode(PASSWORD))
+                .userName(name)
+                .userType(UserType.USER)
+                .build());
+        return email;
+    }
+
+    private static TokenDTO token(String userEmail, String refreshToken) {
+        return TokenDTO.builder()
+                .grantType("Bearer")
+                .accessToken("access")
+                .refreshToken(refreshToken)
+                .userEmail(userEmail)
+                .userType(UserType.USER)
+                .build();
+    }
+
+    private int sessionCount(String userEmail) {
+        return tokenSessionService.sessions(userEmail).size();
+    }
+
+    // 모든 스레드가 iterations 번씩 task 를 실행하고, 실패한 실행의 예외를 돌려준다.
+    private static List<Exception> runConcurrently(int iterations, ConcurrentRunner.Task task) throws InterruptedException {
+        List<Exception> errors = Collections.synchronizedList(new ArrayList<>());
+        ConcurrentRunner.run(THREADS, iterations, task, errors::add);
+        return errors;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.project1.service.member;
+
+import com.example.project1.controller.member.MemberController;
+import com.example.project1.domain.member.MemberBatchDTO;
+import com.example.project1.domain.member.MemberBatchRequestDTO;
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.entity.member.MemberEntity;
+import com.example.project1.entity.member.embedded.AddressEntity;
+import com.example.project1.repository.member.MemberRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 여러 회원 조회(POST /api/v1/users/batch)의 순서, 없는 id, SQL 수, 요청 한도를 확인한다.
+// 회원 조회를 반복하는 것과의 비용 비교는 perf 의 MemberBatchCheck 가 잰다.
+@SpringBootTest(properties = {
+        "member.batch.in-chunk-size=" + MemberBatchSearchTest.CHUNK_SIZE,
+        "member.batch.max-ids=" + MemberBatchSearchTest.MAX_IDS
+})
+@ActiveProfiles("test")
+class MemberBatchSearchTest {
+
+    static final int CHUNK_SIZE = 50;
+    static final int MAX_IDS = 300;
+
+    private static final int MEMBERS = 200;
+
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private MemberController memberController;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @DisplayName("요청 순서대로 돌려주고, 없는 id 는 missing 으로 알려주고, 조각마다 SQL 한 번으로 조회한다")
+    void searchAllKeepsOrderAndReportsMissing() {
+        List<Long> ids = seed();
+        Random random = new Random(42);
+        List<Long> requested = new ArrayList<>(ids);
+        Collections.shuffle(requested, random);
+        long maxId = Collections.max(ids);
+        // 없는 id 와 중복 id 를 섞는다.
+        for (int i = 0; i < 7; i++) {
+            requested.add(random.nextInt(requested.size()), maxId + 1000 + i);
+            requested.add(random.nextInt(requested.size()), requested.get(random.nextInt(requested.size())));
+        }
+        requested.add(random.nextInt(requested.size()), -1L);
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(requested));
+        List<Long> expectedMissing = new ArrayList<>();
+        for (Long id : distinct) {
+            if (id < 0 || id > maxId) {
+                expectedMissing.add(id);
+            }
+        }
+        List<Long> expectedOrder = new ArrayList<>(distinct);
+        expectedOrder.removeAll(expectedMissing);
+
+        statistics.clear();
+        MemberBatchDTO result = memberService.searchAll(requested);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo((distinct.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(result.getMissing()).isEqualTo(expectedMissing);
+        List<Long> order = new ArrayList<>();
+        result.getMembers().forEach(member -> order.add(member.getUserId()));
+        assertThat(order).isEqualTo(expectedOrder);
+    }
+
+    @Test
+    @DisplayName("회원 조회와 같은 값을 돌려주되 비밀번호와 버전은 뺀다")
+    void searchAllMatchesSingleSearchWithoutPassword() {
+        List<Long> ids = seed();
+
+        MemberBatchDTO result = memberService.searchAll(ids);
+
+        assertThat(result.getMembers()).hasSize(ids.size());
+        for (MemberDTO member : result.getMembers()) {
+            MemberDTO single = memberService.search(member.getUserId());
+            assertThat(member.getUserPw()).isNull();
+            assertThat(member).usingRecursiveComparison().ignoringFields("userPw", "version").isEqualTo(single);
+        }
+    }
+
+    @Test
+    @DisplayName("id 가 없거나 null 이 있거나 최대 개수를 넘으면 400 으로 거절한다")
+    void searchAllRejectsInvalidRequests() {
+        List<Long> tooMany = new ArrayList<>(Collections.nCopies(MAX_IDS + 1, 1L));
+
+        assertThat(memberController.searchAll(request(Collections.emptyList())).getStatusCodeValue()).isEqualTo(400);
+        assertThat(memberController.searchAll(request(null)).getStatusCodeValue()).isEqualTo(400);
+        assertThat(memberController.searchAll(request(tooMany)).getStatusCodeValue()).isEqualTo(400);
+        assertThat(memberController.searchAll(request(Arrays.asList(1L, null))).getStatusCodeValue()).isEqualTo(400);
+        assertThat(memberController.searchAll(request(tooMany.subList(0, MAX_IDS))).getStatusCodeValue()).isEqualTo(200);
+    }
+
+    private List<Long> seed() {
+        String prefix = "batch" + System.nanoTime();
+        List<MemberEntity> entities = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            entities.add(MemberEntity.builder()
+                    .userEmail(prefix + "-" + i + "@batch.test")
+                    .userPw("{bcrypt}not-a-real-hash")
+                    .userName("batch" + i)
+                    .nickName(i % 3 == 0 ? null : "nick" + i)
+                    .userType(i % 10 == 0 ? UserType.ADMIN : UserType.USER)
+                    .address(AddressEntity.builder().userAddr("addr" + i).userAddrDetail("detail").userAddrEtc(null).build())
+                    .build());
+        }
+        List<Long> ids = new ArrayList<>(MEMBERS);
+        memberRepository.saveAll(entities).forEach(saved -> ids.add(saved.getUserId()));
+        return ids;
+    }
+
+    private static MemberBatchRequestDTO request(List<Long> userIds) {
+        MemberBatchRequestDTO request = new MemberBatchRequestDTO();
+        request.setUserIds(userIds);
+        return request;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.project1.service.member;
+
+import com.example.project1.controller.admin.MemberExportController;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.entity.member.MemberEntity;
+import com.example.project1.entity.member.embedded.AddressEntity;
+import com.example.project1.repository.member.MemberRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 회원 내보내기(GET /api/v1/admin/members/export)가 fetch-size 보다 많은 회원을 NDJSON 으로 끝까지 쓰는지 확인한다.
+// 힙 사용량이 회원 수와 관계없이 일정한지는 perf 의 MemberExportCheck 가 잰다.
+@SpringBootTest(properties = {
+        "member.export.fetch-size=" + MemberExportServiceTest.FETCH_SIZE,
+        "member.export.max-concurrent=1"
+})
+@ActiveProfiles("test")
+class MemberExportServiceTest {
+
+    static final int FETCH_SIZE = 7;
+
+    private static final int MEMBERS = 50;
+
+    @Autowired
+    private MemberExportService memberExportService;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<MemberEntity> members;
+
+    // 컨텍스트를 같이 쓰는 테스트마다 넣지 않도록 비어 있을 때만 넣는다.
+    @BeforeEach
+    void setUp() {
+        if (memberRepository.count() == 0) {
+            List<MemberEntity> entities = new ArrayList<>(MEMBERS);
+            for (int i = 0; i < MEMBERS; i++) {
+                entities.add(MemberEntity.builder()
+                        .userEmail("export" + i + "@export.test")
+                        .userPw("{bcrypt}not-a-real-hash")
+                        .userName("내보내기" + i)
+                        .nickName(i % 3 == 0 ? null : "nick" + i)
+                        .userType(i % 10 == 0 ? UserType.ADMIN : UserType.USER)
+                        .address(AddressEntity.builder().userAddr("addr" + i).userAddrDetail("detail").userAddrEtc(null).build())
+                        .build());
+            }
+            memberRepository.saveAll(entities);
+        }
+        members = memberRepository.findAll(Sort.by("userId"));
+    }
+
+    @Test
+    @DisplayName("회원 전체를 user_id 순서로 한 줄에 하나씩 쓰고, 비밀번호는 쓰지 않는다")
+    void exportStreamsEveryMember() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = memberExportService.export(out);
+
+        assertThat(rows).isEqualTo(MEMBERS);
+        assertRows(out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("gzip 을 받는 요청에는 압축해서 보내고, 풀면 같은 내용이다")
+    void controllerStreamsGzip() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new MemberExportController(memberExportService).export("gzip", response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getContentType()).startsWith("application/x-ndjson");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertRows(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("이미 max-concurrent 개를 내보내는 중이면 503")
+    void busyExportIsRejected() throws IOException {
+        assertThat(memberExportService.tryAcquire()).isTrue();
+        try {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new MemberExportController(memberExportService).export(null, response);
+
+            assertThat(response.getStatus()).isEqualTo(503);
+            assertThat(response.getHeader("Retry-After")).isEqualTo("60");
+            assertThat(response.getContentAsByteArray()).isEmpty();
+        } finally {
+            memberExportService.release();
+        }
+    }
+
+    private void assertRows(String ndjson) throws IOException {
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(MEMBERS);
+        for (int i = 0; i < lines.length; i++) {
+            MemberEntity expected = members.get(i);
+            JsonNode row = objectMapper.readTree(lines[i]);
+            assertThat(row.get("userId").asLong()).isEqualTo(expected.getUserId());
+            assertThat(row.get("userEmail").asText()).isEqualTo(expected.getUserEmail());
+            assertThat(row.get("userName").asText()).isEqualTo(expected.getUserName());
+            assertThat(row.get("nickName").isNull()).isEqualTo(expected.getNickName() == null);
+            assertThat(row.get("userType").asText()).isEqualTo(expected.getUserType().name());
+            assertThat(row.get("addressDTO").get("userAddr").asText()).isEqualTo(expected.getAddress().getUserAddr());
+            assertThat(row.has("userPw")).isFalse();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.project1.service.member;
+
+import com.example.project1.config.audit.AuthAuditJournal;
+import com.example.project1.config.audit.AuthAuditType;
+import com.example.project1.config.jwt.JwtProvider;
+import com.example.project1.config.jwt.RoleAuthorities;
+import com.example.project1.config.jwt.authority.AuthorityVersions;
+import com.example.project1.config.jwt.reference.ReferenceTokenService;
+import com.example.project1.domain.member.MemberDTO;
+import com.example.project1.domain.member.UserType;
+import com.example.project1.domain.member.embedded.AddressDTO;
+import com.example.project1.entity.member.MemberEntity;
+import com.example.project1.entity.member.embedded.AddressEntity;
+import com.example.project1.repository.member.MemberRepository;
+import com.example.project1.service.jwt.TokenSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemberServiceTest {
+
+    private static final String EMAIL = "user@test.com";
+
+    private MemberRepository memberRepository;
+    private AuthorityVersions authorityVersions;
+    private AuthAuditJournal authAuditJournal;
+    private MemberService memberService;
+
+    @BeforeEach
+    @SuppressWarnings("deprecation")
+    void setUp() {
+        memberRepository = mock(MemberRepository.class);
+        authorityVersions = new AuthorityVersions();
+        authAuditJournal = mock(AuthAuditJournal.class);
+        memberService = new MemberService(memberRepository, NoOpPasswordEncoder.getInstance(),
+                mock(JwtProvider.class), mock(TokenSessionService.class), authAuditJournal,
+                mock(ReferenceTokenService.class), authorityVersions);
+    }
+
+    @Test
+    @DisplayName("회원 본인의 정보 수정으로는 권한을 바꿀 수 없다")
+    void updateKeepsUserType() {
+        when(memberRepository.findByUserEmail(EMAIL)).thenReturn(member(UserType.USER, 0));
+        MemberDTO request = MemberDTO.builder()
+                .userEmail(EMAIL)
+                .userPw("pw")
+                .userName("tester")
+                .nickName("tester")
+                .userType(UserType.ADMIN)
+                .addressDTO(AddressDTO.builder().userAddr("서울시").build())
+                .build();
+
+        MemberDTO updated = memberService.update(request, EMAIL);
+
+        ArgumentCaptor<MemberEntity> saved = ArgumentCaptor.forClass(MemberEntity.class);
+        verify(memberRepository).save(saved.capture());
+        assertThat(saved.getValue().getUserType()).isEqualTo(UserType.USER);
+        assertThat(saved.getValue().authorityVersionOrZero()).isZero();
+        assertThat(updated.getUserType()).isEqualTo(UserType.USER);
+        assertThat(authorityVersions.find(EMAIL)).isNull();
+    }
+
+    @Test
+    @DisplayName("회원가입 요청의 권한은 무시하고 USER 로 가입시킨다")
+    void signUpIgnoresRequestedUserType() throws Exception {
+        when(memberRepository.findByUserEmail(EMAIL)).thenReturn(null);
+        MemberDTO request = MemberDTO.builder()
+                .userEmail(EMAIL)
+                .userPw("pw")
+                .userName("tester")
+                .nickName("tester")
+                .userType(UserType.ADMIN)
+                .addressDTO(AddressDTO.builder().userAddr("서울시").build())
+                .build();
+
+        memberService.signUp(request);
+
+        ArgumentCaptor<MemberEntity> saved = ArgumentCaptor.forClass(MemberEntity.class);
+        verify(memberRepository).save(saved.capture());
+        assertThat(saved.getValue().getUserType()).isEqualTo(UserType.USER);
+    }
+
+    @Test
+    @DisplayName("관리자가 권한을 바꾸면 권한 버전을 올리고 바로 반영한다")
+    void changeRoleBumpsAuthorityVersion() {
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member(UserType.USER, 2)));
+
+        MemberDTO changed = memberService.changeRole(1L, UserType.ADMIN);
+
+        ArgumentCaptor<MemberEntity> saved = ArgumentCaptor.forClass(MemberEntity.class);
+        verify(memberRepository).save(saved.capture());
+        assertThat(saved.getValue().getUserType()).isEqualTo(UserType.ADMIN);
+        assertThat(saved.getValue().authorityVersionOrZero()).isEqualTo(3);
+        assertThat(saved.getValue().getUserPw()).isEqualTo("encoded");
+        assertThat(changed.getUserType()).isEqualTo(UserType.ADMIN);
+        AuthorityVersions.Current current = authorityVersions.find(EMAIL);
+        assertThat(current.getVersion()).isEqualTo(3);
+        assertThat(current.getRoleMask()).isEqualTo(RoleAuthorities.bitOf("ROLE_ADMIN"));
+        verify(authAuditJournal).record(AuthAuditType.ROLE_CHANGED, EMAIL);
+    }
+
+    @Test
+    @DisplayName("같은 권한으로 바꾸면 저장하지 않는다, 회원이 없으면 null")
+    void changeRoleNoop() {
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member(UserType.USER, 0)));
+        when(memberRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(memberService.changeRole(1L, UserType.USER).getUserType()).isEqualTo(UserType.USER);
+        assertThat(memberService.changeRole(2L, UserType.ADMIN)).isNull();
+        verify(memberRepository, never()).save(any());
+        verify(authAuditJournal, never()).record(any(), any());
+        assertThat(authorityVersions.find(EMAIL)).isNull();
+    }
+
+    private static MemberEntity member(UserType userType, long authorityVersion) {
+        return MemberEntity.builder()
+                .userId(1L)
+                .userEmail(EMAIL)
+                .userPw("encoded")
+                .userName("tester")
+                .nickName("tester")
+                .userType(userType)
+                .address(AddressEntity.builder().userAddr("서울시").build())
+                .version(0L)
+                .authorityVersion(authorityVersion)
+                .build();
+    }
+}
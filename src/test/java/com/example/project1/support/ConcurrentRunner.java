@@ -0,0 +1,58 @@
+package com.example.project1.support;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// 여러 스레드를 모두 준비시킨 뒤 한꺼번에 출발시켜서 같은 작업을 동시에 실행하는 테스트 도구
+// src/test 의 동시성 테스트와 perf 의 스트레스 테스트가 같이 쓴다.
+public final class ConcurrentRunner {
+
+    private ConcurrentRunner() {
+    }
+
+    public interface Task {
+        // id : "스레드 번호-반복 번호"
+        void run(String id) throws Exception;
+    }
+
+    // threads 개 스레드가 iterations 번씩 task 를 실행하고, 모두 끝날 때까지 걸린 시간(ns)을 돌려준다.
+    // 실패한 실행은 onError 로 넘기고 다음 반복을 계속한다. (onError 는 여러 스레드에서 불린다)
+    public static long run(int threads, int iterations, Task task, Consumer<Exception> onError)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        try {
+                            task.run(thread + "-" + i);
+                        } catch (Exception e) {
+                            onError.accept(e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        return elapsed;
+    }
+}
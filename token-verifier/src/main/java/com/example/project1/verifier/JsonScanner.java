@@ -0,0 +1,401 @@
+package com.example.project1.verifier;
+
+import java.nio.charset.StandardCharsets;
+
+// 토큰 헤더, 페이로드(UTF-8 JSON 객체)를 읽는 스캐너
+// 트리를 만들지 않고 필드를 하나씩 넘기면서 필요한 값만 꺼낸다. 필요 없는 값은 문자열도 만들지 않고 건너뛴다.
+// 중첩된 값은 재귀 없이 깊이만 세면서 건너뛰므로 깊게 중첩된 JSON 으로 스택을 넘치게 할 수 없다.
+// 스레드마다 하나씩 두고 reset 해서 재사용한다.
+final class JsonScanner {
+
+    private static final int MAX_DEPTH = 64;
+
+    private byte[] buf;
+    private int pos;
+    private int end;
+
+    // 마지막으로 읽은 문자열(키 포함)의 위치, 따옴표 제외
+    private int stringStart;
+    private int stringEnd;
+    private boolean stringEscaped;
+
+    void reset(byte[] buf, int length) {
+        this.buf = buf;
+        this.pos = 0;
+        this.end = length;
+    }
+
+    void beginObject() {
+        expect('{');
+    }
+
+    // 다음 필드의 키를 읽고 ':' 까지 넘긴다. 객체가 끝났으면 false
+    // first 는 객체의 첫 필드인지 (그 앞에 ','가 없다)
+    boolean nextField(boolean first) {
+        byte c = nextToken();
+        if (c == '}') {
+            return false;
+        }
+        if (!first) {
+            if (c != ',') {
+                throw Malformed.INSTANCE;
+            }
+            c = nextToken();
+        }
+        if (c != '"') {
+            throw Malformed.INSTANCE;
+        }
+        scanString();
+        expect(':');
+        return true;
+    }
+
+    // 최상위 객체 뒤에는 공백만 올 수 있다.
+    void endDocument() {
+        skipWhitespace();
+        if (pos != end) {
+            throw Malformed.INSTANCE;
+        }
+    }
+
+    // 다음 값의 첫 글자 (소비하지 않는다)
+    byte peek() {
+        skipWhitespace();
+        if (pos >= end) {
+            throw Malformed.INSTANCE;
+        }
+        return buf[pos];
+    }
+
+    // 마지막으로 읽은 문자열이 ASCII name 과 같은지 (이스케이프가 있으면 풀어서 비교한다)
+    boolean stringIs(byte[] name) {
+        if (stringEscaped) {
+            return decodeString().equals(new String(name, StandardCharsets.US_ASCII));
+        }
+        int length = stringEnd - stringStart;
+        if (length != name.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf[stringStart + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 문자열 값을 읽는다. 문자열이 아니면 Malformed
+    void readString() {
+        expect('"');
+        scanString();
+    }
+
+    // 문자열 값을 읽어서 만든다. null 이면 null
+    String readStringOrNull() {
+        if (peek() == 'n') {
+            literal("null");
+            return null;
+        }
+        readString();
+        return decodeString();
+    }
+
+    // 마지막으로 읽은 문자열
+    String decodeString() {
+        if (!stringEscaped) {
+            return new String(buf, stringStart, stringEnd - stringStart, StandardCharsets.UTF_8);
+        }
+        StringBuilder builder = new StringBuilder(stringEnd - stringStart);
+        int run = stringStart;
+        int i = stringStart;
+        while (i < stringEnd) {
+            if (buf[i] != '\\') {
+                i++;
+                continue;
+            }
+            if (i > run) {
+                builder.append(new String(buf, run, i - run, StandardCharsets.UTF_8));
+            }
+            byte escaped = buf[i + 1];
+            switch (escaped) {
+                case '"': builder.append('"'); break;
+                case '\\': builder.append('\\'); break;
+                case '/': builder.append('/'); break;
+                case 'b': builder.append('\b'); break;
+                case 'f': builder.append('\f'); break;
+                case 'n': builder.append('\n'); break;
+                case 'r': builder.append('\r'); break;
+                case 't': builder.append('\t'); break;
+                case 'u':
+                    builder.append((char) hex4(i + 2));
+                    i += 4;
+                    break;
+                default:
+                    throw Malformed.INSTANCE;
+            }
+            i += 2;
+            run = i;
+        }
+        if (stringEnd > run) {
+            builder.append(new String(buf, run, stringEnd - run, StandardCharsets.UTF_8));
+        }
+        return builder.toString();
+    }
+
+    // 마지막으로 읽은 문자열이 이스케이프 없이 bytes 와 같은지
+    boolean rawStringEquals(byte[] bytes) {
+        return !stringEscaped && stringIs(bytes);
+    }
+
+    // 숫자 값, 소수면 버림, null 이나 숫자가 아니면 Malformed
+    long readLong() {
+        skipWhitespace();
+        int start = pos;
+        boolean negative = false;
+        if (pos < end && buf[pos] == '-') {
+            negative = true;
+            pos++;
+        }
+        int digitsStart = pos;
+        long value = 0;
+        while (pos < end && isDigit(buf[pos])) {
+            value = value * 10 + (buf[pos] - '0');
+            pos++;
+        }
+        int digits = pos - digitsStart;
+        if (digits == 0 || (buf[digitsStart] == '0' && digits > 1)) {
+            throw Malformed.INSTANCE;
+        }
+        boolean decimal = false;
+        if (pos < end && buf[pos] == '.') {
+            pos++;
+            requireDigits();
+            decimal = true;
+        }
+        if (pos < end && (buf[pos] == 'e' || buf[pos] == 'E')) {
+            pos++;
+            if (pos < end && (buf[pos] == '+' || buf[pos] == '-')) {
+                pos++;
+            }
+            requireDigits();
+            decimal = true;
+        }
+        // 소수, 지수이거나 long 범위를 넘을 수 있는 자릿수
+        if (decimal || digits > 18) {
+            return (long) Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.US_ASCII));
+        }
+        return negative ? -value : value;
+    }
+
+    // 배열을 시작한다. 배열이 아니면 Malformed
+    void beginArray() {
+        expect('[');
+    }
+
+    // 다음 원소가 있으면 true (',' 를 넘긴다)
+    boolean nextElement(boolean first) {
+        byte c = peek();
+        if (c == ']') {
+            pos++;
+            return false;
+        }
+        if (!first) {
+            if (c != ',') {
+                throw Malformed.INSTANCE;
+            }
+            pos++;
+        }
+        return true;
+    }
+
+    // 값 하나를 통째로 건너뛴다.
+    void skipValue() {
+        // 열린 객체(1), 배열(0)을 비트로 쌓는다.
+        long containers = 0;
+        int depth = 0;
+        do {
+            byte c = nextToken();
+            switch (c) {
+                case '{':
+                case '[':
+                    if (depth == MAX_DEPTH) {
+                        throw Malformed.INSTANCE;
+                    }
+                    containers = (containers << 1) | (c == '{' ? 1 : 0);
+                    depth++;
+                    byte next = peek();
+                    if (next == '}' || next == ']') {
+                        closeContainer(containers, next);
+                        pos++;
+                        containers >>>= 1;
+                        depth--;
+                    } else if (c == '{') {
+                        readKey();
+                        continue;
+                    } else {
+                        continue;
+                    }
+                    break;
+                case '"':
+                    scanString();
+                    break;
+                case 't':
+                    pos--;
+                    literal("true");
+                    break;
+                case 'f':
+                    pos--;
+                    literal("false");
+                    break;
+                case 'n':
+                    pos--;
+                    literal("null");
+                    break;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        pos--;
+                        readLong();
+                        break;
+                    }
+                    throw Malformed.INSTANCE;
+            }
+            // 값 하나가 끝났다. 닫히는 컨테이너를 닫고 다음 값 앞까지 간다.
+            while (depth > 0) {
+                byte separator = nextToken();
+                if (separator == ',') {
+                    if ((containers & 1) == 1) {
+                        readKey();
+                    }
+                    break;
+                }
+                closeContainer(containers, separator);
+                containers >>>= 1;
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private void readKey() {
+        expect('"');
+        scanString();
+        expect(':');
+    }
+
+    private static void closeContainer(long containers, byte closer) {
+        boolean object = (containers & 1) == 1;
+        if (closer != (object ? '}' : ']')) {
+            throw Malformed.INSTANCE;
+        }
+    }
+
+    // 여는 따옴표 다음부터 닫는 따옴표까지
+    private void scanString() {
+        stringStart = pos;
+        stringEscaped = false;
+        while (pos < end) {
+            byte c = buf[pos];
+            if (c == '"') {
+                stringEnd = pos;
+                pos++;
+                return;
+            }
+            if (c == '\\') {
+                stringEscaped = true;
+                if (pos + 1 >= end) {
+                    throw Malformed.INSTANCE;
+                }
+                switch (buf[pos + 1]) {
+                    case 'u':
+                        hex4(pos + 2);
+                        pos += 6;
+                        continue;
+                    case '"': case '\\': case '/': case 'b': case 'f': case 'n': case 'r': case 't':
+                        pos += 2;
+                        continue;
+                    default:
+                        throw Malformed.INSTANCE;
+                }
+            }
+            if (c >= 0 && c < 0x20) {
+                throw Malformed.INSTANCE;
+            }
+            pos++;
+        }
+        throw Malformed.INSTANCE;
+    }
+
+    private int hex4(int from) {
+        if (from + 4 > end) {
+            throw Malformed.INSTANCE;
+        }
+        int value = 0;
+        for (int i = from; i < from + 4; i++) {
+            int digit = Character.digit(buf[i], 16);
+            if (digit < 0) {
+                throw Malformed.INSTANCE;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private void requireDigits() {
+        int start = pos;
+        while (pos < end && isDigit(buf[pos])) {
+            pos++;
+        }
+        if (pos == start) {
+            throw Malformed.INSTANCE;
+        }
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private void literal(String literal) {
+        skipWhitespace();
+        if (pos + literal.length() > end) {
+            throw Malformed.INSTANCE;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (buf[pos + i] != literal.charAt(i)) {
+                throw Malformed.INSTANCE;
+            }
+        }
+        pos += literal.length();
+    }
+
+    private void expect(char c) {
+        if (nextToken() != c) {
+            throw Malformed.INSTANCE;
+        }
+    }
+
+    private byte nextToken() {
+        skipWhitespace();
+        if (pos >= end) {
+            throw Malformed.INSTANCE;
+        }
+        return buf[pos++];
+    }
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte c = buf[pos];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    // JSON 이 잘못되었다. 검증 실패는 흔하므로 스택 트레이스 없이 하나를 돌려쓴다.
+    static final class Malformed extends RuntimeException {
+        static final Malformed INSTANCE = new Malformed();
+
+        private Malformed() {
+            super("잘못된 JSON 입니다.", null, false, false);
+        }
+    }
+}
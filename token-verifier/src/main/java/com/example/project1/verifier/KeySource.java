@@ -0,0 +1,24 @@
+package com.example.project1.verifier;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 토큰 헤더의 kid 로 검증 키를 찾는다.
+// 키가 바뀌는(교체되는) 구현은 find 가 여러 스레드에서 동시에 불려도 안전해야 한다.
+@FunctionalInterface
+public interface KeySource {
+
+    // kid 가 없는 토큰이면 kid 는 null, 모르는 kid 면 null 을 돌려준다.
+    VerificationKey find(String kid);
+
+    // 고정된 키 목록, kid 가 ""인 키는 kid 없는 토큰을 검증한다.
+    static KeySource of(VerificationKey... keys) {
+        Map<String, VerificationKey> byKid = new HashMap<>();
+        for (VerificationKey key : keys) {
+            if (byKid.put(key.getKid(), key) != null) {
+                throw new IllegalArgumentException("kid 가 중복되었습니다. kid : " + key.getKid());
+            }
+        }
+        return kid -> byKid.get(kid == null ? "" : kid);
+    }
+}
@@ -0,0 +1,408 @@
+package com.example.project1.verifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// JWS(compact) 토큰 검증기, JDK 만 쓴다.
+// 서비스마다 Spring, jjwt, Jackson 없이 우리 토큰(HS256 / ES256)을 직접 검증할 수 있게 만든 것이다.
+//
+// 검증 순서 : 형식 -> 헤더(alg, kid) -> 키 -> 서명 -> 페이로드 -> exp, nbf
+// - 헤더, 페이로드, 서명은 스레드마다 둔 버퍼에 디코딩하고, 필요한 클레임(sub, exp, iat, nbf, jti, auth, r, av)만 꺼낸다.
+//   검증에 실패하면 새 객체를 만들지 않고, 통과하면 결과 객체와 sub 등 클레임 문자열만 만든다.
+// - 권한이 모두 역할(roles)이면 역할 조합마다 미리 만든 목록을 돌려준다.
+// - alg 는 키에 정해진 것만 받는다. (none, 다른 알고리즘, 공개 키를 HMAC 비밀값으로 쓰는 토큰을 막는다)
+// - 압축(zip), crit 헤더가 있는 토큰은 받지 않는다. (우리는 발급하지 않는다)
+// - 헤더, 페이로드에 같은 키가 두 번 나오는 토큰, 남는 비트가 0 이 아닌 base64url 은 형식 오류로 본다.
+//   (파서마다 다른 값을 고르거나, 같은 토큰을 다른 문자열로 쓸 수 있게 되므로)
+//
+// 불변이고 스레드에 안전하다. 한 번 만들어서 공유한다.
+public final class TokenVerifier {
+
+    // 이보다 긴 토큰은 디코딩하지 않는다. (스레드 버퍼가 한없이 커지지 않게)
+    public static final int DEFAULT_MAX_TOKEN_LENGTH = 16 * 1024;
+
+    private static final byte[] ALG = ascii("alg");
+    private static final byte[] KID = ascii("kid");
+    private static final byte[] ZIP = ascii("zip");
+    private static final byte[] CRIT = ascii("crit");
+    private static final byte[] NONE = ascii("none");
+    private static final byte[] HS256 = ascii(VerificationKey.HS256);
+    private static final byte[] ES256 = ascii(VerificationKey.ES256);
+    private static final byte[] SUB = ascii("sub");
+    private static final byte[] EXP = ascii("exp");
+    private static final byte[] IAT = ascii("iat");
+    private static final byte[] NBF = ascii("nbf");
+    private static final byte[] JTI = ascii("jti");
+    private static final byte[] AUTH = ascii("auth");
+    private static final byte[] ROLES = ascii("r");
+    private static final byte[] AUTHORITY_VERSION = ascii("av");
+
+    // 중복 키를 찾을 때 쓰는 필드 비트
+    private static final int SEEN_ALG = 1;
+    private static final int SEEN_KID = 1 << 1;
+    private static final int SEEN_SUB = 1;
+    private static final int SEEN_EXP = 1 << 1;
+    private static final int SEEN_IAT = 1 << 2;
+    private static final int SEEN_NBF = 1 << 3;
+    private static final int SEEN_JTI = 1 << 4;
+    private static final int SEEN_AUTHORITY_VERSION = 1 << 5;
+    private static final int SEEN_ROLES = 1 << 6;
+    private static final int SEEN_AUTH = 1 << 7;
+
+    // base64url 문자 -> 6bit 값, 아니면 -1
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        java.util.Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final KeySource keySource;
+    private final long allowedClockSkewMillis;
+    private final int maxTokenLength;
+    private final LongSupplier clock;
+    // 역할 비트 순서의 역할 이름
+    private final byte[][] roleNames;
+    private final String[] roleStrings;
+    // 역할 비트마스크 -> 권한 이름 목록 (공유하는 읽기 전용 목록)
+    private final List<List<String>> namesByMask;
+    private final int allRoles;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private TokenVerifier(Builder builder) {
+        this.keySource = builder.keySource;
+        this.allowedClockSkewMillis = builder.allowedClockSkewSeconds * 1000;
+        this.maxTokenLength = builder.maxTokenLength;
+        this.clock = builder.clock;
+
+        int count = builder.roles.size();
+        if (count > 30) {
+            throw new IllegalArgumentException("역할은 30개까지만 지원합니다.");
+        }
+        this.roleNames = new byte[count][];
+        this.roleStrings = new String[count];
+        for (int i = 0; i < count; i++) {
+            roleStrings[i] = builder.roles.get(i);
+            roleNames[i] = roleStrings[i].getBytes(StandardCharsets.UTF_8);
+        }
+        this.allRoles = (1 << count) - 1;
+        List<List<String>> byMask = new ArrayList<>(allRoles + 1);
+        for (int mask = 0; mask <= allRoles; mask++) {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    names.add(roleStrings[i]);
+                }
+            }
+            byMask.add(Collections.unmodifiableList(names));
+        }
+        this.namesByMask = byMask;
+    }
+
+    public static Builder builder(KeySource keySource) {
+        return new Builder(keySource);
+    }
+
+    // 토큰을 검증한다. 예외를 던지지 않고 결과의 상태로 알려준다.
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty() || token.length() > maxTokenLength) {
+            return VerifiedToken.MALFORMED;
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || token.indexOf('.', firstDot + 1) != lastDot) {
+            return VerifiedToken.MALFORMED;
+        }
+        Scratch s = scratch.get();
+        s.ensure(token.length());
+
+        // 헤더
+        int headerLength = decode(token, 0, firstDot, s.header);
+        if (headerLength < 0) {
+            return VerifiedToken.MALFORMED;
+        }
+        JsonScanner json = s.json;
+        json.reset(s.header, headerLength);
+        String kid = null;
+        byte[] algorithm = null;
+        int seen = 0;
+        try {
+            json.beginObject();
+            for (boolean first = true; json.nextField(first); first = false) {
+                if (json.stringIs(ALG)) {
+                    seen = once(seen, SEEN_ALG);
+                    json.readString();
+                    algorithm = json.rawStringEquals(HS256) ? HS256
+                            : json.rawStringEquals(ES256) ? ES256
+                            : json.rawStringEquals(NONE) ? NONE
+                            : CRIT;
+                } else if (json.stringIs(KID)) {
+                    seen = once(seen, SEEN_KID);
+                    kid = json.readStringOrNull();
+                } else if (json.stringIs(ZIP) || json.stringIs(CRIT)) {
+                    return VerifiedToken.UNSUPPORTED;
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endDocument();
+        } catch (JsonScanner.Malformed e) {
+            return VerifiedToken.MALFORMED;
+        }
+        if (algorithm == null) {
+            return VerifiedToken.MALFORMED;
+        }
+        if (algorithm == NONE) {
+            return VerifiedToken.UNSUPPORTED;
+        }
+
+        // 키, 서명
+        VerificationKey key = keySource.find(kid);
+        if (key == null) {
+            return VerifiedToken.UNKNOWN_KEY;
+        }
+        if (algorithm != (VerificationKey.HS256.equals(key.getAlgorithm()) ? HS256 : ES256)) {
+            return VerifiedToken.INVALID_SIGNATURE;
+        }
+        int signatureLength = decode(token, lastDot + 1, token.length(), s.signature);
+        if (signatureLength < 0) {
+            return VerifiedToken.MALFORMED;
+        }
+        byte[] input = s.input;
+        for (int i = 0; i < lastDot; i++) {
+            input[i] = (byte) token.charAt(i);
+        }
+        if (!key.verify(input, lastDot, s.signature, signatureLength, s.mac)) {
+            return VerifiedToken.INVALID_SIGNATURE;
+        }
+
+        // 페이로드
+        int payloadLength = decode(token, firstDot + 1, lastDot, s.payload);
+        if (payloadLength < 0) {
+            return VerifiedToken.MALFORMED;
+        }
+        json.reset(s.payload, payloadLength);
+        String subject = null;
+        String tokenId = null;
+        long expiresAt = -1;
+        long issuedAt = -1;
+        long notBefore = -1;
+        List<String> authorities = null;
+        int authMask = -1;
+        long roles = -1;
+        boolean hasRoles = false;
+        long authorityVersion = 0;
+        seen = 0;
+        try {
+            json.beginObject();
+            for (boolean first = true; json.nextField(first); first = false) {
+                if (json.stringIs(SUB)) {
+                    seen = once(seen, SEEN_SUB);
+                    subject = json.readStringOrNull();
+                } else if (json.stringIs(EXP)) {
+                    seen = once(seen, SEEN_EXP);
+                    expiresAt = json.readLong();
+                } else if (json.stringIs(IAT)) {
+                    seen = once(seen, SEEN_IAT);
+                    issuedAt = json.readLong();
+                } else if (json.stringIs(NBF)) {
+                    seen = once(seen, SEEN_NBF);
+                    notBefore = json.readLong();
+                } else if (json.stringIs(JTI)) {
+                    seen = once(seen, SEEN_JTI);
+                    tokenId = json.readStringOrNull();
+                } else if (json.stringIs(AUTHORITY_VERSION)) {
+                    seen = once(seen, SEEN_AUTHORITY_VERSION);
+                    authorityVersion = json.readLong();
+                } else if (json.stringIs(ROLES)) {
+                    seen = once(seen, SEEN_ROLES);
+                    roles = json.readLong();
+                    hasRoles = true;
+                } else if (json.stringIs(AUTH)) {
+                    seen = once(seen, SEEN_AUTH);
+                    // 역할이 아닌 권한이 하나라도 있으면 이름 목록을 만들고, 모두 역할이면 비트마스크만 센다.
+                    authorities = null;
+                    authMask = 0;
+                    json.beginArray();
+                    for (boolean firstElement = true; json.nextElement(firstElement); firstElement = false) {
+                        json.readString();
+                        int bit = roleBit(json);
+                        if (bit != 0 && authorities == null) {
+                            authMask |= bit;
+                            continue;
+                        }
+                        if (authorities == null) {
+                            authorities = new ArrayList<>(namesByMask.get(authMask));
+                            authMask = -1;
+                        }
+                        authorities.add(bit != 0 ? roleStrings[Integer.numberOfTrailingZeros(bit)] : json.decodeString());
+                    }
+                    if (authorities != null) {
+                        authorities = Collections.unmodifiableList(authorities);
+                    }
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endDocument();
+        } catch (JsonScanner.Malformed e) {
+            return VerifiedToken.MALFORMED;
+        }
+
+        // 역할 비트마스크(r)가 있으면 auth 보다 먼저 쓴다. 알 수 없는 비트는 무시한다.
+        int roleMask;
+        if (hasRoles) {
+            roleMask = (int) roles & allRoles;
+            authorities = namesByMask.get(roleMask);
+        } else if (authMask >= 0) {
+            roleMask = authMask;
+            authorities = namesByMask.get(roleMask);
+        } else {
+            roleMask = -1;
+        }
+
+        long now = clock.getAsLong();
+        if (notBefore >= 0 && now + allowedClockSkewMillis < notBefore * 1000) {
+            return VerifiedToken.PREMATURE;
+        }
+        VerifiedToken.Status status = expiresAt >= 0 && now - allowedClockSkewMillis > expiresAt * 1000
+                ? VerifiedToken.Status.EXPIRED
+                : VerifiedToken.Status.VALID;
+        return new VerifiedToken(status, subject, authorities, roleMask, authorityVersion,
+                expiresAt, issuedAt, tokenId, kid);
+    }
+
+    // 같은 키가 두 번 나오면(이스케이프로 쓴 같은 키 포함) 형식 오류
+    private static int once(int seen, int field) {
+        if ((seen & field) != 0) {
+            throw JsonScanner.Malformed.INSTANCE;
+        }
+        return seen | field;
+    }
+
+    // 마지막으로 읽은 문자열이 역할 이름이면 그 비트, 아니면 0
+    private int roleBit(JsonScanner json) {
+        for (int i = 0; i < roleNames.length; i++) {
+            if (json.rawStringEquals(roleNames[i])) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    // token[from, to) 를 base64url(패딩 없음)로 디코딩해서 out 에 쓴다. 잘못되었으면 -1
+    // 마지막 글자의 남는 비트가 0 이 아니면(정규형이 아니면) 잘못된 것으로 본다.
+    private static int decode(String token, int from, int to, byte[] out) {
+        int length = to - from;
+        if (length % 4 == 1) {
+            return -1;
+        }
+        int written = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            if (++count == 4) {
+                out[written++] = (byte) (bits >> 16);
+                out[written++] = (byte) (bits >> 8);
+                out[written++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            if ((bits & 0xF) != 0) {
+                return -1;
+            }
+            out[written++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            if ((bits & 0x3) != 0) {
+                return -1;
+            }
+            out[written++] = (byte) (bits >> 10);
+            out[written++] = (byte) (bits >> 2);
+        }
+        return written;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // 스레드마다 재사용하는 버퍼, 가장 긴 토큰에 맞춰 늘어난다. (최대 maxTokenLength)
+    private static final class Scratch {
+        private final JsonScanner json = new JsonScanner();
+        private final byte[] mac = new byte[32];
+        private byte[] input = new byte[0];
+        private byte[] header = new byte[0];
+        private byte[] payload = new byte[0];
+        private byte[] signature = new byte[0];
+
+        void ensure(int tokenLength) {
+            if (input.length < tokenLength) {
+                int size = Math.max(tokenLength, 1024);
+                input = new byte[size];
+                // base64url 4글자 -> 3바이트
+                header = new byte[size * 3 / 4 + 3];
+                payload = new byte[size * 3 / 4 + 3];
+                signature = new byte[size * 3 / 4 + 3];
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final KeySource keySource;
+        private List<String> roles = Collections.emptyList();
+        private long allowedClockSkewSeconds;
+        private int maxTokenLength = DEFAULT_MAX_TOKEN_LENGTH;
+        private LongSupplier clock = System::currentTimeMillis;
+
+        private Builder(KeySource keySource) {
+            if (keySource == null) {
+                throw new IllegalArgumentException("keySource 는 null 일 수 없습니다.");
+            }
+            this.keySource = keySource;
+        }
+
+        // 역할 이름, 순서가 역할 비트(1 << index)이다. (r 클레임)
+        public Builder roles(List<String> roles) {
+            this.roles = new ArrayList<>(roles);
+            return this;
+        }
+
+        // exp, nbf 를 판단할 때 허용하는 서버 간 시계 차이
+        public Builder allowedClockSkewSeconds(long seconds) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException("allowedClockSkewSeconds 는 0 이상이어야 합니다.");
+            }
+            this.allowedClockSkewSeconds = seconds;
+            return this;
+        }
+
+        public Builder maxTokenLength(int maxTokenLength) {
+            this.maxTokenLength = maxTokenLength;
+            return this;
+        }
+
+        // 현재 시각 (epoch 밀리초)
+        public Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public TokenVerifier build() {
+            return new TokenVerifier(this);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.project1.verifier;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+
+// kid 하나의 검증 키 (HS256 비밀값 또는 ES256 P-256 공개 키)
+// Mac, Signature 는 스레드마다 한 번 init 해 두고 재사용해서 검증할 때마다 JCA 객체를 만들지 않는다.
+public final class VerificationKey {
+
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+
+    private static final int HS256_LENGTH = 32;
+    private static final int ES256_LENGTH = 64;
+
+    private final String kid;
+    private final String algorithm;
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<Signature> signatures;
+
+    private VerificationKey(String kid, String algorithm, ThreadLocal<Mac> macs, ThreadLocal<Signature> signatures) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.macs = macs;
+        this.signatures = signatures;
+    }
+
+    // kid 가 없는 토큰을 검증할 키는 kid 를 ""로 만든다.
+    public static VerificationKey hs256(String kid, byte[] secret) {
+        if (secret.length < HS256_LENGTH) {
+            throw new IllegalArgumentException("HS256 비밀값은 256bit 이상이어야 합니다. kid : " + kid);
+        }
+        return hs256(kid, new SecretKeySpec(secret, "HmacSHA256"));
+    }
+
+    public static VerificationKey hs256(String kid, SecretKey secretKey) {
+        ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(secretKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // 키가 맞지 않으면 검증할 때가 아니라 지금 실패시킨다.
+        macs.get();
+        return new VerificationKey(requireKid(kid), HS256, macs, null);
+    }
+
+    public static VerificationKey es256(String kid, PublicKey publicKey) {
+        if (!(publicKey instanceof ECPublicKey) || !isP256(((ECPublicKey) publicKey).getParams())) {
+            throw new IllegalArgumentException("ES256 키는 P-256 공개 키여야 합니다. kid : " + kid);
+        }
+        ThreadLocal<Signature> signatures = ThreadLocal.withInitial(() -> {
+            try {
+                // JWS 서명 형식(r || s)을 그대로 받는다. (DER 로 바꾸지 않는다)
+                Signature signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+                signature.initVerify(publicKey);
+                return signature;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        signatures.get();
+        return new VerificationKey(requireKid(kid), ES256, null, signatures);
+    }
+
+    // JWKS 의 x, y 좌표(base64url)로 만든다.
+    public static VerificationKey es256(String kid, String x, String y) {
+        try {
+            ECPoint point = new ECPoint(new BigInteger(1, Base64.getUrlDecoder().decode(x)),
+                    new BigInteger(1, Base64.getUrlDecoder().decode(y)));
+            PublicKey publicKey = KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, P256));
+            return es256(kid, publicKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("ES256 공개 키를 만들지 못했습니다. kid : " + kid, e);
+        }
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    // input[0, inputLength) 의 서명이 signature[0, signatureLength) 인지
+    boolean verify(byte[] input, int inputLength, byte[] signature, int signatureLength, byte[] scratch) {
+        if (macs != null) {
+            if (signatureLength != HS256_LENGTH) {
+                return false;
+            }
+            Mac mac = macs.get();
+            mac.update(input, 0, inputLength);
+            try {
+                mac.doFinal(scratch, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            // 비교에 걸린 시간으로 서명을 추측하지 못하게 끝까지 비교한다.
+            int diff = 0;
+            for (int i = 0; i < HS256_LENGTH; i++) {
+                diff |= scratch[i] ^ signature[i];
+            }
+            return diff == 0;
+        }
+        if (signatureLength != ES256_LENGTH) {
+            return false;
+        }
+        Signature verifier = signatures.get();
+        try {
+            verifier.update(input, 0, inputLength);
+            return verifier.verify(signature, 0, signatureLength);
+        } catch (GeneralSecurityException e) {
+            // 상태를 알 수 없으므로 이 스레드의 인스턴스를 버린다.
+            signatures.remove();
+            return false;
+        }
+    }
+
+    private static String requireKid(String kid) {
+        if (kid == null) {
+            throw new IllegalArgumentException("kid 는 null 일 수 없습니다. kid 없는 토큰용 키는 \"\"을 쓴다.");
+        }
+        return kid;
+    }
+
+    private static final ECParameterSpec P256 = p256();
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean isP256(ECParameterSpec params) {
+        return params.getCurve().equals(P256.getCurve()) && params.getOrder().equals(P256.getOrder());
+    }
+}
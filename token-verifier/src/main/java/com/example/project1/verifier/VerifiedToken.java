@@ -0,0 +1,124 @@
+package com.example.project1.verifier;
+
+import java.util.List;
+
+// 토큰 검증 결과 (불변)
+// 통과하지 못한 토큰은 상태만 담은 공유 인스턴스를 돌려주므로 검증에 실패해도 새 객체를 만들지 않는다.
+// 만료(EXPIRED)는 서명을 확인한 뒤에 판단하므로 클레임을 그대로 담는다. (만료된 토큰으로 재발급할 회원을 찾을 때 쓴다)
+public final class VerifiedToken {
+
+    public enum Status {
+        VALID,
+        // 서명은 맞지만 exp 가 지났다.
+        EXPIRED,
+        // 서명은 맞지만 nbf 전이다.
+        PREMATURE,
+        // 토큰 형식, base64url, JSON, 클레임 타입이 잘못되었다.
+        MALFORMED,
+        // 서명이 틀렸거나 헤더의 alg 가 키의 알고리즘과 다르다.
+        INVALID_SIGNATURE,
+        // 헤더의 kid 에 해당하는 키가 없다.
+        UNKNOWN_KEY,
+        // alg none, 압축(zip), crit 헤더 등 지원하지 않는 토큰
+        UNSUPPORTED
+    }
+
+    static final VerifiedToken MALFORMED = new VerifiedToken(Status.MALFORMED);
+    static final VerifiedToken INVALID_SIGNATURE = new VerifiedToken(Status.INVALID_SIGNATURE);
+    static final VerifiedToken UNKNOWN_KEY = new VerifiedToken(Status.UNKNOWN_KEY);
+    static final VerifiedToken UNSUPPORTED = new VerifiedToken(Status.UNSUPPORTED);
+    static final VerifiedToken PREMATURE = new VerifiedToken(Status.PREMATURE);
+
+    private final Status status;
+    private final String subject;
+    private final List<String> authorities;
+    private final int roleMask;
+    private final long expiresAt;
+    private final long issuedAt;
+    private final String tokenId;
+    private final String keyId;
+
+    private final long authorityVersion;
+
+    private VerifiedToken(Status status) {
+        this(status, null, null, -1, 0, -1, -1, null, null);
+    }
+
+    VerifiedToken(Status status, String subject, List<String> authorities, int roleMask, long authorityVersion,
+                  long expiresAt, long issuedAt, String tokenId, String keyId) {
+        this.status = status;
+        this.subject = subject;
+        this.authorities = authorities;
+        this.roleMask = roleMask;
+        this.authorityVersion = authorityVersion;
+        this.expiresAt = expiresAt;
+        this.issuedAt = issuedAt;
+        this.tokenId = tokenId;
+        this.keyId = keyId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    // 클레임을 믿어도 되는지 (서명이 맞는지), 만료된 토큰도 true
+    public boolean isSigned() {
+        return status == Status.VALID || status == Status.EXPIRED;
+    }
+
+    // sub 클레임, 없으면 null
+    public String getSubject() {
+        return subject;
+    }
+
+    // 권한 이름 목록 (읽기 전용), 권한 클레임(auth, r)이 없으면 null
+    // 모두 역할이면 역할 조합마다 미리 만든 목록을 공유한다.
+    public List<String> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasAuthorities() {
+        return authorities != null;
+    }
+
+    // 권한이 모두 역할이면 역할 비트마스크 (TokenVerifier.Builder#roles 순서), 아니면 -1
+    public int getRoleMask() {
+        return roleMask;
+    }
+
+    // av : 발급할 때 회원의 권한 버전, 없으면 0 (권한이 바뀐 적 없는 회원)
+    public long getAuthorityVersion() {
+        return authorityVersion;
+    }
+
+    // exp (epoch 초), 없으면 -1
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    // iat (epoch 초), 없으면 -1
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    // jti, 없으면 null (리프레시 토큰에만 있다)
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    // 헤더의 kid, 없으면 null
+    public String getKeyId() {
+        return keyId;
+    }
+
+    @Override
+    public String toString() {
+        // 회원 정보(sub)는 로그에 남지 않게 뺀다.
+        return "VerifiedToken{status=" + status + ", authorities=" + authorities
+                + ", expiresAt=" + expiresAt + ", keyId=" + keyId + "}";
+    }
+}
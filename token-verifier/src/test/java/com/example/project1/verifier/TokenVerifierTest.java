@@ -0,0 +1,287 @@
+package com.example.project1.verifier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenVerifierTest {
+
+    private static final byte[] SECRET = "test-only-secret-key-for-hs256-signing!!".getBytes(StandardCharsets.UTF_8);
+    // 2030-01-01T00:00:00Z
+    private static final long NOW_SECONDS = 1893456000L;
+    private static final String PAYLOAD = "{\"sub\":\"user@test.com\",\"r\":1,\"exp\":" + (NOW_SECONDS + 600) + "}";
+
+    private static final KeyPair EC_KEYS = ecKeyPair();
+
+    private final TokenVerifier verifier = verifier(KeySource.of(
+            VerificationKey.hs256("hs", SECRET),
+            VerificationKey.es256("es", EC_KEYS.getPublic())), 0);
+
+    @Test
+    @DisplayName("HS256, ES256 으로 서명한 토큰은 통과한다")
+    void validTokens() {
+        VerifiedToken hs = verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", PAYLOAD));
+        VerifiedToken es = verifier.verify(es256("{\"alg\":\"ES256\",\"kid\":\"es\"}", PAYLOAD));
+
+        assertEquals(VerifiedToken.Status.VALID, hs.getStatus());
+        assertEquals("user@test.com", hs.getSubject());
+        assertEquals(Arrays.asList("ROLE_USER"), hs.getAuthorities());
+        assertEquals(VerifiedToken.Status.VALID, es.getStatus());
+        assertEquals("es", es.getKeyId());
+    }
+
+    @Test
+    @DisplayName("alg none 은 서명이 없어도 있어도 받지 않는다")
+    void algNone() {
+        String header = encode("{\"alg\":\"none\",\"kid\":\"hs\"}");
+        String payload = encode(PAYLOAD);
+
+        assertEquals(VerifiedToken.Status.UNSUPPORTED, verifier.verify(header + "." + payload + ".").getStatus());
+        assertEquals(VerifiedToken.Status.UNSUPPORTED,
+                verifier.verify(hs256("{\"alg\":\"none\",\"kid\":\"hs\"}", PAYLOAD)).getStatus());
+    }
+
+    @Test
+    @DisplayName("키의 알고리즘과 다른 alg 는 거절한다 (ES256 키에 HS256 헤더, 그 반대, 모르는 alg)")
+    void algorithmKeyMismatch() {
+        // 공개 키를 HMAC 비밀값으로 쓴 토큰
+        String confused = sign("{\"alg\":\"HS256\",\"kid\":\"es\"}", PAYLOAD, EC_KEYS.getPublic().getEncoded());
+        assertEquals(VerifiedToken.Status.INVALID_SIGNATURE, verifier.verify(confused).getStatus());
+        assertEquals(VerifiedToken.Status.INVALID_SIGNATURE,
+                verifier.verify(es256("{\"alg\":\"ES256\",\"kid\":\"hs\"}", PAYLOAD)).getStatus());
+        assertEquals(VerifiedToken.Status.INVALID_SIGNATURE,
+                verifier.verify(hs256("{\"alg\":\"HS512\",\"kid\":\"hs\"}", PAYLOAD)).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED,
+                verifier.verify(hs256("{\"kid\":\"hs\"}", PAYLOAD)).getStatus());
+    }
+
+    @Test
+    @DisplayName("모르는 kid, kid 가 없는데 기본 키도 없으면 UNKNOWN_KEY")
+    void unknownKid() {
+        assertEquals(VerifiedToken.Status.UNKNOWN_KEY,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"other\"}", PAYLOAD)).getStatus());
+        assertEquals(VerifiedToken.Status.UNKNOWN_KEY,
+                verifier.verify(hs256("{\"alg\":\"HS256\"}", PAYLOAD)).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":1}", PAYLOAD)).getStatus());
+    }
+
+    @Test
+    @DisplayName("서명을 바꾸거나 다른 키로 서명한 토큰은 INVALID_SIGNATURE")
+    void tamperedSignature() {
+        String token = hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", PAYLOAD);
+        String otherKey = sign("{\"alg\":\"HS256\",\"kid\":\"hs\"}", PAYLOAD,
+                "another-secret-key-for-hs256-signing!!!!".getBytes(StandardCharsets.UTF_8));
+        String forged = token.substring(0, token.indexOf('.') + 1) + encode(PAYLOAD.replace("\"r\":1", "\"r\":2"))
+                + token.substring(token.lastIndexOf('.'));
+
+        assertEquals(VerifiedToken.Status.INVALID_SIGNATURE, verifier.verify(otherKey).getStatus());
+        assertEquals(VerifiedToken.Status.INVALID_SIGNATURE, verifier.verify(forged).getStatus());
+        // 길이가 맞지 않는 서명
+        assertEquals(VerifiedToken.Status.INVALID_SIGNATURE,
+                verifier.verify(token.substring(0, token.lastIndexOf('.') + 1) + encode(new byte[16])).getStatus());
+    }
+
+    @Test
+    @DisplayName("zip, crit 헤더가 있는 토큰은 받지 않는다")
+    void zipAndCrit() {
+        assertEquals(VerifiedToken.Status.UNSUPPORTED,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\",\"zip\":\"DEF\"}", PAYLOAD)).getStatus());
+        assertEquals(VerifiedToken.Status.UNSUPPORTED,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\",\"crit\":[\"exp\"]}", PAYLOAD)).getStatus());
+        // 이스케이프로 쓴 crit 도 같다.
+        assertEquals(VerifiedToken.Status.UNSUPPORTED,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\",\"cr\\u0069t\":[\"x\"]}", PAYLOAD)).getStatus());
+    }
+
+    @Test
+    @DisplayName("exp, nbf 는 허용한 시계 차이만큼 넘어가도 받는다")
+    void expiryAndNotBeforeWithClockSkew() {
+        String expired = hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"a\",\"r\":1,\"exp\":" + (NOW_SECONDS - 30) + "}");
+        String premature = hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"a\",\"r\":1,\"nbf\":" + (NOW_SECONDS + 30) + ",\"exp\":" + (NOW_SECONDS + 600) + "}");
+        TokenVerifier strict = verifier(KeySource.of(VerificationKey.hs256("hs", SECRET)), 0);
+        TokenVerifier skewed = verifier(KeySource.of(VerificationKey.hs256("hs", SECRET)), 60);
+
+        VerifiedToken expiredStrict = strict.verify(expired);
+        assertEquals(VerifiedToken.Status.EXPIRED, expiredStrict.getStatus());
+        // 만료된 토큰도 서명은 확인했으므로 클레임을 담는다.
+        assertTrue(expiredStrict.isSigned());
+        assertEquals("a", expiredStrict.getSubject());
+        assertEquals(VerifiedToken.Status.PREMATURE, strict.verify(premature).getStatus());
+        assertEquals(VerifiedToken.Status.VALID, skewed.verify(expired).getStatus());
+        assertEquals(VerifiedToken.Status.VALID, skewed.verify(premature).getStatus());
+
+        // 시계 차이보다 더 지나면 만료
+        String longExpired = hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"a\",\"r\":1,\"exp\":" + (NOW_SECONDS - 61) + "}");
+        assertEquals(VerifiedToken.Status.EXPIRED, skewed.verify(longExpired).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED, strict.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"a\",\"exp\":\"soon\"}")).getStatus());
+    }
+
+    @Test
+    @DisplayName("형식이 잘못된 토큰, base64url 이 아닌 문자는 MALFORMED")
+    void malformed() {
+        String token = hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", PAYLOAD);
+        String[] parts = token.split("\\.");
+
+        for (String bad : new String[]{null, "", ".", "..", "a.b", "a.b.c.d", parts[0] + "." + parts[1],
+                "." + parts[1] + "." + parts[2],
+                parts[0] + "=." + parts[1] + "." + parts[2],
+                parts[0] + "+." + parts[1] + "." + parts[2],
+                parts[0] + "." + parts[1] + "." + parts[2].replace('-', '+').replace('_', '/') + "/",
+                parts[0] + "é." + parts[1] + "." + parts[2],
+                // 길이 % 4 == 1 은 base64 로 나올 수 없다.
+                "QUJDR." + parts[1] + "." + parts[2],
+                encode("{\"alg\":\"HS256\",\"kid\":\"hs\"") + "." + parts[1] + "." + parts[2],
+                encode("[]") + "." + parts[1] + "." + parts[2]}) {
+            assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(bad).getStatus(), String.valueOf(bad));
+        }
+        assertEquals(VerifiedToken.Status.MALFORMED,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", "{\"sub\":\"a\"} x")).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", "{\"sub\":\"a\",}")).getStatus());
+    }
+
+    @Test
+    @DisplayName("남는 비트가 0 이 아닌(정규형이 아닌) base64url 은 같은 바이트로 디코딩되어도 거절한다")
+    void nonCanonicalBase64() {
+        String token = hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", PAYLOAD);
+        int lastDot = token.lastIndexOf('.');
+        String signature = token.substring(lastDot + 1);
+        // HS256 서명(32바이트)은 43자이고 마지막 글자의 아래 2비트는 쓰지 않는다.
+        assertEquals(43, signature.length());
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        int last = alphabet.indexOf(signature.charAt(42));
+        String variant = token.substring(0, token.length() - 1) + alphabet.charAt(last ^ 1);
+
+        assertTrue(Arrays.equals(Base64.getUrlDecoder().decode(signature), Base64.getUrlDecoder().decode(variant.substring(lastDot + 1))));
+        assertEquals(VerifiedToken.Status.VALID, verifier.verify(token).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(variant).getStatus());
+    }
+
+    @Test
+    @DisplayName("헤더, 페이로드에 같은 키가 두 번 나오면(이스케이프로 쓴 키 포함) MALFORMED")
+    void duplicateAndEscapedKeys() {
+        assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(
+                hs256("{\"alg\":\"HS256\",\"kid\":\"hs\",\"alg\":\"none\"}", PAYLOAD)).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(
+                hs256("{\"alg\":\"HS256\",\"kid\":\"hs\",\"kid\":\"es\"}", PAYLOAD)).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"user@test.com\",\"r\":1,\"r\":2}")).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"user@test.com\",\"s\\u0075b\":\"admin@test.com\"}")).getStatus());
+        assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"a\",\"auth\":[\"ROLE_USER\"],\"\\u0061uth\":[\"ROLE_ADMIN\"]}")).getStatus());
+
+        // 중복이 아닌 이스케이프 키, 이스케이프한 값은 풀어서 읽는다.
+        VerifiedToken escaped = verifier.verify(hs256("{\"\\u0061lg\":\"HS256\",\"kid\":\"h\\u0073\"}",
+                "{\"s\\u0075b\":\"user\\u0040test.com\",\"auth\":[\"ROLE_\\u0041DMIN\"]}"));
+        assertEquals(VerifiedToken.Status.VALID, escaped.getStatus());
+        assertEquals("user@test.com", escaped.getSubject());
+        assertEquals(Arrays.asList("ROLE_ADMIN"), escaped.getAuthorities());
+        // 모르는 키는 중복되어도 건너뛴다.
+        assertEquals(VerifiedToken.Status.VALID, verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}",
+                "{\"sub\":\"a\",\"x\":1,\"x\":2}")).getStatus());
+    }
+
+    @Test
+    @DisplayName("maxTokenLength 보다 긴 토큰은 디코딩하지 않는다")
+    void oversizedToken() {
+        String padding = "{\"sub\":\"a\",\"r\":1,\"pad\":\"" + repeat('x', TokenVerifier.DEFAULT_MAX_TOKEN_LENGTH) + "\"}";
+        String oversized = hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", padding);
+        assertTrue(oversized.length() > TokenVerifier.DEFAULT_MAX_TOKEN_LENGTH);
+        assertEquals(VerifiedToken.Status.MALFORMED, verifier.verify(oversized).getStatus());
+
+        TokenVerifier small = TokenVerifier.builder(KeySource.of(VerificationKey.hs256("hs", SECRET)))
+                .maxTokenLength(64)
+                .clock(() -> NOW_SECONDS * 1000)
+                .build();
+        assertEquals(VerifiedToken.Status.MALFORMED,
+                small.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", PAYLOAD)).getStatus());
+    }
+
+    @Test
+    @DisplayName("깊게 중첩된 값도 스택을 넘치지 않고 MALFORMED")
+    void deeplyNested() {
+        String nested = "{\"sub\":\"a\",\"x\":" + repeat('[', 5000) + repeat(']', 5000) + "}";
+        assertEquals(VerifiedToken.Status.MALFORMED,
+                verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", nested)).getStatus());
+        assertNull(verifier.verify(hs256("{\"alg\":\"HS256\",\"kid\":\"hs\"}", nested)).getSubject());
+    }
+
+    private static TokenVerifier verifier(KeySource keySource, long skewSeconds) {
+        return TokenVerifier.builder(keySource)
+                .roles(Arrays.asList("ROLE_USER", "ROLE_ADMIN"))
+                .allowedClockSkewSeconds(skewSeconds)
+                .clock(() -> NOW_SECONDS * 1000)
+                .build();
+    }
+
+    private static String hs256(String header, String payload) {
+        return sign(header, payload, SECRET);
+    }
+
+    private static String sign(String header, String payload, byte[] secret) {
+        String input = encode(header) + "." + encode(payload);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return input + "." + encode(mac.doFinal(input.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String es256(String header, String payload) {
+        String input = encode(header) + "." + encode(payload);
+        try {
+            Signature signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+            signature.initSign(EC_KEYS.getPrivate());
+            signature.update(input.getBytes(StandardCharsets.US_ASCII));
+            return input + "." + encode(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static KeyPair ecKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return encode(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(byte[] value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+
+    private static String repeat(char c, int n) {
+        char[] chars = new char[n];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}